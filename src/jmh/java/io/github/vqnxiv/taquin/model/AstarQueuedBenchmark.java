@@ -0,0 +1,42 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import org.openjdk.jmh.annotations.Param;
+
+
+/**
+ * Benchmarks of the structures which can hold the queued states of A*, which requires a sorted or sortable structure.
+ */
+public class AstarQueuedBenchmark extends StructureTraceBenchmark {
+
+    /**
+     * The simple name of the benchmarked structure class.
+     */
+    @Param({"JArrayList", "JLinkedList", "JPriorityQueue", "GapBufferList", "MinMaxHeap"})
+    private String structure;
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String structureName() {
+        return structure;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected SearchTrace.Workload workload() {
+        return SearchTrace.Workload.ASTAR;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean queued() {
+        return true;
+    }
+}
@@ -0,0 +1,105 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import java.util.SplittableRandom;
+
+
+/**
+ * Utility class which creates the grids used by the benchmarks.
+ * <p>
+ * Grids are scrambled by a seeded random walk of the blank tile from the goal grid,
+ * so that they are always solvable and the same from one run to another.
+ */
+public final class BenchmarkGrids {
+
+    /**
+     * Row offset of each move of the blank tile.
+     */
+    private static final int[] ROW_MOVES = {0, 0, -1, 1};
+
+    /**
+     * Column offset of each move of the blank tile.
+     */
+    private static final int[] COLUMN_MOVES = {-1, 1, 0, 0};
+
+
+    /**
+     * Private constructor.
+     */
+    private BenchmarkGrids() {}
+
+
+    /**
+     * Creates the cells of the goal grid of a given size.
+     *
+     * @param size The width and height of the grid.
+     * @return The cells in ascending order, with the blank tile last.
+     */
+    public static int[][] goalCells(int size) {
+        var t = new int[size][size];
+
+        for(int i = 0; i < size * size - 1; i++) {
+            t[i / size][i % size] = i + 1;
+        }
+
+        return t;
+    }
+
+    /**
+     * Creates the goal grid of a given size.
+     *
+     * @param size The width and height of the grid.
+     * @return The grid with the cells in ascending order and the blank tile last.
+     */
+    public static Grid goal(int size) {
+        return Grid.of(goalCells(size)).orElseThrow();
+    }
+
+    /**
+     * Creates the cells of a scrambled grid.
+     *
+     * @param size The width and height of the grid.
+     * @param moves The number of random moves from the goal grid.
+     * @param seed The seed of the random walk.
+     * @return The cells of the scrambled grid.
+     */
+    public static int[][] scrambledCells(int size, int moves, long seed) {
+        var t = goalCells(size);
+        var random = new SplittableRandom(seed);
+        int row = size - 1;
+        int col = size - 1;
+        int last = -1;
+
+        for(int i = 0; i < moves; i++) {
+            int m = random.nextInt(ROW_MOVES.length);
+            int r = row + ROW_MOVES[m];
+            int c = col + COLUMN_MOVES[m];
+
+            // out of bounds or undoes the previous move
+            if(r < 0 || r >= size || c < 0 || c >= size || (last >= 0 && (m ^ 1) == last)) {
+                i--;
+                continue;
+            }
+
+            t[row][col] = t[r][c];
+            t[r][c] = 0;
+            row = r;
+            col = c;
+            last = m;
+        }
+
+        return t;
+    }
+
+    /**
+     * Creates a scrambled grid.
+     *
+     * @param size The width and height of the grid.
+     * @param moves The number of random moves from the goal grid.
+     * @param seed The seed of the random walk.
+     * @return The scrambled grid.
+     */
+    public static Grid scrambled(int size, int moves, long seed) {
+        return Grid.of(scrambledCells(size, moves, seed)).orElseThrow();
+    }
+}
@@ -0,0 +1,42 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import org.openjdk.jmh.annotations.Param;
+
+
+/**
+ * Benchmarks of the structures which can hold the queued states of a breadth first search.
+ */
+public class BreadthFirstQueuedBenchmark extends StructureTraceBenchmark {
+
+    /**
+     * The simple name of the benchmarked structure class.
+     */
+    @Param({"JArrayDeque", "JArrayList", "JLinkedHashSet", "JLinkedList", "JPriorityQueue", "GapBufferList", "LinkedHashDeque", "MinMaxHeap"})
+    private String structure;
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String structureName() {
+        return structure;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected SearchTrace.Workload workload() {
+        return SearchTrace.Workload.BFS;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean queued() {
+        return true;
+    }
+}
@@ -0,0 +1,91 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks of each {@link Grid.Distance}, computed either from scratch or incrementally
+ * from the distance cached by the parent grid.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class DistanceBenchmark {
+
+    /**
+     * Enum which represents how the distance is computed.
+     */
+    public enum Path {
+        /**
+         * The parent grid has no cached distance, so the distance is computed from scratch.
+         */
+        FULL,
+        /**
+         * The parent grid has a cached distance, so the distance is computed from it.
+         */
+        INCREMENTAL
+    }
+
+
+    /**
+     * The width and height of the grids.
+     */
+    @Param({"3", "4", "5"})
+    private int size;
+
+    /**
+     * The distance to compute.
+     */
+    @Param({"MANHATTAN", "HAMMING", "EUCLIDEAN", "LINEAR_MANHATTAN"})
+    private Grid.Distance distance;
+
+    /**
+     * How the distance is computed.
+     */
+    @Param({"FULL", "INCREMENTAL"})
+    private Path path;
+
+    /**
+     * The goal grid.
+     */
+    private Grid goal;
+
+    /**
+     * A neighbor of a scrambled grid, whose distance to {@link #goal} is computed.
+     */
+    private Grid child;
+
+
+    /**
+     * Creates the grids, and caches the distance of the parent of {@link #child}
+     * if {@link #path} is {@link Path#INCREMENTAL}.
+     */
+    @Setup
+    public void setup() {
+        goal = BenchmarkGrids.goal(size);
+        
+        var parent = BenchmarkGrids.scrambled(size, 200, 1L);
+        if(path == Path.INCREMENTAL) {
+            parent.distanceTo(goal, distance);
+        }
+        
+        child = parent.generateNeighbors().iterator().next();
+    }
+
+
+    /**
+     * Benchmark for {@link Grid#distanceTo(Grid, Grid.Distance)}.
+     *
+     * @return The distance from {@link #child} to {@link #goal}.
+     */
+    @Benchmark
+    public float distanceTo() {
+        return child.distanceTo(goal, distance);
+    }
+}
@@ -0,0 +1,49 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import org.openjdk.jmh.annotations.Param;
+
+
+/**
+ * Benchmarks of the structures which can hold the explored states, which are only
+ * added and looked up.
+ */
+public class ExploredBenchmark extends StructureTraceBenchmark {
+
+    /**
+     * The simple name of the benchmarked structure class.
+     */
+    @Param({"JArrayDeque", "JArrayList", "JLinkedHashSet", "JLinkedList", "JPriorityQueue", "GapBufferList", "LinkedHashDeque", "MinMaxHeap"})
+    private String structure;
+
+    /**
+     * The search whose trace is replayed.
+     */
+    @Param({"BFS", "ASTAR"})
+    private SearchTrace.Workload workload;
+
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected String structureName() {
+        return structure;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected SearchTrace.Workload workload() {
+        return workload;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean queued() {
+        return false;
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Benchmarks of the basic {@link Grid} operations: {@link Grid#generateNeighbors()},
+ * {@link Grid#equals(Object)}, {@link Grid#hashCode()} and {@link Grid#compareTo(Grid)}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+public class GridBenchmark {
+
+    /**
+     * The width and height of the grids.
+     */
+    @Param({"3", "4", "5"})
+    private int size;
+
+    /**
+     * A scrambled grid.
+     */
+    private Grid grid;
+
+    /**
+     * Another grid with the same cells as {@link #grid}.
+     */
+    private Grid same;
+
+    /**
+     * A grid with other cells than {@link #grid}.
+     */
+    private Grid other;
+
+
+    /**
+     * Creates the grids.
+     */
+    @Setup
+    public void setup() {
+        grid = BenchmarkGrids.scrambled(size, 200, 1L);
+        same = BenchmarkGrids.scrambled(size, 200, 1L);
+        other = BenchmarkGrids.scrambled(size, 200, 2L);
+    }
+
+
+    /**
+     * Benchmark for {@link Grid#generateNeighbors()}.
+     *
+     * @return The neighbors of {@link #grid}.
+     */
+    @Benchmark
+    public Set<Grid> generateNeighbors() {
+        return grid.generateNeighbors();
+    }
+
+    /**
+     * Benchmark for {@link Grid#equals(Object)} on two grids with the same cells.
+     *
+     * @return {@code true}.
+     */
+    @Benchmark
+    public boolean equalsSame() {
+        return grid.equals(same);
+    }
+
+    /**
+     * Benchmark for {@link Grid#equals(Object)} on two grids with different cells.
+     *
+     * @return {@code false}.
+     */
+    @Benchmark
+    public boolean equalsOther() {
+        return grid.equals(other);
+    }
+
+    /**
+     * Benchmark for {@link Grid#hashCode()}.
+     *
+     * @return The hash code of {@link #grid}.
+     */
+    @Benchmark
+    public int hashCodeOf() {
+        return grid.hashCode();
+    }
+
+    /**
+     * Benchmark for {@link Grid#compareTo(Grid)}.
+     *
+     * @return The comparison of {@link #grid} and {@link #other}.
+     */
+    @Benchmark
+    public int compareTo() {
+        return grid.compareTo(other);
+    }
+}
@@ -0,0 +1,323 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import io.github.vqnxiv.taquin.model.search.Astar;
+import io.github.vqnxiv.taquin.model.structure.Sortable;
+import io.github.vqnxiv.taquin.model.structure.Sorted;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.*;
+
+
+/**
+ * The operations done on the queued and explored structures by a few steps of a search,
+ * recorded once the queue of the search reached a given size.
+ * <p>
+ * The search is run on reference java collections and follows what the {@link Search} subclasses
+ * and {@link SearchSpace#getNewNeighbors(boolean, boolean, boolean)} do with their default
+ * parameters (explored and queued states are filtered out, existing neighbors are not linked).
+ * The recorded operations can then be replayed on any {@link DataStructure}, which is first
+ * filled with the queued or explored states from when the recording started.
+ */
+public final class SearchTrace {
+
+    /**
+     * Enum which represents the search whose operations are recorded.
+     */
+    public enum Workload {
+        /**
+         * Breadth first search: polls the first queued state.
+         */
+        BFS,
+        /**
+         * Depth first search: polls the last queued state.
+         */
+        DFS,
+        /**
+         * A* with the linear manhattan distance: polls the most promising queued state,
+         * and merges the new states into the sorted queue.
+         */
+        ASTAR
+    }
+
+    /**
+     * Enum which represents the type of a recorded operation.
+     */
+    private enum Op {
+        /**
+         * {@link DataStructure#add(Object)}.
+         */
+        ADD,
+        /**
+         * {@link DataStructure#addAll(Collection)}, or {@link Sortable#mergeSorted(Collection, Comparator)}
+         * for {@link Workload#ASTAR}.
+         */
+        ADD_ALL,
+        /**
+         * {@link DataStructure#dsPollFirst()}.
+         */
+        POLL_FIRST,
+        /**
+         * {@link DataStructure#dsPollLast()}.
+         */
+        POLL_LAST,
+        /**
+         * {@link DataStructure#contains(Object)}.
+         */
+        CONTAINS,
+        /**
+         * {@link DataStructure#dsIndexOf(Object)}, which is called once at the end of a search run.
+         */
+        INDEX_OF
+    }
+
+    /**
+     * A recorded operation.
+     *
+     * @param op The type of the operation.
+     * @param grid The grid it was called with, or {@code null}.
+     * @param grids The grids it was called with for {@link Op#ADD_ALL}, or {@code null}.
+     */
+    private record Operation(Op op, Grid grid, List<Grid> grids) {}
+
+
+    /**
+     * The width and height of the grids.
+     */
+    private static final int GRID_SIZE = 5;
+
+    /**
+     * The number of random moves from the goal to the start grid, which is far enough
+     * for none of the workloads to reach the goal while they are recorded.
+     */
+    private static final int SCRAMBLE_MOVES = 400;
+
+    /**
+     * The recorded search.
+     */
+    private final Workload workload;
+
+    /**
+     * The comparator of the queue for {@link Workload#ASTAR}, {@code null} otherwise.
+     */
+    private final Comparator<Grid> comparator;
+
+    /**
+     * The queued states when the recording started, in the order they were queued in.
+     */
+    private final List<Grid> queued;
+
+    /**
+     * The explored states when the recording started, in the order they were explored in.
+     */
+    private final List<Grid> explored;
+
+    /**
+     * The operations on the queued states.
+     */
+    private final List<Operation> queuedOps;
+
+    /**
+     * The operations on the explored states.
+     */
+    private final List<Operation> exploredOps;
+
+
+    /**
+     * Constructor.
+     *
+     * @param workload The value for {@link #workload}.
+     * @param comparator The value for {@link #comparator}.
+     * @param queued The value for {@link #queued}.
+     * @param explored The value for {@link #explored}.
+     * @param queuedOps The value for {@link #queuedOps}.
+     * @param exploredOps The value for {@link #exploredOps}.
+     */
+    private SearchTrace(
+        Workload workload, Comparator<Grid> comparator, List<Grid> queued, List<Grid> explored,
+        List<Operation> queuedOps, List<Operation> exploredOps
+    ) {
+        this.workload = workload;
+        this.comparator = comparator;
+        this.queued = queued;
+        this.explored = explored;
+        this.queuedOps = queuedOps;
+        this.exploredOps = exploredOps;
+    }
+
+
+    /**
+     * Runs a search until its queue contains {@code size} states, then records
+     * the operations of its next {@code steps} steps.
+     *
+     * @param workload The search to run.
+     * @param size The number of queued states when the recording starts.
+     * @param steps The number of recorded steps.
+     * @param seed The seed of the start grid.
+     * @return The recorded trace.
+     */
+    public static SearchTrace record(Workload workload, int size, int steps, long seed) {
+        var goal = BenchmarkGrids.goal(GRID_SIZE);
+        var start = BenchmarkGrids.scrambled(GRID_SIZE, SCRAMBLE_MOVES, seed);
+
+        Comparator<Grid> comparator = null;
+        Deque<Grid> deque = null;
+        PriorityQueue<Grid> heap = null;
+
+        if(workload == Workload.ASTAR) {
+            Search.Builder<?> b = new Astar.Builder();
+            comparator = b.build().getHeuristicComparator();
+            heap = new PriorityQueue<>(comparator);
+            heuristic(start, goal);
+            heap.add(start);
+        }
+        else {
+            deque = new ArrayDeque<>();
+            deque.add(start);
+        }
+
+        // lookups and insertion order
+        var queuedSet = new LinkedHashSet<Grid>();
+        var exploredSet = new LinkedHashSet<Grid>();
+        queuedSet.add(start);
+
+        List<Operation> queuedOps = null;
+        List<Operation> exploredOps = null;
+        List<Grid> initialQueued = null;
+        List<Grid> initialExplored = null;
+        int recorded = 0;
+
+        while(recorded < steps) {
+            if(queuedOps == null && queuedSet.size() >= size) {
+                initialQueued = (heap != null) ? new ArrayList<>(queuedSet) : new ArrayList<>(deque);
+                initialExplored = new ArrayList<>(exploredSet);
+                queuedOps = new ArrayList<>();
+                exploredOps = new ArrayList<>();
+            }
+            if(queuedSet.isEmpty()) {
+                throw new IllegalStateException("Search ended before its queue reached " + size + " states");
+            }
+
+            Grid current;
+            if(heap != null) {
+                current = heap.poll();
+            }
+            else if(workload == Workload.BFS) {
+                current = deque.pollFirst();
+            }
+            else {
+                current = deque.pollLast();
+            }
+            queuedSet.remove(current);
+            exploredSet.add(current);
+
+            if(queuedOps != null) {
+                queuedOps.add(new Operation((workload == Workload.DFS) ? Op.POLL_LAST : Op.POLL_FIRST, null, null));
+                exploredOps.add(new Operation(Op.ADD, current, null));
+            }
+
+            var toAdd = new ArrayList<Grid>();
+            for(var g : current.generateNeighbors()) {
+                if(queuedOps != null) {
+                    exploredOps.add(new Operation(Op.CONTAINS, g, null));
+                }
+                if(exploredSet.contains(g)) {
+                    continue;
+                }
+
+                if(queuedOps != null) {
+                    queuedOps.add(new Operation(Op.CONTAINS, g, null));
+                }
+                if(!queuedSet.contains(g)) {
+                    toAdd.add(g);
+                }
+            }
+
+            if(heap != null) {
+                for(var g : toAdd) {
+                    heuristic(g, goal);
+                }
+                heap.addAll(toAdd);
+            }
+            else {
+                deque.addAll(toAdd);
+            }
+            queuedSet.addAll(toAdd);
+
+            if(queuedOps != null) {
+                if(!toAdd.isEmpty()) {
+                    queuedOps.add(new Operation(Op.ADD_ALL, null, toAdd));
+                }
+                recorded++;
+            }
+        }
+
+        // checkIfEndWasQueued() at the end of the run
+        queuedOps.add(new Operation(Op.INDEX_OF, goal, null));
+
+        return new SearchTrace(workload, comparator, initialQueued, initialExplored, queuedOps, exploredOps);
+    }
+
+    /**
+     * Computes the heuristic value of a grid as {@link Astar} does.
+     *
+     * @param g The grid.
+     * @param goal The goal grid.
+     */
+    private static void heuristic(Grid g, Grid goal) {
+        g.setHeuristicValue(g.distanceTo(goal, Grid.Distance.LINEAR_MANHATTAN) + g.getDepth());
+    }
+
+
+    /**
+     * Creates a structure filled with the queued or explored states from when the recording started.
+     *
+     * @param builder {@link DataStructure.Builder} for the structure.
+     * @param queuedStates Whether to fill it with the queued or the explored states.
+     * @return The filled structure.
+     */
+    @SuppressWarnings("unchecked")
+    public DataStructure<Grid> fill(DataStructure.Builder builder, boolean queuedStates) {
+        var ds = (DataStructure<Grid>) builder.comparator(comparator).build();
+        var initial = queuedStates ? queued : explored;
+
+        if(queuedStates && workload == Workload.ASTAR && ds instanceof Sortable<Grid> s) {
+            s.mergeSorted(initial, comparator);
+        }
+        else {
+            ds.addAll(initial);
+        }
+
+        return ds;
+    }
+
+    /**
+     * Replays the recorded operations on the queued or explored states.
+     *
+     * @param ds The structure, as returned by {@link #fill(DataStructure.Builder, boolean)}.
+     * @param queuedStates Whether to replay the operations on the queued or the explored states.
+     * @param bh {@link Blackhole} which consumes the results of the operations.
+     */
+    public void replay(DataStructure<Grid> ds, boolean queuedStates, Blackhole bh) {
+        // as in Astar.step()
+        boolean merge = queuedStates && workload == Workload.ASTAR && !(ds instanceof Sorted<Grid>);
+
+        for(var o : (queuedStates ? queuedOps : exploredOps)) {
+            switch(o.op()) {
+                case ADD -> bh.consume(ds.add(o.grid()));
+                case ADD_ALL -> {
+                    if(merge && ds instanceof Sortable<Grid> s) {
+                        bh.consume(s.mergeSorted(o.grids(), comparator, Cancellation.NONE));
+                    }
+                    else {
+                        bh.consume(ds.addAll(o.grids(), Cancellation.NONE));
+                    }
+                }
+                case POLL_FIRST -> bh.consume(ds.dsPollFirst());
+                case POLL_LAST -> bh.consume(ds.dsPollLast());
+                case CONTAINS -> bh.consume(ds.contains(o.grid()));
+                case INDEX_OF -> bh.consume(ds.dsIndexOf(o.grid()));
+            }
+        }
+    }
+}
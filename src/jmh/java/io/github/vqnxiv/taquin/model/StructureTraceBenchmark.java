@@ -0,0 +1,129 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Base class for the benchmarks which replay a {@link SearchTrace} on a {@link DataStructure}.
+ * <p>
+ * Each measured invocation replays {@link #STEPS} steps on a structure which was filled with the
+ * queued or explored states of the search when it had {@link #size} queued states, so the results
+ * are the time per step of the search spent in the structure. As the structure is modified by
+ * the replay, it is filled again before each iteration.
+ * <p>
+ * The default sizes go up to a million states; larger ones can be run from the jmh jar, e.g
+ * {@code -p size=10000000 -jvmArgsAppend -Xmx32g}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xmx4g"})
+@State(Scope.Thread)
+public abstract class StructureTraceBenchmark {
+
+    /**
+     * The number of steps replayed by each invocation.
+     */
+    protected static final int STEPS = 200;
+
+    /**
+     * Packages in which structure classes are looked up.
+     */
+    private static final String[] STRUCTURE_PACKAGES = {
+        "io.github.vqnxiv.taquin.model.structure.jstructure.",
+        "io.github.vqnxiv.taquin.model.structure.custom."
+    };
+
+    /**
+     * The number of queued states when the trace is recorded.
+     */
+    @Param({"1000", "10000", "100000", "1000000"})
+    private int size;
+
+    /**
+     * The recorded trace.
+     */
+    private SearchTrace trace;
+
+    /**
+     * The structure the trace is replayed on.
+     */
+    private DataStructure<Grid> structure;
+
+
+    /**
+     * Getter for the simple name of the benchmarked structure class.
+     *
+     * @return The name of a class of the {@code jstructure} or {@code custom} packages.
+     */
+    protected abstract String structureName();
+
+    /**
+     * Getter for the search whose trace is replayed.
+     *
+     * @return The {@link SearchTrace.Workload}.
+     */
+    protected abstract SearchTrace.Workload workload();
+
+    /**
+     * Whether the benchmarked structure holds the queued or the explored states.
+     *
+     * @return {@code true} for the queued states; {@code false} for the explored states.
+     */
+    protected abstract boolean queued();
+
+
+    /**
+     * Records the trace.
+     */
+    @Setup(Level.Trial)
+    public void record() {
+        trace = SearchTrace.record(workload(), size, STEPS, 1L);
+    }
+
+    /**
+     * Fills the structure.
+     *
+     * @throws ClassNotFoundException If no structure class has the name {@link #structureName()}.
+     */
+    @Setup(Level.Iteration)
+    public void fill() throws ClassNotFoundException {
+        structure = trace.fill(new DataStructure.Builder("benchmark", structureClass(structureName())), queued());
+    }
+
+    /**
+     * Looks up a structure class by its simple name.
+     *
+     * @param name The simple name of the class.
+     * @return The class.
+     * @throws ClassNotFoundException If no class has this name.
+     */
+    private static Class<?> structureClass(String name) throws ClassNotFoundException {
+        for(var p : STRUCTURE_PACKAGES) {
+            try {
+                return Class.forName(p + name);
+            } catch(ClassNotFoundException ignored) {
+                // not in this package
+            }
+        }
+
+        throw new ClassNotFoundException(name);
+    }
+
+
+    /**
+     * Replays the trace.
+     *
+     * @param bh {@link Blackhole}.
+     */
+    @Benchmark
+    @OperationsPerInvocation(STEPS)
+    public void replay(Blackhole bh) {
+        trace.replay(structure, queued(), bh);
+    }
+}
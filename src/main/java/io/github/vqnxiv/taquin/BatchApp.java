@@ -0,0 +1,195 @@
+package io.github.vqnxiv.taquin;
+
+
+import io.github.vqnxiv.taquin.model.BatchSolver;
+import io.github.vqnxiv.taquin.model.DataStructure;
+import io.github.vqnxiv.taquin.model.Grid;
+import io.github.vqnxiv.taquin.model.MetricsServer;
+import io.github.vqnxiv.taquin.model.Search;
+import io.github.vqnxiv.taquin.model.search.*;
+import io.github.vqnxiv.taquin.model.structure.jstructure.JLinkedHashSet;
+import io.github.vqnxiv.taquin.model.structure.jstructure.JPriorityQueue;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+
+/**
+ * Headless application which solves a batch of instances with {@link BatchSolver}.
+ * <p>
+ * Usage: {@code --batch <instances file> [--option value]...} with the options:
+ * <ul>
+ *     <li>{@code --output}: results file, {@code .csv} or {@code .jsonl}
+ *     (default: the instances file with {@code .csv} appended)</li>
+ *     <li>{@code --search}: {@code A*}, {@code GBFS}, {@code BFS}, {@code DFS} or {@code IDDFS} (default: {@code A*})</li>
+ *     <li>{@code --heuristic}: a {@link Grid.Distance} constant</li>
+ *     <li>{@code --equal-policy}: a {@link Grid.EqualPolicy} constant</li>
+ *     <li>{@code --queued}, {@code --explored}: the name of a structure class
+ *     (default: {@link JPriorityQueue}, {@link JLinkedHashSet})</li>
+ *     <li>{@code --goal}: the goal grid, e.g {@code "1 2 3 4 5 6 7 8 0"}</li>
+ *     <li>{@code --threads}: the number of worker threads</li>
+ *     <li>{@code --memory}: {@code true} to measure the memory of each search</li>
+ *     <li>{@code --max-time}, {@code --max-depth}, {@code --max-explored},
+ *     {@code --max-generated}: limits of each search</li>
+ *     <li>{@code --batch-size}, {@code --batch-time}: steps or time (ms) between two limits checks</li>
+ *     <li>{@code --memory-action}: a {@link Search.MemoryAction} constant, what each search does under memory
+ *     pressure (default: {@code none}). A paused search ends with the {@code PAUSED} state</li>
+ *     <li>{@code --metrics-port}: serves the metrics of the running searches on
+ *     {@code http://localhost:<port>/metrics} during the batch, see {@link MetricsServer} (default: none)</li>
+ * </ul>
+ */
+public class BatchApp {
+
+    /**
+     * Root logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(BatchApp.class);
+
+    /**
+     * Packages in which structure classes are looked up when not fully qualified.
+     */
+    private static final String[] STRUCTURE_PACKAGES = {
+        "io.github.vqnxiv.taquin.model.structure.jstructure.",
+        "io.github.vqnxiv.taquin.model.structure.custom."
+    };
+
+
+    /**
+     * Main.
+     *
+     * @param args args, starting with {@code --batch}.
+     */
+    public static void main(String[] args) {
+        Map<String, String> options;
+        try {
+            options = parseOptions(args);
+        } catch(IllegalArgumentException e) {
+            LOGGER.error(e.getMessage());
+            return;
+        }
+
+        var input = Path.of(options.get("batch"));
+        var output = Path.of(options.getOrDefault("output", input + ".csv"));
+
+        try {
+            var searchBuilder = searchBuilder(options.getOrDefault("search", Astar.SEARCH_SHORT_NAME));
+
+            if(options.containsKey("heuristic")) {
+                searchBuilder.heuristic(Grid.Distance.valueOf(options.get("heuristic").toUpperCase(Locale.ROOT)));
+            }
+            if(options.containsKey("equal-policy")) {
+                searchBuilder.equalPolicy(Grid.EqualPolicy.valueOf(options.get("equal-policy").toUpperCase(Locale.ROOT)));
+            }
+            searchBuilder
+                .maxTime(Integer.parseInt(options.getOrDefault("max-time", "0")))
+                .maxDepth(Integer.parseInt(options.getOrDefault("max-depth", "0")))
+                .maxExplored(Integer.parseInt(options.getOrDefault("max-explored", "0")))
+                .maxGenerated(Integer.parseInt(options.getOrDefault("max-generated", "0")))
+                .batchSize(Integer.parseInt(options.getOrDefault("batch-size", "1")))
+                .batchTime(Integer.parseInt(options.getOrDefault("batch-time", "0")))
+                .memoryAction(Search.MemoryAction.valueOf(
+                    options.getOrDefault("memory-action", "none").toUpperCase(Locale.ROOT)
+                ));
+
+            Grid goal = null;
+            if(options.containsKey("goal")) {
+                goal = BatchSolver.parseGrid(options.get("goal"))
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid goal"));
+            }
+
+            var solver = new BatchSolver(
+                searchBuilder,
+                new DataStructure.Builder("queued", structureClass(options.get("queued"), JPriorityQueue.class)),
+                new DataStructure.Builder("explored", structureClass(options.get("explored"), JLinkedHashSet.class)),
+                goal,
+                Integer.parseInt(options.getOrDefault("threads", "0")),
+                Boolean.parseBoolean(options.getOrDefault("memory", "false"))
+            );
+
+            var server = options.containsKey("metrics-port")
+                ? MetricsServer.start(Integer.parseInt(options.get("metrics-port")))
+                : Optional.<MetricsServer>empty();
+            try {
+                LOGGER.info("Writing results to {}", output);
+                solver.solve(input, output);
+            } finally {
+                server.ifPresent(MetricsServer::close);
+            }
+        } catch(IllegalArgumentException | ClassNotFoundException e) {
+            LOGGER.error("Invalid option: {}", e.getMessage());
+        } catch(Exception e) {
+            LOGGER.error("Batch failed: {}", e.toString());
+        }
+    }
+
+    /**
+     * Parses the arguments into a map of options.
+     *
+     * @param args The arguments, as {@code --name value} pairs.
+     * @return {@link Map} of the options, without the leading {@code --}.
+     * @throws IllegalArgumentException If an option has no value or there is no {@code --batch} option.
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        var m = new HashMap<String, String>();
+
+        for(int i = 0; i < args.length; i += 2) {
+            if(!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Invalid argument: " + args[i]);
+            }
+            m.put(args[i].substring(2), args[i + 1]);
+        }
+
+        if(!m.containsKey("batch")) {
+            throw new IllegalArgumentException("No instances file");
+        }
+
+        return m;
+    }
+
+    /**
+     * Creates the {@link Search.Builder} for a search name.
+     *
+     * @param name The short name of the search.
+     * @return A new {@link Search.Builder} for this search.
+     * @throws IllegalArgumentException If no search has this name.
+     */
+    static Search.Builder<?> searchBuilder(String name) {
+        return switch(name.toUpperCase(Locale.ROOT)) {
+            case Astar.SEARCH_SHORT_NAME -> new Astar.Builder();
+            case BestFirst.SEARCH_SHORT_NAME -> new BestFirst.Builder();
+            case BreadthFirst.SEARCH_SHORT_NAME -> new BreadthFirst.Builder();
+            case DepthFirst.SEARCH_SHORT_NAME -> new DepthFirst.Builder();
+            case IterativeDeepening.SEARCH_SHORT_NAME -> new IterativeDeepening.Builder();
+            default -> throw new IllegalArgumentException("Unknown search " + name);
+        };
+    }
+
+    /**
+     * Looks up a structure class by its name.
+     *
+     * @param name The simple or fully qualified name of the class, can be {@code null}.
+     * @param defaultClass The class to return if {@code name} is {@code null}.
+     * @return The class.
+     * @throws ClassNotFoundException If no class has this name.
+     */
+    static Class<?> structureClass(String name, Class<?> defaultClass) throws ClassNotFoundException {
+        if(name == null) {
+            return defaultClass;
+        }
+
+        for(var p : STRUCTURE_PACKAGES) {
+            try {
+                return Class.forName(p + name);
+            } catch(ClassNotFoundException ignored) {
+                // not in this package
+            }
+        }
+
+        return Class.forName(name);
+    }
+}
@@ -0,0 +1,242 @@
+package io.github.vqnxiv.taquin;
+
+
+import io.github.vqnxiv.taquin.model.BatchSolver;
+import io.github.vqnxiv.taquin.model.Grid;
+import io.github.vqnxiv.taquin.model.SolverBenchmark;
+import io.github.vqnxiv.taquin.model.search.*;
+import io.github.vqnxiv.taquin.model.structure.jstructure.JArrayDeque;
+import io.github.vqnxiv.taquin.model.structure.jstructure.JLinkedHashSet;
+import io.github.vqnxiv.taquin.model.structure.jstructure.JPriorityQueue;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+
+/**
+ * Headless application which runs a {@link SolverBenchmark} and writes its results to a CSV file.
+ * <p>
+ * Usage: {@code --benchmark <results file> [--option value]...} with the options:
+ * <ul>
+ *     <li>{@code --korf}: file with Korf's 100 15-puzzle instances, one per line, optionally
+ *     preceded by their number (default: none)</li>
+ *     <li>{@code --korf-goal}: the goal of these instances (default: {@code "0 1 2 ... 15"})</li>
+ *     <li>{@code --random-count}: the number of random 3x3 and 4x4 instances (default: 50)</li>
+ *     <li>{@code --seed}: the seed of the random instances (default: 42)</li>
+ *     <li>{@code --searches}: comma separated search names (default: all)</li>
+ *     <li>{@code --heuristics}: comma separated {@link Grid.Distance} constants for the informed
+ *     searches (default: all but {@code NONE})</li>
+ *     <li>{@code --queued}, {@code --explored}: the name of a structure class (default: {@link JPriorityQueue}
+ *     for the informed searches and {@link JArrayDeque} otherwise, {@link JLinkedHashSet})</li>
+ *     <li>{@code --max-explored}: limit of each search (default: 1000000)</li>
+ *     <li>{@code --max-time}: time limit of each search in ms (default: 0, none), which makes the results
+ *     depend on the speed of the host; the searches are only bounded by {@code --max-explored} by default</li>
+ * </ul>
+ */
+public class BenchmarkApp {
+
+    /**
+     * Root logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(BenchmarkApp.class);
+
+    /**
+     * Informed searches, which are run once per heuristic.
+     */
+    private static final List<String> INFORMED_SEARCHES = List.of(
+        Astar.SEARCH_SHORT_NAME, BestFirst.SEARCH_SHORT_NAME
+    );
+
+    /**
+     * Uninformed searches, which are run once with {@link Grid.Distance#NONE}.
+     */
+    private static final List<String> UNINFORMED_SEARCHES = List.of(
+        BreadthFirst.SEARCH_SHORT_NAME, DepthFirst.SEARCH_SHORT_NAME, IterativeDeepening.SEARCH_SHORT_NAME
+    );
+
+
+    /**
+     * Main.
+     *
+     * @param args args, starting with {@code --benchmark}.
+     */
+    public static void main(String[] args) {
+        Map<String, String> options;
+        try {
+            options = parseOptions(args);
+        } catch(IllegalArgumentException e) {
+            LOGGER.error(e.getMessage());
+            return;
+        }
+
+        var output = Path.of(options.get("benchmark"));
+
+        try {
+            var benchmark = new SolverBenchmark(instanceSets(options), configurations(options));
+
+            LOGGER.info("Writing results to {}", output);
+            try(var w = Files.newBufferedWriter(output)) {
+                benchmark.run(w);
+            }
+        } catch(IllegalArgumentException | ClassNotFoundException e) {
+            LOGGER.error("Invalid option: {}", e.getMessage());
+        } catch(Exception e) {
+            LOGGER.error("Benchmark failed: {}", e.toString());
+        }
+    }
+
+    /**
+     * Parses the arguments into a map of options.
+     *
+     * @param args The arguments, as {@code --name value} pairs.
+     * @return {@link Map} of the options, without the leading {@code --}.
+     * @throws IllegalArgumentException If an option has no value or there is no {@code --benchmark} option.
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        var m = new HashMap<String, String>();
+
+        for(int i = 0; i < args.length; i += 2) {
+            if(!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Invalid argument: " + args[i]);
+            }
+            m.put(args[i].substring(2), args[i + 1]);
+        }
+
+        if(!m.containsKey("benchmark")) {
+            throw new IllegalArgumentException("No results file");
+        }
+
+        return m;
+    }
+
+    /**
+     * Creates the instance sets: Korf's instances if a file was given, then the random 3x3 and 4x4 instances.
+     *
+     * @param options The options.
+     * @return {@link List} of the instance sets.
+     * @throws IOException If the Korf instances file could not be read.
+     */
+    private static List<SolverBenchmark.InstanceSet> instanceSets(Map<String, String> options) throws IOException {
+        var l = new ArrayList<SolverBenchmark.InstanceSet>();
+        int count = Integer.parseInt(options.getOrDefault("random-count", "50"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+
+        if(options.containsKey("korf")) {
+            var goal = BatchSolver.parseGrid(options.getOrDefault("korf-goal", korfGoal()))
+                .orElseThrow(() -> new IllegalArgumentException("Invalid Korf goal"));
+            l.add(new SolverBenchmark.InstanceSet("korf100", readKorf(Path.of(options.get("korf"))), goal));
+        }
+        if(count > 0) {
+            l.add(new SolverBenchmark.InstanceSet(
+                "random3x3-" + seed, SolverBenchmark.randomInstances(3, 3, count, seed), null
+            ));
+            l.add(new SolverBenchmark.InstanceSet(
+                "random4x4-" + seed, SolverBenchmark.randomInstances(4, 4, count, seed), null
+            ));
+        }
+
+        return l;
+    }
+
+    /**
+     * Gets the goal of Korf's instances.
+     *
+     * @return The cells of the 4x4 grid with the empty cell first and the others in ascending order.
+     */
+    private static String korfGoal() {
+        var sj = new StringJoiner(" ");
+
+        for(int i = 0; i < 16; i++) {
+            sj.add(Integer.toString(i));
+        }
+
+        return sj.toString();
+    }
+
+    /**
+     * Reads Korf's instances. Lines have either 16 cells or the number of the instance followed by 16 cells.
+     *
+     * @param input The file to read.
+     * @return {@link List} of the instances, in the order of the file.
+     * @throws IOException If the file could not be read.
+     */
+    private static List<Grid> readKorf(Path input) throws IOException {
+        var l = new ArrayList<Grid>();
+
+        for(var line : Files.readAllLines(input)) {
+            var s = line.strip();
+            if(s.isEmpty() || s.startsWith("#")) {
+                continue;
+            }
+
+            var tokens = s.split("[\\s,]+");
+            if(tokens.length == 17) {
+                s = String.join(" ", Arrays.copyOfRange(tokens, 1, tokens.length));
+            }
+            BatchSolver.parseGrid(s).ifPresent(l::add);
+        }
+
+        LOGGER.info("Read {} Korf instances", l.size());
+        return l;
+    }
+
+    /**
+     * Creates the search configurations, in a fixed order.
+     *
+     * @param options The options.
+     * @return {@link List} of the configurations.
+     * @throws ClassNotFoundException If a structure class does not exist.
+     */
+    private static List<SolverBenchmark.Configuration> configurations(Map<String, String> options)
+        throws ClassNotFoundException {
+        var l = new ArrayList<SolverBenchmark.Configuration>();
+
+        var searches = new ArrayList<String>();
+        if(options.containsKey("searches")) {
+            for(var s : options.get("searches").split(",")) {
+                searches.add(s.strip().toUpperCase(Locale.ROOT));
+            }
+        }
+        else {
+            searches.addAll(INFORMED_SEARCHES);
+            searches.addAll(UNINFORMED_SEARCHES);
+        }
+
+        var heuristics = new ArrayList<Grid.Distance>();
+        if(options.containsKey("heuristics")) {
+            for(var h : options.get("heuristics").split(",")) {
+                heuristics.add(Grid.Distance.valueOf(h.strip().toUpperCase(Locale.ROOT)));
+            }
+        }
+        else {
+            for(var d : Grid.Distance.values()) {
+                if(d != Grid.Distance.NONE) {
+                    heuristics.add(d);
+                }
+            }
+        }
+
+        var explored = BatchApp.structureClass(options.get("explored"), JLinkedHashSet.class);
+        int maxTime = Integer.parseInt(options.getOrDefault("max-time", "0"));
+        int maxExplored = Integer.parseInt(options.getOrDefault("max-explored", "1000000"));
+
+        for(var s : searches) {
+            boolean informed = INFORMED_SEARCHES.contains(s);
+            var queued = BatchApp.structureClass(
+                options.get("queued"), informed ? JPriorityQueue.class : JArrayDeque.class
+            );
+
+            for(var h : informed ? heuristics : List.of(Grid.Distance.NONE)) {
+                var b = BatchApp.searchBuilder(s);
+                b.heuristic(h).maxTime(maxTime).maxExplored(maxExplored);
+                l.add(new SolverBenchmark.Configuration(s, h, b, queued, explored));
+            }
+        }
+
+        return l;
+    }
+}
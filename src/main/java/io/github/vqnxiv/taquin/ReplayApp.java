@@ -0,0 +1,138 @@
+package io.github.vqnxiv.taquin;
+
+
+import io.github.vqnxiv.taquin.model.TraceReplay;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+
+
+/**
+ * Headless application which reads a search trace (see the {@code trace file} property of the searches)
+ * and logs a summary of it: number of states, expansions, largest queue, end state and final path.
+ * <p>
+ * Usage: {@code --replay <trace file> [--option value]...} with the options:
+ * <ul>
+ *     <li>{@code --expansions}: CSV file to which the expansions are written, i.e the size of the queue
+ *     and the number of explored states over time (default: none)</li>
+ *     <li>{@code --tree}: CSV file to which the states of the tree are written (default: none)</li>
+ * </ul>
+ */
+public class ReplayApp {
+
+    /**
+     * Root logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(ReplayApp.class);
+
+
+    /**
+     * Main.
+     *
+     * @param args args, starting with {@code --replay}.
+     */
+    public static void main(String[] args) {
+        var options = new HashMap<String, String>();
+        for(int i = 0; i < args.length; i += 2) {
+            if(!args[i].startsWith("--") || i + 1 >= args.length) {
+                LOGGER.error("Invalid argument: {}", args[i]);
+                return;
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+
+        if(!options.containsKey("replay")) {
+            LOGGER.error("No trace file");
+            return;
+        }
+
+        try {
+            var replay = TraceReplay.read(Path.of(options.get("replay")));
+            summary(replay);
+
+            if(options.containsKey("expansions")) {
+                try(var w = Files.newBufferedWriter(Path.of(options.get("expansions")))) {
+                    writeExpansions(replay, w);
+                }
+            }
+            if(options.containsKey("tree")) {
+                try(var w = Files.newBufferedWriter(Path.of(options.get("tree")))) {
+                    writeTree(replay, w);
+                }
+            }
+        } catch(IOException | RuntimeException e) {
+            LOGGER.error("Replay failed: {}", e.toString());
+        }
+    }
+
+    /**
+     * Logs a summary of a trace.
+     *
+     * @param replay The trace.
+     */
+    private static void summary(TraceReplay replay) {
+        var path = replay.getPath();
+        var expansions = replay.getExpansions();
+
+        LOGGER.info("Search: {} ({})", replay.getSearchClass(), replay.getHeuristic());
+        LOGGER.info("Start: {}", Arrays.deepToString(replay.getStart().getCopyOfSelf()));
+        LOGGER.info("Goal: {}", Arrays.deepToString(replay.getGoal().getCopyOfSelf()));
+        LOGGER.info(
+            "{} states, {} expansions, largest queue: {}, depth limit increases: {}",
+            replay.getNodes().size(), expansions.size(), replay.getMaxQueued(), replay.getRestarts()
+        );
+        if(!expansions.isEmpty()) {
+            LOGGER.info("Elapsed: {} ms", expansions.get(expansions.size() - 1).elapsed() / 1_000_000L);
+        }
+        LOGGER.info("End state: {}", replay.getEndState().map(Object::toString).orElse("none"));
+        LOGGER.info("Path ({} moves): {}", Math.max(path.size() - 1, 0), replay.getMoves());
+
+        if(replay.isTruncated()) {
+            LOGGER.warn("Trace is truncated");
+        }
+    }
+
+    /**
+     * Writes the expansions of a trace as CSV.
+     *
+     * @param replay The trace.
+     * @param w Where to write.
+     * @throws IOException If the file could not be written.
+     */
+    private static void writeExpansions(TraceReplay replay, Writer w) throws IOException {
+        w.write("index,key,depth,heuristic,queued,explored,elapsed_ns\n");
+
+        var nodes = replay.getNodes();
+        int i = 0;
+        for(var e : replay.getExpansions()) {
+            var n = nodes.get(e.key());
+            w.write(i++ + "," + e.key() + "," + n.depth() + "," + n.heuristic() + ","
+                + e.queued() + "," + e.explored() + "," + e.elapsed() + "\n");
+        }
+    }
+
+    /**
+     * Writes the states of a trace as CSV, ordered by key.
+     *
+     * @param replay The trace.
+     * @param w Where to write.
+     * @throws IOException If the file could not be written.
+     */
+    private static void writeTree(TraceReplay replay, Writer w) throws IOException {
+        w.write("key,parent,move,depth,heuristic,expansion\n");
+
+        var nodes = replay.getNodes().values().stream()
+            .sorted((n1, n2) -> Integer.compare(n1.key(), n2.key()))
+            .toList();
+        for(var n : nodes) {
+            w.write(n.key() + "," + n.parent() + "," + n.move() + "," + n.depth() + ","
+                + n.heuristic() + "," + n.expansion() + "\n");
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package io.github.vqnxiv.taquin;
+
+
+import io.github.vqnxiv.taquin.model.DataStructure;
+import io.github.vqnxiv.taquin.model.Search;
+import io.github.vqnxiv.taquin.model.SearchRunner;
+import io.github.vqnxiv.taquin.model.search.Astar;
+import io.github.vqnxiv.taquin.model.structure.jstructure.JLinkedHashSet;
+import io.github.vqnxiv.taquin.model.structure.jstructure.JPriorityQueue;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+
+/**
+ * Headless application which restores a search saved with {@link SearchRunner#checkpointSearch(int, Path)}
+ * (e.g from the GUI), resumes it and saves it again if it is paused before it ends.
+ * <p>
+ * Usage: {@code --restore <checkpoint file> [--option value]...} with the options:
+ * <ul>
+ *     <li>{@code --search}: the algorithm of the saved search, {@code A*}, {@code GBFS}, {@code BFS},
+ *     {@code DFS} or {@code IDDFS} (default: {@code A*})</li>
+ *     <li>{@code --queued}, {@code --explored}: the name of a structure class
+ *     (default: {@link JPriorityQueue}, {@link JLinkedHashSet})</li>
+ *     <li>{@code --trace}: trace file, to which the records are appended if it holds the trace
+ *     of the saved search (default: none)</li>
+ *     <li>{@code --max-time}: duration of this run in ms, after which the search is paused (default: 0,
+ *     until it ends)</li>
+ *     <li>{@code --output}: the file to which the search is saved if it is paused
+ *     (default: the checkpoint file)</li>
+ * </ul>
+ */
+public class RestoreApp {
+
+    /**
+     * Root logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(RestoreApp.class);
+
+
+    /**
+     * Main.
+     *
+     * @param args args, starting with {@code --restore}.
+     */
+    public static void main(String[] args) {
+        var options = new HashMap<String, String>();
+        for(int i = 0; i < args.length; i += 2) {
+            if(!args[i].startsWith("--") || i + 1 >= args.length) {
+                LOGGER.error("Invalid argument: {}", args[i]);
+                return;
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+
+        if(!options.containsKey("restore")) {
+            LOGGER.error("No checkpoint file");
+            return;
+        }
+
+        var input = Path.of(options.get("restore"));
+        var output = Path.of(options.getOrDefault("output", input.toString()));
+        var runner = new SearchRunner();
+
+        try {
+            var searchBuilder = BatchApp.searchBuilder(options.getOrDefault("search", Astar.SEARCH_SHORT_NAME));
+            if(options.containsKey("trace")) {
+                searchBuilder.traceFile(options.get("trace"));
+            }
+            long maxTime = Long.parseLong(options.getOrDefault("max-time", "0"));
+
+            var id = runner.restoreSearch(
+                input, searchBuilder,
+                new DataStructure.Builder("queued", BatchApp.structureClass(options.get("queued"), JPriorityQueue.class)),
+                new DataStructure.Builder("explored", BatchApp.structureClass(options.get("explored"), JLinkedHashSet.class))
+            ).orElseThrow(() -> new IllegalArgumentException("Could not restore " + input));
+
+            var run = runner.runSearch(id, 0, 0, false, new Search.Listener() {});
+            Search.SearchState state;
+            if(maxTime > 0) {
+                try {
+                    state = run.get(maxTime, TimeUnit.MILLISECONDS);
+                } catch(TimeoutException e) {
+                    runner.pauseSearch(id);
+                    state = run.join();
+                }
+            }
+            else {
+                state = run.join();
+            }
+
+            var space = runner.getSearchSpace(id).orElseThrow();
+            LOGGER.info("Run ended: {}, {} explored states", state, space.getExplored().size());
+            if(state == Search.SearchState.ENDED_SUCCESS) {
+                LOGGER.info("Path: {} moves", space.pathFromStart().size() - 1);
+            }
+            else if(state == Search.SearchState.PAUSED && runner.checkpointSearch(id, output)) {
+                LOGGER.info("Search saved to {}, resume it with --restore {}", output, output);
+            }
+        } catch(IllegalArgumentException | ClassNotFoundException e) {
+            LOGGER.error("Invalid option: {}", e.getMessage());
+        } catch(Exception e) {
+            LOGGER.error("Restore failed: {}", e.toString());
+        } finally {
+            runner.shutdown(true);
+        }
+    }
+}
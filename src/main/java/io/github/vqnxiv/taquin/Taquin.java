@@ -1,6 +1,7 @@
 package io.github.vqnxiv.taquin;
 
 
+import io.github.vqnxiv.taquin.model.MetricsServer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -26,12 +27,46 @@ public class Taquin {
     private static final Logger LOGGER = LogManager.getLogger(Taquin.class);
 
     /**
-     * Main.
-     * 
+     * Main. Starts the headless {@link BatchApp} if the first arg is {@code --batch},
+     * the headless {@link BenchmarkApp} if it is {@code --benchmark}, the headless {@link ReplayApp}
+     * if it is {@code --replay}, the headless {@link RestoreApp} if it is {@code --restore}, 
+     * and the JavaFX app otherwise.
+     * <p>
+     * In all cases, the metrics endpoint is started if {@link MetricsServer#PORT_PROPERTY} is set,
+     * and closed once the app returns.
+     *
      * @param args args.
      */
     public static void main(String[] args) {
-        LOGGER.info("Starting application");
-        JfxApp.main(args);
+        var metricsServer = MetricsServer.fromProperty();
+
+        try {
+            if(args.length > 0 && args[0].equals("--batch")) {
+                LOGGER.info("Starting batch");
+                BatchApp.main(args);
+                return;
+            }
+            if(args.length > 0 && args[0].equals("--benchmark")) {
+                LOGGER.info("Starting benchmark");
+                BenchmarkApp.main(args);
+                return;
+            }
+            if(args.length > 0 && args[0].equals("--replay")) {
+                LOGGER.info("Starting replay");
+                ReplayApp.main(args);
+                return;
+            }
+            if(args.length > 0 && args[0].equals("--restore")) {
+                LOGGER.info("Restoring search");
+                RestoreApp.main(args);
+                return;
+            }
+
+            LOGGER.info("Starting application");
+            // returns once the JavaFX app was stopped
+            JfxApp.main(args);
+        } finally {
+            metricsServer.ifPresent(MetricsServer::close);
+        }
     }
 }
\ No newline at end of file
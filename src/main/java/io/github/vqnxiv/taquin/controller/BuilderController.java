@@ -4,6 +4,7 @@ package io.github.vqnxiv.taquin.controller;
 import io.github.vqnxiv.taquin.model.DataStructure;
 import io.github.vqnxiv.taquin.model.Grid;
 import io.github.vqnxiv.taquin.model.SearchSpace;
+import io.github.vqnxiv.taquin.model.structure.IndexedStructure;
 import io.github.vqnxiv.taquin.model.structure.Sortable;
 import io.github.vqnxiv.taquin.model.structure.Sorted;
 import io.github.vqnxiv.taquin.model.structure.Unsorted;
@@ -27,9 +28,9 @@ import javafx.scene.control.*;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.Priority;
+import javafx.stage.FileChooser;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.fxmisc.richtext.InlineCssTextArea;
 import org.reflections.Reflections;
 import org.reflections.scanners.Scanners;
 
@@ -65,6 +66,11 @@ public class BuilderController {
      * Root logger.
      */
     private static final Logger LOGGER = LogManager.getLogger(BuilderController.class);
+
+    /**
+     * Extension of the files to which searches are saved.
+     */
+    private static final String CHECKPOINT_EXTENSION = ".tqs";
     
     /**
      * 1st part of the main bar.
@@ -92,10 +98,10 @@ public class BuilderController {
     private GridPane progressPane;
 
     /**
-     * {@link InlineCssTextArea} in which log messages will be displayed.
+     * {@link LogView} in which log messages will be displayed.
      */
     @FXML
-    private InlineCssTextArea logOutput;
+    private LogView logOutput;
 
     /**
      * ChoiceBox with the classes for the heuristic property of {@link #searchBuilder}.
@@ -203,13 +209,6 @@ public class BuilderController {
         
         setupBase();
         setupTabPane();
-        
-        var cMenu = new ContextMenu();
-        var mItem = new MenuItem("Clear");
-        mItem.setOnAction(e -> logOutput.clear());
-        cMenu.getItems().add(mItem);
-        
-        logOutput.setContextMenu(cMenu);
     }
 
 
@@ -218,7 +217,7 @@ public class BuilderController {
      * 
      * @return {@link #logOutput}.
      */
-    InlineCssTextArea getLogOutput() {
+    LogView getLogOutput() {
         return logOutput;
     }
 
@@ -241,7 +240,7 @@ public class BuilderController {
         var m = getNamedMap();
         
         final String[] firstRow = { "name", "explored class", "queued class", "search", "heuristic" };
-        final String[] secondRow = { "start", "end", "run", "pause", "stop", "steps", "steps number", "current" };
+        final String[] secondRow = { "start", "end", "run", "pause", "stop", "steps", "steps number", "current", "priority", "save", "restore" };
 
         LOGGER.debug("Creating first row");
         setHbox(hbox1, firstRow, m);
@@ -332,6 +331,28 @@ public class BuilderController {
                 yield tf;
             }
             case "current" -> createGridButton(currentViewer.gridProperty());
+            case "priority" -> {
+                var sp = new Spinner<Integer>(-10, 10, SearchRunner.DEFAULT_PRIORITY);
+                sp.setMaxWidth(70.0);
+                sp.setTooltip(new Tooltip("Priority of the search's runs over other searches"));
+                sp.valueProperty().addListener((obs, oldVal, newVal) -> {
+                    if(lockLevel.get() == Lock.MODIFICATION_LOCKED) {
+                        searchRunner.setSearchPriority(searchId, newVal);
+                    }
+                });
+                miscValues.put(s, sp);
+                yield sp;
+            }
+            case "save" ->
+                createRunnerButton(s, true, 
+                    event -> saveSearch()
+                );
+            case "restore" -> {
+                var btn = new Button(s);
+                btn.setOnAction(event -> restoreSearch());
+                btn.disableProperty().bind(lockLevel.isNotEqualTo(Lock.NOT_LOCKED));
+                yield btn;
+            }
             default -> new Label(s);
         };
     }
@@ -382,14 +403,121 @@ public class BuilderController {
             return false;
         }
             
-        searchId = opt.getAsInt();;
+        attachSearch(opt.getAsInt());
+        return true;
+    }
+
+    /**
+     * Sets {@link #searchId} to a search created in {@link #searchRunner}, locks this controller
+     * for modifications and binds the views to the search.
+     * 
+     * @param id The id of the search.
+     */
+    private void attachSearch(int id) {
+        searchId = id;
+        searchRunner.setSearchPriority(searchId, getPriority());
         LOGGER.debug("Locking controller for modifications");
         lockLevel.set(Lock.MODIFICATION_LOCKED);
         currentViewer.gridProperty().bind(
             searchRunner.getSearchSpace(searchId).get().currentGridProperty()
         );
         bindProgressPane();
-        return true;
+    }
+
+    /**
+     * Creates a {@link FileChooser} for checkpoint files.
+     * 
+     * @param title The title of the dialog.
+     * @return The created {@link FileChooser}.
+     */
+    private FileChooser checkpointChooser(String title) {
+        var fc = new FileChooser();
+        fc.setTitle(title);
+        fc.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("Checkpoints", "*" + CHECKPOINT_EXTENSION),
+            new FileChooser.ExtensionFilter("All files", "*")
+        );
+        return fc;
+    }
+
+    /**
+     * Saves the search to a file chosen by the user with 
+     * {@link SearchRunner#checkpointSearch(int, java.nio.file.Path)}. The search has to be paused.
+     */
+    private void saveSearch() {
+        var f = checkpointChooser("Save search").showSaveDialog(hbox2.getScene().getWindow());
+        if(f == null) {
+            return;
+        }
+        
+        searchRunner.checkpointSearch(searchId, f.toPath());
+    }
+
+    /**
+     * Restores a search from a file chosen by the user with 
+     * {@link SearchRunner#restoreSearch(java.nio.file.Path, Search.Builder, DataStructure.Builder, DataStructure.Builder)},
+     * with the algorithm and structures currently selected, and attaches this controller to it.
+     */
+    private void restoreSearch() {
+        var f = checkpointChooser("Restore search").showOpenDialog(hbox2.getScene().getWindow());
+        if(f == null) {
+            return;
+        }
+        
+        var opt = searchRunner.restoreSearch(f.toPath(), searchBuilder, queuedBuilder, exploredBuilder);
+        if(opt.isEmpty()) {
+            LOGGER.error("Cannot restore search from {}", f);
+            return;
+        }
+        
+        adoptSearch(opt.getAsInt());
+    }
+
+    /**
+     * Attaches this controller to a search which was not created from it, e.g a restored search
+     * or the winner of a race, and shows its start and goal grids.
+     * 
+     * @param id The id of the search.
+     */
+    void adoptSearch(int id) {
+        var space = searchRunner.getSearchSpace(id).get();
+        startViewer.gridProperty().set(space.getStart());
+        endViewer.gridProperty().set(space.getGoal());
+        attachSearch(id);
+    }
+
+    /**
+     * Gets the configuration of this controller as a race contestant, 
+     * see {@link SearchRunner#raceSearches(SearchSpace.Builder, List, int, boolean)}.
+     * 
+     * @return {@link Optional#of(Object)} the {@link SearchRunner.Contestant} if this controller is not locked;
+     * {@link Optional#empty()} otherwise.
+     */
+    Optional<SearchRunner.Contestant> getContestant() {
+        if(lockLevel.get() != Lock.NOT_LOCKED) {
+            return Optional.empty();
+        }
+        
+        return Optional.of(new SearchRunner.Contestant(searchBuilder, queuedBuilder, exploredBuilder));
+    }
+
+    /**
+     * Getter for {@link #spaceBuilder}.
+     * 
+     * @return {@link #spaceBuilder}.
+     */
+    SearchSpace.Builder getSpaceBuilder() {
+        return spaceBuilder;
+    }
+
+    /**
+     * Gets the throttle selected for the search.
+     * 
+     * @return The value of the "throttle" control, or {@code 0}.
+     */
+    int getThrottle() {
+        var i = (Integer) ((TextField) miscValues.get("throttle")).getTextFormatter().getValue();
+        return (i != null) ? i : 0;
     }
 
     /**
@@ -399,7 +527,6 @@ public class BuilderController {
      */
     private void submitRun(boolean isSteps) {
         int iter = 0;
-        int throttle = 0;
         boolean log = ((CheckBox) miscValues.get("log search")).isSelected();
         boolean memory = ((CheckBox) miscValues.get("monitor memory")).isSelected();
         
@@ -410,12 +537,17 @@ public class BuilderController {
             }
         }
 
-        var i = (Integer) ((TextField) miscValues.get("throttle")).getTextFormatter().getValue();
-        if(i != null) {
-            throttle = i;
-        }
-        
-        searchRunner.runSearch(searchId, iter, throttle, log, memory);
+        searchRunner.runSearch(searchId, iter, getThrottle(), log, memory);
+    }
+
+    /**
+     * Gets the priority selected for the search.
+     * 
+     * @return The value of the "priority" control.
+     */
+    @SuppressWarnings("unchecked")
+    private int getPriority() {
+        return ((Spinner<Integer>) miscValues.get("priority")).getValue();
     }
 
     /**
@@ -474,11 +606,13 @@ public class BuilderController {
             var sorted = reflections
                 .get(Scanners.SubTypes.of(Sorted.class).asClass())
                 .stream()
+                .filter(c -> !IndexedStructure.class.isAssignableFrom(c))
                 .toList();
             
             var sortable = reflections
                 .get(Scanners.SubTypes.of(Sortable.class).asClass())
                 .stream()
+                .filter(c -> !IndexedStructure.class.isAssignableFrom(c))
                 .toList();
             
             queuedClasses.getItems().clear();
@@ -491,6 +625,7 @@ public class BuilderController {
                 reflections
                     .get(Scanners.SubTypes.of(Unsorted.class).asClass())
                     .stream()
+                    .filter(c -> !IndexedStructure.class.isAssignableFrom(c))
                     .toList()
             );
         }
@@ -755,6 +890,7 @@ public class BuilderController {
                     reflections
                         .get(Scanners.SubTypes.of(Unsorted.class).asClass())
                         .stream()
+                        .filter(c -> !IndexedStructure.class.isAssignableFrom(c))
                         .toList()
                 ));
             }
@@ -0,0 +1,350 @@
+package io.github.vqnxiv.taquin.controller;
+
+
+import javafx.animation.AnimationTimer;
+import javafx.beans.NamedArg;
+import javafx.beans.property.BooleanProperty;
+import javafx.beans.property.SimpleBooleanProperty;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.*;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+
+/**
+ * This class is a specialized {@code ListView} which displays the lines of a log.
+ * <p>
+ * It only keeps the last {@link #capacity} lines, in a fixed size ring buffer ({@link Lines}),
+ * and only the visible lines have a cell, so a long log neither grows the heap nor slows down the GUI.
+ * <p>
+ * Lines can be appended from any thread with {@link #append(String)}: they are buffered and
+ * added to the view in a single change per pulse (i.e at most at the frame rate) by {@link #flushTimer},
+ * which only runs while this view is in a scene.
+ *
+ * @see io.github.vqnxiv.taquin.logger.AbstractFxAppender
+ */
+public class LogView extends ListView<String> {
+
+    /**
+     * Fixed size {@code ObservableList} which drops its oldest lines once it is full.
+     */
+    private static final class Lines extends ObservableListBase<String> {
+
+        /**
+         * The lines, from {@link #head}.
+         */
+        private final String[] lines;
+
+        /**
+         * The index of the first line in {@link #lines}.
+         */
+        private int head = 0;
+
+        /**
+         * The number of lines.
+         */
+        private int size = 0;
+
+
+        /**
+         * Constructor.
+         *
+         * @param capacity The maximum number of lines.
+         */
+        private Lines(int capacity) {
+            lines = new String[capacity];
+        }
+
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String get(int index) {
+            Objects.checkIndex(index, size);
+            return lines[(head + index) % lines.length];
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Adds lines at the end, and removes as many of the first lines as needed, in a single change.
+         *
+         * @param added The lines to add. Only the last {@link #lines}{@code .length} ones are kept.
+         */
+        private void push(List<String> added) {
+            int n = Math.min(added.size(), lines.length);
+            int evicted = Math.max(size + n - lines.length, 0);
+
+            if(n == 0) {
+                return;
+            }
+
+            beginChange();
+            if(evicted > 0) {
+                var removed = new ArrayList<String>(evicted);
+                for(int i = 0; i < evicted; i++) {
+                    removed.add(get(i));
+                    lines[(head + i) % lines.length] = null;
+                }
+                head = (head + evicted) % lines.length;
+                size -= evicted;
+                nextRemove(0, removed);
+            }
+
+            int from = size;
+            for(var s : added.subList(added.size() - n, added.size())) {
+                lines[(head + size) % lines.length] = s;
+                size++;
+            }
+            nextAdd(from, size);
+            endChange();
+        }
+
+        /**
+         * Removes all the lines.
+         */
+        @Override
+        public void clear() {
+            if(size == 0) {
+                return;
+            }
+
+            var removed = new ArrayList<>(this);
+            beginChange();
+            for(int i = 0; i < size; i++) {
+                lines[(head + i) % lines.length] = null;
+            }
+            head = 0;
+            size = 0;
+            nextRemove(0, removed);
+            endChange();
+        }
+    }
+
+
+    /**
+     * The default value for {@link #capacity}.
+     */
+    public static final int DEFAULT_CAPACITY = 10_000;
+
+    /**
+     * The maximum number of lines displayed.
+     */
+    private final int capacity;
+
+    /**
+     * The displayed lines.
+     */
+    private final Lines lines;
+
+    /**
+     * Lines appended since the last flush. Holds at most {@link #capacity} lines: older ones
+     * would be dropped by {@link #lines} anyway.
+     */
+    private final ArrayDeque<String> pending;
+
+    /**
+     * {@link AnimationTimer} which adds {@link #pending} to {@link #lines} on every pulse.
+     */
+    private final AnimationTimer flushTimer;
+
+    /**
+     * Whether to scroll to the last line whenever lines are added.
+     */
+    private final BooleanProperty follow;
+
+    /**
+     * Whether long lines are wrapped.
+     */
+    private final BooleanProperty wrapText;
+
+
+    /**
+     * Constructor with {@link #DEFAULT_CAPACITY}.
+     */
+    public LogView() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param capacity The value for {@link #capacity}.
+     */
+    public LogView(@NamedArg("capacity") int capacity) {
+        this.capacity = Math.max(capacity, 1);
+        lines = new Lines(this.capacity);
+        pending = new ArrayDeque<>();
+        follow = new SimpleBooleanProperty(this, "follow", true);
+        wrapText = new SimpleBooleanProperty(this, "wrap text", false);
+
+        setItems(lines);
+        getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        setCellFactory(v -> new ListCell<>() {
+            @Override
+            protected void updateItem(String item, boolean empty) {
+                super.updateItem(item, empty);
+                setText((empty || item == null) ? null : item);
+                setWrapText(wrapText.get());
+                // lets the text wrap to the width of the view instead of the width of the line
+                setPrefWidth(wrapText.get() ? 0d : USE_COMPUTED_SIZE);
+            }
+        });
+        wrapText.addListener((obs, oldValue, newValue) -> refresh());
+
+        flushTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                flush();
+            }
+        };
+        sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if(newScene != null) {
+                flushTimer.start();
+            }
+            else {
+                flushTimer.stop();
+            }
+        });
+
+        setContextMenu(createContextMenu());
+    }
+
+    /**
+     * Creates the context menu, which allows to copy the selected lines,
+     * clear the view and toggle {@link #follow}.
+     *
+     * @return The created {@code ContextMenu}.
+     */
+    private ContextMenu createContextMenu() {
+        var copy = new MenuItem("Copy");
+        copy.setOnAction(e -> copySelection());
+
+        var clear = new MenuItem("Clear");
+        clear.setOnAction(e -> clear());
+
+        var followItem = new CheckMenuItem("Follow");
+        followItem.selectedProperty().bindBidirectional(follow);
+
+        return new ContextMenu(copy, clear, followItem);
+    }
+
+
+    /**
+     * Appends text to this view. Can be called from any thread.
+     * <p>
+     * The text is split into lines, blank lines are ignored.
+     *
+     * @param text The text to append.
+     */
+    public void append(String text) {
+        synchronized(pending) {
+            for(var line : text.split("\\R")) {
+                if(!line.isBlank()) {
+                    pending.add(line);
+                }
+            }
+            while(pending.size() > capacity) {
+                pending.poll();
+            }
+        }
+    }
+
+    /**
+     * Adds the lines from {@link #pending} to {@link #lines}, and scrolls to the last line
+     * if {@link #follow} is {@code true}. Only called from the JavaFX thread.
+     */
+    private void flush() {
+        List<String> added;
+        synchronized(pending) {
+            if(pending.isEmpty()) {
+                return;
+            }
+            added = new ArrayList<>(pending);
+            pending.clear();
+        }
+
+        lines.push(added);
+        if(follow.get()) {
+            scrollTo(lines.size() - 1);
+        }
+    }
+
+    /**
+     * Removes all the lines, including those which were not displayed yet.
+     */
+    public void clear() {
+        synchronized(pending) {
+            pending.clear();
+        }
+        getSelectionModel().clearSelection();
+        lines.clear();
+    }
+
+    /**
+     * Copies the selected lines to the system clipboard.
+     */
+    private void copySelection() {
+        var content = new ClipboardContent();
+        content.putString(String.join("\n", getSelectionModel().getSelectedItems()));
+        Clipboard.getSystemClipboard().setContent(content);
+    }
+
+
+    /**
+     * Getter for {@link #capacity}.
+     *
+     * @return {@link #capacity}.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Getter for {@link #follow}.
+     *
+     * @return {@link #follow}.
+     */
+    public BooleanProperty followProperty() {
+        return follow;
+    }
+
+    /**
+     * Getter for {@link #wrapText}.
+     *
+     * @return {@link #wrapText}.
+     */
+    public BooleanProperty wrapTextProperty() {
+        return wrapText;
+    }
+
+    /**
+     * Getter for the value of {@link #wrapText}.
+     *
+     * @return {@link #wrapText}'s value.
+     */
+    public boolean isWrapText() {
+        return wrapText.get();
+    }
+
+    /**
+     * Setter for the value of {@link #wrapText}, e.g from FXML.
+     *
+     * @param b The new value for {@link #wrapText}.
+     */
+    public void setWrapText(boolean b) {
+        wrapText.set(b);
+    }
+}
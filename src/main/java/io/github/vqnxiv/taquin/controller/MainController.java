@@ -4,8 +4,11 @@ package io.github.vqnxiv.taquin.controller;
 import io.github.vqnxiv.taquin.Taquin;
 import io.github.vqnxiv.taquin.logger.AbstractFxAppender;
 import io.github.vqnxiv.taquin.logger.MainAppender;
+import io.github.vqnxiv.taquin.model.MemoryTelemetry;
 import io.github.vqnxiv.taquin.model.Search;
 import io.github.vqnxiv.taquin.model.SearchRunner;
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.concurrent.ScheduledService;
 import javafx.concurrent.Task;
 import javafx.fxml.FXML;
@@ -15,13 +18,12 @@ import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.fxmisc.richtext.InlineCssTextArea;
 
 import java.io.IOException;
-import java.lang.management.ManagementFactory;
-import java.lang.management.MemoryMXBean;
-import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -33,62 +35,30 @@ public class MainController {
     
     /**
      * Private class which extends {@link ScheduledService} and is responsible for
-     * checking the heap's current used memory.
+     * retrieving the heap's current used memory from {@link MemoryTelemetry}, which also
+     * takes care of warning about and reacting to high memory usage.
      */
-    private static class HeapMonitorService extends ScheduledService<Long> {
+    private static class HeapMonitorService extends ScheduledService<MemoryTelemetry.Snapshot> {
 
         /**
-         * Memory bean from which we retrieve the heap memory values.
-         */
-        private final MemoryMXBean memoryMXBean;
-
-        /**
-         * Maximum heap memory allowed. {@link MemoryUsage#getMax()}
-         */
-        private final long maxHeap;
-
-        /**
-         * Whether to log a warning in case of high heap usage (greather than {@link #warningValue}).
-         */
-        private boolean belowWarningValue = true;
-
-        /**
-         * Value in percent which is considered high heap usage and logs a warning.
-         */
-        private final double warningValue = 0.9d;
-
-        /**
-         * Default constructor. Initializes {@link #memoryMXBean} and {@link #maxHeap}.
+         * Default constructor. Starts {@link MemoryTelemetry}.
          */
         private HeapMonitorService() {
-            memoryMXBean = ManagementFactory.getMemoryMXBean();
-            maxHeap = memoryMXBean.getHeapMemoryUsage().getMax() / 1048576;
+            MemoryTelemetry.get();
             setRestartOnFailure(true);
         }
 
         /**
          * Creates the {@link Task} which is executed in the background. 
-         * <p>
-         * Logs a warning if {@link #belowWarningValue} is {@code true} and {@code currentHeap / maxHeap} 
-         * >= {@link #warningValue}.
          * 
-         * @return {@link Long} value of the current's heap usage: {@link MemoryUsage#getUsed()}
+         * @return {@link MemoryTelemetry.Snapshot} of the current heap usage.
          */
         @Override
-        protected Task<Long> createTask() {
+        protected Task<MemoryTelemetry.Snapshot> createTask() {
             return new Task<>() {
                 @Override
-                protected Long call() throws Exception {
-                    var currentHeap = memoryMXBean.getHeapMemoryUsage().getUsed() / 1048576;
-                    if((double) currentHeap / maxHeap >= warningValue) {
-                        if(belowWarningValue) {
-                            belowWarningValue = false;
-                            LOGGER.warn("{}% heap usage: the app may be slowed down", (int) (warningValue * 100) );
-                        }
-                    } else {
-                        belowWarningValue = true;
-                    }
-                    return currentHeap;
+                protected MemoryTelemetry.Snapshot call() {
+                    return MemoryTelemetry.get().snapshot();
                 }
             };
         }
@@ -101,10 +71,10 @@ public class MainController {
     private static final Logger LOGGER = LogManager.getLogger(MainController.class);
 
     /**
-     * {@link InlineCssTextArea} in which app log events are displayed. {@link MainAppender}
+     * {@link LogView} in which app log events are displayed. {@link MainAppender}
      */
     @FXML 
-    private InlineCssTextArea logOutput;
+    private LogView logOutput;
 
     /**
      * {@link VBox} which contains all {@link BuilderController} created.
@@ -128,6 +98,12 @@ public class MainController {
      * {@link ScheduledService} which regularly checks the heap memory usage.
      */
     private final HeapMonitorService heapService;
+
+    /**
+     * {@link AnimationTimer} which refreshes the searches progress on every pulse
+     * by calling {@link SearchRunner#refreshProgress()}.
+     */
+    private final AnimationTimer progressTimer;
     
 
     /**
@@ -144,7 +120,7 @@ public class MainController {
     
     
     /**
-     * Constructor which initializes {@link #searchRunner} and {@link #heapService}.
+     * Constructor which initializes {@link #searchRunner}, {@link #heapService} and {@link #progressTimer}.
      */
     public MainController() {
         searchRunner = new SearchRunner();
@@ -153,10 +129,21 @@ public class MainController {
         heapService = new HeapMonitorService();
         heapService.setPeriod(Duration.millis(100d));
         heapService.setOnSucceeded(
-            e -> heapUsage.setText(
-                String.format("Heap: %4d / %4d MB", heapService.getValue(), heapService.maxHeap)
-            )
+            e -> {
+                var m = heapService.getValue();
+                heapUsage.setText(String.format(
+                    "Heap: %4d / %4d MB, old gen: %2d%%", m.heapUsed() / 1048576, m.heapMax() / 1048576, 
+                    (int) (m.oldGenRatio() * 100)
+                ));
+            }
         );
+        
+        progressTimer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                searchRunner.refreshProgress();
+            }
+        };
     }
 
     /**
@@ -168,28 +155,29 @@ public class MainController {
         LOGGER.info("Successfully loaded GUI");
         onAddBuilderActivated();
         heapService.start();
+        progressTimer.start();
     }
     
 
     /**
      * Getter for {@link #logOutput}.
      * 
-     * @return a {@link InlineCssTextArea} in which logs are displayed.
+     * @return a {@link LogView} in which logs are displayed.
      */
-    public InlineCssTextArea getMainLogOutput() {
+    public LogView getMainLogOutput() {
         return logOutput;
     }
 
     /**
-     * Retrieves the corresponding {@link BuilderController} {@link InlineCssTextArea} 
+     * Retrieves the corresponding {@link BuilderController} {@link LogView} 
      * for search logs ({@link io.github.vqnxiv.taquin.logger.SearchAppender})
      * from a {@link Search#getId()}.
      * 
      * @param id The id of the {@link Search}.
-     * @return {@link Optional#of(Object)} the {@link InlineCssTextArea} if a {@link Search} 
+     * @return {@link Optional#of(Object)} the {@link LogView} if a {@link Search} 
      * with such an id exists; {@link Optional#empty()} otherwise.
      */
-    public Optional<InlineCssTextArea> getBuilderLogOutputFromSearchID(int id) {
+    public Optional<LogView> getBuilderLogOutputFromSearchID(int id) {
         for(var builder : builderMap.keySet()) {
             if(builder.getSearchId() == id) {
                 return Optional.of(builder.getLogOutput());
@@ -225,6 +213,45 @@ public class MainController {
     
 
 
+    /**
+     * Races the searches of all the {@link BuilderController} which are not locked, on the start and goal
+     * grids of the first of them, with {@link SearchRunner#raceSearches(io.github.vqnxiv.taquin.model.SearchSpace.Builder, List, int, boolean)}.
+     * The winning search is then attached to the {@link BuilderController} it was created from.
+     */
+    @FXML
+    private void onRaceActivated() {
+        var contestants = new ArrayList<SearchRunner.Contestant>();
+        var owners = new IdentityHashMap<SearchRunner.Contestant, BuilderController>();
+        
+        for(var node : builderVBox.getChildren()) {
+            for(var e : builderMap.entrySet()) {
+                if(e.getValue() == node) {
+                    e.getKey().getContestant().ifPresent(c -> {
+                        contestants.add(c);
+                        owners.put(c, e.getKey());
+                    });
+                }
+            }
+        }
+        
+        if(contestants.size() < 2) {
+            LOGGER.warn("A race needs at least two searches which were not run yet");
+            return;
+        }
+        
+        var first = owners.get(contestants.get(0));
+        searchRunner.raceSearches(first.getSpaceBuilder(), contestants, first.getThrottle(), false)
+            .whenComplete((winner, ex) -> Platform.runLater(() -> {
+                if(ex != null) {
+                    LOGGER.error("Race failed: {}", ex.getMessage());
+                }
+                else {
+                    winner.ifPresent(w -> owners.get(w.contestant()).adoptSearch(w.searchId()));
+                }
+            }));
+    }
+
+
     public void onAboutButtonActivated() {
         return;
     }
@@ -241,12 +268,14 @@ public class MainController {
     /**
      * Should be called when the app is shut down.
      * 
-     * Cancels {@link #heapService} by calling {@link ScheduledService#cancel()} and
-     * {@link #searchRunner} by calling {@link SearchRunner#shutdown(boolean)}.
+     * Cancels {@link #heapService} by calling {@link ScheduledService#cancel()},
+     * stops {@link #progressTimer} and shuts down {@link #searchRunner} by calling 
+     * {@link SearchRunner#shutdown(boolean)}.
      */
     public void shutdown() {
         LOGGER.info("Shutting down executors");
         searchRunner.shutdown(true);
         heapService.cancel();
+        progressTimer.stop();
     }
 }
@@ -14,7 +14,7 @@ import org.apache.logging.log4j.core.layout.PatternLayout;
 
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
 
 
 /**
@@ -31,10 +31,16 @@ import java.util.LinkedList;
 public class MainAppender extends AbstractFxAppender {
 
     /**
-     * A buffer for events that are logged before {@link #mainController}
-     * or {@link MainController#getMainLogOutput()} are initialized.
+     * The maximum number of messages in {@link #early}.
      */
-    private final LinkedList<LogEvent> events = new LinkedList<>();
+    private static final int EARLY_CAPACITY = 1_000;
+
+    /**
+     * A buffer for the messages of the events that are logged before {@link #mainController}
+     * or {@link MainController#getMainLogOutput()} are initialized. Only keeps the last
+     * {@link #EARLY_CAPACITY} messages.
+     */
+    private final ArrayDeque<String> early = new ArrayDeque<>();
 
     
     /**
@@ -87,18 +93,22 @@ public class MainAppender extends AbstractFxAppender {
      */
     @Override
     public void append(LogEvent event) {
-        events.add(event.toImmutable());
+        var message = new String(getLayout().toByteArray(event), StandardCharsets.UTF_8);
 
-        if(mainController == null || mainController.getMainLogOutput() == null) {
-            return;
-        }
-        
-        while(!events.isEmpty()) {
-            var e = events.poll();
-            enqueueForGui(
-                new String(getLayout().toByteArray(e), StandardCharsets.UTF_8), 
-                mainController.getMainLogOutput()
-            );
+        synchronized(early) {
+            if(mainController == null || mainController.getMainLogOutput() == null) {
+                early.add(message);
+                if(early.size() > EARLY_CAPACITY) {
+                    early.poll();
+                }
+                return;
+            }
+
+            while(!early.isEmpty()) {
+                enqueueForGui(early.poll(), mainController.getMainLogOutput());
+            }
         }
+
+        enqueueForGui(message, mainController.getMainLogOutput());
     }
 }
@@ -3,6 +3,7 @@ package io.github.vqnxiv.taquin.logger;
 
 import io.github.vqnxiv.taquin.controller.BuilderController;
 import io.github.vqnxiv.taquin.model.Search;
+import io.github.vqnxiv.taquin.model.SearchLog;
 import org.apache.logging.log4j.Marker;
 import org.apache.logging.log4j.core.Filter;
 import org.apache.logging.log4j.core.Layout;
@@ -22,6 +23,7 @@ import java.io.Serializable;
  *
  * @see AbstractFxAppender
  * @see Search
+ * @see SearchLog
  */
 @Plugin(
     name = "SearchAppender",
@@ -79,23 +81,18 @@ public class SearchAppender extends AbstractFxAppender {
      * from the corresponding {@link Search}.
      * <p>
      * The {@link Search} from which the event was fired is retrieved
-     * from the event's {@link Marker} ({@link Marker#getName()}).
+     * from the event's {@link Marker} ({@link Marker#getName()}). The message is already
+     * formatted by {@link SearchLog}.
      *
      * @param event {@link LogEvent} to be appended.
      */
     @Override
     public void append(LogEvent event) {
-        event = event.toImmutable();
-
         int id = Integer.parseInt(event.getMarker().getName());
+        var message = event.getMessage().getFormattedMessage();
         
-        LogEvent finalEvent = event;
         mainController.getBuilderLogOutputFromSearchID(id).ifPresent(
-            output -> {
-                var strTab = finalEvent.getMessage().getFormattedMessage().split("\t", 2);
-                var str = String.format("%15d", Long.parseLong(strTab[0])) + strTab[1] + '\n';
-                enqueueForGui(str, output);
-            }
+            output -> enqueueForGui(message, output)
         );
     }
 }
@@ -0,0 +1,382 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Class which solves a batch of instances without the GUI.
+ * <p>
+ * Each instance is solved by a new {@link Search} built from the same {@link Search.Builder}
+ * and injected with a new {@link SearchSpace} built from the same {@link DataStructure.Builder}s.
+ * Instances are solved on a fixed pool of threads and the {@link Result} of each instance
+ * is written as soon as it finishes, which means results are written in completion order
+ * and not in the order of the instances (see {@link Result#index()}).
+ * <p>
+ * Instances files contain one instance per line, whose cells are separated by whitespaces
+ * or commas, row after row, with {@code 0} as the empty cell. The grid must be square.
+ * Blank lines and lines starting with {@code #} are ignored.
+ */
+public class BatchSolver {
+
+    /**
+     * Enum which represents the format of the results.
+     */
+    public enum Format {
+        /**
+         * Comma separated values, with a header line.
+         */
+        CSV,
+        /**
+         * One JSON object per line.
+         */
+        JSON_LINES;
+
+
+        /**
+         * Gets the format from the extension of a file: {@link #JSON_LINES} for {@code .jsonl}
+         * and {@code .json}, {@link #CSV} otherwise.
+         *
+         * @param p The path of the file.
+         * @return The format for this file.
+         */
+        public static Format fromPath(Path p) {
+            var name = p.getFileName().toString().toLowerCase(Locale.ROOT);
+            return (name.endsWith(".jsonl") || name.endsWith(".json")) ? JSON_LINES : CSV;
+        }
+    }
+
+    /**
+     * The result of solving one instance.
+     *
+     * @param index The index of the instance in the batch.
+     * @param instance The cells of the instance, row after row.
+     * @param state The state of the search once it ended.
+     * @param pathLength The number of moves from the instance to the goal,
+     * or {@code -1} if the search did not succeed.
+     * @param expanded The number of explored states.
+     * @param generated The number of explored and queued states.
+     * @param time The time the search took, in ms.
+     * @param memory The memory used by the explored and queued states once the search ended, in bytes,
+     * or {@code -1} if it was not measured.
+     */
+    public record Result(
+        int index, String instance, Search.SearchState state, int pathLength,
+        long expanded, long generated, long time, long memory
+    ) {
+
+        /**
+         * CSV header line.
+         */
+        private static final String CSV_HEADER =
+            "index,instance,state,path_length,expanded,generated,time_ms,memory_bytes";
+
+        /**
+         * Formats this result.
+         *
+         * @param f The format to use.
+         * @return This result as a single line, without line separator.
+         */
+        public String format(Format f) {
+            return switch(f) {
+                case CSV -> index + ",\"" + instance + "\"," + state.name() + ',' + pathLength + ','
+                    + expanded + ',' + generated + ',' + time + ',' + memory;
+                case JSON_LINES -> "{\"index\":" + index + ",\"instance\":\"" + instance
+                    + "\",\"state\":\"" + state.name() + "\",\"path_length\":" + pathLength
+                    + ",\"expanded\":" + expanded + ",\"generated\":" + generated
+                    + ",\"time_ms\":" + time + ",\"memory_bytes\":" + memory + '}';
+            };
+        }
+    }
+
+
+    /**
+     * Root logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(BatchSolver.class);
+
+    /**
+     * {@link Search.Builder} from which every search is built.
+     */
+    private final Search.Builder<?> searchBuilder;
+
+    /**
+     * {@link DataStructure.Builder} for the queued states of every search.
+     */
+    private final DataStructure.Builder queuedBuilder;
+
+    /**
+     * {@link DataStructure.Builder} for the explored states of every search.
+     */
+    private final DataStructure.Builder exploredBuilder;
+
+    /**
+     * The goal of every instance. If {@code null}, the goal of an instance is the grid
+     * of the same size with the cells in ascending order and the empty cell last.
+     */
+    private final Grid goal;
+
+    /**
+     * The number of threads on which the instances are solved.
+     */
+    private final int threads;
+
+    /**
+     * Whether to measure the memory used by each search once it ended. This walks the whole
+     * graph of states and can take longer than the search itself for large searches.
+     */
+    private final boolean measureMemory;
+
+
+    /**
+     * Constructor.
+     *
+     * @param search The value for {@link #searchBuilder}.
+     * @param queued The value for {@link #queuedBuilder}.
+     * @param explored The value for {@link #exploredBuilder}.
+     * @param goal The value for {@link #goal}, can be {@code null}.
+     * @param threads The value for {@link #threads}. If it is {@code 0} or less,
+     * the number of available processors is used.
+     * @param measureMemory The value for {@link #measureMemory}.
+     */
+    public BatchSolver(
+        Search.Builder<?> search, DataStructure.Builder queued, DataStructure.Builder explored,
+        Grid goal, int threads, boolean measureMemory
+    ) {
+        searchBuilder = Objects.requireNonNull(search);
+        queuedBuilder = Objects.requireNonNull(queued);
+        exploredBuilder = Objects.requireNonNull(explored);
+        this.goal = goal;
+        this.threads = (threads > 0) ? threads : Runtime.getRuntime().availableProcessors();
+        this.measureMemory = measureMemory;
+    }
+
+
+    /**
+     * Parses a single instance.
+     *
+     * @param line The cells of the instance, row after row, separated by whitespaces or commas.
+     * @return {@link Optional#of(Object)} the grid if the line is a valid square grid,
+     * {@link Optional#empty()} otherwise.
+     */
+    public static Optional<Grid> parseGrid(String line) {
+        var tokens = line.strip().split("[\\s,]+");
+        int side = (int) Math.round(Math.sqrt(tokens.length));
+
+        if(side < 2 || side * side != tokens.length) {
+            LOGGER.error("Not a square grid: {}", line);
+            return Optional.empty();
+        }
+
+        var t = new int[side][side];
+        try {
+            for(int i = 0; i < tokens.length; i++) {
+                t[i / side][i % side] = Integer.parseInt(tokens[i]);
+            }
+        } catch(NumberFormatException e) {
+            LOGGER.error("Invalid cell in {}", line);
+            return Optional.empty();
+        }
+
+        return Grid.of(t);
+    }
+
+    /**
+     * Reads the instances from a file. Invalid lines are logged and skipped.
+     *
+     * @param input The file to read.
+     * @return {@link List} of the instances, in the order of the file.
+     * @throws IOException If the file could not be read.
+     */
+    public static List<Grid> readInstances(Path input) throws IOException {
+        var l = new ArrayList<Grid>();
+
+        try(var lines = Files.lines(input)) {
+            for(var line : (Iterable<String>) lines::iterator) {
+                if(!line.isBlank() && !line.strip().startsWith("#")) {
+                    parseGrid(line).ifPresent(l::add);
+                }
+            }
+        }
+
+        return l;
+    }
+
+    /**
+     * Creates the goal grid for a given size.
+     *
+     * @param width The width of the grid.
+     * @param height The height of the grid.
+     * @return The grid with the cells in ascending order and the empty cell last.
+     */
+    private static Grid orderedOfSize(int width, int height) {
+        var t = new int[height][width];
+
+        for(int i = 0; i < width * height - 1; i++) {
+            t[i / width][i % width] = i + 1;
+        }
+
+        return Grid.of(t).orElseThrow();
+    }
+
+    /**
+     * Formats the cells of a grid for {@link Result#instance()}.
+     *
+     * @param g The grid.
+     * @return The cells of the grid, row after row, separated by spaces.
+     */
+    private static String cells(Grid g) {
+        var sj = new StringJoiner(" ");
+
+        for(var row : g.getCopyOfSelf()) {
+            for(var c : row) {
+                sj.add(Integer.toString(c));
+            }
+        }
+
+        return sj.toString();
+    }
+
+
+    /**
+     * Solves the instances of a file and writes the results to another file,
+     * whose {@link Format} depends on its extension (see {@link Format#fromPath(Path)}).
+     *
+     * @param input The file to read the instances from.
+     * @param output The file to write the results to.
+     * @return The number of successfully solved instances.
+     * @throws IOException If either file could not be read or written.
+     * @throws InterruptedException If the thread was interrupted while waiting for results.
+     */
+    public int solve(Path input, Path output) throws IOException, InterruptedException {
+        var instances = readInstances(input);
+        LOGGER.info("Read {} instances from {}", instances.size(), input);
+
+        try(var w = Files.newBufferedWriter(output)) {
+            return solve(instances, w, Format.fromPath(output));
+        }
+    }
+
+    /**
+     * Solves instances and writes the result of each instance as soon as it finishes.
+     *
+     * @param instances The instances to solve.
+     * @param out Where to write the results.
+     * @param format The format of the results.
+     * @return The number of successfully solved instances.
+     * @throws IOException If a result could not be written.
+     * @throws InterruptedException If the thread was interrupted while waiting for results.
+     */
+    public int solve(List<Grid> instances, Writer out, Format format) throws IOException, InterruptedException {
+        var count = new AtomicInteger();
+        var executor = Executors.newFixedThreadPool(
+            Math.min(threads, Math.max(instances.size(), 1)),
+            r -> {
+                var t = new Thread(r, "Batch thread " + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        );
+        var completion = new ExecutorCompletionService<Result>(executor);
+
+        if(format == Format.CSV) {
+            out.write(Result.CSV_HEADER);
+            out.write(System.lineSeparator());
+        }
+
+        for(int i = 0; i < instances.size(); i++) {
+            int index = i;
+            completion.submit(() -> solve(index, instances.get(index)));
+        }
+
+        int solved = 0;
+        try {
+            for(int i = 0; i < instances.size(); i++) {
+                Result r;
+                try {
+                    r = completion.take().get();
+                } catch(ExecutionException e) {
+                    LOGGER.error("Instance failed: {}", e.getCause().toString());
+                    continue;
+                }
+
+                if(r.state() == Search.SearchState.ENDED_SUCCESS) {
+                    solved++;
+                }
+
+                out.write(r.format(format));
+                out.write(System.lineSeparator());
+                out.flush();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        LOGGER.info("Solved {} out of {} instances", solved, instances.size());
+        return solved;
+    }
+
+    /**
+     * Solves a single instance.
+     *
+     * @param index The index of the instance.
+     * @param start The instance.
+     * @return The {@link Result} for this instance, with {@link Search.SearchState#NOT_READY} if it is 
+     * not compatible with the goal or can not reach it (see {@link Grid#canReach(Grid)}).
+     */
+    Result solve(int index, Grid start) {
+        var end = (goal != null)
+            ? Grid.of(goal.getCopyOfSelf()).orElseThrow()
+            : orderedOfSize(start.getCopyOfSelf()[0].length, start.getCopyOfSelf().length);
+
+        // an unsolvable instance would be explored until the memory runs out
+        if(!start.checkCompatibility(end) || !start.canReach(end)) {
+            return new Result(index, cells(start), Search.SearchState.NOT_READY, -1, 0, 0, 0, -1);
+        }
+
+        Search s;
+        // the builders are shared and the comparators depend on the search
+        synchronized(this) {
+            s = searchBuilder.build();
+            queuedBuilder.comparator(s.getHeuristicComparator());
+            exploredBuilder.comparator(s.getHeuristicComparator());
+
+            s.setSearchSpace(
+                new SearchSpace.Builder()
+                    .start(Grid.of(start.getCopyOfSelf()).orElseThrow())
+                    .end(end)
+                    .queued(queuedBuilder)
+                    .explored(exploredBuilder)
+                    .build()
+            );
+        }
+
+        Search.SearchState state;
+        MetricsExporter.register(s);
+        try {
+            state = s.run(0, 0, () -> {});
+        } finally {
+            MetricsExporter.unregister(s);
+        }
+        var space = s.getSearchSpace();
+
+        long expanded = Search.SearchProperty.EXPLORED_SIZE.calc(s);
+        return new Result(
+            index, cells(start), state,
+            (state == Search.SearchState.ENDED_SUCCESS) ? space.pathFromStart().size() - 1 : -1,
+            expanded, expanded + Search.SearchProperty.QUEUED_SIZE.calc(s),
+            Search.SearchProperty.ELAPSED_TIME.calc(s),
+            measureMemory ? GraphLayout.parseInstance(space.getExplored(), space.getQueued()).totalSize() : -1
+        );
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import java.util.concurrent.CancellationException;
+
+
+/**
+ * Token which is passed to {@link Search#step(Cancellation)} and to the long operations
+ * of a step, so that a single step can be cancelled without waiting for it to end.
+ * <p>
+ * A token is cancelled if {@link #cancel()} was called (see {@link Search#stop()}), if the thread
+ * which runs the search was interrupted, or if its deadline was reached (see
+ * {@link Search.SearchLimit#MAXIMUM_TIME}). Operations check it with {@link #throwIfCancelled()}
+ * at points where stopping leaves the {@link SearchSpace} usable: between two operations on a
+ * {@link DataStructure}, between two chunks of a bulk insertion, and inside the merges of
+ * {@link io.github.vqnxiv.taquin.model.structure.Sortable}, which only modify the structure
+ * once they are done.
+ * <p>
+ * A cancelled step is not resumed: the search ends, and its space only contains what
+ * was done before the step was cancelled.
+ */
+public final class Cancellation {
+
+    /**
+     * Token which is never cancelled, e.g for steps which are not part of a run.
+     */
+    public static final Cancellation NONE = new Cancellation(null);
+
+    /**
+     * The number of elements handled by a long loop (e.g a merge) between two checks of its token.
+     */
+    public static final int CHECK_INTERVAL = 1024;
+
+
+    /**
+     * The thread which runs the search, or {@code null}.
+     */
+    private final Thread thread;
+
+    /**
+     * The {@link System#nanoTime()} at which this token is cancelled,
+     * or {@link Long#MAX_VALUE} if it has no deadline.
+     */
+    private long deadline = Long.MAX_VALUE;
+
+    /**
+     * Whether {@link #cancel()} was called.
+     */
+    private volatile boolean cancelled = false;
+
+
+    /**
+     * Constructor.
+     *
+     * @param thread The value for {@link #thread}.
+     */
+    Cancellation(Thread thread) {
+        this.thread = thread;
+    }
+
+
+    /**
+     * Setter for {@link #deadline}. Only called from the thread which runs the search,
+     * as the deadline moves when the search is throttled.
+     *
+     * @param remaining The time left before the deadline in ns, or a negative value for no deadline.
+     */
+    void setDeadline(long remaining) {
+        if(remaining < 0) {
+            deadline = Long.MAX_VALUE;
+            return;
+        }
+
+        long now = System.nanoTime();
+        deadline = (remaining > Long.MAX_VALUE - now) ? Long.MAX_VALUE : now + remaining;
+    }
+
+    /**
+     * Cancels this token. Can be called from any thread.
+     */
+    void cancel() {
+        if(this != NONE) {
+            cancelled = true;
+        }
+    }
+
+    /**
+     * Whether the deadline of this token was reached.
+     *
+     * @return {@code true} if this token has a deadline which was reached; {@code false} otherwise.
+     */
+    boolean isDeadlineReached() {
+        return deadline != Long.MAX_VALUE && System.nanoTime() - deadline >= 0;
+    }
+
+    /**
+     * Whether this token was cancelled.
+     *
+     * @return {@code true} if {@link #cancel()} was called, the thread was interrupted
+     * or the deadline was reached; {@code false} otherwise.
+     */
+    public boolean isCancelled() {
+        return cancelled
+            || (thread != null && thread.isInterrupted())
+            || isDeadlineReached();
+    }
+
+    /**
+     * Throws if this token was cancelled.
+     *
+     * @throws CancellationException If {@link #isCancelled()} returns {@code true}.
+     */
+    public void throwIfCancelled() {
+        if(isCancelled()) {
+            throw new CancellationException();
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * Utility class which saves a {@link Search} which is not running and its {@link SearchSpace}
+ * to a compact binary file, and restores them, possibly in another process.
+ * <p>
+ * As every grid of a {@link SearchSpace} is generated from its start grid, grids are not saved
+ * cell by cell: each one is saved as the index of its parent and the move which generated it
+ * (see {@link Grid#getMoveIndex()}), along with its key and heuristic value. The structures are
+ * then saved as lists of indices. The grids' other neighbors ({@link Grid#getPreExistingNeighbors()})
+ * and cached distances are not saved, the latter are simply computed again when needed.
+ * <p>
+ * The {@link Search.Builder} and {@link DataStructure.Builder}s are not saved and have to be
+ * provided when restoring; the state specific to an algorithm is saved through
+ * {@link Search#writeState(DataOutput)}.
+ */
+final class Checkpoint {
+
+    /**
+     * Magic number at the start of every checkpoint file.
+     */
+    private static final int MAGIC = 0x54514350;
+
+    /**
+     * Version of the file format.
+     */
+    private static final short VERSION = 1;
+
+
+    /**
+     * Private constructor.
+     */
+    private Checkpoint() {}
+
+
+    /**
+     * Saves a {@link Search} and its {@link SearchSpace}.
+     *
+     * @param search The search to save. It must not be running.
+     * @param file The file to write to.
+     * @throws IOException If the file could not be written.
+     * @throws IllegalStateException If the search is running or has no {@link SearchSpace}.
+     */
+    static void write(Search search, Path file) throws IOException {
+        var space = search.getSearchSpace();
+
+        if(space == null || search.getState() == Search.SearchState.RUNNING) {
+            throw new IllegalStateException("Search can not be saved: " + search.getName());
+        }
+
+        // grids are compared by content, but several grids can have the same content
+        var indices = new IdentityHashMap<Grid, Integer>();
+        var grids = new ArrayList<Grid>();
+
+        index(space.getStart(), indices, grids);
+        for(var g : space.getExplored()) {
+            index(g, indices, grids);
+        }
+        for(var g : space.getQueued()) {
+            index(g, indices, grids);
+        }
+        index(space.getCurrent(), indices, grids);
+
+        try(var out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(file))))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeUTF(search.getClass().getName());
+            out.writeByte(search.getState().ordinal());
+            out.writeLong(search.getElapsedTime());
+
+            writeCells(out, space.getStart());
+            writeCells(out, space.getGoal());
+            out.writeInt(space.getKeyCounter());
+
+            out.writeInt(grids.size());
+            for(var g : grids) {
+                out.writeInt((g.getParent() == g) ? -1 : indices.get(g.getParent()));
+                out.writeByte(g.getMoveIndex());
+                out.writeInt(g.getKey());
+                out.writeFloat(g.getHeuristicValue());
+            }
+
+            out.writeInt(indices.get(space.getCurrent()));
+            writeIndices(out, space.getExplored(), indices);
+            writeIndices(out, space.getQueued(), indices);
+
+            search.writeState(out);
+        }
+    }
+
+    /**
+     * Restores a {@link Search} and its {@link SearchSpace}.
+     *
+     * @param file The file to read from.
+     * @param searchBuilder The builder for the search, which must build the same {@link Search}
+     * subclass as the one which was saved.
+     * @param queuedBuilder {@link DataStructure.Builder} for the queued grids.
+     * @param exploredBuilder {@link DataStructure.Builder} for the explored grids.
+     * @return The restored search.
+     * @throws IOException If the file could not be read or is not a valid checkpoint.
+     * @throws IllegalArgumentException If the file was saved from another {@link Search} subclass.
+     */
+    static Search read(
+        Path file, Search.Builder<?> searchBuilder,
+        DataStructure.Builder queuedBuilder, DataStructure.Builder exploredBuilder
+    ) throws IOException {
+        try(var in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+            if(in.readInt() != MAGIC || in.readShort() != VERSION) {
+                throw new IOException("Not a checkpoint file: " + file);
+            }
+
+            var className = in.readUTF();
+            var search = searchBuilder.build();
+            if(!search.getClass().getName().equals(className)) {
+                throw new IllegalArgumentException("Checkpoint was saved from " + className);
+            }
+
+            var state = Search.SearchState.values()[in.readByte()];
+            long elapsed = in.readLong();
+
+            var start = readCells(in);
+            var goal = readCells(in);
+            int keyCounter = in.readInt();
+
+            var grids = new Grid[in.readInt()];
+            for(int i = 0; i < grids.length; i++) {
+                int parent = in.readInt();
+                int move = in.readByte();
+
+                if(parent >= i) {
+                    throw new IOException("Corrupted checkpoint file: " + file);
+                }
+
+                Grid g;
+                if(parent < 0) {
+                    g = (i == 0) ? start : Grid.of(start.getCopyOfSelf()).orElseThrow();
+                }
+                else {
+                    g = grids[parent].fromMove(move);
+                    grids[parent].addNeighbor(g, true);
+                }
+
+                g.setKey(in.readInt());
+                g.setHeuristicValue(in.readFloat());
+                grids[i] = g;
+            }
+
+            var current = grids[in.readInt()];
+            var explored = readIndices(in, grids);
+            var queued = readIndices(in, grids);
+
+            queuedBuilder.comparator(search.getHeuristicComparator());
+            exploredBuilder.comparator(search.getHeuristicComparator());
+
+            search.restore(
+                new SearchSpace(start, goal, current, keyCounter, exploredBuilder, queuedBuilder, explored, queued),
+                state, elapsed
+            );
+            search.readState(in);
+
+            return search;
+        }
+    }
+
+
+    /**
+     * Indexes a grid and the grids it was generated from, parents first.
+     *
+     * @param g The grid to index.
+     * @param indices The index of each grid.
+     * @param grids The grids, by index.
+     */
+    private static void index(Grid g, Map<Grid, Integer> indices, List<Grid> grids) {
+        var chain = new ArrayDeque<Grid>();
+
+        while(!indices.containsKey(g)) {
+            chain.push(g);
+
+            if(g.getParent() == g) {
+                break;
+            }
+            g = g.getParent();
+        }
+
+        while(!chain.isEmpty()) {
+            var next = chain.pop();
+            indices.put(next, grids.size());
+            grids.add(next);
+        }
+    }
+
+    /**
+     * Writes the cells of a grid.
+     *
+     * @param out Where to write.
+     * @param g The grid.
+     * @throws IOException If the cells could not be written.
+     */
+    private static void writeCells(DataOutput out, Grid g) throws IOException {
+        var cells = g.getCopyOfSelf();
+
+        out.writeInt(cells.length);
+        out.writeInt(cells[0].length);
+        for(var row : cells) {
+            for(var c : row) {
+                out.writeInt(c);
+            }
+        }
+    }
+
+    /**
+     * Reads the cells of a grid written by {@link #writeCells(DataOutput, Grid)}.
+     *
+     * @param in Where to read from.
+     * @return A new grid with these cells.
+     * @throws IOException If the cells could not be read or are not a valid grid.
+     */
+    private static Grid readCells(DataInput in) throws IOException {
+        var cells = new int[in.readInt()][in.readInt()];
+
+        for(var row : cells) {
+            for(int i = 0; i < row.length; i++) {
+                row[i] = in.readInt();
+            }
+        }
+
+        return Grid.of(cells).orElseThrow(() -> new IOException("Invalid grid in checkpoint file"));
+    }
+
+    /**
+     * Writes the content of a structure as indices.
+     *
+     * @param out Where to write.
+     * @param grids The structure.
+     * @param indices The index of each grid.
+     * @throws IOException If the indices could not be written.
+     */
+    private static void writeIndices(DataOutput out, Collection<Grid> grids, Map<Grid, Integer> indices) throws IOException {
+        out.writeInt(grids.size());
+        for(var g : grids) {
+            out.writeInt(indices.get(g));
+        }
+    }
+
+    /**
+     * Reads the content of a structure written by {@link #writeIndices(DataOutput, Collection, Map)}.
+     *
+     * @param in Where to read from.
+     * @param grids The grids, by index.
+     * @return The grids of the structure, in order.
+     * @throws IOException If the indices could not be read.
+     */
+    private static List<Grid> readIndices(DataInput in, Grid[] grids) throws IOException {
+        int n = in.readInt();
+        var l = new ArrayList<Grid>(n);
+
+        for(int i = 0; i < n; i++) {
+            l.add(grids[in.readInt()]);
+        }
+
+        return l;
+    }
+}
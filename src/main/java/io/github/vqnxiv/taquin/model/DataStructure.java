@@ -1,12 +1,16 @@
 package io.github.vqnxiv.taquin.model;
 
 
+import io.github.vqnxiv.taquin.model.structure.ImprovedSearch;
+import io.github.vqnxiv.taquin.model.structure.IndexedStructure;
 import io.github.vqnxiv.taquin.model.structure.Sorted;
 import io.github.vqnxiv.taquin.model.structure.Unsorted;
 import javafx.beans.property.*;
+import org.openjdk.jol.info.GraphLayout;
 
 import java.lang.reflect.InvocationTargetException;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
@@ -27,10 +31,23 @@ import java.util.*;
 public interface DataStructure<E> extends Collection<E> {
 
     class Builder implements IBuilder {
+
+        /**
+         * The number of states used by {@link #entryMemoryCost(Grid)}.
+         */
+        private static final int CALIBRATION_SIZE = 1 << 12;
+
+        /**
+         * Cache for {@link #entryMemoryCost(Grid)}, where the keys are the class of the structure 
+         * and whether it has a hash index.
+         */
+        private static final Map<List<Object>, Long> ENTRY_COSTS = new ConcurrentHashMap<>();
     
         private final ObjectProperty<Class<?>> klass;
         private final BooleanProperty initialCapacity;
         private final IntegerProperty userInitialCapacity;
+        private final BooleanProperty hashIndex;
+        private final ObjectProperty<ImprovedSearch.SearchType> searchType;
         private Comparator<?> comparator;
         
         
@@ -38,6 +55,8 @@ public interface DataStructure<E> extends Collection<E> {
             klass = new SimpleObjectProperty<>(this, name + " class", c);
             initialCapacity = new SimpleBooleanProperty(this, name + " increase capacity", false);
             userInitialCapacity = new SimpleIntegerProperty(this, name + " capacity", 0);
+            hashIndex = new SimpleBooleanProperty(this, name + " hash index", false);
+            searchType = new SimpleObjectProperty<>(this, name + " lookup", ImprovedSearch.SearchType.BINARY);
         }
 
         public Builder klass(Class<?> c) {
@@ -55,6 +74,16 @@ public interface DataStructure<E> extends Collection<E> {
             return this;
         }
 
+        public Builder hashIndex(boolean b) {
+            hashIndex.set(b);
+            return this;
+        }
+
+        public Builder searchType(ImprovedSearch.SearchType t) {
+            searchType.set(t);
+            return this;
+        }
+
         public Builder comparator(Comparator<?> comparator) {
             this.comparator = comparator;
             return this;
@@ -69,10 +98,48 @@ public interface DataStructure<E> extends Collection<E> {
         public EnumMap<Category, List<Property<?>>> getBatchProperties() {
             return new EnumMap<>(Map.of(
                 IBuilder.Category.COLLECTION,
-                List.of(initialCapacity, userInitialCapacity)
+                List.of(initialCapacity, userInitialCapacity, hashIndex, searchType)
             ));
         }
         
+        ImprovedSearch.SearchType getSearchType() {
+            return searchType.get();
+        }
+
+        /**
+         * Gets the memory overhead per element of the structures built by this builder (nodes,
+         * entries, slots of the backing arrays...), without the elements themselves.
+         * <p>
+         * It is calibrated once per structure class with JOL's {@link GraphLayout}, by filling a new 
+         * structure with states reachable from {@code sample}, and cached in {@link #ENTRY_COSTS}.
+         * 
+         * @param sample The grid from which the states for the calibration are generated.
+         * @return The memory overhead per element, in bytes.
+         */
+        @SuppressWarnings("unchecked")
+        long entryMemoryCost(Grid sample) {
+            return ENTRY_COSTS.computeIfAbsent(List.of(klass.get(), hashIndex.get()), k -> {
+                var grids = new LinkedHashSet<Grid>();
+                var frontier = new ArrayDeque<Grid>();
+                frontier.add(sample);
+                while(!frontier.isEmpty() && grids.size() < CALIBRATION_SIZE) {
+                    for(var g : frontier.poll().generateNeighbors()) {
+                        if(grids.size() < CALIBRATION_SIZE && grids.add(g)) {
+                            frontier.add(g);
+                        }
+                    }
+                }
+                
+                var ds = (DataStructure<Grid>) build();
+                long empty = GraphLayout.parseInstance(ds).totalSize();
+                ds.addAll(grids);
+                long overhead = GraphLayout.parseInstance(ds).totalSize() - empty
+                    - GraphLayout.parseInstance(grids.toArray()).totalSize();
+                
+                return Math.max(overhead / Math.max(grids.size(), 1), 0L);
+            });
+        }
+        
         DataStructure<?> build() {
             var c = klass.getValue();
             
@@ -111,6 +178,10 @@ public interface DataStructure<E> extends Collection<E> {
             if(ret == null) {
                 throw new IllegalArgumentException("couldnt create");
             }
+            
+            if(hashIndex.get()) {
+                ret = IndexedStructure.of(ret);
+            }
 
             return ret;
         }
@@ -153,6 +224,40 @@ public interface DataStructure<E> extends Collection<E> {
      */
     int dsIndexOf(E e);
 
+    /**
+     * Adds the elements of a {@link Collection} while checking a {@link Cancellation}. The
+     * elements are added by chunks of {@link Cancellation#CHECK_INTERVAL} with {@link #addAll(Collection)},
+     * and the token is checked before each chunk: if it is cancelled, the chunks which were already 
+     * added stay in this structure, which is still consistent.
+     * 
+     * @param c The elements to add.
+     * @param cancel {@link Cancellation} to check.
+     * @return {@code true} if this structure changed; {@code false} otherwise.
+     * @throws java.util.concurrent.CancellationException If {@code cancel} was cancelled.
+     */
+    default boolean addAll(Collection<? extends E> c, Cancellation cancel) {
+        if(c.size() <= Cancellation.CHECK_INTERVAL) {
+            cancel.throwIfCancelled();
+            return addAll(c);
+        }
+        
+        boolean ret = false;
+        var chunk = new ArrayList<E>(Cancellation.CHECK_INTERVAL);
+        var itr = c.iterator();
+        
+        while(itr.hasNext()) {
+            chunk.add(itr.next());
+            
+            if(chunk.size() == Cancellation.CHECK_INTERVAL || !itr.hasNext()) {
+                cancel.throwIfCancelled();
+                ret |= addAll(chunk);
+                chunk = new ArrayList<>(Cancellation.CHECK_INTERVAL);
+            }
+        }
+        
+        return ret;
+    }
+
     /**
      * Whether this structure accepts duplicate elements in regards to {@code equals}.
      * 
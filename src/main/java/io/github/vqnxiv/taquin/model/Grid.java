@@ -4,8 +4,10 @@ package io.github.vqnxiv.taquin.model;
 import io.github.vqnxiv.taquin.util.Utils;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.openjdk.jol.info.ClassLayout;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.BiFunction;
 import java.util.function.Function;
@@ -261,6 +263,24 @@ public class Grid implements Comparable<Grid> {
      */
     private static final Logger LOGGER = LogManager.getLogger(Grid.class);
 
+    /**
+     * Cache for {@link #getFixedMemoryCost()}, where the keys are the width and height of the grids 
+     * ({@code width << 32 | height}) and the values their memory cost in bytes.
+     */
+    private static final Map<Long, Long> MEMORY_COSTS = new ConcurrentHashMap<>();
+
+    /**
+     * The memory footprint of a value of {@link #distanceMap}, i.e a boxed {@link Float}.
+     */
+    private static final long DISTANCE_VALUE_COST = ClassLayout.parseClass(Float.class).instanceSize();
+
+    /**
+     * The memory footprint of {@link #hasGenerated} or {@link #existingNeighbors}: an {@link ArrayList}
+     * and its backing array, whose default capacity (10) is never exceeded by the neighbors of a grid.
+     */
+    private static final long NEIGHBORS_COST = ClassLayout.parseClass(ArrayList.class).instanceSize()
+        + ClassLayout.parseInstance(new Object[10]).instanceSize();
+
     /**
      * The 2d array which represents the grid.
      * <p>
@@ -567,6 +587,46 @@ public class Grid implements Comparable<Grid> {
     }
 
 
+    /**
+     * Checks whether a {@code Grid} can be reached from this one by sliding the empty cell, 
+     * with the permutation parity argument generalized to any goal and any size.
+     * <p>
+     * Each move of the empty cell is a transposition of two cells and changes the parity of the
+     * Manhattan distance between the empty cell and its position in the goal. So the goal can 
+     * be reached if and only if the parity of the permutation which takes the cells of this grid 
+     * to the goal is the parity of that distance.
+     * 
+     * @param g a {@code Grid} such that {@code checkCompatibility(g)} returns {@code true}
+     * @return {@code true} if {@code g} can be reached from this grid; {@code false} otherwise
+     */
+    public boolean canReach(Grid g) {
+        int width = self[0].length;
+        int n = self.length * width;
+
+        var goalIndex = new HashMap<Integer, Integer>(n * 2);
+        for(int row = 0; row < g.self.length; row++) {
+            for(int col = 0; col < width; col++) {
+                goalIndex.put(g.self[row][col], row * width + col);
+            }
+        }
+
+        // parity of the permutation from its cycles: a cycle of length l is l - 1 transpositions
+        var visited = new boolean[n];
+        int transpositions = 0;
+        for(int i = 0; i < n; i++) {
+            int length = 0;
+            for(int j = i; !visited[j]; j = goalIndex.get(self[j / width][j % width])) {
+                visited[j] = true;
+                length++;
+            }
+            transpositions += Math.max(length - 1, 0);
+        }
+
+        int distance = Math.abs(zero.row() - g.zero.row()) + Math.abs(zero.column() - g.zero.column());
+
+        return transpositions % 2 == distance % 2;
+    }
+
     /**
      * Getter for this object's 2d array {@code self}
      * 
@@ -576,6 +636,58 @@ public class Grid implements Comparable<Grid> {
         return Arrays.stream(self).map(int[]::clone).toArray(t -> self.clone());
     }
 
+    /**
+     * Gets the memory footprint of this object: the object itself, {@link #self}, {@link #distanceMap}
+     * and its boxed values, {@link #zero}, and the lists of {@link #getNeighborsMemoryCost()}, 
+     * but not the grids it references.
+     * <p>
+     * The part which only depends on the size of the grid is computed once per size with JOL's 
+     * {@link ClassLayout} and cached in {@link #MEMORY_COSTS}, so that the memory used by a structure 
+     * of grids can be estimated in constant time from its size and a representative grid instead 
+     * of walking its whole graph.
+     * 
+     * @return The memory footprint of this grid, in bytes.
+     */
+    public long getMemoryCost() {
+        return getFixedMemoryCost() + distanceMap.size() * DISTANCE_VALUE_COST + getNeighborsMemoryCost();
+    }
+
+    /**
+     * Gets the memory footprint of the lists of neighbors of this object, {@link #hasGenerated}
+     * and {@link #existingNeighbors}, which are only created once it was explored.
+     * 
+     * @return The memory footprint of the lists of neighbors, in bytes.
+     */
+    public long getNeighborsMemoryCost() {
+        return ((hasGenerated != null) ? NEIGHBORS_COST : 0L) + ((existingNeighbors != null) ? NEIGHBORS_COST : 0L);
+    }
+
+    /**
+     * Gets the memory footprint of the fields of a {@code Grid} of the same size as this object which 
+     * are always created: the object itself, {@link #self}, {@link #distanceMap} without its values 
+     * and {@link #zero}. Cached in {@link #MEMORY_COSTS}.
+     * 
+     * @return The memory footprint, in bytes.
+     */
+    private long getFixedMemoryCost() {
+        return MEMORY_COSTS.computeIfAbsent(
+            ((long) self[0].length << 32) | self.length,
+            k -> {
+                long cost = ClassLayout.parseInstance(this).instanceSize()
+                    + ClassLayout.parseInstance(self).instanceSize()
+                    + ClassLayout.parseInstance(distanceMap).instanceSize()
+                    + ClassLayout.parseInstance(new Object[Distance.values().length]).instanceSize()
+                    + ClassLayout.parseInstance(zero).instanceSize();
+                
+                for(var row : self) {
+                    cost += ClassLayout.parseInstance(row).instanceSize();
+                }
+                
+                return cost;
+            }
+        );
+    }
+
     /**
      * Getter for this object's {@code key}
      * 
@@ -685,6 +797,21 @@ public class Grid implements Comparable<Grid> {
         }
     }
 
+    /**
+     * Removes a neighbor from this object, e.g when it is dropped from a queue
+     * so that it can be garbage collected.
+     * 
+     * @param g {@code Grid} neighbor to be removed
+     */
+    void removeNeighbor(Grid g) {
+        if(hasGenerated != null) {
+            hasGenerated.removeIf(n -> n == g);
+        }
+        if(existingNeighbors != null) {
+            existingNeighbors.removeIf(n -> n == g);
+        }
+    }
+
     /**
      * Method which resets this object's neighbors.
      */
@@ -729,6 +856,41 @@ public class Grid implements Comparable<Grid> {
     }
     
 
+    /**
+     * Gets the index of the move which generated this object from its parent in 
+     * {@link #generateNeighbors()}. Used to save a grid without its cells, see {@link #fromMove(int)}.
+     * 
+     * @return The index of the move, or {@code -1} if this object was not generated from another grid.
+     */
+    int getMoveIndex() {
+        if(parentDirection == null) {
+            return -1;
+        }
+        
+        return switch(parentDirection) {
+            case RIGHT -> Direction.LEFT.ordinal();
+            case LEFT -> Direction.RIGHT.ordinal();
+            case UP -> Direction.DOWN.ordinal();
+            case DOWN -> Direction.UP.ordinal();
+        };
+    }
+
+    /**
+     * Generates the neighbor of this object for a given move, as {@link #generateNeighbors()} would.
+     * 
+     * @param moveIndex The index of the move, as returned by {@link #getMoveIndex()} on the neighbor.
+     * @return The new neighbor.
+     * @throws IllegalArgumentException If the move is not valid for this grid.
+     */
+    Grid fromMove(int moveIndex) {
+        if(moveIndex < 0 || moveIndex >= Direction.values().length 
+            || !Direction.values()[moveIndex].check(this)) {
+            throw new IllegalArgumentException("Invalid move: " + moveIndex);
+        }
+        
+        return new Grid(this, Direction.values()[moveIndex]);
+    }
+    
     /**
      * The method called to compute the distance between this object and another {@link Grid}.
      * <p>
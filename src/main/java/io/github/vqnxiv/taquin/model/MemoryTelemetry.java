@@ -0,0 +1,331 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.*;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Continuous heap and GC telemetry, which feeds the running searches with the memory pressure
+ * so that they can degrade gracefully (see {@link Search.MemoryAction}) instead of failing with an
+ * {@link OutOfMemoryError}.
+ * <p>
+ * The pressure is the usage of the old generation after the last collection, i.e what is still
+ * live, relative to its maximum size. It is updated on every GC notification of the
+ * {@link GarbageCollectorMXBean}s, and when the collection usage threshold of the old generation
+ * {@link MemoryPoolMXBean} (set to {@link #highThreshold}) is exceeded. The thresholds are read
+ * from the system properties {@code taquin.memory.high} and {@code taquin.memory.critical}
+ * (default: {@code 0.75} and {@code 0.9}).
+ * <p>
+ * The pressure is only computed after a collection, as the usage before one mostly is garbage.
+ * If the JVM does not report which pool is the old generation, the whole heap after the
+ * collection is used instead.
+ */
+public final class MemoryTelemetry {
+
+    /**
+     * Enum which represents the memory pressure.
+     */
+    public enum Pressure {
+        /**
+         * Below {@link #highThreshold}.
+         */
+        NORMAL,
+        /**
+         * Above {@link #highThreshold}.
+         */
+        HIGH,
+        /**
+         * Above {@link #criticalThreshold}: the next allocations may fail.
+         */
+        CRITICAL
+    }
+
+    /**
+     * A snapshot of the telemetry.
+     *
+     * @param heapUsed The current heap usage, in bytes.
+     * @param heapMax The maximum heap size, in bytes.
+     * @param oldGenUsed The usage of the old generation after the last collection, in bytes.
+     * @param oldGenMax The maximum size of the old generation, in bytes.
+     * @param gcCount The number of collections since the telemetry was started.
+     * @param gcTime The accumulated duration of these collections, in ms.
+     * @param lastGcPause The duration of the last collection, in ms.
+     * @param pressure The current {@link Pressure}.
+     */
+    public record Snapshot(
+        long heapUsed, long heapMax, long oldGenUsed, long oldGenMax,
+        long gcCount, long gcTime, long lastGcPause, Pressure pressure
+    ) {
+
+        /**
+         * The share of the old generation which is still used after the last collection.
+         *
+         * @return {@link #oldGenUsed} divided by {@link #oldGenMax}, between {@code 0} and {@code 1}.
+         */
+        public double oldGenRatio() {
+            return (oldGenMax > 0) ? (double) oldGenUsed / oldGenMax : 0d;
+        }
+    }
+
+    /**
+     * Holder of the single instance, which is only started when first used.
+     */
+    private static final class Holder {
+
+        /**
+         * The instance.
+         */
+        private static final MemoryTelemetry INSTANCE = new MemoryTelemetry();
+    }
+
+
+    /**
+     * Root logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(MemoryTelemetry.class);
+
+    /**
+     * The ratio of {@link #oldGenMax} above which the pressure is {@link Pressure#HIGH}.
+     */
+    private final double highThreshold;
+
+    /**
+     * The ratio of {@link #oldGenMax} above which the pressure is {@link Pressure#CRITICAL}.
+     */
+    private final double criticalThreshold;
+
+    /**
+     * Memory bean for the current heap usage.
+     */
+    private final MemoryMXBean memoryMXBean;
+
+    /**
+     * The old generation pool, or {@code null} if none was found.
+     */
+    private final MemoryPoolMXBean oldGen;
+
+    /**
+     * The maximum size of {@link #oldGen}, or of the heap if there is none.
+     */
+    private final long oldGenMax;
+
+    /**
+     * The searches which are fed the pressure, i.e the running ones.
+     */
+    private final Set<Search> searches = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The usage of {@link #oldGen} after the last collection.
+     */
+    private volatile long oldGenUsed = 0L;
+
+    /**
+     * The current pressure.
+     */
+    private volatile Pressure pressure = Pressure.NORMAL;
+
+    /**
+     * The number of collections.
+     */
+    private final AtomicLong gcCount = new AtomicLong();
+
+    /**
+     * The accumulated duration of the collections, in ms.
+     */
+    private final AtomicLong gcTime = new AtomicLong();
+
+    /**
+     * The duration of the last collection, in ms.
+     */
+    private volatile long lastGcPause = 0L;
+
+
+    /**
+     * Constructor. Finds the old generation pool, sets its collection usage threshold and
+     * listens to the GC and memory notifications.
+     */
+    private MemoryTelemetry() {
+        highThreshold = threshold("taquin.memory.high", 0.75d);
+        criticalThreshold = Math.max(threshold("taquin.memory.critical", 0.9d), highThreshold);
+        memoryMXBean = ManagementFactory.getMemoryMXBean();
+
+        MemoryPoolMXBean pool = null;
+        for(var p : ManagementFactory.getMemoryPoolMXBeans()) {
+            if(p.getType() == MemoryType.HEAP && p.isCollectionUsageThresholdSupported()
+                && (pool == null || p.getUsage().getMax() > pool.getUsage().getMax())) {
+                pool = p;
+            }
+        }
+        oldGen = pool;
+
+        long max = (oldGen != null) ? oldGen.getUsage().getMax() : -1L;
+        oldGenMax = (max > 0) ? max : memoryMXBean.getHeapMemoryUsage().getMax();
+
+        if(oldGen != null && oldGenMax > 0) {
+            oldGen.setCollectionUsageThreshold((long) (oldGenMax * highThreshold));
+        }
+
+        ((NotificationEmitter) memoryMXBean).addNotificationListener(
+            (n, handback) -> onThresholdExceeded(n), null, null
+        );
+        for(var gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if(gc instanceof NotificationEmitter e) {
+                e.addNotificationListener((n, handback) -> onCollection(n), null, null);
+            }
+        }
+
+        LOGGER.debug(
+            "Memory telemetry on {}, thresholds {} / {}",
+            (oldGen != null) ? oldGen.getName() : "heap", highThreshold, criticalThreshold
+        );
+    }
+
+    /**
+     * Gets the telemetry, and starts it if it was not.
+     *
+     * @return The single instance.
+     */
+    public static MemoryTelemetry get() {
+        return Holder.INSTANCE;
+    }
+
+
+    /**
+     * Reads a threshold from a system property.
+     *
+     * @param property The name of the property.
+     * @param defaultValue The value if the property is not set or not valid.
+     * @return The threshold, between {@code 0} and {@code 1}.
+     */
+    private static double threshold(String property, double defaultValue) {
+        try {
+            var d = Double.parseDouble(System.getProperty(property, Double.toString(defaultValue)));
+            return (d > 0d && d <= 1d) ? d : defaultValue;
+        } catch(NumberFormatException e) {
+            LOGGER.warn("Invalid value for {}: {}", property, System.getProperty(property));
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Called on GC notifications. Updates the counters and the pressure with the usage after the collection.
+     *
+     * @param n The notification.
+     */
+    private void onCollection(Notification n) {
+        if(!n.getType().equals(GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION)) {
+            return;
+        }
+
+        var info = GarbageCollectionNotificationInfo.from((CompositeData) n.getUserData()).getGcInfo();
+        gcCount.incrementAndGet();
+        gcTime.addAndGet(info.getDuration());
+        lastGcPause = info.getDuration();
+
+        long used;
+        if(oldGen != null && info.getMemoryUsageAfterGc().containsKey(oldGen.getName())) {
+            used = info.getMemoryUsageAfterGc().get(oldGen.getName()).getUsed();
+        }
+        else {
+            used = 0L;
+            for(var u : info.getMemoryUsageAfterGc().values()) {
+                used += u.getUsed();
+            }
+        }
+
+        update(used);
+    }
+
+    /**
+     * Called on memory notifications, i.e when the collection usage threshold of {@link #oldGen} is exceeded.
+     *
+     * @param n The notification.
+     */
+    private void onThresholdExceeded(Notification n) {
+        if(oldGen != null && n.getType().equals(MemoryNotificationInfo.MEMORY_COLLECTION_THRESHOLD_EXCEEDED)) {
+            update(oldGen.getCollectionUsage().getUsed());
+        }
+    }
+
+    /**
+     * Updates {@link #oldGenUsed} and {@link #pressure}, then feeds the pressure to {@link #searches}.
+     * Logs the changes of pressure.
+     *
+     * @param used The usage of the old generation after a collection.
+     */
+    private synchronized void update(long used) {
+        oldGenUsed = used;
+
+        double ratio = (oldGenMax > 0) ? (double) used / oldGenMax : 0d;
+        var p = (ratio >= criticalThreshold) ? Pressure.CRITICAL
+            : (ratio >= highThreshold) ? Pressure.HIGH
+            : Pressure.NORMAL;
+
+        if(p != pressure) {
+            if(p.compareTo(pressure) > 0) {
+                LOGGER.warn("Memory pressure {}: {}% of the old generation is live", p, (int) (ratio * 100));
+            }
+            else {
+                LOGGER.info("Memory pressure back to {}", p);
+            }
+            pressure = p;
+        }
+
+        for(var s : searches) {
+            s.onMemoryPressure(p);
+        }
+    }
+
+
+    /**
+     * Starts feeding a search with the pressure. Called when a run starts.
+     *
+     * @param s The search.
+     */
+    void register(Search s) {
+        searches.add(s);
+        s.onMemoryPressure(pressure);
+    }
+
+    /**
+     * Stops feeding a search with the pressure. Called when a run ends.
+     *
+     * @param s The search.
+     */
+    void unregister(Search s) {
+        searches.remove(s);
+    }
+
+    /**
+     * Getter for {@link #pressure}.
+     *
+     * @return {@link #pressure}.
+     */
+    public Pressure getPressure() {
+        return pressure;
+    }
+
+    /**
+     * Takes a snapshot of the telemetry. Can be called from any thread.
+     *
+     * @return {@link Snapshot} with the current values.
+     */
+    public Snapshot snapshot() {
+        var heap = memoryMXBean.getHeapMemoryUsage();
+
+        return new Snapshot(
+            heap.getUsed(), heap.getMax(), oldGenUsed, oldGenMax,
+            gcCount.get(), gcTime.get(), lastGcPause, pressure
+        );
+    }
+}
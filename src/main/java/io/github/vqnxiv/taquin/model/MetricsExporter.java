@@ -0,0 +1,419 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+
+/**
+ * Registry of the {@link SearchMXBean}s and {@link SearchRunnerMXBean}s, which registers them in the
+ * platform {@code MBeanServer} and exports their values in the Prometheus text exposition format
+ * with {@link #scrape()}, e.g for {@link MetricsServer}.
+ * <p>
+ * Searches are registered by the {@link SearchRunner} which created them until they are deleted,
+ * and by {@link BatchSolver} while they run.
+ */
+public final class MetricsExporter {
+
+    /**
+     * The domain of the {@link ObjectName}s.
+     */
+    public static final String DOMAIN = "io.github.vqnxiv.taquin";
+
+    /**
+     * Root logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(MetricsExporter.class);
+
+    /**
+     * Counter for the ids of the runners.
+     */
+    private static final AtomicInteger RUNNER_IDS = new AtomicInteger();
+
+    /**
+     * The registered searches, by name.
+     */
+    private static final Map<ObjectName, SearchBean> SEARCHES = new ConcurrentSkipListMap<>();
+
+    /**
+     * The registered runners, by name.
+     */
+    private static final Map<ObjectName, SearchRunnerMXBean> RUNNERS = new ConcurrentSkipListMap<>();
+
+
+    /**
+     * {@link SearchMXBean} which reads the values of a {@link Search}.
+     *
+     * @param search The search.
+     */
+    private record SearchBean(Search search) implements SearchMXBean {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getId() {
+            return search.getId();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getName() {
+            return search.getName();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getAlgorithm() {
+            return search.getClass().getSimpleName();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getState() {
+            return search.getState().name();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getElapsedTime() {
+            return search.getElapsedTime() / 1_000_000L;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getExplored() {
+            return search.getSearchSpace().getExplored().size();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getQueued() {
+            return search.getSearchSpace().getQueued().size();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getExpanded() {
+            return search.getMetrics().snapshot().expanded();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getGenerated() {
+            return search.getMetrics().snapshot().generated();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getDropped() {
+            return search.getMetrics().snapshot().dropped();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double getNodesPerSecond() {
+            return search.getMetrics().snapshot().nodesPerSecond();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getDepth() {
+            return search.getMetrics().snapshot().depth();
+        }
+    }
+
+
+    /**
+     * The values of a search, read once per {@link #scrape()}.
+     *
+     * @param labels The labels of the search, see {@link #searchLabels(SearchMXBean)}.
+     * @param running Whether the search is running.
+     * @param metrics The metrics of the search.
+     * @param queued The number of queued states.
+     * @param explored The number of explored states.
+     * @param elapsed The time the search has been running, in ms.
+     */
+    private record SearchSample(
+        String labels, boolean running, SearchMetrics.Snapshot metrics, int queued, int explored, long elapsed
+    ) {
+
+        /**
+         * Reads the values of a search.
+         *
+         * @param b The bean of the search.
+         * @return The sample.
+         */
+        private static SearchSample of(SearchBean b) {
+            return new SearchSample(
+                searchLabels(b), b.search().getState() == Search.SearchState.RUNNING,
+                b.search().getMetrics().snapshot(), b.getQueued(), b.getExplored(), b.getElapsedTime()
+            );
+        }
+    }
+
+
+    /**
+     * Private constructor, this class only has static methods.
+     */
+    private MetricsExporter() {}
+
+
+    /**
+     * Gets the {@link ObjectName} of a search.
+     *
+     * @param s The search.
+     * @return {@code io.github.vqnxiv.taquin:type=Search,id=<id>}.
+     * @throws JMException If the name is not valid.
+     */
+    private static ObjectName searchName(Search s) throws JMException {
+        return new ObjectName(DOMAIN + ":type=Search,id=" + s.getId());
+    }
+
+    /**
+     * Registers a search. Does nothing if it already is.
+     *
+     * @param s The search.
+     */
+    static void register(Search s) {
+        try {
+            var name = searchName(s);
+            var bean = new SearchBean(s);
+            if(!SEARCHES.containsKey(name)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(bean, name);
+                SEARCHES.put(name, bean);
+            }
+        } catch(JMException e) {
+            LOGGER.warn("Could not register search {}: {}", s.getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Unregisters a search. Does nothing if it was not registered.
+     *
+     * @param s The search.
+     */
+    static void unregister(Search s) {
+        try {
+            var name = searchName(s);
+            if(SEARCHES.remove(name) != null) {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            }
+        } catch(JMException e) {
+            LOGGER.warn("Could not unregister search {}: {}", s.getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Registers a runner under a new id.
+     *
+     * @param bean The bean of the runner.
+     * @return The {@link ObjectName} of the runner, for {@link #unregister(ObjectName)}.
+     * {@code null} if it could not be registered.
+     */
+    static ObjectName register(SearchRunnerMXBean bean) {
+        try {
+            var name = new ObjectName(DOMAIN + ":type=SearchRunner,id=" + RUNNER_IDS.incrementAndGet());
+            ManagementFactory.getPlatformMBeanServer().registerMBean(bean, name);
+            RUNNERS.put(name, bean);
+            return name;
+        } catch(JMException e) {
+            LOGGER.warn("Could not register search runner: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Unregisters a runner.
+     *
+     * @param name The {@link ObjectName} returned by {@link #register(SearchRunnerMXBean)}.
+     */
+    static void unregister(ObjectName name) {
+        if(name == null || RUNNERS.remove(name) == null) {
+            return;
+        }
+
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch(JMException e) {
+            LOGGER.warn("Could not unregister search runner: {}", e.getMessage());
+        }
+    }
+
+
+    /**
+     * Exports the values of the registered beans and of {@link MemoryTelemetry}
+     * in the Prometheus text exposition format (version {@code 0.0.4}).
+     *
+     * @return The metrics, one sample per line.
+     */
+    public static String scrape() {
+        var sb = new StringBuilder(4096);
+
+        var m = MemoryTelemetry.get().snapshot();
+        header(sb, "taquin_heap_used_bytes", "gauge", "Current heap usage.");
+        sample(sb, "taquin_heap_used_bytes", "", m.heapUsed());
+        header(sb, "taquin_heap_max_bytes", "gauge", "Maximum heap size.");
+        sample(sb, "taquin_heap_max_bytes", "", m.heapMax());
+        header(sb, "taquin_old_gen_live_ratio", "gauge", "Share of the old generation used after the last GC.");
+        sample(sb, "taquin_old_gen_live_ratio", "", m.oldGenRatio());
+        header(sb, "taquin_memory_pressure", "gauge", "Memory pressure: 0 normal, 1 high, 2 critical.");
+        sample(sb, "taquin_memory_pressure", "", m.pressure().ordinal());
+        header(sb, "taquin_gc_collections_total", "counter", "Garbage collections.");
+        sample(sb, "taquin_gc_collections_total", "", m.gcCount());
+        header(sb, "taquin_gc_time_seconds_total", "counter", "Time spent in garbage collections.");
+        sample(sb, "taquin_gc_time_seconds_total", "", m.gcTime() / 1e3);
+
+        var runners = RUNNERS.entrySet();
+        metric(sb, "taquin_runner_searches", "gauge", "Searches of the runner.",
+            runners, e -> runnerLabels(e.getKey()), e -> e.getValue().getSearchCount());
+        metric(sb, "taquin_runner_active_searches", "gauge", "Searches of the runner which are running or waiting for a thread.",
+            runners, e -> runnerLabels(e.getKey()), e -> e.getValue().getActiveSearches());
+        metric(sb, "taquin_runner_queue_length", "gauge", "Runs waiting for a thread.",
+            runners, e -> runnerLabels(e.getKey()), e -> e.getValue().getQueueLength());
+        metric(sb, "taquin_runner_slices_total", "counter", "Slices run by the runner.",
+            runners, e -> runnerLabels(e.getKey()), e -> e.getValue().getCompletedSlices());
+        metric(sb, "taquin_runner_utilization_ratio", "gauge", "Share of the threads' time spent running searches.",
+            runners, e -> runnerLabels(e.getKey()), e -> e.getValue().getUtilization());
+
+        // read once so that the samples of a search are consistent
+        var searches = SEARCHES.values().stream().map(SearchSample::of).toList();
+        metric(sb, "taquin_search_running", "gauge", "Whether the search is running.",
+            searches, SearchSample::labels, x -> x.running() ? 1 : 0);
+        metric(sb, "taquin_search_nodes_per_second", "gauge", "Expansions per second over the last few seconds.",
+            searches, SearchSample::labels, x -> x.metrics().nodesPerSecond());
+        metric(sb, "taquin_search_expanded_total", "counter", "Expanded states.",
+            searches, SearchSample::labels, x -> x.metrics().expanded());
+        metric(sb, "taquin_search_generated_total", "counter", "Generated states, including duplicates.",
+            searches, SearchSample::labels, x -> x.metrics().generated());
+        metric(sb, "taquin_search_dropped_total", "counter", "Queued states dropped because of memory pressure.",
+            searches, SearchSample::labels, x -> x.metrics().dropped());
+        metric(sb, "taquin_search_depth", "gauge", "Maximum depth of the expanded states.",
+            searches, SearchSample::labels, x -> x.metrics().depth());
+        metric(sb, "taquin_search_queued", "gauge", "Queued states.",
+            searches, SearchSample::labels, SearchSample::queued);
+        metric(sb, "taquin_search_explored", "gauge", "Explored states.",
+            searches, SearchSample::labels, SearchSample::explored);
+        metric(sb, "taquin_search_elapsed_seconds", "gauge", "Time the search has been running.",
+            searches, SearchSample::labels, x -> x.elapsed() / 1e3);
+
+        return sb.toString();
+    }
+
+    /**
+     * Appends a metric with one sample per item.
+     *
+     * @param sb Where to append.
+     * @param name The name of the metric.
+     * @param type Its type, e.g {@code gauge}.
+     * @param help Its description.
+     * @param items The items, e.g the runners.
+     * @param labels Function which returns the labels of an item.
+     * @param value Function which returns the value of an item.
+     * @param <T> The type of the items.
+     */
+    private static <T> void metric(
+        StringBuilder sb, String name, String type, String help,
+        Collection<T> items, Function<T, String> labels, Function<T, Number> value
+    ) {
+        header(sb, name, type, help);
+        for(var item : items) {
+            sample(sb, name, labels.apply(item), value.apply(item));
+        }
+    }
+
+    /**
+     * Appends the {@code HELP} and {@code TYPE} lines of a metric.
+     *
+     * @param sb Where to append.
+     * @param name The name of the metric.
+     * @param type Its type, e.g {@code gauge}.
+     * @param help Its description.
+     */
+    private static void header(StringBuilder sb, String name, String type, String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Appends a sample.
+     *
+     * @param sb Where to append.
+     * @param name The name of the metric.
+     * @param labels The labels, e.g {@code {id="1"}}, or an empty string.
+     * @param value The value.
+     */
+    private static void sample(StringBuilder sb, String name, String labels, Number value) {
+        sb.append(name).append(labels).append(' ');
+        if(value instanceof Double d) {
+            sb.append(Double.isFinite(d) ? String.format(Locale.ROOT, "%.6g", d) : "NaN");
+        }
+        else {
+            sb.append(value);
+        }
+        sb.append('\n');
+    }
+
+    /**
+     * Gets the labels of a runner.
+     *
+     * @param name Its {@link ObjectName}.
+     * @return {@code {runner="<id>"}}.
+     */
+    private static String runnerLabels(ObjectName name) {
+        return "{runner=\"" + escape(name.getKeyProperty("id")) + "\"}";
+    }
+
+    /**
+     * Gets the labels of a search.
+     *
+     * @param b The bean of the search.
+     * @return {@code {id="<id>",name="<name>",algorithm="<algorithm>"}}.
+     */
+    private static String searchLabels(SearchMXBean b) {
+        return "{id=\"" + b.getId() + "\",name=\"" + escape(b.getName())
+            + "\",algorithm=\"" + escape(b.getAlgorithm()) + "\"}";
+    }
+
+    /**
+     * Escapes a label value: backslashes, double quotes and line feeds.
+     *
+     * @param s The value.
+     * @return The escaped value.
+     */
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,186 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+
+/**
+ * Local HTTP endpoint which serves {@link MetricsExporter#scrape()} on {@code /metrics},
+ * in the Prometheus text exposition format, with the JDK's built-in HTTP server.
+ * <p>
+ * It only listens on the loopback address, so that the metrics are not exposed outside of the host
+ * (a reverse proxy or an agent on the host can scrape it). It is started with the
+ * {@code taquin.metrics.port} system property (see {@link #fromProperty()}) or the {@code --metrics-port}
+ * option of the headless modes, and should be {@link #close() closed} once the app is done.
+ * Its threads are daemon threads so that an app which does not close it can still exit.
+ */
+public final class MetricsServer implements Closeable {
+
+    /**
+     * The system property which holds the port.
+     */
+    public static final String PORT_PROPERTY = "taquin.metrics.port";
+
+    /**
+     * The path of the endpoint.
+     */
+    public static final String PATH = "/metrics";
+
+    /**
+     * The content type of the Prometheus text format.
+     */
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * Root logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(MetricsServer.class);
+
+    /**
+     * The server.
+     */
+    private final HttpServer server;
+
+    /**
+     * The executor of {@link #server}.
+     */
+    private final ExecutorService executor;
+
+
+    /**
+     * Constructor.
+     *
+     * @param server The value for {@link #server}.
+     * @param executor The value for {@link #executor}.
+     */
+    private MetricsServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+
+    /**
+     * Starts a server.
+     *
+     * @param port The port to listen on, {@code 0} for any free port.
+     * @return {@link Optional#of(Object)} the started server; {@link Optional#empty()} if it could not be started.
+     */
+    public static Optional<MetricsServer> start(int port) {
+        try {
+            var server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext(PATH, MetricsServer::handle);
+            // a single thread: scrapes are rare
+            var executor = Executors.newSingleThreadExecutor(r -> {
+                var t = new Thread(r, "Metrics server");
+                t.setDaemon(true);
+                return t;
+            });
+            server.setExecutor(executor);
+            startDaemon(server);
+
+            LOGGER.info("Serving metrics on http://{}:{}{}",
+                server.getAddress().getHostString(), server.getAddress().getPort(), PATH);
+            return Optional.of(new MetricsServer(server, executor));
+        } catch(IOException | IllegalArgumentException e) {
+            LOGGER.error("Could not start metrics server on port {}: {}", port, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Starts a server from a daemon thread: its dispatcher thread inherits the daemon status
+     * of the thread which starts it, and would otherwise keep the JVM alive.
+     *
+     * @param server The server to start.
+     */
+    private static void startDaemon(HttpServer server) {
+        var starter = new Thread(server::start, "Metrics server starter");
+        starter.setDaemon(true);
+        starter.start();
+
+        try {
+            starter.join();
+        } catch(InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Starts a server on the port from {@link #PORT_PROPERTY}, if it is set.
+     *
+     * @return {@link Optional#of(Object)} the started server; {@link Optional#empty()} if the property
+     * is not set or the server could not be started.
+     */
+    public static Optional<MetricsServer> fromProperty() {
+        var port = System.getProperty(PORT_PROPERTY);
+        if(port == null || port.isBlank()) {
+            return Optional.empty();
+        }
+
+        try {
+            return start(Integer.parseInt(port.trim()));
+        } catch(NumberFormatException e) {
+            LOGGER.error("Invalid value for {}: {}", PORT_PROPERTY, port);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Handles a request: {@code GET} and {@code HEAD} get the metrics, other methods a {@code 405}.
+     *
+     * @param exchange The request.
+     * @throws IOException If the response could not be sent.
+     */
+    private static void handle(HttpExchange exchange) throws IOException {
+        try(exchange) {
+            var method = exchange.getRequestMethod();
+            if(!method.equals("GET") && !method.equals("HEAD")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            var body = MetricsExporter.scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if(method.equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+        }
+    }
+
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return The port, e.g when it was started on port {@code 0}.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+        LOGGER.info("Metrics server stopped");
+    }
+}
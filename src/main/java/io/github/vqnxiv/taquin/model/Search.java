@@ -1,17 +1,23 @@
 package io.github.vqnxiv.taquin.model;
 
 
+import io.github.vqnxiv.taquin.model.structure.Sorted;
 import io.github.vqnxiv.taquin.util.Utils;
 import javafx.application.Platform;
 import javafx.beans.property.*;
 import javafx.concurrent.Task;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
-import org.apache.logging.log4j.MarkerManager;
-import org.openjdk.jol.info.GraphLayout;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Predicate;
 import java.util.function.ToLongFunction;
 
 
@@ -48,11 +54,15 @@ public abstract class Search {
         protected final IntegerProperty maxGenerated;
         protected final IntegerProperty maxExplored;
         protected final IntegerProperty maxMemory;
+        protected final ObjectProperty<MemoryAction> memoryAction;
         
         
         protected final BooleanProperty monitorMemory;
         protected final BooleanProperty log;
         protected final IntegerProperty throttle;
+        protected final IntegerProperty batchSize;
+        protected final IntegerProperty batchTime;
+        protected final StringProperty traceFile;
 
         /**
          * Base no args constructor.
@@ -67,11 +77,15 @@ public abstract class Search {
             monitorMemory = new SimpleBooleanProperty(this, "monitor memory", false);
             log = new SimpleBooleanProperty(this, "log search", true);
             throttle = new SimpleIntegerProperty(this, "throttle", 0);
+            batchSize = new SimpleIntegerProperty(this, "batch size", 1);
+            batchTime = new SimpleIntegerProperty(this, "batch time", 0);
+            traceFile = new SimpleStringProperty(this, "trace file", "");
             maxExplored = new SimpleIntegerProperty(this, "Maximum explored", 0);
             maxTime = new SimpleIntegerProperty(this, "Maximum time", 0);
             maxDepth = new SimpleIntegerProperty(this, "Maximum depth", 0);
             maxGenerated = new SimpleIntegerProperty(this, "Maximum generated", 0);
             maxMemory = new SimpleIntegerProperty(this, "Maximum memory", 0);
+            memoryAction = new SimpleObjectProperty<>(this, "memory action", MemoryAction.NONE);
         }
 
         /**
@@ -89,11 +103,135 @@ public abstract class Search {
             monitorMemory = toCopy.monitorMemory;
             log = toCopy.log;
             throttle = toCopy.throttle;
+            batchSize = toCopy.batchSize;
+            batchTime = toCopy.batchTime;
+            traceFile = toCopy.traceFile;
             maxExplored = toCopy.maxExplored;
             maxTime = toCopy.maxTime;
             maxDepth = toCopy.maxDepth;
             maxGenerated = toCopy.maxGenerated;
             maxMemory = toCopy.maxMemory;
+            memoryAction = toCopy.memoryAction;
+        }
+
+        /**
+         * Setter for {@link #name}.
+         * @param n The new value for {@link #name}.
+         * @return this object.
+         */
+        public B name(String n) {
+            name.set(n);
+            return self();
+        }
+
+        /**
+         * Setter for {@link #heuristic}.
+         * @param d The new value for {@link #heuristic}.
+         * @return this object.
+         */
+        public B heuristic(Grid.Distance d) {
+            heuristic.set(d);
+            return self();
+        }
+
+        /**
+         * Setter for {@link #equalPolicy}.
+         * @param p The new value for {@link #equalPolicy}.
+         * @return this object.
+         */
+        public B equalPolicy(Grid.EqualPolicy p) {
+            equalPolicy.set(p);
+            return self();
+        }
+
+        /**
+         * Setter for {@link #maxTime}.
+         * @param n The new value for {@link #maxTime}.
+         * @return this object.
+         */
+        public B maxTime(int n) {
+            maxTime.set(n);
+            return self();
+        }
+
+        /**
+         * Setter for {@link #maxDepth}.
+         * @param n The new value for {@link #maxDepth}.
+         * @return this object.
+         */
+        public B maxDepth(int n) {
+            maxDepth.set(n);
+            return self();
+        }
+
+        /**
+         * Setter for {@link #maxExplored}.
+         * @param n The new value for {@link #maxExplored}.
+         * @return this object.
+         */
+        public B maxExplored(int n) {
+            maxExplored.set(n);
+            return self();
+        }
+
+        /**
+         * Setter for {@link #maxGenerated}.
+         * @param n The new value for {@link #maxGenerated}.
+         * @return this object.
+         */
+        public B maxGenerated(int n) {
+            maxGenerated.set(n);
+            return self();
+        }
+
+        /**
+         * Setter for {@link #maxMemory}.
+         * @param n The new value for {@link #maxMemory}.
+         * @return this object.
+         */
+        public B maxMemory(int n) {
+            maxMemory.set(n);
+            return self();
+        }
+
+        /**
+         * Setter for {@link #memoryAction}.
+         * @param a The new value for {@link #memoryAction}.
+         * @return this object.
+         */
+        public B memoryAction(MemoryAction a) {
+            memoryAction.set(a);
+            return self();
+        }
+
+        /**
+         * Setter for {@link #batchSize}.
+         * @param n The new value for {@link #batchSize}.
+         * @return this object.
+         */
+        public B batchSize(int n) {
+            batchSize.set(n);
+            return self();
+        }
+
+        /**
+         * Setter for {@link #batchTime}.
+         * @param n The new value for {@link #batchTime}.
+         * @return this object.
+         */
+        public B batchTime(int n) {
+            batchTime.set(n);
+            return self();
+        }
+
+        /**
+         * Setter for {@link #traceFile}.
+         * @param f The new value for {@link #traceFile}, or an empty string to not record a trace.
+         * @return this object.
+         */
+        public B traceFile(String f) {
+            traceFile.set(f);
+            return self();
         }
 
         /**
@@ -117,15 +255,16 @@ public abstract class Search {
          * <li>{@link #filterExplored}, {@link #filterQueued}, {@link #linkExisting},
          * {@link #equalPolicy}
          * </li>
-         * <li> {@link #monitorMemory} </li>
+         * <li> {@link #monitorMemory}, {@link #log}, {@link #throttle}, {@link #batchSize}, {@link #batchTime},
+         * {@link #traceFile} </li>
          * </ul>
          */
         @Override
         public EnumMap<Category, List<Property<?>>> getBatchProperties() {
             return new EnumMap<>(Map.of(
                 IBuilder.Category.SEARCH_MAIN, List.of(filterExplored, filterQueued, linkExisting, equalPolicy),
-                IBuilder.Category.LIMITS, List.of(maxTime, maxDepth, maxExplored, maxGenerated, maxMemory),
-                IBuilder.Category.MISCELLANEOUS, List.of(monitorMemory, log, throttle)
+                IBuilder.Category.LIMITS, List.of(maxTime, maxDepth, maxExplored, maxGenerated, maxMemory, memoryAction),
+                IBuilder.Category.MISCELLANEOUS, List.of(monitorMemory, log, throttle, batchSize, batchTime, traceFile)
             ));
         }
 
@@ -163,7 +302,8 @@ public abstract class Search {
      * It should be created through the factory method {@link #newSearchTask(int, int, boolean, boolean)}
      * and then passed on to an {@code ExecutorService} or similar so it can be executed async.
      * <p>
-     * It also updates {@link #properties} with the {@link Search}'s progress.
+     * It also publishes the {@link Search}'s progress with {@link #publishProgress(boolean)}, 
+     * from which {@link #properties} are updated by {@link #refreshProperties()}.
      * 
      * @param <S> {@link SearchState}
      */
@@ -171,162 +311,93 @@ public abstract class Search {
     class SearchTask<S> extends Task<S> {
 
         /**
-         * {@link Map} of {@link AtomicReference} which are used to throttle updates
-         * to {@link #properties}. The map contains a {@link SearchProperty} key
-         * for each {@link StringProperty} that should be updated.
-         */
-        private final EnumMap<SearchProperty, AtomicReference<String>> atomicReferences;
-
-        /**
-         * Method which updates {@link #properties} based on {@link #atomicReferences}
-         * by making {@link Platform#runLater(Runnable)} calls if an {@link AtomicReference}
-         * is {@code null}, which means either that the previous call has completed or that
-         * no call has been done yet.
-         */
-        private void updateAll() {
-            for(var e : atomicReferences.entrySet()) {
-                var k = e.getKey(); 
-                var v = e.getValue();
-                if(v.getAndSet(k.calcToString(Search.this)) == null) {
-                    Platform.runLater(() -> {
-                        final String s = v.getAndSet(null);
-                        properties.get(k).set(s);
-                    });
-                }
-            }
-        }
-
-        /**
-         * Throttle the search by calling {@link Thread#sleep(long)}. Pauses the timer
-         * represented by {@link #startTime} and {@link #elapsedTime} before the call
-         * and starts it again once it is completed. The method does nothing if
-         * {@link #throttle} is equal or inferior to {@code 0}.
-         * <p>
-         * If an {@link InterruptedException}, the search is stopped by calling
-         * {@link Search#stop()}.
+         * The number of iterations (i.e {@link #step(Cancellation)} calls) for this task.
+         * 0 means until {@link #checkConditions()} returns {@code false}.
          */
-        private void throttle() {
-            if(throttle <= 0) {
-                return;
-            }
-            
-            elapsedTime += System.nanoTime() - startTime;
-            try {
-                Thread.sleep(throttle);
-            } catch(InterruptedException e) {
-                Search.this.stop();
-            }
-            startTime = System.nanoTime();
-        }
+        private final int iterations;
 
         /**
-         * Checks whether {@link #searchSpace}'s goal is queued if {@link #currentSearchState}
-         * is not equal to {@link SearchState#PAUSED} or {@link SearchState#ENDED_SUCCESS}.
+         * The duration for which the thread should sleep in {@link Search#throttle(int)}.
          */
-        private void checkIfEndWasQueued() {
-            if(currentSearchState != SearchState.PAUSED 
-                && currentSearchState != SearchState.ENDED_SUCCESS
-                && currentSearchState != SearchState.ENDED_FAILURE_EMPTY_SPACE) {
-                int n;
-                if((n = searchSpace.getQueued().dsIndexOf(searchSpace.getGoal())) > -1) {
-                    log("End queued at index " + n);
-                }
-                else {
-                    log("End not queued");
-                }
-            }
-        }
-        
+        private final int throttle;
 
         /**
-         * The number of iterations (i.e {@link #step()} calls) for this task.
-         * 0 means until {@link #checkConditions()} returns {@code false}.
+         * Whether to publish {@link SearchProperty#EXPLORED_MEMORY} and 
+         * {@link SearchProperty#QUEUED_MEMORY} in every iteration.
          */
-        private final int iterations;
+        private final boolean memory;
 
         /**
-         * The duration for which the thread should sleep in {@link #throttle()}.
+         * Whether this task is a slice of a longer run, see {@link Search#run(int, int, Runnable, boolean)}.
          */
-        private final int throttle;
+        private final boolean slice;
 
 
         /**
-         * Constructor which should only be called from {@link #newSearchTask(int, int, boolean, boolean)}
+         * Constructor which should only be called from {@link #newSearchTask(int, int, boolean, boolean, boolean)}
          * to ensure validation is done.
          * 
          * @param iter The value for {@link #iterations}.
          * @param thr The value for {@link #throttle}.
          * @param log Whether to log the search.
-         * @param mem Whether to include memory updates ({@link SearchProperty#EXPLORED_MEMORY}, 
-         * {@link SearchProperty#QUEUED_MEMORY}) in {@link #updateAll()} calls in every iteration.
+         * @param mem The value for {@link #memory}.
+         * @param slice The value for {@link #slice}.
          */
-        private SearchTask(int iter, int thr, boolean log, boolean mem) {
+        private SearchTask(int iter, int thr, boolean log, boolean mem, boolean slice) {
             iterations = iter;
             throttle = thr;
+            memory = mem;
+            this.slice = slice;
             Search.this.log = log;
-
-            atomicReferences = new EnumMap<>(SearchProperty.class);
-
-            for(var k : properties.keySet()) {
-                atomicReferences.put(k, new AtomicReference<>());
-            }
-            
-            if(!mem) {
-                atomicReferences.remove(SearchProperty.EXPLORED_MEMORY);
-                atomicReferences.remove(SearchProperty.QUEUED_MEMORY);
-            }
         }
 
         /**
-         * Method which does a search run-through.
-         * <p>
-         * For {@link #iterations} (or indefinitely if it is {@code 0}),
-         * this method calls {@link #step()}, {@link #updateAll()} and {@link #throttle()}
-         * as long as {@link #checkConditions()} returns {@code true}. 
-         * Calls {@link #checkIfEndWasQueued()} before returning {@link #currentSearchState}.
+         * Method which does a search run-through by calling {@link Search#run(int, int, Runnable, boolean)}
+         * with {@link #publishProgress(boolean)} as callback, and publishes the memory usage once it ends.
          * 
          * @return The {@link Search}'s {@link SearchState} in {@link #currentSearchState}.
          */
         @SuppressWarnings("unchecked")
         @Override
         protected S call() {
-            
-            if(currentSearchState == SearchState.READY || currentSearchState == SearchState.PAUSED) {
+            var state = Search.this.run(iterations, throttle, () -> publishProgress(memory), slice);
+            publishProgress(true);
+            return (S) state;
+        }
+    }
 
-                currentSearchState = SearchState.RUNNING;
-                startTime = System.nanoTime();
-                log("Starting search");
-                
-                for(int i = 0; i < ((iterations > 0) ? iterations : iterations + 1); i += (iterations > 0) ? 1 : 0) {
-                    if(checkConditions()) {
-                        step();
-                        updateAll();
-                        throttle();
-                    }
-                    else break;
-                }
 
-                elapsedTime += System.nanoTime() - startTime;
-                if(checkConditions()) {
-                    pause();
-                    log("Search paused");
-                }
-                else {
-                    log(Search.this.getState().toString());
-                }
-                
-                // on hold until we can async this or figure out why it's so slow.
-                // for now it just blocks ui thread at the end it seems?
-                // atomicReferences.putIfAbsent(SearchProperty.EXPLORED_MEMORY, new AtomicReference<>());
-                // atomicReferences.putIfAbsent(SearchProperty.QUEUED_MEMORY, new AtomicReference<>());
-                
-                updateAll();
-                
-                checkIfEndWasQueued();
-            }
+    /**
+     * Listener which receives the progress of a search run through a task created with
+     * {@link #newSearchCallable(int, int, boolean, Listener)}, in addition to the progress
+     * published for {@link #properties}.
+     * <p>
+     * Its methods are called from the thread which runs the search, so they should return quickly.
+     */
+    public interface Listener {
 
-            return (S) currentSearchState;
-        }
+        /**
+         * Called when the run starts.
+         * 
+         * @param search The search.
+         */
+        default void onStart(Search search) {}
+
+        /**
+         * Called after each batch of {@link #step(Cancellation)} calls (see {@link Builder#batchSize}), 
+         * and one last time once the run is over.
+         * 
+         * @param search The search.
+         */
+        default void onStep(Search search) {}
+
+        /**
+         * Called when the run is over, whether the search was paused or ended.
+         * 
+         * @param search The search.
+         * @param state The state of the search at the end of the run.
+         */
+        default void onEnd(Search search, SearchState state) {}
     }
 
 
@@ -347,16 +418,17 @@ public abstract class Search {
         */
 
         /**
-         * The maximum time allowed for this search.
+         * The maximum time allowed for this search. Unlike the other limits, it is also
+         * enforced between the steps of a batch and inside a step through {@link Cancellation}.
          */
         MAXIMUM_TIME
             (SearchProperty.ELAPSED_TIME::calc),
         /**
          * The maximum memory allowed for this search (i.e the maximum memory used
-         * when storing explored and queued states).
+         * when storing explored and queued states), in MB. Summed in bytes before the conversion.
          */
         MAXIMUM_MEMORY
-            (s -> SearchProperty.EXPLORED_MEMORY.calc(s) + SearchProperty.QUEUED_MEMORY.calc(s)),
+            (s -> (s.searchSpace.getExploredMemory() + s.searchSpace.getQueuedMemory()) / 1048576L),
         /**
          * The maximum depth allowed for this search.
          */
@@ -394,15 +466,14 @@ public abstract class Search {
 
         
         /**
-         * Method which checks if a limit has been reached by calling {@link #function}
-         * and comparing its value against the corresponding {@link Search#limitsMap}
-         * value (not null safe).
+         * Creates a {@link Predicate} which checks if this limit has been reached by calling 
+         * {@link #function} and comparing its value against {@code max}.
          * 
-         * @param s The {@link Search} to check.
-         * @return {@code true} if this limit has been reached, {@code false} otherwise.
+         * @param max The value of this limit for a {@link Search}.
+         * @return {@link Predicate} which returns {@code true} if this limit has been reached.
          */
-        private boolean check(Search s) {
-            return function.applyAsLong(s) >= s.limitsMap.get(this);
+        private Predicate<Search> compile(long max) {
+            return s -> function.applyAsLong(s) >= max;
         }
 
         /**
@@ -414,6 +485,45 @@ public abstract class Search {
         }
     }
 
+    /**
+     * Enum which represents what a search does when {@link MemoryTelemetry} reports memory pressure,
+     * so that it degrades gracefully instead of failing with an {@link OutOfMemoryError}.
+     * <p>
+     * Dropping queued states frees memory but makes a search incomplete and, for
+     * {@link io.github.vqnxiv.taquin.model.search.Astar}, possibly not optimal anymore.
+     * The states which would be explored last are dropped first, see {@link #shrinkQueue(int)}.
+     */
+    public enum MemoryAction {
+        /**
+         * Ignores the memory pressure.
+         */
+        NONE,
+        /**
+         * Pauses the search when the pressure is {@link MemoryTelemetry.Pressure#CRITICAL}.
+         * It can be resumed once memory was freed, e.g by deleting other searches.
+         */
+        PAUSE,
+        /**
+         * Memory-bounded mode: while the pressure is at least {@link MemoryTelemetry.Pressure#HIGH},
+         * the queue can not grow larger than its size when the pressure became high.
+         */
+        BOUND,
+        /**
+         * Halves the queue when the pressure is at least {@link MemoryTelemetry.Pressure#HIGH},
+         * at most once per {@link #SHRINK_INTERVAL}.
+         */
+        SHRINK;
+
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String toString() {
+            return Utils.screamingSnakeToReadable(this.name());
+        }
+    }
+
     /**
      * This enum represents the state of a search.
      */
@@ -467,7 +577,9 @@ public abstract class Search {
          * <p>
          * Do note that this state is automatically set when the above conditions are met; it does not guard
          * against a search algorithm which does not filter out explored or queued states. It is on the 
-         * algorithm's implementation to take that in consideration.
+         * algorithm's implementation to take that in consideration. It is also never set once queued states
+         * were dropped because of memory pressure (see {@link MemoryAction}), as the space was then not
+         * entirely explored.
          */
         ENDED_FAILURE_EMPTY_SPACE (6L) { 
             @Override 
@@ -476,7 +588,8 @@ public abstract class Search {
             } 
         },
         /**
-         * The search ended because it reached a limit. No additional {@link SearchState} can 
+         * The search ended because it reached a limit, or ran out of queued states after some were
+         * dropped because of memory pressure. No additional {@link SearchState} can 
          * be created for this instance of {@link Search}.
          */
         ENDED_FAILURE_LIMIT (7L) { 
@@ -571,20 +684,22 @@ public abstract class Search {
         EXPLORED_SIZE
             (x -> (long) x.searchSpace.getExplored().size()),
         /**
-         * The memory size of {@link SearchSpace#getExplored()}.
+         * The memory size of {@link SearchSpace#getExplored()} in MB, 
+         * see {@link SearchSpace#getExploredMemory()}.
          */
         EXPLORED_MEMORY
-            (x -> GraphLayout.parseInstance(x.searchSpace.getExplored()).totalSize() / 1048576L),
+            (x -> x.searchSpace.getExploredMemory() / 1048576L),
         /**
          * The number of queued states, i.e the size of {@link SearchSpace#getQueued()}.
          */
         QUEUED_SIZE
             (x -> (long) x.searchSpace.getQueued().size()),
         /**
-         * The memory size of {@link SearchSpace#getQueued()}.
+         * The memory size of {@link SearchSpace#getQueued()} in MB,
+         * see {@link SearchSpace#getQueuedMemory()}.
          */
         QUEUED_MEMORY
-            (x -> GraphLayout.parseInstance(x.searchSpace.getQueued()).totalSize() / 1048576L)
+            (x -> x.searchSpace.getQueuedMemory() / 1048576L)
         ;
 
         
@@ -613,17 +728,17 @@ public abstract class Search {
         }
 
         /**
-         * Returns a {@link String} representation of the result of {@link #function}.
+         * Returns a {@link String} representation of a value of this property.
          * 
-         * @param s The {@link Search} to check.
-         * @return {@link String} of the result of {@link #function}.
+         * @param value A value returned by {@link #calc(Search)}.
+         * @return {@link String} of {@code value}.
          */
-        String calcToString(Search s) {
+        String format(long value) {
             if(this == CURRENT_STATE) {
-                return SearchState.valueOf(function.applyAsLong(s)).toString();
+                return SearchState.valueOf(value).toString();
             }
             
-            return Long.toString(function.applyAsLong(s));
+            return Long.toString(value);
         }
 
         /**
@@ -637,13 +752,32 @@ public abstract class Search {
     
 
     /**
-     * Search logger.
+     * The minimum time between two {@link MemoryAction#SHRINK}, in ns, so that the collections
+     * can catch up with the states which were dropped.
+     */
+    private static final long SHRINK_INTERVAL = 1_000_000_000L;
+
+    /**
+     * The number of queued states which {@link #shrinkQueue(int)} always keeps, so that a search
+     * under memory pressure keeps on exploring instead of running out of states.
+     */
+    private static final int MINIMUM_QUEUED = 1_000;
+
+    /**
+     * Cached {@link SearchProperty#values()}.
      */
-    private static final Logger LOGGER = LogManager.getLogger("searchLogger");
+    private static final SearchProperty[] SEARCH_PROPERTIES = SearchProperty.values();
 
+    /**
+     * The last id given to a search, used to keep ids unique when several searches
+     * are created within the same second.
+     */
+    private static final AtomicInteger LAST_ID = new AtomicInteger();
+    
     /**
      * Unique id for this search. It takes the value return from calling 
-     * {@link System#currentTimeMillis()} divided by {@code 1_000} when creating the search.
+     * {@link System#currentTimeMillis()} divided by {@code 1_000} when creating the search,
+     * or the next free id if it was already taken.
      */
     private final int id;
 
@@ -653,9 +787,10 @@ public abstract class Search {
     private final String name;
 
     /**
-     * The current {@link SearchState} of this search.
+     * The current {@link SearchState} of this search. Volatile as it is set by
+     * {@link #pause()} and {@link #stop()} from outside the thread running the search.
      */
-    private SearchState currentSearchState = SearchState.NOT_READY;
+    private volatile SearchState currentSearchState = SearchState.NOT_READY;
 
     /**
      * The {@link SearchSpace} this search is applied to.
@@ -706,6 +841,28 @@ public abstract class Search {
      */
     private final EnumMap<SearchLimit, Long> limitsMap;
 
+    /**
+     * Single {@link Predicate} which returns {@code true} if any of the limits in 
+     * {@link #limitsMap} has been reached, compiled once in {@link #Search(Builder)}.
+     */
+    private final Predicate<Search> limitReached;
+
+    /**
+     * The maximum number of {@link #step(Cancellation)} calls between two {@link #checkConditions()} calls,
+     * i.e between two limits checks and progress updates.
+     * <p>
+     * Whether the goal was reached or the queue is empty is still checked after each step,
+     * but limits may be exceeded by up to {@code batchSize - 1} steps, except for
+     * {@link SearchLimit#MAXIMUM_TIME} which is enforced through {@link #cancellation}.
+     */
+    private final int batchSize;
+
+    /**
+     * The maximum time in ns spent in a batch of {@link #step(Cancellation)} calls, or {@code 0}
+     * for batches of {@link #batchSize} steps regardless of time.
+     */
+    private final long batchTime;
+
     /**
      * Whether to filter out explored states when calling 
      * {@link SearchSpace#getNewNeighbors(boolean, boolean, boolean)}.
@@ -725,7 +882,7 @@ public abstract class Search {
     protected final boolean linkExistingNeighbors;
 
     /**
-     * The start time at the beggining of {@link SearchTask#call()}. See {@link #getElapsedTime()}.
+     * The start time at the beggining of {@link #run(int, int, Runnable)}. See {@link #getElapsedTime()}.
      */
     private long startTime;
 
@@ -734,6 +891,25 @@ public abstract class Search {
      */
     private long elapsedTime = 0;
 
+    /**
+     * Whether the last run was a slice which ended on its iteration budget, in which case the search
+     * is still {@link SearchState#RUNNING} and the next slice resumes it without the bookkeeping
+     * of a new run. See {@link #run(int, int, Runnable, boolean)} and {@link #endSlices()}.
+     */
+    private volatile boolean yielded = false;
+
+    /**
+     * Whether a thread is currently inside {@link #run(int, int, Runnable, boolean)}. A second
+     * thread can not enter it until the first one returns, even if the search was paused in between.
+     */
+    private final AtomicBoolean inRun = new AtomicBoolean(false);
+
+    /**
+     * {@link Cancellation} of the current run, which is cancelled by {@link #stop()}, when the thread
+     * running the search is interrupted, or when {@link SearchLimit#MAXIMUM_TIME} is reached.
+     */
+    private volatile Cancellation cancellation = Cancellation.NONE;
+
     /**
      * Whether to log this search.
      */
@@ -746,6 +922,64 @@ public abstract class Search {
      */
     private final EnumMap<SearchProperty, StringProperty> properties;
 
+    /**
+     * Last published value of each {@link SearchProperty}, indexed by {@link SearchProperty#ordinal()}.
+     * <p>
+     * Written by the thread running the search in {@link #publishProgress(boolean)}, and read by
+     * {@link #refreshProperties()} which is polled from the JavaFX thread, so that the search
+     * thread neither formats strings nor queues {@link Platform#runLater(Runnable)} calls.
+     */
+    private final AtomicLongArray progress;
+
+    /**
+     * Value of each {@link SearchProperty} currently displayed in {@link #properties}, 
+     * indexed by {@link SearchProperty#ordinal()}. Only accessed from the JavaFX thread.
+     */
+    private final long[] displayed;
+
+    /**
+     * Counters of the hot path of this search.
+     */
+    private final SearchMetrics metrics = new SearchMetrics();
+
+    /**
+     * The file to which a trace of this search is recorded, or an empty string. See {@link TraceRecorder}.
+     */
+    private final String traceFile;
+
+    /**
+     * What to do under memory pressure.
+     */
+    private final MemoryAction memoryAction;
+
+    /**
+     * The last memory pressure fed by {@link MemoryTelemetry}, while running.
+     */
+    private volatile MemoryTelemetry.Pressure memoryPressure = MemoryTelemetry.Pressure.NORMAL;
+
+    /**
+     * The maximum size of the queue in {@link MemoryAction#BOUND}, or {@code 0} if it is not bounded.
+     */
+    private int queueBound = 0;
+
+    /**
+     * The {@link System#nanoTime()} of the last {@link MemoryAction#SHRINK}.
+     */
+    private long lastShrink = 0L;
+
+    /**
+     * Whether {@link #shrinkQueue(int)} dropped queued states: the search space was then not entirely
+     * explored, and an empty queue ends the search with {@link SearchState#ENDED_FAILURE_LIMIT}
+     * instead of {@link SearchState#ENDED_FAILURE_EMPTY_SPACE}.
+     */
+    private boolean droppedStates = false;
+
+    /**
+     * Records the trace of this search to {@link #traceFile}, if there is one.
+     * Opened by {@link #setSearchSpace(SearchSpace)} and closed once the search ends.
+     */
+    private TraceRecorder trace;
+
 
     /**
      * Constructor.
@@ -773,15 +1007,30 @@ public abstract class Search {
             limitsMap.put(SearchLimit.MAXIMUM_GENERATED_STATES, (long) builder.maxGenerated.get());
         }
         
+        limitReached = limitsMap.entrySet().stream()
+            .map(e -> e.getKey().compile(e.getValue()))
+            .reduce(Predicate::or)
+            .orElse(s -> false);
+        
+        batchSize = Math.max(builder.batchSize.get(), 1);
+        batchTime = Math.max(builder.batchTime.get(), 0) * 1_000_000L;
+        
         filterExplored = builder.filterExplored.get();
         filterQueued = builder.filterQueued.get();
         linkExistingNeighbors = builder.linkExisting.get();
+        traceFile = builder.traceFile.get();
+        memoryAction = builder.memoryAction.get();
         
-        id = (int) (System.currentTimeMillis() / 1000);
+        id = LAST_ID.updateAndGet(
+            last -> Math.max(last + 1, (int) (System.currentTimeMillis() / 1000))
+        );
         
         name = (builder.name.get().equals("")) ? Long.toString(id) : builder.name.get();
         
         properties = createProperties();
+        progress = new AtomicLongArray(SEARCH_PROPERTIES.length);
+        displayed = new long[SEARCH_PROPERTIES.length];
+        Arrays.fill(displayed, Long.MIN_VALUE);
     }
 
     /**
@@ -809,14 +1058,48 @@ public abstract class Search {
 
     /**
      * Setter for {@link #searchSpace}. This will also call {@link #setReady()} and the 
-     * callback method {@link #setSpaceDependentParameters()}.
+     * callback method {@link #setSpaceDependentParameters()}, and start recording
+     * the trace if there is a {@link #traceFile}.
      * 
      * @param space The value for {@link #searchSpace}.
      */
     void setSearchSpace(SearchSpace space) {
+        setSearchSpace(space, false);
+    }
+
+    /**
+     * Injects a {@link SearchSpace}, see {@link #setSearchSpace(SearchSpace)}.
+     * 
+     * @param space The value for {@link #searchSpace}.
+     * @param restored Whether the space is restored from a {@link Checkpoint}, in which case 
+     * the trace is appended to the trace of the saved search rather than started over.
+     */
+    private void setSearchSpace(SearchSpace space, boolean restored) {
         searchSpace = space;
+        space.setMetrics(metrics);
+        space.setSearchId(id);
+        lookupComparator().ifPresent(c -> space.setLookup(this::evaluate, c));
+        if(!traceFile.isBlank()) {
+            trace = TraceRecorder.open(Path.of(traceFile), this, space, restored).orElse(null);
+        }
         setSpaceDependentParameters();
         setReady();
+        publishProgress(false);
+    }
+
+    /**
+     * Injects a {@link SearchSpace} restored from a {@link Checkpoint}, along with
+     * the state and elapsed time of the search which was saved.
+     * 
+     * @param space The value for {@link #searchSpace}.
+     * @param state The value for {@link #currentSearchState}.
+     * @param elapsed The value for {@link #elapsedTime}.
+     */
+    void restore(SearchSpace space, SearchState state, long elapsed) {
+        setSearchSpace(space, true);
+        setState(state);
+        elapsedTime = elapsed;
+        publishProgress(true);
     }
 
     /**
@@ -846,6 +1129,15 @@ public abstract class Search {
         return id;
     }
 
+    /**
+     * Getter for {@link #metrics}, whose {@link SearchMetrics#snapshot()} can be read from any thread.
+     * 
+     * @return {@link #metrics}.
+     */
+    public SearchMetrics getMetrics() {
+        return metrics;
+    }
+
     /**
      * Getter for {@link #heuristicComparator}.
      * 
@@ -873,6 +1165,60 @@ public abstract class Search {
         return properties.get(SearchProperty.CURRENT_STATE);
     }
 
+    /**
+     * Getter for the current value of a {@link SearchProperty}, e.g for a {@link Listener}.
+     * 
+     * @param p The {@link SearchProperty} to compute.
+     * @return The current value of {@code p} for this search.
+     */
+    public long getProgress(SearchProperty p) {
+        return p.calc(this);
+    }
+
+    /**
+     * Publishes the current value of each {@link SearchProperty} to {@link #progress}.
+     * 
+     * @param memory Whether to include {@link SearchProperty#EXPLORED_MEMORY} and 
+     * {@link SearchProperty#QUEUED_MEMORY}.
+     */
+    private void publishProgress(boolean memory) {
+        for(var p : SEARCH_PROPERTIES) {
+            if(memory || (p != SearchProperty.EXPLORED_MEMORY && p != SearchProperty.QUEUED_MEMORY)) {
+                progress.setRelease(p.ordinal(), p.calc(this));
+            }
+        }
+    }
+
+    /**
+     * Publishes {@link #currentSearchState} to {@link #progress}, for state changes
+     * which happen outside of a run.
+     */
+    private void publishState() {
+        progress.setRelease(SearchProperty.CURRENT_STATE.ordinal(), currentSearchState.getIndex());
+    }
+
+    /**
+     * Updates {@link #properties} with the values from {@link #progress} which changed since
+     * the previous call. Should only be called from the JavaFX thread, e.g on every pulse.
+     * 
+     * @return {@code true} if at least one property was updated; {@code false} otherwise.
+     */
+    boolean refreshProperties() {
+        boolean ret = false;
+        
+        for(var p : SEARCH_PROPERTIES) {
+            long v = progress.getAcquire(p.ordinal());
+            
+            if(v != displayed[p.ordinal()]) {
+                displayed[p.ordinal()] = v;
+                properties.get(p).set(p.format(v));
+                ret = true;
+            }
+        }
+        
+        return ret;
+    }
+
     /**
      * Getter for {@link #currentSearchState}.
      * 
@@ -882,12 +1228,23 @@ public abstract class Search {
         return currentSearchState; 
     }
 
+    /**
+     * Setter for {@link #currentSearchState}, which also emits a {@link SearchEvents.StateChange}.
+     *
+     * @param s The new value for {@link #currentSearchState}.
+     */
+    private void setState(SearchState s) {
+        var previous = currentSearchState;
+        currentSearchState = s;
+        SearchEvents.stateChange(id, previous, s);
+    }
+
 
     /**
      * Sets {@link #currentSearchState} to {@link SearchState#READY}.
      */
     private void setReady() {
-        currentSearchState = SearchState.READY;
+        setState(SearchState.READY);
     }
 
     /**
@@ -895,8 +1252,8 @@ public abstract class Search {
      * 
      * @return The total elapsed time for this search.
      */
-    private long getElapsedTime() {
-        return (currentSearchState == SearchState.RUNNING)
+    long getElapsedTime() {
+        return (currentSearchState == SearchState.RUNNING && !yielded)
             ? (System.nanoTime() - startTime) + elapsedTime
             : elapsedTime;
     }
@@ -906,7 +1263,7 @@ public abstract class Search {
      * <p>
      * This checks:
      * <ul>
-     *     <li> that it was not paused or forcefully stopped </li>
+     *     <li> that it was not paused, forcefully stopped or cancelled </li>
      *     <li> that it has not reached its goal </li>
      *     <li> that there is still states to explore </li>
      *     <li> that it has not reached a limit. </li>
@@ -915,46 +1272,78 @@ public abstract class Search {
      * @return {@code true} if the search may continue; {@code false} otherwise.
      */
     private boolean checkConditions() {
-        log("Checking conditions");
+        log(SearchLog.Type.CHECKING_CONDITIONS);
 
-        if(currentSearchState == SearchState.PAUSED || currentSearchState == SearchState.ENDED_FAILURE_USER_FORCED) {
+        // paused, forcefully stopped or a step was cancelled
+        if(currentSearchState != SearchState.RUNNING) {
             return false;
         }
 
         if(searchSpace.isCurrentGoal()) {
-            currentSearchState = SearchState.ENDED_SUCCESS;
+            setState(SearchState.ENDED_SUCCESS);
             return false;
         }
 
         if(searchSpace.getQueued().isEmpty()) {
-            currentSearchState = SearchState.ENDED_FAILURE_EMPTY_SPACE;
+            // states were dropped: the instance may still be solvable
+            setState(droppedStates ? SearchState.ENDED_FAILURE_LIMIT : SearchState.ENDED_FAILURE_EMPTY_SPACE);
             return false;
         }
         
-        for(var l : limitsMap.keySet()) {
-            if(l.check(this)){
-                currentSearchState = SearchState.ENDED_FAILURE_LIMIT;
-                return false;
-            }
+        if(limitReached.test(this)) {
+            setState(SearchState.ENDED_FAILURE_LIMIT);
+            return false;
         }
         
         return true;
     }
 
     /**
-     * Shorthand log method.
+     * Cheaper version of {@link #checkConditions()} which is checked between the steps 
+     * of a batch. It does not check the limits and does not update {@link #currentSearchState},
+     * which is left to the next {@link #checkConditions()} call.
+     * 
+     * @return {@code true} if the batch may continue; {@code false} otherwise.
+     */
+    private boolean canStep() {
+        return currentSearchState == SearchState.RUNNING
+            && !searchSpace.isCurrentGoal()
+            && !searchSpace.getQueued().isEmpty();
+    }
+
+    /**
+     * Shorthand log method, for entries without payload. See {@link SearchLog}.
      * 
-     * @param message The message to pass on to {@link #LOGGER}.
+     * @param type The type of the entry.
      */
-    protected void log(String message) {
+    protected void log(SearchLog.Type type) {
+        log(type, 0L, 0L);
+    }
+
+    /**
+     * Shorthand log method, for entries with a single payload. See {@link SearchLog}.
+     * 
+     * @param type The type of the entry.
+     * @param a The payload.
+     */
+    protected void log(SearchLog.Type type, long a) {
+        log(type, a, 0L);
+    }
+
+    /**
+     * Log method, which writes an entry to {@link SearchLog} if logging is enabled for this search.
+     * No {@link String} is built on the thread which runs the search.
+     * 
+     * @param type The type of the entry.
+     * @param a The first payload.
+     * @param b The second payload.
+     */
+    protected void log(SearchLog.Type type, long a, long b) {
         if(!log) {
             return;
         }
 
-        LOGGER.info(
-            new MarkerManager.Log4jMarker(Integer.toString(id)),
-            "{}\t   {}", getElapsedTime(), message
-        );
+        SearchLog.publish(id, getElapsedTime(), type, a, b);
     }
 
 
@@ -969,21 +1358,380 @@ public abstract class Search {
             return;
         }
 
-        this.currentSearchState = SearchState.PAUSED;
+        setState(SearchState.PAUSED);
+        publishState();
     }
 
     /**
      * Completely stops the search. See {@link SearchState#ENDED_FAILURE_USER_FORCED}.
      * <p>
-     * Note that it will only signal to the search that it has to stop;
-     * it won't pause immediately, but during the next call to {@link #checkConditions()}.
+     * Note that it will only signal to the search that it has to stop; the current step
+     * is cancelled at its next {@link Cancellation#throwIfCancelled()} call.
      */
     protected void stop() {
         if(currentSearchState != SearchState.RUNNING && currentSearchState != SearchState.PAUSED) {
             return;
         }
         
-        this.currentSearchState = SearchState.ENDED_FAILURE_USER_FORCED;
+        setState(SearchState.ENDED_FAILURE_USER_FORCED);
+        cancellation.cancel();
+        publishState();
+    }
+
+    /**
+     * Method which does a search run-through. Used by {@link SearchTask#call()} and
+     * by headless runs which do not go through a {@link Task}.
+     * <p>
+     * For {@code iterations} (or indefinitely if it is {@code 0}),
+     * this method calls {@link #step(Cancellation)} by batches of up to {@link #batchSize} steps 
+     * (or {@link #batchTime}), then {@code onStep} and {@link #throttle(int)}
+     * as long as {@link #checkConditions()} returns {@code true}. 
+     * Calls {@code onStep} one last time and {@link #checkIfEndWasQueued()} 
+     * before returning {@link #currentSearchState}.
+     * <p>
+     * Steps are given {@link #cancellation}; if one of them is cancelled, see {@link #cancelled()}.
+     * <p>
+     * Does nothing if {@link #currentSearchState} is neither {@link SearchState#READY} 
+     * nor {@link SearchState#PAUSED}.
+     * 
+     * @param iterations The number of iterations (i.e {@link #step(Cancellation)} calls) for this run.
+     * 0 means until {@link #checkConditions()} returns {@code false}.
+     * @param throttle The duration for which the thread should sleep after each batch of steps.
+     * @param onStep Callback which is called after each batch of steps.
+     * @return {@link #currentSearchState}.
+     */
+    SearchState run(int iterations, int throttle, Runnable onStep) {
+        return run(iterations, throttle, onStep, false);
+    }
+
+    /**
+     * Same as {@link #run(int, int, Runnable)}, but if {@code slice} is {@code true} and the search
+     * can continue once {@code iterations} are done, it is left {@link SearchState#RUNNING} 
+     * instead of being paused: the next call resumes it without starting a new run, i.e without 
+     * logging, emitting a state change, registering it with {@link MemoryTelemetry} or resetting 
+     * the rate of {@link #metrics} again. The time between two slices is not counted as elapsed.
+     * <p>
+     * A run made of slices must be ended with {@link #endSlices()} once no slice follows.
+     * <p>
+     * Only one thread can run this search at a time: if another thread is still inside this method
+     * (see {@link #isInRun()}), this returns {@link #currentSearchState} immediately.
+     * 
+     * @param iterations The number of iterations for this slice. 
+     * @param throttle The duration for which the thread should sleep after each batch of steps.
+     * @param onStep Callback which is called after each batch of steps.
+     * @param slice Whether this run is a slice of a longer run.
+     * @return {@link #currentSearchState}.
+     */
+    SearchState run(int iterations, int throttle, Runnable onStep, boolean slice) {
+        
+        // e.g resumed while the previous run was still finishing its batch
+        if(!inRun.compareAndSet(false, true)) {
+            return currentSearchState;
+        }
+        
+        try {
+            return runGuarded(iterations, throttle, onStep, slice);
+        } finally {
+            inRun.set(false);
+        }
+    }
+
+    /**
+     * Body of {@link #run(int, int, Runnable, boolean)}, which is only executed by one thread at a time.
+     * 
+     * @param iterations The number of iterations for this slice. 
+     * @param throttle The duration for which the thread should sleep after each batch of steps.
+     * @param onStep Callback which is called after each batch of steps.
+     * @param slice Whether this run is a slice of a longer run.
+     * @return {@link #currentSearchState}.
+     */
+    private SearchState runGuarded(int iterations, int throttle, Runnable onStep, boolean slice) {
+        
+        // paused or stopped between two slices
+        if(yielded && currentSearchState != SearchState.RUNNING) {
+            endSlices();
+        }
+        
+        boolean resumed = yielded;
+        
+        if(resumed || currentSearchState == SearchState.READY || currentSearchState == SearchState.PAUSED) {
+
+            yielded = false;
+            startTime = System.nanoTime();
+            cancellation = new Cancellation(Thread.currentThread());
+            updateDeadline();
+            
+            if(!resumed) {
+                setState(SearchState.RUNNING);
+                metrics.resetRate();
+                metrics.sample(startTime);
+                MemoryTelemetry.get().register(this);
+                log(SearchLog.Type.STARTED);
+            }
+            
+            int i = 0;
+            while((iterations <= 0 || i < iterations) && checkConditions()) {
+                int n = (iterations > 0) ? Math.min(batchSize, iterations - i) : batchSize;
+                long deadline = (batchTime > 0) ? System.nanoTime() + batchTime : 0L;
+                int done = 0;
+                
+                try {
+                    do {
+                        cancellation.throwIfCancelled();
+                        step(cancellation);
+                        done++;
+                    } while(done < n && canStep() && (batchTime <= 0 || System.nanoTime() < deadline));
+                } catch(CancellationException e) {
+                    cancelled();
+                }
+                
+                i += done;
+                metrics.sample(System.nanoTime());
+                applyMemoryAction();
+                onStep.run();
+                throttle(throttle);
+            }
+
+            elapsedTime += System.nanoTime() - startTime;
+            metrics.sample(System.nanoTime());
+            
+            if(slice && checkConditions()) {
+                yielded = true;
+                onStep.run();
+                return currentSearchState;
+            }
+            
+            if(checkConditions()) {
+                pause();
+            }
+            runEnded();
+            
+            onStep.run();
+            
+            checkIfEndWasQueued();
+        }
+
+        return currentSearchState;
+    }
+
+    /**
+     * Whether a thread is currently running this search, i.e is inside {@link #run(int, int, Runnable, boolean)}.
+     * This stays {@code true} after {@link #pause()} until the current batch of steps is done.
+     * 
+     * @return {@code true} if a thread is running this search; {@code false} otherwise.
+     */
+    boolean isInRun() {
+        return inRun.get();
+    }
+
+    /**
+     * Ends a run made of slices (see {@link #run(int, int, Runnable, boolean)}) whose last slice 
+     * yielded: the search is paused if it is still {@link SearchState#RUNNING}, and the run ends 
+     * as if {@link #run(int, int, Runnable)} had returned. Does nothing if the last run did not yield.
+     */
+    void endSlices() {
+        if(!yielded) {
+            return;
+        }
+        
+        yielded = false;
+        pause();
+        runEnded();
+        checkIfEndWasQueued();
+    }
+
+    /**
+     * Bookkeeping for the end of a run: unregisters this search from {@link MemoryTelemetry}, 
+     * logs whether it was paused or ended, and records the end of the run in {@link #trace}.
+     */
+    private void runEnded() {
+        MemoryTelemetry.get().unregister(this);
+        if(currentSearchState == SearchState.PAUSED) {
+            log(SearchLog.Type.PAUSED);
+        }
+        else {
+            log(SearchLog.Type.ENDED, getState().ordinal());
+        }
+
+        if(trace != null) {
+            trace.runEnded(currentSearchState, searchSpace.getCurrent(), elapsedTime);
+            if(currentSearchState != SearchState.PAUSED) {
+                trace.close();
+                trace = null;
+            }
+        }
+    }
+
+    /**
+     * Throttle the search by calling {@link Thread#sleep(long)}. Pauses the timer
+     * represented by {@link #startTime} and {@link #elapsedTime} before the call
+     * and starts it again once it is completed. The method does nothing if
+     * {@code throttle} is equal or inferior to {@code 0}.
+     * <p>
+     * If an {@link InterruptedException}, the search is stopped by calling
+     * {@link #stop()}.
+     * 
+     * @param throttle The duration for which the thread should sleep.
+     */
+    private void throttle(int throttle) {
+        if(throttle <= 0) {
+            return;
+        }
+        
+        elapsedTime += System.nanoTime() - startTime;
+        try {
+            Thread.sleep(throttle);
+        } catch(InterruptedException e) {
+            stop();
+        }
+        startTime = System.nanoTime();
+        updateDeadline();
+    }
+
+    /**
+     * Sets the deadline of {@link #cancellation} to the time left before 
+     * {@link SearchLimit#MAXIMUM_TIME} is reached, if there is such a limit.
+     * Called whenever {@link #startTime} is set during a run.
+     */
+    private void updateDeadline() {
+        var max = limitsMap.get(SearchLimit.MAXIMUM_TIME);
+        cancellation.setDeadline((max != null) ? Math.max(max * 1_000_000L - elapsedTime, 0L) : -1L);
+    }
+
+    /**
+     * Feeds this search with the memory pressure. Called by {@link MemoryTelemetry} from its own threads,
+     * the pressure is only acted upon between two batches of steps, see {@link #applyMemoryAction()}.
+     * 
+     * @param p The value for {@link #memoryPressure}.
+     */
+    void onMemoryPressure(MemoryTelemetry.Pressure p) {
+        memoryPressure = p;
+    }
+
+    /**
+     * Applies {@link #memoryAction} for the current {@link #memoryPressure}. Called after each batch of steps.
+     */
+    private void applyMemoryAction() {
+        var p = memoryPressure;
+        var queued = searchSpace.getQueued();
+
+        switch(memoryAction) {
+            case PAUSE -> {
+                if(p == MemoryTelemetry.Pressure.CRITICAL) {
+                    log(SearchLog.Type.MEMORY_PAUSE);
+                    pause();
+                }
+            }
+            case BOUND -> {
+                if(p == MemoryTelemetry.Pressure.NORMAL) {
+                    queueBound = 0;
+                }
+                else if(queueBound == 0) {
+                    queueBound = Math.max(queued.size(), 1);
+                }
+                // lets the queue grow a little between two shrinks, which sort it
+                if(queueBound > 0 && queued.size() > queueBound + queueBound / 10) {
+                    shrinkQueue(queueBound);
+                }
+            }
+            case SHRINK -> {
+                long now = System.nanoTime();
+                if(p != MemoryTelemetry.Pressure.NORMAL && now - lastShrink >= SHRINK_INTERVAL) {
+                    lastShrink = now;
+                    shrinkQueue(queued.size() / 2);
+                }
+            }
+            default -> {}
+        }
+    }
+
+    /**
+     * Drops the queued states which would be explored last, until at most {@code n} states are queued,
+     * but never below {@link #MINIMUM_QUEUED}. The dropped states are also removed from the neighbors of
+     * their parent so that they can be collected.
+     * <p>
+     * The states are kept in the order of {@link #heuristicComparator} if the queue is {@link Sorted},
+     * and in the order of the queue otherwise (from its end if {@link #pollsLast()}).
+     * 
+     * @param n The maximum number of queued states to keep.
+     */
+    protected void shrinkQueue(int n) {
+        var queued = searchSpace.getQueued();
+        n = Math.max(n, MINIMUM_QUEUED);
+        if(queued.size() <= n) {
+            return;
+        }
+
+        var all = new ArrayList<>(queued);
+        List<Grid> kept;
+        List<Grid> dropped;
+        if(queued instanceof Sorted<Grid>) {
+            all.sort(heuristicComparator);
+            kept = all.subList(0, n);
+            dropped = all.subList(n, all.size());
+        }
+        else if(pollsLast()) {
+            kept = all.subList(all.size() - n, all.size());
+            dropped = all.subList(0, all.size() - n);
+        }
+        else {
+            kept = all.subList(0, n);
+            dropped = all.subList(n, all.size());
+        }
+
+        for(var g : dropped) {
+            g.getParent().removeNeighbor(g);
+        }
+        metrics.dropped(dropped.size());
+        droppedStates = true;
+        log(SearchLog.Type.QUEUE_SHRUNK, dropped.size(), n);
+
+        queued.clear();
+        queued.addAll(kept);
+    }
+
+    /**
+     * Whether this search explores the last queued state first, e.g a depth first search.
+     * Used by {@link #shrinkQueue(int)} on queues which are not {@link Sorted}.
+     * 
+     * @return {@code false} by default.
+     */
+    protected boolean pollsLast() {
+        return false;
+    }
+
+    /**
+     * Called when a step was cancelled. The search ends with {@link SearchState#ENDED_FAILURE_LIMIT} 
+     * if the deadline of {@link #cancellation} was reached, or is stopped if the thread was interrupted
+     * (it already is if it was cancelled by {@link #stop()}).
+     */
+    private void cancelled() {
+        if(cancellation.isDeadlineReached()) {
+            setState(SearchState.ENDED_FAILURE_LIMIT);
+        }
+        else {
+            stop();
+        }
+        
+        log(SearchLog.Type.CANCELLED);
+    }
+
+    /**
+     * Checks whether {@link #searchSpace}'s goal is queued if {@link #currentSearchState}
+     * is not equal to {@link SearchState#PAUSED} or {@link SearchState#ENDED_SUCCESS}.
+     */
+    private void checkIfEndWasQueued() {
+        if(currentSearchState != SearchState.PAUSED 
+            && currentSearchState != SearchState.ENDED_SUCCESS
+            && currentSearchState != SearchState.ENDED_FAILURE_EMPTY_SPACE) {
+            int n;
+            if((n = searchSpace.getQueued().dsIndexOf(searchSpace.getGoal())) > -1) {
+                log(SearchLog.Type.END_QUEUED, n);
+            }
+            else {
+                log(SearchLog.Type.END_NOT_QUEUED);
+            }
+        }
     }
 
     /**
@@ -1000,14 +1748,67 @@ public abstract class Search {
     Optional<SearchTask<SearchState>> newSearchTask(
         int iterations, int throttle, boolean log, boolean memory
     ) {
-        if((currentSearchState != SearchState.READY && currentSearchState != SearchState.PAUSED)
+        return newSearchTask(iterations, throttle, log, memory, false);
+    }
+
+    /**
+     * Factory method for {@link SearchTask}, for a task which may be a slice of a longer run.
+     * See {@link #run(int, int, Runnable, boolean)}.
+     * 
+     * @param iterations The value for {@link SearchTask#iterations}.
+     * @param throttle The value for {@link SearchTask#throttle}.
+     * @param log Whether to log the task.
+     * @param memory Whether to update the memory usage through the task, and not just when it ends.
+     * @param slice The value for {@link SearchTask#slice}.
+     * @return {@link Optional#of(Object)} the created {@link SearchTask} under the same conditions as
+     * {@link #newSearchTask(int, int, boolean, boolean)}, or if the previous slice yielded.
+     * Otherwise, {@link Optional#empty()}.
+     */
+    Optional<SearchTask<SearchState>> newSearchTask(
+        int iterations, int throttle, boolean log, boolean memory, boolean slice
+    ) {
+        boolean resumable = yielded && currentSearchState == SearchState.RUNNING;
+        if((!resumable && currentSearchState != SearchState.READY && currentSearchState != SearchState.PAUSED)
             || searchSpace == null ) {
             return Optional.empty();
         }
-        return Optional.of(new SearchTask<>(iterations, throttle, log, memory));
+        return Optional.of(new SearchTask<>(iterations, throttle, log, memory, slice));
     }
     
     
+    /**
+     * Factory method for a {@link Callable} which runs this search without JavaFX, and reports its
+     * progress to a {@link Listener}. It can be executed on any thread, e.g with 
+     * {@link java.util.concurrent.CompletableFuture#supplyAsync(java.util.function.Supplier, java.util.concurrent.Executor)}.
+     * 
+     * @param iterations The number of iterations for the run, or {@code 0} to run until the search ends.
+     * @param throttle Throttle delay for the run.
+     * @param log Whether to log the run.
+     * @param listener The {@link Listener} for the run.
+     * @return {@link Optional#of(Object)} the created {@link Callable} under the same conditions as
+     * {@link #newSearchTask(int, int, boolean, boolean)}. Otherwise, {@link Optional#empty()}.
+     */
+    Optional<Callable<SearchState>> newSearchCallable(
+        int iterations, int throttle, boolean log, Listener listener
+    ) {
+        if((currentSearchState != SearchState.READY && currentSearchState != SearchState.PAUSED)
+            || searchSpace == null ) {
+            return Optional.empty();
+        }
+        
+        return Optional.of(() -> {
+            this.log = log;
+            listener.onStart(this);
+            var state = run(iterations, throttle, () -> {
+                publishProgress(false);
+                listener.onStep(this);
+            });
+            publishProgress(true);
+            listener.onEnd(this, state);
+            return state;
+        });
+    }
+    
     /**
      * Abstract callback method which is used to set up some additional parameters and fields 
      * which are dependent on {@link #searchSpace}. Called by {@link #setSearchSpace(SearchSpace)}.
@@ -1024,12 +1825,113 @@ public abstract class Search {
      */
     protected abstract void computeHeuristic(Grid g);
 
+    /**
+     * Calls {@link #computeHeuristic(Grid)} and counts the evaluation in {@link #metrics}.
+     * Subclasses should call this method rather than {@link #computeHeuristic(Grid)}.
+     * Can be called from several threads at once, see 
+     * {@link SearchSpace#getNewNeighbors(List, java.util.function.Consumer, java.util.concurrent.ForkJoinPool, boolean, boolean, boolean, Cancellation)}.
+     * 
+     * @param g The {@link Grid} to compute the heuristic value for.
+     */
+    protected final void evaluate(Grid g) {
+        computeHeuristic(g);
+        metrics.evaluated(g.getHeuristicValue());
+    }
+
+    /**
+     * Records the expansion of a state in the trace of this search, if it is recorded.
+     * Called by the subclasses once the state is polled from the queue.
+     * 
+     * @param g The state which is explored.
+     */
+    protected final void traceExpanded(Grid g) {
+        if(trace != null) {
+            trace.expanded(g, searchSpace.getQueued().size(), getElapsedTime());
+        }
+    }
+
+    /**
+     * Records new states in the trace of this search, if it is recorded.
+     * Called by the subclasses before the states are added to the queue.
+     * 
+     * @param grids The states which are queued.
+     */
+    protected final void traceQueued(Collection<Grid> grids) {
+        if(trace != null) {
+            trace.queued(grids);
+        }
+    }
+
+    /**
+     * Records in the trace of this search, if it is recorded, that its queue and explored states
+     * were cleared and the start queued again.
+     * 
+     * @param depthLimit The new depth limit.
+     */
+    protected final void traceRestarted(int depthLimit) {
+        if(trace != null) {
+            trace.restarted(depthLimit);
+        }
+    }
+
+    /**
+     * Counts in {@link #metrics} a merge of new states into the queue which had to sort it again, i.e when
+     * {@link io.github.vqnxiv.taquin.model.structure.Sortable#mergeSorted(Collection, Comparator, Cancellation)}
+     * returns {@link io.github.vqnxiv.taquin.model.structure.Sortable.Merge#SORTED}.
+     */
+    protected final void resorted() {
+        metrics.resorted();
+    }
+
+    /**
+     * {@link Comparator} consistent with {@link #heuristicComparator} which the {@link SearchSpace}
+     * can use to look up new states in structures sorted by {@link #heuristicComparator}, after
+     * calling {@link #computeHeuristic(Grid)} on them. It should only compare values which depend 
+     * on the state itself and not on the path to it (e.g A*'s depth), otherwise a new state
+     * would not compare equal to an existing one.
+     * 
+     * @return {@link Optional#empty()} by default.
+     */
+    protected Optional<Comparator<Grid>> lookupComparator() {
+        return Optional.empty();
+    }
+
+    /**
+     * Callback method which writes the state specific to the algorithm of the subclass, i.e what
+     * is neither in the {@link Builder} nor in the {@link SearchSpace}, when saving a {@link Checkpoint}.
+     * Does nothing by default.
+     * 
+     * @param out Where to write the state.
+     * @throws IOException If the state could not be written.
+     */
+    protected void writeState(DataOutput out) throws IOException {
+        // no state by default
+    }
+
+    /**
+     * Callback method which reads the state written by {@link #writeState(DataOutput)}
+     * when restoring a {@link Checkpoint}. Does nothing by default.
+     * 
+     * @param in Where to read the state from.
+     * @throws IOException If the state could not be read.
+     */
+    protected void readState(DataInput in) throws IOException {
+        // no state by default
+    }
+
     /**
      * Abstract method which represents <u>one and only one</u> step of an algorithm.
      * <p>
      * This can also be seen as exploring a single state.
+     * <p>
+     * Implementations should pass {@code cancel} on to the operations of the step which can take long,
+     * e.g {@link SearchSpace#getNewNeighbors(boolean, boolean, boolean, Cancellation)} or 
+     * {@link DataStructure#addAll(Collection, Cancellation)}, which throw a 
+     * {@link CancellationException} if it was cancelled.
+     * 
+     * @param cancel {@link Cancellation} of the current run.
      */
-    protected abstract void step();
+    protected abstract void step(Cancellation cancel);
 
 
     /**
@@ -0,0 +1,251 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import jdk.jfr.*;
+
+
+/**
+ * Java Flight Recorder events for the phases of a {@link Search} step, and for the state changes
+ * of a search. They can be recorded with the standard JDK tools, e.g
+ * {@code -XX:StartFlightRecording:filename=taquin.jfr} or {@code jcmd <pid> JFR.start},
+ * and are listed under the {@code Taquin} category in JDK Mission Control.
+ * <p>
+ * Phase events are duration events which are only committed if they last longer than their
+ * threshold ({@code 1 ms} by default), so that they can be left enabled on long searches:
+ * an uncommitted event only costs two timestamps. The threshold can be lowered to see every
+ * phase, e.g with {@code jfr configure} or a {@code .jfc} file containing
+ * {@code <setting name="threshold">0 ms</setting>} for {@code taquin.QueueInsertion}.
+ * <p>
+ * Phase events are started with the static factory methods of this class and ended with
+ * {@link Phase#end(int, int)}.
+ */
+public final class SearchEvents {
+
+    /**
+     * Base class of the phase events.
+     */
+    @Category({"Taquin", "Search Phase"})
+    @StackTrace(false)
+    @Threshold("1 ms")
+    public abstract static class Phase extends Event {
+
+        /**
+         * The id of the search, see {@link Search#getId()}.
+         */
+        @Label("Search Id")
+        int searchId;
+
+        /**
+         * The number of states the phase worked on.
+         */
+        @Label("States")
+        int states;
+
+        /**
+         * Ends this event and commits it if it is enabled and lasted longer than its threshold.
+         *
+         * @param id The value for {@link #searchId}.
+         * @param n The value for {@link #states}.
+         */
+        public void end(int id, int n) {
+            end();
+            if(shouldCommit()) {
+                searchId = id;
+                states = n;
+                commit();
+            }
+        }
+    }
+
+    /**
+     * Polling the next state(s) to explore from the queue.
+     */
+    @Name("taquin.Poll")
+    @Label("Poll")
+    @Description("Polling the next states to explore from the queue")
+    public static final class Poll extends Phase {}
+
+    /**
+     * Generating the neighbors of the explored state(s).
+     */
+    @Name("taquin.NeighborGeneration")
+    @Label("Neighbor Generation")
+    @Description("Generating the neighbors of the explored states, and their heuristic values in batch steps")
+    public static final class NeighborGeneration extends Phase {}
+
+    /**
+     * Filtering out the generated neighbors which were already explored or queued.
+     */
+    @Name("taquin.DuplicateFiltering")
+    @Label("Duplicate Filtering")
+    @Description("Looking up the generated neighbors in the explored and queued states")
+    public static final class DuplicateFiltering extends Phase {}
+
+    /**
+     * Computing the heuristic values of the new states.
+     */
+    @Name("taquin.HeuristicComputation")
+    @Label("Heuristic Computation")
+    @Description("Computing the heuristic values of the new states")
+    public static final class HeuristicComputation extends Phase {}
+
+    /**
+     * Adding the new states to the queue.
+     */
+    @Name("taquin.QueueInsertion")
+    @Label("Queue Insertion")
+    @Description("Adding the new states to the queue")
+    public static final class QueueInsertion extends Phase {}
+
+    /**
+     * Change of {@link Search.SearchState}.
+     */
+    @Name("taquin.StateChange")
+    @Label("Search State Change")
+    @Category({"Taquin", "Search"})
+    @StackTrace(false)
+    public static final class StateChange extends Event {
+
+        /**
+         * The id of the search.
+         */
+        @Label("Search Id")
+        int searchId;
+
+        /**
+         * The previous state.
+         */
+        @Label("From")
+        String from;
+
+        /**
+         * The new state.
+         */
+        @Label("To")
+        String to;
+    }
+
+    /**
+     * Increase of the depth limit of {@link io.github.vqnxiv.taquin.model.search.IterativeDeepening}.
+     */
+    @Name("taquin.DepthLimitIncrease")
+    @Label("Depth Limit Increase")
+    @Category({"Taquin", "Search"})
+    @StackTrace(false)
+    public static final class DepthLimitIncrease extends Event {
+
+        /**
+         * The id of the search.
+         */
+        @Label("Search Id")
+        int searchId;
+
+        /**
+         * The new depth limit.
+         */
+        @Label("Depth Limit")
+        int depthLimit;
+
+        /**
+         * The number of explored states of the previous iteration, which are discarded.
+         */
+        @Label("Explored States")
+        int explored;
+    }
+
+
+    /**
+     * Private constructor.
+     */
+    private SearchEvents() {}
+
+
+    /**
+     * Starts a {@link Poll} event.
+     *
+     * @return The started event.
+     */
+    public static Phase poll() {
+        var e = new Poll();
+        e.begin();
+        return e;
+    }
+
+    /**
+     * Starts a {@link NeighborGeneration} event.
+     *
+     * @return The started event.
+     */
+    public static Phase neighborGeneration() {
+        var e = new NeighborGeneration();
+        e.begin();
+        return e;
+    }
+
+    /**
+     * Starts a {@link DuplicateFiltering} event.
+     *
+     * @return The started event.
+     */
+    public static Phase duplicateFiltering() {
+        var e = new DuplicateFiltering();
+        e.begin();
+        return e;
+    }
+
+    /**
+     * Starts a {@link HeuristicComputation} event.
+     *
+     * @return The started event.
+     */
+    public static Phase heuristicComputation() {
+        var e = new HeuristicComputation();
+        e.begin();
+        return e;
+    }
+
+    /**
+     * Starts a {@link QueueInsertion} event.
+     *
+     * @return The started event.
+     */
+    public static Phase queueInsertion() {
+        var e = new QueueInsertion();
+        e.begin();
+        return e;
+    }
+
+    /**
+     * Commits a {@link StateChange} event if it is enabled.
+     *
+     * @param searchId The id of the search.
+     * @param from The previous state.
+     * @param to The new state.
+     */
+    static void stateChange(int searchId, Search.SearchState from, Search.SearchState to) {
+        var e = new StateChange();
+        if(e.shouldCommit()) {
+            e.searchId = searchId;
+            e.from = from.name();
+            e.to = to.name();
+            e.commit();
+        }
+    }
+
+    /**
+     * Commits a {@link DepthLimitIncrease} event if it is enabled.
+     *
+     * @param searchId The id of the search.
+     * @param depthLimit The new depth limit.
+     * @param explored The number of explored states of the previous iteration.
+     */
+    public static void depthLimitIncrease(int searchId, int depthLimit, int explored) {
+        var e = new DepthLimitIncrease();
+        if(e.shouldCommit()) {
+            e.searchId = searchId;
+            e.depthLimit = depthLimit;
+            e.explored = explored;
+            e.commit();
+        }
+    }
+}
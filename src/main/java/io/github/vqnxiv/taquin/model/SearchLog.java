@@ -0,0 +1,327 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.SleepingWaitStrategy;
+import com.lmax.disruptor.dsl.Disruptor;
+import com.lmax.disruptor.dsl.ProducerType;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.Marker;
+import org.apache.logging.log4j.MarkerManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Asynchronous log of the searches' steps.
+ * <p>
+ * {@link Search#log(Type)} and its overloads write an {@link Entry} made of primitive values
+ * (the id of the search, its elapsed time, a {@link Type} and up to two {@code long} payloads)
+ * into a preallocated ring buffer shared by all the searches, without building any {@link String}.
+ * The entries are then formatted on a single background thread and passed on to the
+ * {@code searchLogger} with the id of the search as {@link Marker}, as
+ * {@link io.github.vqnxiv.taquin.logger.SearchAppender} expects.
+ * <p>
+ * A search never waits for the log: if the ring buffer is full, the entry is dropped
+ * and counted in {@link #getDropped()}.
+ */
+public final class SearchLog {
+
+    /**
+     * Enum which represents the type of an {@link Entry}, and how it is formatted.
+     * Each {@code {}} of {@link #format} is replaced by a payload of the entry, in order.
+     */
+    public enum Type {
+        /**
+         * Checking the conditions of the search.
+         */
+        CHECKING_CONDITIONS("Checking conditions"),
+        /**
+         * Start of a run.
+         */
+        STARTED("Starting search"),
+        /**
+         * A run paused.
+         */
+        PAUSED("Search paused"),
+        /**
+         * A run ended, payload: the {@link Search.SearchState#ordinal()} of the search.
+         */
+        ENDED("{}"),
+        /**
+         * A step was cancelled.
+         */
+        CANCELLED("Step cancelled"),
+        /**
+         * A state is explored, payload: its key.
+         */
+        EXPLORING("Exploring new current: {}"),
+        /**
+         * States are explored by a batch step, payloads: their number and the key of the last one.
+         */
+        EXPLORING_BATCH("Exploring {} new currents, last: {}"),
+        /**
+         * Neighbors are generated.
+         */
+        GENERATING("Generating neighbors"),
+        /**
+         * Neighbors are generated and their heuristic values computed.
+         */
+        GENERATING_AND_COMPUTING("Generating neighbors and computing heuristics"),
+        /**
+         * Heuristic values are computed.
+         */
+        COMPUTING("Computing heuristics"),
+        /**
+         * New states are checked for the goal.
+         */
+        CHECKING_GOAL("Checking for goal"),
+        /**
+         * New states are queued, payload: their number.
+         */
+        QUEUING("Queuing {} generated neighbors"),
+        /**
+         * The depth limit is increased, payload: the new limit.
+         */
+        DEPTH_LIMIT("Increasing depth limit: {}"),
+        /**
+         * The goal is queued at the end of a run, payload: its index.
+         */
+        END_QUEUED("End queued at index {}"),
+        /**
+         * The goal is not queued at the end of a run.
+         */
+        END_NOT_QUEUED("End not queued"),
+        /**
+         * The search is paused because the memory pressure is critical.
+         */
+        MEMORY_PAUSE("Memory pressure, pausing search"),
+        /**
+         * Queued states are dropped because of the memory pressure, payload: their number and the new queue size.
+         */
+        QUEUE_SHRUNK("Memory pressure, dropped {} queued states, {} left");
+
+
+        /**
+         * The message, with {@code {}} for each payload.
+         */
+        private final String format;
+
+        /**
+         * Constructor.
+         *
+         * @param format The value for {@link #format}.
+         */
+        Type(String format) {
+            this.format = format;
+        }
+
+        /**
+         * Appends the message of an entry of this type.
+         *
+         * @param sb Where to append the message.
+         * @param a The first payload.
+         * @param b The second payload.
+         */
+        private void appendTo(StringBuilder sb, long a, long b) {
+            if(this == ENDED) {
+                sb.append(Search.SearchState.values()[(int) a]);
+                return;
+            }
+
+            int from = 0;
+            int arg = 0;
+            int i;
+            while((i = format.indexOf("{}", from)) >= 0) {
+                sb.append(format, from, i).append((arg++ == 0) ? a : b);
+                from = i + 2;
+            }
+            sb.append(format, from, format.length());
+        }
+    }
+
+    /**
+     * A slot of the ring buffer. Instances are preallocated and reused.
+     */
+    private static final class Entry {
+
+        /**
+         * The id of the search.
+         */
+        private int searchId;
+
+        /**
+         * The elapsed time of the search, in ns.
+         */
+        private long elapsed;
+
+        /**
+         * The type of the entry.
+         */
+        private Type type;
+
+        /**
+         * The first payload.
+         */
+        private long a;
+
+        /**
+         * The second payload.
+         */
+        private long b;
+    }
+
+    /**
+     * Formats the entries and passes them on to {@link #LOGGER}.
+     * Only called from the thread of {@link #DISRUPTOR}.
+     */
+    private static final class Formatter implements EventHandler<Entry> {
+
+        /**
+         * The markers of the searches, by id.
+         */
+        private final Map<Integer, Marker> markers = new HashMap<>();
+
+        /**
+         * Reused to format the entries.
+         */
+        private final StringBuilder sb = new StringBuilder(64);
+
+        /**
+         * The value of {@link #DROPPED} when the last warning was logged.
+         */
+        private long reportedDrops = 0;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onEvent(Entry e, long sequence, boolean endOfBatch) {
+            sb.setLength(0);
+            var elapsed = Long.toString(e.elapsed);
+            for(int i = elapsed.length(); i < 15; i++) {
+                sb.append(' ');
+            }
+            sb.append(elapsed).append("   ");
+            e.type.appendTo(sb, e.a, e.b);
+
+            LOGGER.info(
+                markers.computeIfAbsent(e.searchId, id -> new MarkerManager.Log4jMarker(Integer.toString(id))),
+                sb.toString()
+            );
+
+            if(endOfBatch) {
+                long dropped = DROPPED.sum();
+                if(dropped != reportedDrops) {
+                    APP_LOGGER.warn("Search log full, {} entries dropped", dropped - reportedDrops);
+                    reportedDrops = dropped;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Search logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger("searchLogger");
+
+    /**
+     * Root logger, for the dropped entries.
+     */
+    private static final Logger APP_LOGGER = LogManager.getLogger(SearchLog.class);
+
+    /**
+     * The number of entries in the ring buffer, a power of 2.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The number of entries dropped because the ring buffer was full.
+     */
+    private static final LongAdder DROPPED = new LongAdder();
+
+    /**
+     * {@link Disruptor} whose single consumer is a {@link Formatter}. Its thread sleeps for up to
+     * 1 ms when there is nothing to format, so that publishing never has to wake it up.
+     */
+    private static final Disruptor<Entry> DISRUPTOR = createDisruptor();
+
+    /**
+     * The ring buffer of {@link #DISRUPTOR}.
+     */
+    private static final RingBuffer<Entry> RING = DISRUPTOR.getRingBuffer();
+
+
+    /**
+     * Private constructor.
+     */
+    private SearchLog() {}
+
+
+    /**
+     * Creates and starts {@link #DISRUPTOR}.
+     *
+     * @return The started {@link Disruptor}.
+     */
+    private static Disruptor<Entry> createDisruptor() {
+        var d = new Disruptor<>(
+            Entry::new, BUFFER_SIZE,
+            r -> {
+                var t = new Thread(r, "search-log");
+                t.setDaemon(true);
+                return t;
+            },
+            ProducerType.MULTI, new SleepingWaitStrategy(200, 1_000_000L)
+        );
+        d.handleEventsWith(new Formatter());
+        d.start();
+
+        return d;
+    }
+
+    /**
+     * Writes an entry to the ring buffer, or drops it if the buffer is full.
+     * Can be called from any thread.
+     *
+     * @param searchId The id of the search.
+     * @param elapsed The elapsed time of the search, in ns.
+     * @param type The type of the entry.
+     * @param a The first payload.
+     * @param b The second payload.
+     */
+    static void publish(int searchId, long elapsed, Type type, long a, long b) {
+        long sequence;
+        try {
+            sequence = RING.tryNext();
+        } catch(InsufficientCapacityException e) {
+            DROPPED.increment();
+            return;
+        }
+
+        try {
+            var e = RING.get(sequence);
+            e.searchId = searchId;
+            e.elapsed = elapsed;
+            e.type = type;
+            e.a = a;
+            e.b = b;
+        } finally {
+            RING.publish(sequence);
+        }
+    }
+
+    /**
+     * Gets the number of entries which were dropped because the ring buffer was full.
+     *
+     * @return The number of dropped entries since the application started.
+     */
+    public static long getDropped() {
+        return DROPPED.sum();
+    }
+}
@@ -0,0 +1,98 @@
+package io.github.vqnxiv.taquin.model;
+
+
+/**
+ * Management interface of a {@link Search}, registered by {@link SearchRunner} (and {@link BatchSolver})
+ * under {@code io.github.vqnxiv.taquin:type=Search,id=<id>} in the platform {@code MBeanServer}.
+ * <p>
+ * All the values can be read while the search is running. The sizes of the structures are then read
+ * without synchronization and may be slightly behind.
+ *
+ * @see MetricsExporter
+ */
+public interface SearchMXBean {
+
+    /**
+     * The id of the search.
+     *
+     * @return {@link Search#getId()}.
+     */
+    int getId();
+
+    /**
+     * The name of the search.
+     *
+     * @return {@link Search#getName()}.
+     */
+    String getName();
+
+    /**
+     * The algorithm of the search.
+     *
+     * @return The simple name of its class, e.g {@code Astar}.
+     */
+    String getAlgorithm();
+
+    /**
+     * The current state of the search.
+     *
+     * @return The name of its {@link Search.SearchState}.
+     */
+    String getState();
+
+    /**
+     * The time the search has been running.
+     *
+     * @return The elapsed time, in ms.
+     */
+    long getElapsedTime();
+
+    /**
+     * The number of explored states.
+     *
+     * @return The size of {@link SearchSpace#getExplored()}.
+     */
+    int getExplored();
+
+    /**
+     * The number of queued states.
+     *
+     * @return The size of {@link SearchSpace#getQueued()}.
+     */
+    int getQueued();
+
+    /**
+     * The number of expanded states.
+     *
+     * @return {@link SearchMetrics.Snapshot#expanded()}.
+     */
+    long getExpanded();
+
+    /**
+     * The number of generated states.
+     *
+     * @return {@link SearchMetrics.Snapshot#generated()}.
+     */
+    long getGenerated();
+
+    /**
+     * The number of queued states dropped because of memory pressure.
+     *
+     * @return {@link SearchMetrics.Snapshot#dropped()}.
+     */
+    long getDropped();
+
+    /**
+     * The expansions per second over the last few seconds of running.
+     *
+     * @return {@link SearchMetrics.Snapshot#nodesPerSecond()}.
+     */
+    double getNodesPerSecond();
+
+    /**
+     * The maximum depth of the expanded states.
+     *
+     * @return {@link SearchMetrics.Snapshot#depth()}.
+     */
+    int getDepth();
+}
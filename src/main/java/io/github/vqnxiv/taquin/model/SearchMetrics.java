@@ -0,0 +1,321 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * Counters of the hot path of a {@link Search}: expansions, generated states, duplicates,
+ * heuristic evaluations and re-sorts of the queue, as well as a histogram of the heuristic
+ * values (i.e {@code f} for {@link io.github.vqnxiv.taquin.model.search.Astar},
+ * {@code h} for the other searches).
+ * <p>
+ * The counters are only written by the thread which runs the search (and by the threads
+ * on which a batch step computes heuristics), without locks, and can be read at any time
+ * from any thread with {@link #snapshot()}. A snapshot taken during a step may be off by
+ * the states of that step.
+ * <p>
+ * The metrics are those of the current {@link Search} object only: they are not saved
+ * in a {@link Checkpoint} and start from {@code 0} once a search is restored.
+ */
+public final class SearchMetrics {
+
+    /**
+     * A snapshot of the metrics of a search.
+     *
+     * @param expanded The number of states whose neighbors were generated.
+     * @param generated The number of neighbors generated, including duplicates.
+     * @param exploredDuplicates The number of generated neighbors which were already explored.
+     * @param queuedDuplicates The number of generated neighbors which were already queued,
+     *                         or generated by another state of the same batch step.
+     * @param heuristicEvaluations The number of heuristic values computed.
+     * @param resorts The number of times new states were merged into a queue which had to be sorted again.
+     * @param dropped The number of queued states dropped because of memory pressure, see {@link Search.MemoryAction}.
+     * @param nodesPerSecond Expansions per second over the last few seconds of running.
+     * @param branchingFactor Effective branching factor for the new states and {@code depth},
+     *                        see {@link #branchingFactor(long, int)}.
+     * @param depth The maximum depth of the expanded states.
+     * @param histogram The number of heuristic evaluations per value, rounded down: the value {@code i}
+     *                  is counted in {@code histogram[i]}, and values greater than the length of the array
+     *                  in its last element.
+     */
+    public record Snapshot(
+        long expanded, long generated, long exploredDuplicates, long queuedDuplicates,
+        long heuristicEvaluations, long resorts, long dropped, double nodesPerSecond, double branchingFactor,
+        int depth, long[] histogram
+    ) {
+
+        /**
+         * The number of generated neighbors which were neither explored nor queued.
+         *
+         * @return {@link #generated} minus the duplicates.
+         */
+        public long newStates() {
+            return generated - exploredDuplicates - queuedDuplicates;
+        }
+
+        /**
+         * The share of the generated neighbors which were duplicates.
+         *
+         * @return The ratio of duplicates to {@link #generated}, between {@code 0} and {@code 1}.
+         */
+        public double duplicateRatio() {
+            return (generated > 0) ? (double) (exploredDuplicates + queuedDuplicates) / generated : 0d;
+        }
+
+        /**
+         * Exports this snapshot as flat name/value pairs, e.g for logs or monitoring.
+         * The histogram is exported as one {@code histogram_<value>} entry per non empty bucket.
+         *
+         * @return {@link Map} of the metrics, in a fixed order.
+         */
+        public Map<String, Number> toMap() {
+            var m = new LinkedHashMap<String, Number>();
+
+            m.put("expanded", expanded);
+            m.put("generated", generated);
+            m.put("explored_duplicates", exploredDuplicates);
+            m.put("queued_duplicates", queuedDuplicates);
+            m.put("duplicate_ratio", duplicateRatio());
+            m.put("heuristic_evaluations", heuristicEvaluations);
+            m.put("resorts", resorts);
+            m.put("dropped", dropped);
+            m.put("nodes_per_second", nodesPerSecond);
+            m.put("branching_factor", branchingFactor);
+            m.put("depth", depth);
+            for(int i = 0; i < histogram.length; i++) {
+                if(histogram[i] > 0) {
+                    m.put("histogram_" + i, histogram[i]);
+                }
+            }
+
+            return m;
+        }
+    }
+
+
+    /**
+     * The number of buckets of {@link #histogram}.
+     */
+    private static final int HISTOGRAM_SIZE = 128;
+
+    /**
+     * The number of samples used for {@link #nodesPerSecond}.
+     */
+    private static final int RATE_SAMPLES = 16;
+
+    /**
+     * The minimum time between two samples, in ns.
+     */
+    private static final long RATE_INTERVAL = 250_000_000L;
+
+    /**
+     * Counter for {@link Snapshot#expanded()}.
+     */
+    private final LongAdder expanded = new LongAdder();
+
+    /**
+     * Counter for {@link Snapshot#generated()}.
+     */
+    private final LongAdder generated = new LongAdder();
+
+    /**
+     * Counter for {@link Snapshot#exploredDuplicates()}.
+     */
+    private final LongAdder exploredDuplicates = new LongAdder();
+
+    /**
+     * Counter for {@link Snapshot#queuedDuplicates()}.
+     */
+    private final LongAdder queuedDuplicates = new LongAdder();
+
+    /**
+     * Counter for {@link Snapshot#heuristicEvaluations()}.
+     */
+    private final LongAdder heuristicEvaluations = new LongAdder();
+
+    /**
+     * Counter for {@link Snapshot#resorts()}.
+     */
+    private final LongAdder resorts = new LongAdder();
+
+    /**
+     * Counter for {@link Snapshot#dropped()}.
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Buckets for {@link Snapshot#histogram()}.
+     */
+    private final AtomicLongArray histogram = new AtomicLongArray(HISTOGRAM_SIZE);
+
+    /**
+     * The maximum depth of the expanded states. Only written by the thread which runs the search.
+     */
+    private volatile int depth = 0;
+
+    /**
+     * The last computed expansion rate, see {@link #sample(long)}.
+     */
+    private volatile double nodesPerSecond = 0d;
+
+    /**
+     * Times of the last samples, in ns. Only accessed from the thread which runs the search.
+     */
+    private final long[] sampleTimes = new long[RATE_SAMPLES];
+
+    /**
+     * Expansions at the time of the last samples. Only accessed from the thread which runs the search.
+     */
+    private final long[] sampleCounts = new long[RATE_SAMPLES];
+
+    /**
+     * The number of samples taken since the last {@link #resetRate()}.
+     */
+    private int samples = 0;
+
+
+    /**
+     * Counts the expansion of a state.
+     *
+     * @param g The expanded state.
+     * @param neighbors The number of neighbors generated from it.
+     */
+    void expanded(Grid g, int neighbors) {
+        expanded.increment();
+        generated.add(neighbors);
+        if(g.getDepth() > depth) {
+            depth = g.getDepth();
+        }
+    }
+
+    /**
+     * Counts a generated neighbor which was already explored.
+     */
+    void exploredDuplicate() {
+        exploredDuplicates.increment();
+    }
+
+    /**
+     * Counts a generated neighbor which was already queued.
+     */
+    void queuedDuplicate() {
+        queuedDuplicates.increment();
+    }
+
+    /**
+     * Counts the evaluation of a heuristic. Can be called from several threads at once.
+     *
+     * @param value The heuristic value of the state.
+     */
+    void evaluated(float value) {
+        heuristicEvaluations.increment();
+        histogram.getAndIncrement(Math.min(Math.max((int) value, 0), HISTOGRAM_SIZE - 1));
+    }
+
+    /**
+     * Counts a re-sort of the queue.
+     */
+    void resorted() {
+        resorts.increment();
+    }
+
+    /**
+     * Counts queued states which were dropped.
+     *
+     * @param n The number of dropped states.
+     */
+    void dropped(int n) {
+        dropped.add(n);
+    }
+
+    /**
+     * Updates {@link #nodesPerSecond} with the expansions since the oldest of the last {@link #RATE_SAMPLES}
+     * samples, i.e over the last few seconds, and takes a new sample if the previous one is old enough.
+     * Only called from the thread which runs the search, e.g after each batch of steps.
+     *
+     * @param now The current {@link System#nanoTime()}.
+     */
+    void sample(long now) {
+        long count = expanded.sum();
+
+        if(samples == 0 || now - sampleTimes[(samples - 1) % RATE_SAMPLES] >= RATE_INTERVAL) {
+            sampleTimes[samples % RATE_SAMPLES] = now;
+            sampleCounts[samples % RATE_SAMPLES] = count;
+            samples++;
+        }
+
+        // the next slot to be overwritten holds the oldest sample
+        int oldest = (samples > RATE_SAMPLES) ? samples % RATE_SAMPLES : 0;
+        long elapsed = now - sampleTimes[oldest];
+        if(elapsed > 0) {
+            nodesPerSecond = (count - sampleCounts[oldest]) * 1e9 / elapsed;
+        }
+    }
+
+    /**
+     * Resets the samples for {@link #nodesPerSecond}, at the start of a run so that the time
+     * the search was paused does not count.
+     */
+    void resetRate() {
+        samples = 0;
+    }
+
+    /**
+     * Computes the effective branching factor {@code b*}, i.e the branching factor a uniform tree
+     * of depth {@code d} would need to contain {@code n + 1} nodes: {@code n + 1 = 1 + b* + ... + b*^d}.
+     *
+     * @param n The number of generated states.
+     * @param d The depth.
+     * @return {@code b*}, or {@code 0} if {@code n} or {@code d} is {@code 0}.
+     */
+    static double branchingFactor(long n, int d) {
+        if(n <= 0 || d <= 0) {
+            return 0d;
+        }
+
+        double lo = 0d;
+        double hi = Math.max(n, 1d);
+        for(int i = 0; i < 64; i++) {
+            double b = (lo + hi) / 2;
+            double sum = 0d;
+            double pow = 1d;
+            for(int j = 1; j <= d && sum <= n; j++) {
+                pow *= b;
+                sum += pow;
+            }
+
+            if(sum > n) {
+                hi = b;
+            }
+            else {
+                lo = b;
+            }
+        }
+
+        return (lo + hi) / 2;
+    }
+
+    /**
+     * Takes a snapshot of the metrics. Can be called from any thread.
+     *
+     * @return {@link Snapshot} with the current values.
+     */
+    public Snapshot snapshot() {
+        var h = new long[HISTOGRAM_SIZE];
+        for(int i = 0; i < HISTOGRAM_SIZE; i++) {
+            h[i] = histogram.get(i);
+        }
+
+        long n = generated.sum();
+        int d = depth;
+        return new Snapshot(
+            expanded.sum(), n, exploredDuplicates.sum(), queuedDuplicates.sum(),
+            heuristicEvaluations.sum(), resorts.sum(), dropped.sum(), nodesPerSecond,
+            branchingFactor(n - exploredDuplicates.sum() - queuedDuplicates.sum(), d), d, h
+        );
+    }
+}
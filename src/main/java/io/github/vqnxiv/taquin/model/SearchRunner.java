@@ -8,13 +8,34 @@ import javafx.beans.property.StringProperty;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
  * Class which manages searches.
+ * <p>
+ * Searches are run concurrently on a fixed pool of {@link #MAXIMUM_CONCURRENT_SEARCHES} threads.
+ * Runs which are waiting for a thread are ordered by their search's priority, then by the order
+ * they were submitted in. Runs with a set number of iterations are split into slices of at most
+ * {@link #TIME_SLICE_ITERATIONS} iterations, and each slice is queued again after the previous
+ * one, so that such runs share the threads in a round robin fashion. The search stays running
+ * between two slices (see {@link Search#run(int, int, Runnable, boolean)}).
+ * <p>
+ * Several searches can also race each other on the same instance with 
+ * {@link #raceSearches(SearchSpace.Builder, List, int, boolean)}, without JavaFX.
+ * <p>
+ * Searches can also be run outside of the pool and without JavaFX with 
+ * {@link #runSearch(int, int, int, boolean, Search.Listener, Executor)}, e.g on virtual threads
+ * when many short or throttled searches have to run at the same time.
+ * <p>
+ * Each runner and its searches are registered as MXBeans ({@link SearchRunnerMXBean}, {@link SearchMXBean})
+ * until the runner is shut down, see {@link MetricsExporter}.
  * 
  * @see Search
  * @see io.github.vqnxiv.taquin.controller.BuilderController
@@ -27,19 +48,31 @@ public class SearchRunner {
     private static final Logger LOGGER = LogManager.getLogger(SearchRunner.class);
 
     /**
-     * The number of concurrent searches allowed.
+     * The number of concurrent searches allowed, i.e the number of available processors.
      */
-    private static final int MAXIMUM_CONCURRENT_SEARCHES = 1;
+    private static final int MAXIMUM_CONCURRENT_SEARCHES = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The maximum number of iterations of a run before it has to give its thread
+     * back to the other queued runs, for runs with a set number of iterations.
+     */
+    private static final int TIME_SLICE_ITERATIONS = 1_000;
+
+    /**
+     * Default priority of a search.
+     */
+    public static final int DEFAULT_PRIORITY = 0;
     
     /**
-     * {@link ExecutorService} which executes the {@link Search} async.
+     * {@link ExecutorService} which executes the {@link Search} async, and whose queue
+     * is ordered by the priority of the runs.
      */
-    private final ExecutorService executorService;
+    private final ThreadPoolExecutor executorService;
 
     /**
      * Last search that was running.
      */
-    private Search lastRunningSearch;
+    private volatile Search lastRunningSearch;
 
     /**
      * String property which can be bound to and contains the name and state of {@link #lastRunningSearch}.
@@ -51,6 +84,354 @@ public class SearchRunner {
      */
     private final Map<Integer, Search> searches;
 
+    /**
+     * Map of the priority of each search, where the keys are the searches id. 
+     * Searches with a higher priority are run first.
+     */
+    private final Map<Integer, Integer> priorities;
+
+    /**
+     * Map of the current run of each search, where the keys are the searches id.
+     */
+    private final Map<Integer, SearchRun> runs;
+
+    /**
+     * Map of the current runs which are not executed by {@link #executorService}, 
+     * where the keys are the searches id.
+     * 
+     * @see #runSearch(int, int, int, boolean, Search.Listener, Executor)
+     */
+    private final Map<Integer, CompletableFuture<Search.SearchState>> detachedRuns;
+
+    /**
+     * Default {@link Executor} for runs which are not executed by {@link #executorService}.
+     * One thread per run, virtual if the runtime supports them. See {@link #newPerRunExecutor()}.
+     */
+    private final ExecutorService perRunExecutor;
+
+    /**
+     * Counter used to order runs with the same priority by submission order.
+     */
+    private final AtomicLong sequence;
+
+    /**
+     * Total time in nanoseconds spent by the threads running searches.
+     */
+    private final AtomicLong busyTime;
+
+    /**
+     * The number of slices which were run.
+     */
+    private final AtomicLong completedSlices;
+
+    /**
+     * Time in nanoseconds at which this runner was created.
+     */
+    private final long creationTime;
+
+    /**
+     * Name under which this runner's {@link SearchRunnerMXBean} is registered, or {@code null} if it is not.
+     */
+    private final ObjectName objectName;
+
+
+    /**
+     * A snapshot of the scheduler's metrics.
+     * 
+     * @param poolSize The number of threads.
+     * @param activeRuns The number of runs currently executing.
+     * @param queueLength The number of runs waiting for a thread.
+     * @param completedSlices The number of slices which were run.
+     * @param utilization The share of the threads' time spent running searches since 
+     *                    this runner was created, between {@code 0} and {@code 1}.
+     */
+    public record SchedulerMetrics(
+        int poolSize, int activeRuns, int queueLength, long completedSlices, double utilization
+    ) {}
+
+    /**
+     * {@link SearchRunnerMXBean} which reads the values of this runner.
+     */
+    private final class RunnerBean implements SearchRunnerMXBean {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getSearchCount() {
+            return searches.size();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getActiveSearches() {
+            return runs.size() + detachedRuns.size();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getPoolSize() {
+            return executorService.getCorePoolSize();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int getQueueLength() {
+            return executorService.getQueue().size();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getCompletedSlices() {
+            return completedSlices.get();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double getUtilization() {
+            return getMetrics().utilization();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public double getNodesPerSecond() {
+            return searches.values().stream()
+                .filter(s -> s.getState() == Search.SearchState.RUNNING)
+                .mapToDouble(s -> s.getMetrics().snapshot().nodesPerSecond())
+                .sum();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getHeapUsed() {
+            return MemoryTelemetry.get().snapshot().heapUsed();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getHeapMax() {
+            return MemoryTelemetry.get().snapshot().heapMax();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getGcCount() {
+            return MemoryTelemetry.get().snapshot().gcCount();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public long getGcTime() {
+            return MemoryTelemetry.get().snapshot().gcTime();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public String getMemoryPressure() {
+            return MemoryTelemetry.get().getPressure().name();
+        }
+    }
+
+    /**
+     * A search configuration taking part in a race.
+     * 
+     * @param search The builder for the search.
+     * @param queued The builder for the queued structure.
+     * @param explored The builder for the explored structure.
+     *                 
+     * @see #raceSearches(SearchSpace.Builder, List, int, boolean)
+     */
+    public record Contestant(
+        Search.Builder<?> search, DataStructure.Builder queued, DataStructure.Builder explored
+    ) {}
+
+    /**
+     * The winner of a race.
+     * 
+     * @param searchId The id of the winning search.
+     * @param contestant The contestant it was created from.
+     * 
+     * @see #raceSearches(SearchSpace.Builder, List, int, boolean)
+     */
+    public record Winner(int searchId, Contestant contestant) {}
+    
+    /**
+     * A run of a {@link Search}, which is executed slice by slice if it has a set number
+     * of iterations.
+     */
+    private final class SearchRun implements Runnable, Comparable<SearchRun> {
+
+        /**
+         * The search to run.
+         */
+        private final Search search;
+
+        /**
+         * Throttle delay for each slice.
+         */
+        private final int throttle;
+
+        /**
+         * Whether to log the search.
+         */
+        private final boolean log;
+
+        /**
+         * Whether to update memory usage on every iteration.
+         */
+        private final boolean mem;
+
+        /**
+         * The number of iterations left, or {@code 0} to run until the search ends.
+         */
+        private int remaining;
+
+        /**
+         * Whether this run is executed slice by slice.
+         */
+        private final boolean sliced;
+
+        /**
+         * Whether this run was paused or stopped, in which case no further slice is run.
+         * The run stays in {@link #runs} until {@link #finish()}.
+         */
+        private volatile boolean cancelled = false;
+
+        /**
+         * Whether a slice of this run was already executed.
+         */
+        private boolean started = false;
+
+        /**
+         * The priority of the search when this run was last queued.
+         */
+        private int priority;
+
+        /**
+         * The submission order of this run when it was last queued.
+         */
+        private long order;
+
+
+        /**
+         * Constructor.
+         * 
+         * @param s The value for {@link #search}.
+         * @param iter The value for {@link #remaining}.
+         * @param thr The value for {@link #throttle}.
+         * @param log The value for {@link #log}.
+         * @param mem The value for {@link #mem}.
+         * @param sliced The value for {@link #sliced}.
+         */
+        private SearchRun(Search s, int iter, int thr, boolean log, boolean mem, boolean sliced) {
+            search = s;
+            remaining = iter;
+            this.sliced = sliced;
+            throttle = thr;
+            this.log = log;
+            this.mem = mem;
+        }
+
+        /**
+         * Queues this run in {@link #executorService}.
+         */
+        private void enqueue() {
+            priority = priorities.getOrDefault(search.getId(), DEFAULT_PRIORITY);
+            order = sequence.getAndIncrement();
+            executorService.execute(this);
+        }
+
+        /**
+         * Runs a slice of the search, then queues this run again if it has iterations left.
+         */
+        @Override
+        public void run() {
+            // paused or stopped while waiting for a thread
+            if(cancelled || (started && search.getState() != Search.SearchState.RUNNING)) {
+                finish();
+                return;
+            }
+
+            int iter = (!sliced) ? remaining 
+                : (remaining > 0) ? Math.min(remaining, TIME_SLICE_ITERATIONS) 
+                : TIME_SLICE_ITERATIONS;
+            var task = search.newSearchTask(iter, throttle, log, mem, sliced);
+            started = true;
+
+            if(task.isEmpty()) {
+                finish();
+                return;
+            }
+
+            long start = System.nanoTime();
+            try {
+                task.get().run();
+            } finally {
+                busyTime.addAndGet(System.nanoTime() - start);
+                completedSlices.incrementAndGet();
+            }
+
+            if(sliced) {
+                boolean left = remaining == 0 || (remaining -= iter) > 0;
+
+                // the slice yielded: the search is still running
+                if(left && !cancelled && search.getState() == Search.SearchState.RUNNING) {
+                    enqueue();
+                    return;
+                }
+            }
+
+            finish();
+        }
+
+        /**
+         * Ends the slices of the search (see {@link Search#endSlices()}) and removes this run 
+         * from {@link #runs}. Called by the thread which executed its last slice, or by
+         * {@link #cancelRun(int)} if it was still waiting for a thread, so that the search
+         * can only be run or saved again once no thread is running it anymore.
+         */
+        private void finish() {
+            search.endSlices();
+            runs.remove(search.getId(), this);
+            LOGGER.info("Search run completed: {}", search.getName());
+        }
+
+        /**
+         * Orders runs by decreasing priority, then by increasing submission order.
+         * 
+         * @param o The run to compare to.
+         * @return Negative int if this run should be executed first.
+         */
+        @Override
+        public int compareTo(SearchRun o) {
+            return (priority != o.priority) 
+                ? Integer.compare(o.priority, priority) 
+                : Long.compare(order, o.order);
+        }
+    }
+
 
     /**
      * Constructor.
@@ -58,13 +439,50 @@ public class SearchRunner {
     public SearchRunner() {
         LOGGER.debug("Creating search runner");
 
-        executorService = Executors.newFixedThreadPool(
-            MAXIMUM_CONCURRENT_SEARCHES, 
-            r -> new Thread(r, "Search thread")
+        var threadCount = new AtomicInteger();
+        executorService = new ThreadPoolExecutor(
+            MAXIMUM_CONCURRENT_SEARCHES, MAXIMUM_CONCURRENT_SEARCHES,
+            0L, TimeUnit.MILLISECONDS,
+            new PriorityBlockingQueue<>(),
+            r -> new Thread(r, "Search thread " + threadCount.incrementAndGet())
         );
         lastSearchInfo = new SimpleStringProperty("");
         
-        searches = new HashMap<>();
+        searches = new ConcurrentHashMap<>();
+        priorities = new ConcurrentHashMap<>();
+        runs = new ConcurrentHashMap<>();
+        detachedRuns = new ConcurrentHashMap<>();
+        perRunExecutor = newPerRunExecutor();
+        sequence = new AtomicLong();
+        busyTime = new AtomicLong();
+        completedSlices = new AtomicLong();
+        creationTime = System.nanoTime();
+        objectName = MetricsExporter.register(new RunnerBean());
+    }
+
+
+    /**
+     * Creates an {@link ExecutorService} which starts a new virtual thread for each task
+     * if the runtime supports them, and which otherwise falls back to a cached pool of 
+     * platform threads.
+     * 
+     * @return The created {@link ExecutorService}.
+     */
+    private static ExecutorService newPerRunExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch(ReflectiveOperationException | ClassCastException e) {
+            LOGGER.debug("Virtual threads not available, using platform threads");
+        }
+        
+        var threadCount = new AtomicInteger();
+        return Executors.newCachedThreadPool(r -> {
+            var t = new Thread(r, "Detached search thread " + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
     }
 
 
@@ -111,6 +529,35 @@ public class SearchRunner {
         return Optional.of(s.getProperties());
     }
     
+    /**
+     * Getter for a snapshot of the metrics of a {@link Search}. Can be called from any thread,
+     * including while the search is running.
+     *
+     * @param searchId The id for the {@link Search}.
+     * @return {@link Optional#of(Object)} the snapshot if the search exists; {@link Optional#empty()} otherwise.
+     */
+    public Optional<SearchMetrics.Snapshot> getSearchMetrics(int searchId) {
+        var s = searches.get(searchId);
+
+        if(s == null) {
+            LOGGER.info("No search with id {}", searchId);
+            return Optional.empty();
+        }
+
+        return Optional.of(s.getMetrics().snapshot());
+    }
+
+    /**
+     * Updates the properties returned by {@link #getSearchProgressProperties(int)} with the progress
+     * the searches published since the previous call. Should be called from the JavaFX thread, 
+     * e.g on every pulse with an {@link javafx.animation.AnimationTimer}.
+     */
+    public void refreshProgress() {
+        for(var s : searches.values()) {
+            s.refreshProperties();
+        }
+    }
+    
     /**
      * Deletes a search from {@link #searches}.
      * 
@@ -120,6 +567,8 @@ public class SearchRunner {
         Search s;
         
         if((s = searches.remove(searchId)) != null) {
+            priorities.remove(searchId);
+            MetricsExporter.unregister(s);
             LOGGER.info("Deleted search {}", s.getName());
         }
         else {
@@ -175,9 +624,124 @@ public class SearchRunner {
         );
         
         searches.put(s.getId(), s);
+        MetricsExporter.register(s);
+        return OptionalInt.of(s.getId());
+    }
+
+    /**
+     * Saves a {@link Search} which is not running and its {@link SearchSpace} to a file,
+     * so that it can be restored later with {@link #restoreSearch(Path, Search.Builder, DataStructure.Builder, DataStructure.Builder)}.
+     * 
+     * @param searchId The id of the search.
+     * @param file The file to write to.
+     * @return {@code true} if the search was saved; {@code false} otherwise.
+     */
+    public boolean checkpointSearch(int searchId, Path file) {
+        var s = searches.get(searchId);
+
+        if(s == null) {
+            LOGGER.info("No search with id {}", searchId);
+            return false;
+        }
+        
+        if(hasActiveRun(s)) {
+            LOGGER.error("Search has to be paused and its run finished before being saved: {}", s.getName());
+            return false;
+        }
+
+        try {
+            Checkpoint.write(s, file);
+        } catch(IOException | IllegalStateException e) {
+            LOGGER.error("Could not save search {}: {}", s.getName(), e.getMessage());
+            return false;
+        }
+        
+        LOGGER.info("Saved search {} to {}", s.getName(), file);
+        return true;
+    }
+
+    /**
+     * Restores a {@link Search} and its {@link SearchSpace} saved with {@link #checkpointSearch(int, Path)}.
+     * The restored search has a new id and keeps the state it had when it was saved, e.g it can
+     * be resumed with {@link #runSearch(int, int, int, boolean, boolean)} if it was paused.
+     * 
+     * @param file The file to read from.
+     * @param searchBuilder The builder for the search, which must be for the same algorithm 
+     * as the saved search.
+     * @param queuedBuilder {@link DataStructure.Builder} for the queued grids.
+     * @param exploredBuilder {@link DataStructure.Builder} for the explored grids.
+     * @return {@link OptionalInt#of} the id of the restored search if it was successfully restored.
+     */
+    public OptionalInt restoreSearch(
+        Path file, Search.Builder<?> searchBuilder,
+        DataStructure.Builder queuedBuilder, DataStructure.Builder exploredBuilder
+    ) {
+        LOGGER.info("Restoring search from {}", file);
+        
+        Search s;
+        try {
+            s = Checkpoint.read(file, searchBuilder, queuedBuilder, exploredBuilder);
+        } catch(IOException | IllegalArgumentException e) {
+            LOGGER.error("Could not restore search: {}", e.getMessage());
+            return OptionalInt.empty();
+        }
+
+        LOGGER.info("Search successfully restored: {}", s.getName());
+        searches.put(s.getId(), s);
+        MetricsExporter.register(s);
         return OptionalInt.of(s.getId());
     }
 
+    /**
+     * Sets the priority of a {@link Search}. Runs of searches with a higher priority are
+     * executed first; the new priority applies from the next queued slice.
+     * 
+     * @param searchId The id of the search.
+     * @param priority The new priority.
+     */
+    public void setSearchPriority(int searchId, int priority) {
+        if(!searches.containsKey(searchId)) {
+            LOGGER.info("No search with id {}", searchId);
+            return;
+        }
+        
+        priorities.put(searchId, priority);
+    }
+
+    /**
+     * Cancels the current run of a {@link Search} so that no further slice is executed,
+     * and removes it from the queue if it is waiting for a thread. A run which is executing
+     * stays in {@link #runs} until its thread is done with the current slice.
+     * 
+     * @param searchId The id of the search.
+     * @return {@code true} if the search had a run which was not cancelled yet; {@code false} otherwise.
+     */
+    private boolean cancelRun(int searchId) {
+        var r = runs.get(searchId);
+        
+        if(r == null || r.cancelled) {
+            return false;
+        }
+        
+        r.cancelled = true;
+        if(executorService.remove(r)) {
+            // was waiting for a thread, so it won't finish on its own
+            r.finish();
+        }
+        return true;
+    }
+
+    /**
+     * Whether a {@link Search} has a run which is not finished, i.e a thread may still be running it
+     * or it is waiting for one, even if it was paused or stopped.
+     * 
+     * @param s The search.
+     * @return {@code true} if the search has an unfinished run; {@code false} otherwise.
+     */
+    private boolean hasActiveRun(Search s) {
+        return runs.containsKey(s.getId()) || detachedRuns.containsKey(s.getId()) || s.isInRun();
+    }
+    
     /**
      * Pauses the given {@link Search} if it is running.
      * 
@@ -191,7 +755,9 @@ public class SearchRunner {
             return;
         }
         
-        if(s.getState() != Search.SearchState.RUNNING) {
+        boolean hadRun = cancelRun(searchId);
+        
+        if(s.getState() != Search.SearchState.RUNNING && !hadRun) {
             LOGGER.error("Search is not currently running: {}", s.getName());
             return;
         }
@@ -213,6 +779,7 @@ public class SearchRunner {
             return;
         }
 
+        cancelRun(searchId);
         LOGGER.info("Stopping search: {}", s.getName());
         s.stop();
     }
@@ -220,7 +787,8 @@ public class SearchRunner {
     /**
      * Runs a {@link Search} by creating calling {@link Search#newSearchTask(int, int, boolean, boolean)}
      * and submitting its returned {@link Search.SearchTask} (if present)
-     * to {@link #executorService}.
+     * to {@link #executorService}. If {@code iter} is greater than {@link #TIME_SLICE_ITERATIONS},
+     * the run is split into several tasks which are queued one after the other.
      * 
      * @param searchId The if of the {@link Search} to create a 
      * {@link Search.SearchTask} for.
@@ -239,25 +807,211 @@ public class SearchRunner {
         
         LOGGER.info("Attempting to run search: {}", s.getName());
         
-        if(lastRunningSearch == null || lastRunningSearch.getState() != Search.SearchState.RUNNING) {
-            lastRunningSearch = s;
+        if(s.getState() != Search.SearchState.READY && s.getState() != Search.SearchState.PAUSED) {
+            LOGGER.error("Search can not be run: {}", s.getName());
+            return;
         }
-
-        if(!s.equals(lastRunningSearch)) {
-            LOGGER.error("A search is already running: {}", lastRunningSearch.getName());
+        
+        var r = new SearchRun(s, Math.max(iter, 0), throttle, log, mem, iter > 0);
+        if(detachedRuns.containsKey(searchId) || s.isInRun() || runs.putIfAbsent(searchId, r) != null) {
+            LOGGER.error("Search is already running or its last run is not finished: {}", s.getName());
             return;
         }
         
+        lastRunningSearch = s;
         lastSearchInfo.bind(Bindings.concat(s.getName(), ": ", s.getCurrentStateProperty()));
         LOGGER.debug("Submitting search run: {}", s.getName());
         
-        s.newSearchTask(iter, throttle, log, mem).ifPresent(
-            t -> {
-                t.setOnSucceeded(
-                    e -> LOGGER.info("Search run completed: {}", s.getName())
+        r.enqueue();
+    }
+
+    /**
+     * Runs a {@link Search} outside of {@link #executorService} and without JavaFX: the run is a 
+     * {@link Search#newSearchCallable(int, int, boolean, Search.Listener)} executed on a new thread
+     * (see {@link #newPerRunExecutor()}), and its progress is only reported to {@code listener}.
+     * 
+     * @param searchId The id of the {@link Search} to run.
+     * @param iter The number of iterations for the run, or {@code 0} to run until the search ends.
+     * @param throttle Throttle delay for the run.
+     * @param log Whether to log the run.
+     * @param listener The {@link Search.Listener} for the run.
+     * @return {@link CompletableFuture} of the state of the search at the end of the run. 
+     * Completes exceptionally if the search does not exist or can not be run.
+     */
+    public CompletableFuture<Search.SearchState> runSearch(
+        int searchId, int iter, int throttle, boolean log, Search.Listener listener
+    ) {
+        return runSearch(searchId, iter, throttle, log, listener, perRunExecutor);
+    }
+
+    /**
+     * Runs a {@link Search} outside of {@link #executorService} and without JavaFX: the run is a
+     * {@link Search#newSearchCallable(int, int, boolean, Search.Listener)} executed on {@code executor},
+     * and its progress is only reported to {@code listener}.
+     * 
+     * @param searchId The id of the {@link Search} to run.
+     * @param iter The number of iterations for the run, or {@code 0} to run until the search ends.
+     * @param throttle Throttle delay for the run.
+     * @param log Whether to log the run.
+     * @param listener The {@link Search.Listener} for the run.
+     * @param executor The {@link Executor} on which to execute the run.
+     * @return {@link CompletableFuture} of the state of the search at the end of the run. 
+     * Completes exceptionally if the search does not exist or can not be run.
+     */
+    public CompletableFuture<Search.SearchState> runSearch(
+        int searchId, int iter, int throttle, boolean log, Search.Listener listener, Executor executor
+    ) {
+        var s = searches.get(searchId);
+
+        if(s == null) {
+            LOGGER.info("No search with id {}", searchId);
+            return CompletableFuture.failedFuture(new NoSuchElementException("No search with id " + searchId));
+        }
+
+        LOGGER.info("Attempting to run detached search: {}", s.getName());
+        
+        var callable = s.newSearchCallable(Math.max(iter, 0), throttle, log, listener);
+        if(callable.isEmpty() || runs.containsKey(searchId) || s.isInRun()) {
+            LOGGER.error("Search can not be run: {}", s.getName());
+            return CompletableFuture.failedFuture(new IllegalStateException("Search can not be run: " + s.getName()));
+        }
+
+        var result = new CompletableFuture<Search.SearchState>();
+        if(detachedRuns.putIfAbsent(searchId, result) != null) {
+            LOGGER.error("Search is already running: {}", s.getName());
+            return CompletableFuture.failedFuture(new IllegalStateException("Search is already running: " + s.getName()));
+        }
+        
+        lastRunningSearch = s;
+        
+        try {
+            executor.execute(() -> {
+                Search.SearchState state = null;
+                Exception failure = null;
+                try {
+                    state = callable.get().call();
+                } catch(Exception e) {
+                    failure = e;
+                }
+                
+                // removed first so that the search can be run or saved as soon as the future completes
+                detachedRuns.remove(searchId, result);
+                LOGGER.info("Detached search run completed: {}", s.getName());
+                
+                if(failure != null) {
+                    result.completeExceptionally(failure);
+                }
+                else {
+                    result.complete(state);
+                }
+            });
+        } catch(RejectedExecutionException e) {
+            detachedRuns.remove(searchId, result);
+            result.completeExceptionally(e);
+        }
+        
+        return result;
+    }
+
+    /**
+     * Races several searches on the same start and goal grids: each contestant is created with
+     * its own copy of the grids and run until it ends, outside of {@link #executorService} and 
+     * without JavaFX (see {@link #runSearch(int, int, int, boolean, Search.Listener, Executor)}), 
+     * each on its own thread. The first search which ends successfully wins and the others are
+     * stopped. Once all of them are over, every contestant but the winner is deleted.
+     * 
+     * @param spaceBuilder The builder whose start and goal grids are used.
+     * @param contestants The searches to race.
+     * @param throttle Throttle delay for the searches.
+     * @param log Whether to log the searches.
+     * @return {@link CompletableFuture} of the {@link Winner}, or {@link Optional#empty()} if none of 
+     * them ended successfully. Completes exceptionally if a search could not be created.
+     */
+    public CompletableFuture<Optional<Winner>> raceSearches(
+        SearchSpace.Builder spaceBuilder, List<Contestant> contestants, int throttle, boolean log
+    ) {
+        var m = spaceBuilder.getNamedProperties();
+        var start = (Grid) m.get("start").getValue();
+        var end = (Grid) m.get("end").getValue();
+        
+        if(start == null || end == null || contestants.isEmpty()) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException("Nothing to race"));
+        }
+        
+        LOGGER.info("Creating race between {} searches", contestants.size());
+        var ids = new ArrayList<Integer>(contestants.size());
+        
+        for(var c : contestants) {
+            OptionalInt id;
+            try {
+                id = createSearchAndSpace(
+                    c.search(),
+                    new SearchSpace.Builder()
+                        .start(Grid.of(start.getCopyOfSelf()).orElseThrow())
+                        .end(Grid.of(end.getCopyOfSelf()).orElseThrow()),
+                    c.queued(), c.explored()
                 );
-                executorService.submit(t);
+            } catch(IllegalArgumentException e) {
+                id = OptionalInt.empty();
+            }
+            
+            if(id.isEmpty()) {
+                ids.forEach(this::deleteSearch);
+                return CompletableFuture.failedFuture(new IllegalArgumentException("Could not create " + c.search()));
             }
+            
+            ids.add(id.getAsInt());
+        }
+        
+        var winner = new AtomicInteger(-1);
+        // contestants which had not started yet when the race was won stop on their first step
+        var listener = new Search.Listener() {
+            @Override
+            public void onStep(Search search) {
+                int w = winner.get();
+                if(w >= 0 && w != search.getId()) {
+                    search.stop();
+                }
+            }
+        };
+        
+        var futures = new ArrayList<CompletableFuture<Search.SearchState>>(ids.size());
+        for(int id : ids) {
+            futures.add(runSearch(id, 0, throttle, log, listener, perRunExecutor).whenComplete((state, e) -> {
+                if(state == Search.SearchState.ENDED_SUCCESS && winner.compareAndSet(-1, id)) {
+                    LOGGER.info("Race won by {}", searches.get(id).getName());
+                    ids.stream().filter(i -> i != id).forEach(this::stopSearch);
+                }
+            }));
+        }
+        
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).handle((v, e) -> {
+            int w = winner.get();
+            ids.stream().filter(id -> id != w).forEach(this::deleteSearch);
+            
+            if(w < 0) {
+                LOGGER.info("Race ended without a winner");
+                return Optional.empty();
+            }
+            return Optional.of(new Winner(w, contestants.get(ids.indexOf(w))));
+        });
+    }
+    
+    /**
+     * Getter for a snapshot of the scheduler's metrics.
+     * 
+     * @return {@link SchedulerMetrics} with the current values.
+     */
+    public SchedulerMetrics getMetrics() {
+        long elapsed = System.nanoTime() - creationTime;
+        int pool = executorService.getCorePoolSize();
+        
+        return new SchedulerMetrics(
+            pool,
+            executorService.getActiveCount(),
+            executorService.getQueue().size(),
+            completedSlices.get(),
+            (elapsed > 0) ? Math.min(1.0d, busyTime.get() / ((double) elapsed * pool)) : 0.0d
         );
     }
     
@@ -269,15 +1023,22 @@ public class SearchRunner {
      * on any running {@link Search}.
      */
     public void shutdown(boolean stopSearch) {
-        if(lastRunningSearch != null && lastRunningSearch.getState() == Search.SearchState.RUNNING) {
+        var ids = new HashSet<>(runs.keySet());
+        ids.addAll(detachedRuns.keySet());
+        
+        for(int id : ids) {
             if(stopSearch) {
-                stopSearch(lastRunningSearch.getId());
+                stopSearch(id);
             } else {
-                pauseSearch(lastRunningSearch.getId());
+                pauseSearch(id);
             }
         }
 
         LOGGER.info("Shutting down search runner");
         executorService.shutdown();
+        perRunExecutor.shutdown();
+
+        searches.values().forEach(MetricsExporter::unregister);
+        MetricsExporter.unregister(objectName);
     }
 }
@@ -0,0 +1,98 @@
+package io.github.vqnxiv.taquin.model;
+
+
+/**
+ * Management interface of a {@link SearchRunner}, registered under
+ * {@code io.github.vqnxiv.taquin:type=SearchRunner,id=<n>} in the platform {@code MBeanServer}.
+ * <p>
+ * The heap and GC values are those of {@link MemoryTelemetry}, so that they can be read
+ * along the throughput of the searches.
+ *
+ * @see MetricsExporter
+ */
+public interface SearchRunnerMXBean {
+
+    /**
+     * The number of searches.
+     *
+     * @return The number of searches created or restored and not deleted.
+     */
+    int getSearchCount();
+
+    /**
+     * The number of searches which have a run, including runs waiting for a thread.
+     *
+     * @return The number of runs.
+     */
+    int getActiveSearches();
+
+    /**
+     * The number of threads of the pool.
+     *
+     * @return {@link SearchRunner.SchedulerMetrics#poolSize()}.
+     */
+    int getPoolSize();
+
+    /**
+     * The number of runs waiting for a thread.
+     *
+     * @return {@link SearchRunner.SchedulerMetrics#queueLength()}.
+     */
+    int getQueueLength();
+
+    /**
+     * The number of slices which were run.
+     *
+     * @return {@link SearchRunner.SchedulerMetrics#completedSlices()}.
+     */
+    long getCompletedSlices();
+
+    /**
+     * The share of the threads' time spent running searches.
+     *
+     * @return {@link SearchRunner.SchedulerMetrics#utilization()}.
+     */
+    double getUtilization();
+
+    /**
+     * The sum of the expansions per second of the searches.
+     *
+     * @return The sum of {@link SearchMetrics.Snapshot#nodesPerSecond()} of the running searches.
+     */
+    double getNodesPerSecond();
+
+    /**
+     * The current heap usage.
+     *
+     * @return {@link MemoryTelemetry.Snapshot#heapUsed()}.
+     */
+    long getHeapUsed();
+
+    /**
+     * The maximum heap size.
+     *
+     * @return {@link MemoryTelemetry.Snapshot#heapMax()}.
+     */
+    long getHeapMax();
+
+    /**
+     * The number of garbage collections.
+     *
+     * @return {@link MemoryTelemetry.Snapshot#gcCount()}.
+     */
+    long getGcCount();
+
+    /**
+     * The accumulated duration of the garbage collections.
+     *
+     * @return {@link MemoryTelemetry.Snapshot#gcTime()}, in ms.
+     */
+    long getGcTime();
+
+    /**
+     * The current memory pressure.
+     *
+     * @return The name of the {@link MemoryTelemetry.Pressure}.
+     */
+    String getMemoryPressure();
+}
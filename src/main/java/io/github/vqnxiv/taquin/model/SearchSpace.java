@@ -1,12 +1,17 @@
 package io.github.vqnxiv.taquin.model;
 
 
+import io.github.vqnxiv.taquin.model.structure.ImprovedSearch;
+import io.github.vqnxiv.taquin.model.structure.Sortable;
 import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.Property;
 import javafx.beans.property.ReadOnlyObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
 
 
 /**
@@ -80,6 +85,26 @@ public class SearchSpace {
             return this;
         }
         
+        /**
+         * Setter for {@link #start}.
+         * @param g The new value for {@link #start}.
+         * @return this object.
+         */
+        public Builder start(Grid g) {
+            start.set(g);
+            return this;
+        }
+
+        /**
+         * Setter for {@link #end}.
+         * @param g The new value for {@link #end}.
+         * @return this object.
+         */
+        public Builder end(Grid g) {
+            end.set(g);
+            return this;
+        }
+        
         /**
          * Build method.
          * 
@@ -144,15 +169,57 @@ public class SearchSpace {
     private final DataStructure<Grid> queued;
 
     /**
-     * The counter for the states' key.
+     * The {@link ImprovedSearch.SearchType} used to look up grids in {@link #explored}.
+     */
+    private final ImprovedSearch.SearchType exploredLookup;
+
+    /**
+     * The {@link ImprovedSearch.SearchType} used to look up grids in {@link #queued}.
+     */
+    private final ImprovedSearch.SearchType queuedLookup;
+
+    /**
+     * {@link Comparator} consistent with the order of the structures sorted by the {@link Search}'s
+     * comparator, used for non iterative look ups in them. {@code null} if there is none.
+     */
+    private Comparator<Grid> lookupComparator;
+
+    /**
+     * Computes what {@link #lookupComparator} compares on a new grid before looking it up.
      */
-    private int currentKeyCounter = 0;
+    private Consumer<Grid> lookupKey;
+
+    /**
+     * Where the expansions and duplicates are counted. Replaced by the metrics of the {@link Search}
+     * this space is injected in.
+     */
+    private SearchMetrics metrics = new SearchMetrics();
+
+    /**
+     * The id of the {@link Search} this space is injected in, for {@link SearchEvents}.
+     */
+    private int searchId = 0;
+    
+    /**
+     * The counter for the states' key. Starts at {@code 1} as the start grid has the key {@code 0}.
+     */
+    private int currentKeyCounter = 1;
 
     /**
      * Property which contains {@link #currentGrid}.
      */
     private final ObjectProperty<Grid> currentGridProperty;
 
+    /**
+     * The memory overhead per element of {@link #explored}. See {@link DataStructure.Builder#entryMemoryCost(Grid)}.
+     */
+    private final long exploredEntryCost;
+
+    /**
+     * The memory overhead per element of {@link #queued}. See {@link DataStructure.Builder#entryMemoryCost(Grid)}.
+     */
+    private final long queuedEntryCost;
+
 
     /**
      * Constructor.
@@ -173,11 +240,52 @@ public class SearchSpace {
 
         explored = (DataStructure<Grid>) exploredBuilder.build();
         queued = (DataStructure<Grid>) queuedBuilder.build();
+        exploredLookup = exploredBuilder.getSearchType();
+        queuedLookup = queuedBuilder.getSearchType();
         
         this.queued.add(startGrid);
         currentGrid = startGrid;
 
         currentGridProperty = new SimpleObjectProperty<>(currentGrid);
+        exploredEntryCost = exploredBuilder.entryMemoryCost(startGrid);
+        queuedEntryCost = queuedBuilder.entryMemoryCost(startGrid);
+    }
+
+    /**
+     * Constructor used to restore a {@link SearchSpace} from a {@link Checkpoint}.
+     * 
+     * @param start The start grid.
+     * @param end The goal grid.
+     * @param current The current grid.
+     * @param keyCounter The value for {@link #currentKeyCounter}.
+     * @param exploredBuilder The {@link DataStructure.Builder} to use to store the explored grids.
+     * @param queuedBuilder The {@link DataStructure.Builder} to use to store the queued grids.
+     * @param exploredGrids The explored grids, in the order they were in {@link #explored}.
+     * @param queuedGrids The queued grids, in the order they were in {@link #queued}.
+     */
+    @SuppressWarnings("unchecked")
+    SearchSpace(
+        Grid start, Grid end, Grid current, int keyCounter,
+        DataStructure.Builder exploredBuilder, DataStructure.Builder queuedBuilder,
+        List<Grid> exploredGrids, List<Grid> queuedGrids
+    ) {
+        startGrid = start;
+        goalGrid = end;
+        goalGrid.setKey(-1);
+
+        explored = (DataStructure<Grid>) exploredBuilder.build();
+        queued = (DataStructure<Grid>) queuedBuilder.build();
+        exploredLookup = exploredBuilder.getSearchType();
+        queuedLookup = queuedBuilder.getSearchType();
+        
+        explored.addAll(exploredGrids);
+        queued.addAll(queuedGrids);
+        currentGrid = current;
+        currentKeyCounter = keyCounter;
+
+        currentGridProperty = new SimpleObjectProperty<>(currentGrid);
+        exploredEntryCost = exploredBuilder.entryMemoryCost(startGrid);
+        queuedEntryCost = queuedBuilder.entryMemoryCost(startGrid);
     }
 
 
@@ -243,6 +351,38 @@ public class SearchSpace {
     public DataStructure<Grid> getQueued() {
         return queued;
     }
+
+    /**
+     * Estimates the memory used by {@link #explored} in constant time, from its size, 
+     * {@link #exploredEntryCost} and the {@link Grid#getMemoryCost()} of the parent of {@link #currentGrid},
+     * which was explored and already has its lists of neighbors, and stands for the explored grids.
+     * 
+     * @return The estimated memory used by the explored grids, in bytes.
+     */
+    public long getExploredMemory() {
+        return explored.size() * (currentGrid.getParent().getMemoryCost() + exploredEntryCost);
+    }
+
+    /**
+     * Estimates the memory used by {@link #queued} in constant time, from its size, 
+     * {@link #queuedEntryCost} and the {@link Grid#getMemoryCost()} of {@link #currentGrid}
+     * without its lists of neighbors, which queued grids do not have yet.
+     * 
+     * @return The estimated memory used by the queued grids, in bytes.
+     */
+    public long getQueuedMemory() {
+        var g = currentGrid;
+        return queued.size() * (g.getMemoryCost() - g.getNeighborsMemoryCost() + queuedEntryCost);
+    }
+    
+    /**
+     * Getter for {@link #currentKeyCounter}.
+     * 
+     * @return {@link #currentKeyCounter}.
+     */
+    int getKeyCounter() {
+        return currentKeyCounter;
+    }
     
     /**
      * Setter for {@link #currentGrid}. Also updates {@link #currentGridProperty}.
@@ -254,6 +394,37 @@ public class SearchSpace {
         currentGridProperty.setValue(g);
     }
 
+    /**
+     * Sets the {@link Comparator} used for non iterative look ups in structures which are sorted
+     * by the {@link Search}'s comparator. It should only compare values which depend on
+     * the state of a {@link Grid}, so that a new grid compares equal to an existing one.
+     * 
+     * @param key Computes the values compared by {@code c} on a new {@link Grid}.
+     * @param c The value for {@link #lookupComparator}.
+     */
+    void setLookup(Consumer<Grid> key, Comparator<Grid> c) {
+        lookupKey = key;
+        lookupComparator = c;
+    }
+
+    /**
+     * Setter for {@link #metrics}.
+     * 
+     * @param m The new value for {@link #metrics}.
+     */
+    void setMetrics(SearchMetrics m) {
+        metrics = m;
+    }
+
+    /**
+     * Setter for {@link #searchId}.
+     * 
+     * @param id The new value for {@link #searchId}.
+     */
+    void setSearchId(int id) {
+        searchId = id;
+    }
+
     /**
      * Checks whether {@link #currentGrid} is equal to {@link #goalGrid}.
      * 
@@ -311,47 +482,233 @@ public class SearchSpace {
      * @param filterExplored whether to filter out the neighbors that already are in {@link #explored}.
      * @param filterQueued whether to filter out the neighbors that already are in {@link #queued}.
      * @param linkExisting whether to link {@link #currentGrid} to its existing neighbors. 
-     *                     ({@link #linkExisting(Grid)})
+     *                     ({@link #linkExisting(Grid, Grid, List)})
      * @param <T> A {@link Collection} which extends both {@link Queue} and {@link List}, 
      *           so likely a {@link LinkedList}.
      * @return A {@link Collection} of the new neighbors.
      */
-    @SuppressWarnings("unchecked")
     public <T extends Queue<Grid> & List<Grid>> T getNewNeighbors(
         boolean filterExplored, boolean filterQueued, boolean linkExisting
     ) {
+        return getNewNeighbors(filterExplored, filterQueued, linkExisting, Cancellation.NONE);
+    }
 
-        var possibleNewStates = currentGrid.generateNeighbors();
+    /**
+     * Same as {@link #getNewNeighbors(boolean, boolean, boolean)}, but checks a {@link Cancellation} 
+     * before looking up each neighbor in {@link #explored} and {@link #queued}, as these lookups 
+     * can be linear in the size of the structures.
+     * 
+     * @param filterExplored whether to filter out the neighbors that already are in {@link #explored}.
+     * @param filterQueued whether to filter out the neighbors that already are in {@link #queued}.
+     * @param linkExisting whether to link {@link #currentGrid} to its existing neighbors. 
+     *                     ({@link #linkExisting(Grid, Grid, List)})
+     * @param cancel {@link Cancellation} to check.
+     * @param <T> A {@link Collection} which extends both {@link Queue} and {@link List}, 
+     *           so likely a {@link LinkedList}.
+     * @return A {@link Collection} of the new neighbors.
+     * @throws java.util.concurrent.CancellationException If {@code cancel} was cancelled.
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Queue<Grid> & List<Grid>> T getNewNeighbors(
+        boolean filterExplored, boolean filterQueued, boolean linkExisting, Cancellation cancel
+    ) {
+
+        var generation = SearchEvents.neighborGeneration();
+        var neighbors = currentGrid.generateNeighbors();
+        generation.end(searchId, neighbors.size());
+        
         var retour = new LinkedList<Grid>();
+        var filtering = SearchEvents.duplicateFiltering();
+        addNewNeighbors(
+            currentGrid, neighbors, null, 
+            filterExplored, filterQueued, linkExisting, cancel, retour
+        );
+        filtering.end(searchId, neighbors.size());
+
+        return (T) retour;
+    }
+
+    /**
+     * Gets the new neighbors of several grids at once, e.g the grids polled from {@link #queued}
+     * by a single step of a batch search. The neighbors of each grid are generated in parallel on {@code pool},
+     * then they are filtered and linked as in {@link #getNewNeighbors(boolean, boolean, boolean, Cancellation)}, 
+     * one grid after the other, in the order of {@code parents}, once all of them were generated.
+     * {@code heuristic} is then computed in parallel on {@code pool}, only on the new neighbors.
+     * <p>
+     * If {@code filterQueued} is {@code true}, a neighbor which is equal to a neighbor of a previous grid
+     * of {@code parents} is also filtered out (and linked if {@code linkExisting} is {@code true}),
+     * so that only its first occurrence is returned.
+     * <p>
+     * {@code heuristic} is called concurrently on different grids, and only reads the grid it is given,
+     * its parent and {@link #goalGrid}; the grids of {@code parents} should thus already have been 
+     * explored and have had their own heuristic computed. The tasks on {@code pool} check {@code cancel}
+     * before each grid.
+     * 
+     * @param parents The grids whose neighbors are generated.
+     * @param heuristic Computes the heuristic value of a new grid, e.g {@link Search#computeHeuristic(Grid)}.
+     * @param pool The pool on which the neighbors are generated and evaluated.
+     * @param filterExplored whether to filter out the neighbors that already are in {@link #explored}.
+     * @param filterQueued whether to filter out the neighbors that already are in {@link #queued}.
+     * @param linkExisting whether to link the grids to their existing neighbors.
+     * @param cancel {@link Cancellation} to check.
+     * @return {@link List} of the new neighbors of all the grids.
+     * @throws java.util.concurrent.CancellationException If {@code cancel} was cancelled.
+     */
+    public List<Grid> getNewNeighbors(
+        List<Grid> parents, Consumer<Grid> heuristic, ForkJoinPool pool,
+        boolean filterExplored, boolean filterQueued, boolean linkExisting, Cancellation cancel
+    ) {
+        var generation = SearchEvents.neighborGeneration();
+        var tasks = new ArrayList<ForkJoinTask<Set<Grid>>>(parents.size());
+        for(var p : parents) {
+            tasks.add(pool.submit(() -> {
+                cancel.throwIfCancelled();
+                return p.generateNeighbors();
+            }));
+        }
+
+        var neighbors = new ArrayList<Set<Grid>>(parents.size());
+        int generated = 0;
+        for(var t : tasks) {
+            neighbors.add(t.join());
+            generated += neighbors.get(neighbors.size() - 1).size();
+        }
+        generation.end(searchId, generated);
+
+        var retour = new ArrayList<Grid>(parents.size() * 3);
+        var batch = filterQueued ? new HashSet<Grid>() : null;
+        
+        var filtering = SearchEvents.duplicateFiltering();
+        for(int i = 0; i < parents.size(); i++) {
+            addNewNeighbors(
+                parents.get(i), neighbors.get(i), batch,
+                filterExplored, filterQueued, linkExisting, cancel, retour
+            );
+        }
+        filtering.end(searchId, generated);
+        
+        var heuristics = SearchEvents.heuristicComputation();
+        evaluate(retour, heuristic, pool, cancel);
+        heuristics.end(searchId, retour.size());
+        
+        return retour;
+    }
+
+    /**
+     * Computes the heuristic value of grids in parallel, split in as many tasks 
+     * as the parallelism of {@code pool}.
+     * 
+     * @param grids The grids to evaluate.
+     * @param heuristic Computes the heuristic value of a grid.
+     * @param pool The pool on which the grids are evaluated.
+     * @param cancel {@link Cancellation} to check before each grid.
+     * @throws java.util.concurrent.CancellationException If {@code cancel} was cancelled.
+     */
+    private static void evaluate(List<Grid> grids, Consumer<Grid> heuristic, ForkJoinPool pool, Cancellation cancel) {
+        int chunk = Math.max(1, (grids.size() + pool.getParallelism() - 1) / pool.getParallelism());
+        var tasks = new ArrayList<ForkJoinTask<?>>();
+        
+        for(int from = 0; from < grids.size(); from += chunk) {
+            var sub = grids.subList(from, Math.min(from + chunk, grids.size()));
+            tasks.add(pool.submit(() -> {
+                for(var g : sub) {
+                    cancel.throwIfCancelled();
+                    heuristic.accept(g);
+                }
+            }));
+        }
+        
+        for(var t : tasks) {
+            t.join();
+        }
+    }
+
+    /**
+     * Filters and links the neighbors generated from a grid, and adds the new ones to a {@link List}.
+     * 
+     * @param parent The grid the neighbors were generated from.
+     * @param possibleNewStates The neighbors generated from {@code parent}.
+     * @param batch The new neighbors of the other grids of the same batch, or {@code null}.
+     * @param filterExplored whether to filter out the neighbors that already are in {@link #explored}.
+     * @param filterQueued whether to filter out the neighbors that already are in {@link #queued}.
+     * @param linkExisting whether to link {@code parent} to its existing neighbors.
+     * @param cancel {@link Cancellation} to check.
+     * @param retour Where to add the new neighbors.
+     */
+    private void addNewNeighbors(
+        Grid parent, Collection<Grid> possibleNewStates, Set<Grid> batch,
+        boolean filterExplored, boolean filterQueued, boolean linkExisting, 
+        Cancellation cancel, List<Grid> retour
+    ) {
+        metrics.expanded(parent, possibleNewStates.size());
         
         for(Grid g : possibleNewStates){
+            cancel.throwIfCancelled();
             
-            if((filterExplored && explored.contains(g)) || (filterQueued && queued.contains(g))) {
-                if(linkExisting) {
-                    linkExisting(g);
-                }
+            if(filterExplored && contains(explored, exploredLookup, g)) {
+                metrics.exploredDuplicate();
+            }
+            else if((filterQueued && contains(queued, queuedLookup, g)) || (batch != null && !batch.add(g))) {
+                metrics.queuedDuplicate();
             }
             else {
                 g.setKey(currentKeyCounter);
                 currentKeyCounter++;
-                currentGrid.addNeighbor(g, true);
+                parent.addNeighbor(g, true);
                 retour.add(g);
+                continue;
+            }
+            
+            if(linkExisting) {
+                linkExisting(parent, g, retour);
             }
         }
+    }
 
-        return (T) retour;
+    /**
+     * Checks whether a {@link DataStructure} contains a {@link Grid}, using binary or exponential
+     * search if the structure implements {@link ImprovedSearch} and is sorted.
+     * Structures sorted by the {@link Search}'s comparator are only searched that way if
+     * {@link #lookupComparator} was set; otherwise this falls back to {@link Collection#contains(Object)}.
+     * 
+     * @param ds The structure.
+     * @param type The search type to use.
+     * @param g The grid to look up.
+     * @return {@code true} if {@code ds} contains {@code g}; {@code false} otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean contains(DataStructure<Grid> ds, ImprovedSearch.SearchType type, Grid g) {
+        if(type == ImprovedSearch.SearchType.ITERATIVE 
+            || !(ds instanceof ImprovedSearch<?>) || !(ds instanceof Sortable<Grid> s)) {
+            return ds.contains(g);
+        }
+        
+        var is = (ImprovedSearch<Grid>) ds;
+        
+        if(!s.isSortedByComparator()) {
+            return is.contains(g, type);
+        }
+        if(lookupComparator == null) {
+            return ds.contains(g);
+        }
+        
+        lookupKey.accept(g);
+        return is.contains(g, type, lookupComparator);
     }
 
     /**
-     * Method which links a {@link Grid} to its neighbors that exist in {@link #explored} or {@link #queued},
-     * and calls {@link Grid#addNeighbor(Grid, boolean)} with the found neighbors.
+     * Method which links a {@link Grid} to its neighbors that exist in {@link #explored}, {@link #queued}
+     * or among the new neighbors which are not queued yet, and calls {@link Grid#addNeighbor(Grid, boolean)}
+     * with the found neighbors.
      * <p>
      * As it iterates through both {@link #explored} and {@link #queued}, this can be
      * a time consuming operations and as such should not be done if speed is at matter.
      * 
-     * @param g The {@link Grid} to link.
+     * @param parent The {@link Grid} to link.
+     * @param g The neighbor of {@code parent} to look for.
+     * @param batch The new neighbors which are not queued yet.
      */
-    private void linkExisting(Grid g) {
+    private void linkExisting(Grid parent, Grid g, List<Grid> batch) {
         boolean wasFound = false;
 
         
@@ -371,8 +728,17 @@ public class SearchSpace {
             }
         }
         
+        if(!wasFound) {
+            for(Grid g2 : batch) {
+                if(g.equals(g2)) {
+                    g = g2;
+                    wasFound = true;
+                }
+            }
+        }
+        
         
-        if(wasFound) currentGrid.addNeighbor(g, false);
+        if(wasFound) parent.addNeighbor(g, false);
     }
 
 
@@ -0,0 +1,270 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.*;
+
+
+/**
+ * Class which solves sets of instances with several search configurations, one instance
+ * at a time, and writes one row per instance and configuration.
+ * <p>
+ * Rows are written in a fixed order (set, configuration, instance) and the instances are
+ * either read from files or generated from fixed seeds, so that the results of two commits
+ * can be diffed: the states, solution lengths and expanded nodes are the same from one run
+ * to another, only the times and the heap usage change.
+ * <p>
+ * Instances are solved sequentially so that the peak heap usage can be attributed
+ * to a single search.
+ */
+public class SolverBenchmark {
+
+    /**
+     * A set of instances which share the same goal.
+     *
+     * @param name The name of the set, e.g {@code korf100}.
+     * @param instances The instances.
+     * @param goal The goal of every instance, or {@code null} for the grid with the cells
+     * in ascending order and the empty cell last.
+     */
+    public record InstanceSet(String name, List<Grid> instances, Grid goal) {}
+
+    /**
+     * A search configuration.
+     *
+     * @param search The short name of the search.
+     * @param heuristic The heuristic of the search, already set on {@code searchBuilder}.
+     * @param searchBuilder The builder for the search, with its heuristic and limits set.
+     * @param queued The structure class for the queued states.
+     * @param explored The structure class for the explored states.
+     */
+    public record Configuration(
+        String search, Grid.Distance heuristic, Search.Builder<?> searchBuilder, Class<?> queued, Class<?> explored
+    ) {}
+
+    /**
+     * The result of one configuration on one instance.
+     *
+     * @param set The name of the instance set.
+     * @param configuration The search, heuristic and queued structure.
+     * @param result The result from {@link BatchSolver}.
+     * @param wallTime The time spent solving the instance, including building the search, in ns.
+     * Unlike {@link BatchSolver.Result#time()}, it includes the time spent checking the limits.
+     * @param peakHeap The peak heap usage while solving the instance, in bytes.
+     */
+    private record Row(String set, String configuration, BatchSolver.Result result, long wallTime, long peakHeap) {
+
+        /**
+         * CSV header line.
+         */
+        private static final String CSV_HEADER =
+            "set,search,heuristic,queued,index,state,solution_length,expanded,generated,"
+                + "time_ms,wall_ms,nodes_per_s,peak_heap_bytes";
+
+        /**
+         * Formats this row.
+         *
+         * @return This row as a single CSV line, without line separator.
+         */
+        private String toCsv() {
+            long nodesPerSecond = (wallTime > 0) ? result.expanded() * 1_000_000_000L / wallTime : 0;
+
+            return set + ',' + configuration + ',' + result.index() + ',' + result.state().name() + ','
+                + result.pathLength() + ',' + result.expanded() + ',' + result.generated() + ','
+                + result.time() + ',' + wallTime / 1_000_000 + ',' + nodesPerSecond + ',' + peakHeap;
+        }
+    }
+
+
+    /**
+     * Root logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(SolverBenchmark.class);
+
+    /**
+     * The heap memory pools, whose peak usages are summed.
+     */
+    private static final List<MemoryPoolMXBean> HEAP_POOLS = ManagementFactory.getMemoryPoolMXBeans().stream()
+        .filter(p -> p.getType() == MemoryType.HEAP)
+        .toList();
+
+    /**
+     * The instance sets.
+     */
+    private final List<InstanceSet> sets;
+
+    /**
+     * The search configurations.
+     */
+    private final List<Configuration> configurations;
+
+
+    /**
+     * Constructor.
+     *
+     * @param sets The value for {@link #sets}.
+     * @param configurations The value for {@link #configurations}.
+     */
+    public SolverBenchmark(List<InstanceSet> sets, List<Configuration> configurations) {
+        this.sets = List.copyOf(sets);
+        this.configurations = List.copyOf(configurations);
+    }
+
+
+    /**
+     * Generates random solvable instances whose goal is the grid with the cells in ascending order
+     * and the empty cell last.
+     * <p>
+     * The cells are shuffled and, if the result is not solvable, the first two non empty cells
+     * are swapped, which changes the parity of the permutation.
+     *
+     * @param width The width of the grids.
+     * @param height The height of the grids.
+     * @param count The number of instances.
+     * @param seed The seed of the generator.
+     * @return {@link List} of the instances, always the same for the same arguments.
+     */
+    public static List<Grid> randomInstances(int width, int height, int count, long seed) {
+        var random = new SplittableRandom(seed);
+        var l = new ArrayList<Grid>(count);
+        int n = width * height;
+
+        for(int i = 0; i < count; i++) {
+            var cells = new int[n];
+            for(int j = 0; j < n; j++) {
+                cells[j] = j;
+            }
+            for(int j = n - 1; j > 0; j--) {
+                int k = random.nextInt(j + 1);
+                int tmp = cells[j];
+                cells[j] = cells[k];
+                cells[k] = tmp;
+            }
+
+            if(!isSolvable(cells, width)) {
+                int a = (cells[0] != 0) ? 0 : 1;
+                int b = (cells[a + 1] != 0) ? a + 1 : a + 2;
+                int tmp = cells[a];
+                cells[a] = cells[b];
+                cells[b] = tmp;
+            }
+
+            var t = new int[height][width];
+            for(int j = 0; j < n; j++) {
+                t[j / width][j % width] = cells[j];
+            }
+            l.add(Grid.of(t).orElseThrow());
+        }
+
+        return l;
+    }
+
+    /**
+     * Whether cells can reach the grid with the cells in ascending order and the empty cell last.
+     *
+     * @param cells The cells, row after row, with {@code 0} as the empty cell.
+     * @param width The width of the grid.
+     * @return {@code true} if the grid is solvable; {@code false} otherwise.
+     */
+    private static boolean isSolvable(int[] cells, int width) {
+        int inversions = 0;
+        int emptyRowFromBottom = 0;
+
+        for(int i = 0; i < cells.length; i++) {
+            if(cells[i] == 0) {
+                emptyRowFromBottom = (cells.length - i - 1) / width + 1;
+                continue;
+            }
+            for(int j = i + 1; j < cells.length; j++) {
+                if(cells[j] != 0 && cells[j] < cells[i]) {
+                    inversions++;
+                }
+            }
+        }
+
+        return (width % 2 == 1)
+            ? inversions % 2 == 0
+            : (inversions + emptyRowFromBottom) % 2 == 1;
+    }
+
+    /**
+     * Gets the peak heap usage since the previous {@link #resetPeakHeap()} call.
+     *
+     * @return The sum of the peak usages of {@link #HEAP_POOLS}, in bytes.
+     */
+    private static long peakHeap() {
+        return HEAP_POOLS.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+    }
+
+    /**
+     * Collects the garbage of the previous instance and resets the peak usages of {@link #HEAP_POOLS}.
+     */
+    private static void resetPeakHeap() {
+        System.gc();
+        HEAP_POOLS.forEach(MemoryPoolMXBean::resetPeakUsage);
+    }
+
+
+    /**
+     * Solves every instance of every set with every configuration and writes the results as CSV.
+     *
+     * @param out Where to write the results.
+     * @return The number of successfully solved instances, for all configurations.
+     * @throws IOException If a result could not be written.
+     */
+    public int run(Writer out) throws IOException {
+        int solved = 0;
+
+        out.write(Row.CSV_HEADER);
+        out.write(System.lineSeparator());
+
+        for(var set : sets) {
+            for(var c : configurations) {
+                var solver = new BatchSolver(
+                    c.searchBuilder(),
+                    new DataStructure.Builder("queued", c.queued()),
+                    new DataStructure.Builder("explored", c.explored()),
+                    set.goal(), 1, false
+                );
+                var name = c.search() + ',' + c.heuristic().name() + ',' + c.queued().getSimpleName();
+                int configSolved = 0;
+                long expanded = 0;
+                long wallTime = 0;
+
+                LOGGER.info("Solving {} with {}", set.name(), name);
+                for(int i = 0; i < set.instances().size(); i++) {
+                    resetPeakHeap();
+
+                    long start = System.nanoTime();
+                    var r = solver.solve(i, set.instances().get(i));
+                    long time = System.nanoTime() - start;
+
+                    if(r.state() == Search.SearchState.ENDED_SUCCESS) {
+                        configSolved++;
+                    }
+                    expanded += r.expanded();
+                    wallTime += time;
+
+                    out.write(new Row(set.name(), name, r, time, peakHeap()).toCsv());
+                    out.write(System.lineSeparator());
+                }
+                out.flush();
+
+                LOGGER.info(
+                    "{} with {}: solved {} out of {}, {} expanded in {} ms",
+                    set.name(), name, configSolved, set.instances().size(), expanded, wallTime / 1_000_000
+                );
+                solved += configSolved;
+            }
+        }
+
+        return solved;
+    }
+}
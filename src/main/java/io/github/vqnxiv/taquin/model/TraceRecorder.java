@@ -0,0 +1,356 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Optional;
+
+
+/**
+ * Records a compact binary trace of a {@link Search}, which can be read back with {@link TraceReplay}
+ * to rebuild the explored tree, the size of the queue over time and the final path without running
+ * the search again.
+ * <p>
+ * The file starts with a header: {@link #MAGIC}, {@link #VERSION}, the class of the search and its heuristic
+ * (as UTF-8 strings preceded by their length as a {@code short}), then the start and goal grids
+ * (their number of rows and columns followed by their cells, as {@code int}s). It is followed by
+ * fixed size records, big-endian, whose first byte is their type:
+ * <ul>
+ *     <li>{@link #EXPANDED}: a state was polled and explored. Key, key of the parent ({@code -1} for none),
+ *     move from the parent ({@link Grid#getMoveIndex()}), depth ({@code g}), heuristic value, size
+ *     of the queue once it was polled, and elapsed time of the search in ns.</li>
+ *     <li>{@link #QUEUED}: a new state was added to the queue. Key, key of the parent, move, depth
+ *     and heuristic value.</li>
+ *     <li>{@link #RESTARTED}: the queue and explored states were cleared and the start queued again,
+ *     with a new depth limit ({@code int}).</li>
+ *     <li>{@link #RUN_ENDED}: a run ended. {@link Search.SearchState#ordinal()}, key of the current state
+ *     and elapsed time of the search in ns.</li>
+ * </ul>
+ * Records are written to a direct {@link ByteBuffer} which is written to a {@link FileChannel}
+ * whenever it is full and at the end of each run, so that the trace of a paused search can be read.
+ * Only the thread which runs the search writes to a recorder.
+ * <p>
+ * A recorder never fails the search: if the file can not be written, a warning is logged
+ * and the following records are discarded.
+ */
+final class TraceRecorder implements Closeable {
+
+    /**
+     * Magic number at the start of every trace file.
+     */
+    static final int MAGIC = 0x54515452;
+
+    /**
+     * Version of the file format.
+     */
+    static final short VERSION = 1;
+
+    /**
+     * Type of the records of expanded states.
+     */
+    static final byte EXPANDED = 1;
+
+    /**
+     * Type of the records of queued states.
+     */
+    static final byte QUEUED = 2;
+
+    /**
+     * Type of the records of depth limit increases.
+     */
+    static final byte RESTARTED = 3;
+
+    /**
+     * Type of the records of the ends of runs.
+     */
+    static final byte RUN_ENDED = 4;
+
+    /**
+     * Root logger.
+     */
+    private static final Logger LOGGER = LogManager.getLogger(TraceRecorder.class);
+
+    /**
+     * The size of {@link #buffer}.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * The size of the largest record, {@link #EXPANDED}.
+     */
+    private static final int MAX_RECORD_SIZE = 1 + 4 + 4 + 1 + 4 + 4 + 4 + 8;
+
+    /**
+     * The file being written.
+     */
+    private final Path file;
+
+    /**
+     * The channel of {@link #file}.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Buffer for the records, which is written to {@link #channel} when full.
+     */
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+    /**
+     * Whether writing failed or the recorder was closed, in which case records are discarded.
+     */
+    private boolean closed = false;
+
+
+    /**
+     * Constructor.
+     *
+     * @param file The value for {@link #file}.
+     * @param channel The value for {@link #channel}.
+     */
+    private TraceRecorder(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+
+    /**
+     * Creates or truncates a trace file and writes its header, as well as a {@link #QUEUED} record
+     * for each state which is already queued (i.e the start, or the queue of a restored search).
+     * <p>
+     * If {@code append} is {@code true} and the file already holds a trace, e.g the trace of a search 
+     * which is restored from a {@link Checkpoint}, the records are appended to it instead: the restored
+     * states keep their keys, so that the trace goes on from the last run of the saved search.
+     *
+     * @param file The file to write to.
+     * @param search The search to record.
+     * @param space The {@link SearchSpace} of the search.
+     * @param append Whether to append to an existing trace.
+     * @return The recorder, or {@link Optional#empty()} if the file could not be written.
+     */
+    static Optional<TraceRecorder> open(Path file, Search search, SearchSpace space, boolean append) {
+        try {
+            if(append && isTrace(file)) {
+                LOGGER.info("Appending trace to {}", file);
+                return Optional.of(new TraceRecorder(file, FileChannel.open(
+                    file, StandardOpenOption.WRITE, StandardOpenOption.APPEND
+                )));
+            }
+            
+            var recorder = new TraceRecorder(file, FileChannel.open(
+                file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE
+            ));
+            recorder.writeHeader(search, space);
+            recorder.queued(space.getQueued());
+
+            return Optional.of(recorder);
+        } catch(IOException e) {
+            LOGGER.warn("Could not record trace to {}: {}", file, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Checks whether a file starts with {@link #MAGIC}.
+     *
+     * @param file The file.
+     * @return {@code true} if the file exists and starts like a trace.
+     * @throws IOException If the file could not be read.
+     */
+    private static boolean isTrace(Path file) throws IOException {
+        if(!Files.isRegularFile(file)) {
+            return false;
+        }
+
+        try(var in = new DataInputStream(Files.newInputStream(file))) {
+            return in.readInt() == MAGIC;
+        } catch(EOFException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes the header of the file, straight to {@link #channel}.
+     *
+     * @param search The search.
+     * @param space The {@link SearchSpace} of the search.
+     * @throws IOException If the header could not be written.
+     */
+    private void writeHeader(Search search, SearchSpace space) throws IOException {
+        var name = search.getClass().getName().getBytes(StandardCharsets.UTF_8);
+        var heuristic = search.heuristic.name().getBytes(StandardCharsets.UTF_8);
+        var start = space.getStart().getCopyOfSelf();
+        var goal = space.getGoal().getCopyOfSelf();
+
+        var header = ByteBuffer.allocate(
+            4 + 2 + 2 + name.length + 2 + heuristic.length
+                + 8 + 4 * start.length * start[0].length + 8 + 4 * goal.length * goal[0].length
+        );
+        header.putInt(MAGIC).putShort(VERSION);
+        header.putShort((short) name.length).put(name);
+        header.putShort((short) heuristic.length).put(heuristic);
+        putCells(header, start);
+        putCells(header, goal);
+
+        header.flip();
+        while(header.hasRemaining()) {
+            channel.write(header);
+        }
+    }
+
+    /**
+     * Puts the size and the cells of a grid.
+     *
+     * @param b Where to put the cells.
+     * @param cells The cells of the grid.
+     */
+    private static void putCells(ByteBuffer b, int[][] cells) {
+        b.putInt(cells.length).putInt(cells[0].length);
+        for(var row : cells) {
+            for(var c : row) {
+                b.putInt(c);
+            }
+        }
+    }
+
+    /**
+     * Puts the fields which the records of {@link #EXPANDED} and {@link #QUEUED} states share.
+     *
+     * @param type The type of the record.
+     * @param g The state.
+     */
+    private void putState(byte type, Grid g) {
+        buffer.put(type)
+            .putInt(g.getKey())
+            .putInt((g.getParent() == g) ? -1 : g.getParent().getKey())
+            .put((byte) g.getMoveIndex())
+            .putInt(g.getDepth())
+            .putFloat(g.getHeuristicValue());
+    }
+
+    /**
+     * Makes sure there is room for a record in {@link #buffer}, by writing it to {@link #channel} if needed.
+     *
+     * @return {@code false} if the record has to be discarded.
+     */
+    private boolean reserve() {
+        if(closed) {
+            return false;
+        }
+        if(buffer.remaining() < MAX_RECORD_SIZE) {
+            flush();
+        }
+
+        return !closed;
+    }
+
+    /**
+     * Writes an {@link #EXPANDED} record.
+     *
+     * @param g The expanded state.
+     * @param queued The size of the queue once the state was polled.
+     * @param elapsed The elapsed time of the search, in ns.
+     */
+    void expanded(Grid g, int queued, long elapsed) {
+        if(reserve()) {
+            putState(EXPANDED, g);
+            buffer.putInt(queued).putLong(elapsed);
+        }
+    }
+
+    /**
+     * Writes a {@link #QUEUED} record for each new state.
+     *
+     * @param grids The states added to the queue.
+     */
+    void queued(Collection<Grid> grids) {
+        for(var g : grids) {
+            if(!reserve()) {
+                return;
+            }
+            putState(QUEUED, g);
+        }
+    }
+
+    /**
+     * Writes a {@link #RESTARTED} record.
+     *
+     * @param depthLimit The new depth limit.
+     */
+    void restarted(int depthLimit) {
+        if(reserve()) {
+            buffer.put(RESTARTED).putInt(depthLimit);
+        }
+    }
+
+    /**
+     * Writes a {@link #RUN_ENDED} record and {@link #flush()}es the buffer.
+     *
+     * @param state The state of the search at the end of the run.
+     * @param current The current state of the search.
+     * @param elapsed The elapsed time of the search, in ns.
+     */
+    void runEnded(Search.SearchState state, Grid current, long elapsed) {
+        if(reserve()) {
+            buffer.put(RUN_ENDED).put((byte) state.ordinal()).putInt(current.getKey()).putLong(elapsed);
+            flush();
+        }
+    }
+
+    /**
+     * Writes the content of {@link #buffer} to {@link #channel}. On failure, logs a warning,
+     * closes the channel and discards the following records.
+     */
+    void flush() {
+        if(closed) {
+            return;
+        }
+
+        buffer.flip();
+        try {
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch(IOException e) {
+            LOGGER.warn("Could not write trace to {}, recording stopped: {}", file, e.toString());
+            closeChannel();
+        }
+        buffer.clear();
+    }
+
+    /**
+     * {@link #flush()}es the buffer and closes the file. Records written afterwards are discarded.
+     */
+    @Override
+    public void close() {
+        flush();
+        closeChannel();
+    }
+
+    /**
+     * Closes {@link #channel} without writing {@link #buffer}.
+     */
+    private void closeChannel() {
+        if(!channel.isOpen()) {
+            return;
+        }
+
+        closed = true;
+        try {
+            channel.close();
+        } catch(IOException e) {
+            LOGGER.warn("Could not close trace file {}: {}", file, e.toString());
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+
+/**
+ * A search trace recorded by {@link TraceRecorder} (see the {@code trace file} property
+ * of {@link Search.Builder}), read back to rebuild the explored tree, the size of the queue after
+ * each expansion and the final path, without running the search again.
+ * <p>
+ * A trace which was cut short (e.g the application was closed while the search was paused or running)
+ * is read up to its last complete record, see {@link #isTruncated()}.
+ */
+public final class TraceReplay {
+
+    /**
+     * A state of the trace, i.e a node of the tree.
+     *
+     * @param key The key of the state.
+     * @param parent The key of its parent, or {@code -1} if it is the start
+     *               (or a state queued before the trace was started).
+     * @param move The move from its parent, see {@link #getMoves()}, or {@code -1}.
+     * @param depth Its depth, i.e {@code g}.
+     * @param heuristic Its heuristic value.
+     * @param expansion The index of its (last) expansion in {@link #getExpansions()}, or {@code -1}
+     *                  if it was queued but never expanded.
+     */
+    public record Node(int key, int parent, int move, int depth, float heuristic, int expansion) {
+
+        /**
+         * Whether this state was expanded.
+         *
+         * @return {@code true} if {@link #expansion} is not {@code -1}.
+         */
+        public boolean isExpanded() {
+            return expansion >= 0;
+        }
+    }
+
+    /**
+     * An expansion of a state.
+     *
+     * @param key The key of the expanded state.
+     * @param queued The size of the queue once the state was polled.
+     * @param explored The number of explored states, including this one.
+     * @param elapsed The elapsed time of the search, in ns.
+     */
+    public record Expansion(int key, int queued, int explored, long elapsed) {}
+
+
+    /**
+     * The letter of each move, by index: the direction in which the empty cell moves.
+     */
+    private static final String MOVES = "LRUD";
+
+    /**
+     * The class of the search which was recorded.
+     */
+    private final String searchClass;
+
+    /**
+     * The heuristic of the search.
+     */
+    private final String heuristic;
+
+    /**
+     * The start grid.
+     */
+    private final Grid start;
+
+    /**
+     * The goal grid.
+     */
+    private final Grid goal;
+
+    /**
+     * The states of the trace, by key.
+     */
+    private final Map<Integer, Node> nodes = new HashMap<>();
+
+    /**
+     * The expansions, in order.
+     */
+    private final List<Expansion> expansions = new ArrayList<>();
+
+    /**
+     * The number of times the depth limit was increased.
+     */
+    private int restarts = 0;
+
+    /**
+     * The state of the search at the end of its last run, or {@code null} if no run ended.
+     */
+    private Search.SearchState endState = null;
+
+    /**
+     * The key of the current state at the end of the last run, or {@code -1}.
+     */
+    private int endKey = -1;
+
+    /**
+     * Whether the file ended in the middle of a record.
+     */
+    private boolean truncated = false;
+
+
+    /**
+     * Constructor.
+     *
+     * @param searchClass The value for {@link #searchClass}.
+     * @param heuristic The value for {@link #heuristic}.
+     * @param start The value for {@link #start}.
+     * @param goal The value for {@link #goal}.
+     */
+    private TraceReplay(String searchClass, String heuristic, Grid start, Grid goal) {
+        this.searchClass = searchClass;
+        this.heuristic = heuristic;
+        this.start = start;
+        this.goal = goal;
+    }
+
+
+    /**
+     * Reads a trace file.
+     *
+     * @param file The file to read.
+     * @return The replayed trace.
+     * @throws IOException If the file could not be read or is not a valid trace.
+     */
+    public static TraceReplay read(Path file) throws IOException {
+        try(var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+            if(in.readInt() != TraceRecorder.MAGIC || in.readShort() != TraceRecorder.VERSION) {
+                throw new IOException("Not a trace file: " + file);
+            }
+
+            var replay = new TraceReplay(readString(in), readString(in), readCells(in), readCells(in));
+            replay.readRecords(in, file);
+
+            return replay;
+        }
+    }
+
+    /**
+     * Reads a string written by {@link TraceRecorder}.
+     *
+     * @param in Where to read from.
+     * @return The string.
+     * @throws IOException If the string could not be read.
+     */
+    private static String readString(DataInput in) throws IOException {
+        var b = new byte[in.readUnsignedShort()];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads the cells of a grid written by {@link TraceRecorder}.
+     *
+     * @param in Where to read from.
+     * @return A new grid with these cells.
+     * @throws IOException If the cells could not be read or are not a valid grid.
+     */
+    private static Grid readCells(DataInput in) throws IOException {
+        var cells = new int[in.readInt()][in.readInt()];
+
+        for(var row : cells) {
+            for(int i = 0; i < row.length; i++) {
+                row[i] = in.readInt();
+            }
+        }
+
+        return Grid.of(cells).orElseThrow(() -> new IOException("Invalid grid in trace file"));
+    }
+
+    /**
+     * Reads the records until the end of the file.
+     *
+     * @param in Where to read from.
+     * @param file The file, for error messages.
+     * @throws IOException If the records could not be read or are not valid.
+     */
+    private void readRecords(DataInputStream in, Path file) throws IOException {
+        int explored = 0;
+        int type;
+
+        while((type = in.read()) >= 0) {
+            try {
+                switch(type) {
+                    case TraceRecorder.EXPANDED -> {
+                        var n = readNode(in, expansions.size());
+                        nodes.put(n.key(), n);
+                        expansions.add(new Expansion(n.key(), in.readInt(), ++explored, in.readLong()));
+                    }
+                    case TraceRecorder.QUEUED -> {
+                        var n = readNode(in, -1);
+                        nodes.put(n.key(), n);
+                    }
+                    case TraceRecorder.RESTARTED -> {
+                        in.readInt();
+                        restarts++;
+                        explored = 0;
+                    }
+                    case TraceRecorder.RUN_ENDED -> {
+                        int state = in.readByte();
+                        if(state < 0 || state >= Search.SearchState.values().length) {
+                            throw new IOException("Corrupted trace file: " + file);
+                        }
+                        endState = Search.SearchState.values()[state];
+                        endKey = in.readInt();
+                        in.readLong();
+                    }
+                    default -> throw new IOException("Corrupted trace file: " + file);
+                }
+            } catch(EOFException e) {
+                truncated = true;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Reads the fields which the records of expanded and queued states share.
+     *
+     * @param in Where to read from.
+     * @param expansion The value for {@link Node#expansion()}.
+     * @return The node.
+     * @throws IOException If the fields could not be read.
+     */
+    private static Node readNode(DataInput in, int expansion) throws IOException {
+        return new Node(in.readInt(), in.readInt(), in.readByte(), in.readInt(), in.readFloat(), expansion);
+    }
+
+
+    /**
+     * Getter for {@link #searchClass}.
+     *
+     * @return {@link #searchClass}.
+     */
+    public String getSearchClass() {
+        return searchClass;
+    }
+
+    /**
+     * Getter for {@link #heuristic}.
+     *
+     * @return {@link #heuristic}.
+     */
+    public String getHeuristic() {
+        return heuristic;
+    }
+
+    /**
+     * Getter for {@link #start}.
+     *
+     * @return {@link #start}.
+     */
+    public Grid getStart() {
+        return start;
+    }
+
+    /**
+     * Getter for {@link #goal}.
+     *
+     * @return {@link #goal}.
+     */
+    public Grid getGoal() {
+        return goal;
+    }
+
+    /**
+     * Getter for {@link #nodes}.
+     *
+     * @return Unmodifiable view of {@link #nodes}.
+     */
+    public Map<Integer, Node> getNodes() {
+        return Collections.unmodifiableMap(nodes);
+    }
+
+    /**
+     * Getter for {@link #expansions}, i.e the size of the queue and the number of explored states over time.
+     *
+     * @return Unmodifiable view of {@link #expansions}.
+     */
+    public List<Expansion> getExpansions() {
+        return Collections.unmodifiableList(expansions);
+    }
+
+    /**
+     * Getter for {@link #restarts}.
+     *
+     * @return {@link #restarts}.
+     */
+    public int getRestarts() {
+        return restarts;
+    }
+
+    /**
+     * Getter for {@link #endState}.
+     *
+     * @return {@link #endState}, or {@link Optional#empty()} if no run ended.
+     */
+    public Optional<Search.SearchState> getEndState() {
+        return Optional.ofNullable(endState);
+    }
+
+    /**
+     * Getter for {@link #truncated}.
+     *
+     * @return {@link #truncated}.
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * Gets the largest size of the queue after an expansion.
+     *
+     * @return The largest {@link Expansion#queued()}, or {@code 0} if there was no expansion.
+     */
+    public int getMaxQueued() {
+        int max = 0;
+
+        for(var e : expansions) {
+            max = Math.max(max, e.queued());
+        }
+
+        return max;
+    }
+
+    /**
+     * Gets the path from the start to the current state at the end of the last run
+     * (i.e the goal if the search succeeded), or to the last expanded state if no run ended.
+     *
+     * @return {@link List} of the states of the path, from the start. Empty if there is no such state.
+     */
+    public List<Node> getPath() {
+        int key = (endState != null) ? endKey : (expansions.isEmpty() ? -1 : expansions.get(expansions.size() - 1).key());
+        var path = new ArrayDeque<Node>();
+
+        var n = nodes.get(key);
+        while(n != null && path.size() <= nodes.size()) {
+            path.push(n);
+            n = (n.parent() < 0) ? null : nodes.get(n.parent());
+        }
+
+        return new ArrayList<>(path);
+    }
+
+    /**
+     * Gets the moves of {@link #getPath()}, as the direction in which the empty cell moves:
+     * {@code L}, {@code R}, {@code U} or {@code D}.
+     *
+     * @return The moves, in order.
+     */
+    public String getMoves() {
+        var sb = new StringBuilder();
+
+        for(var n : getPath()) {
+            if(n.move() >= 0 && n.move() < MOVES.length()) {
+                sb.append(MOVES.charAt(n.move()));
+            }
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * Rebuilds the grids of {@link #getPath()} from {@link #start} and the moves.
+     *
+     * @return {@link List} of the grids, from the start. Empty if the path does not start from {@link #start}
+     * (e.g the search was restored from a {@link Checkpoint} before the trace was started).
+     * @throws IllegalArgumentException If a move is not valid, i.e the trace is corrupted.
+     */
+    public List<Grid> getPathGrids() {
+        var path = getPath();
+        if(path.isEmpty() || path.get(0).depth() != 0) {
+            return List.of();
+        }
+
+        var grids = new ArrayList<Grid>(path.size());
+        var g = Grid.of(start.getCopyOfSelf()).orElseThrow();
+        grids.add(g);
+        for(var n : path.subList(1, path.size())) {
+            g = g.fromMove(n.move());
+            grids.add(g);
+        }
+
+        return grids;
+    }
+}
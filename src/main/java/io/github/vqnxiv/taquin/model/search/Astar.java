@@ -1,10 +1,22 @@
 package io.github.vqnxiv.taquin.model.search;
 
 
+import io.github.vqnxiv.taquin.model.Cancellation;
 import io.github.vqnxiv.taquin.model.Grid;
+import io.github.vqnxiv.taquin.model.IBuilder;
 import io.github.vqnxiv.taquin.model.structure.Sortable;
 import io.github.vqnxiv.taquin.model.structure.Sorted;
 import io.github.vqnxiv.taquin.model.Search;
+import io.github.vqnxiv.taquin.model.SearchEvents;
+import io.github.vqnxiv.taquin.model.SearchLog;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.Property;
+import javafx.beans.property.SimpleIntegerProperty;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 
 /**
@@ -17,6 +29,13 @@ public class Astar extends Search {
      * Builder.
      */
     public static class Builder extends Search.Builder<Builder> {
+
+        /**
+         * The number of states explored by each step. Their neighbors are generated
+         * and their heuristic values computed in parallel. Default value is 1.
+         */
+        private final IntegerProperty parallelExpansions =
+            new SimpleIntegerProperty(this, "parallel expansions", 1);
         
         /**
          * Base no args constructor.
@@ -54,6 +73,29 @@ public class Astar extends Search {
             return true;
         }
 
+        /**
+         * Setter for {@link #parallelExpansions}.
+         * @param n The new value for {@link #parallelExpansions}.
+         * @return this object.
+         */
+        public Builder parallelExpansions(int n) {
+            parallelExpansions.set(n);
+            return this;
+        }
+
+        /**
+         * Returns the base search batch properties and {@link #parallelExpansions}.
+         *
+         * @return {@link Search.Builder#getBatchProperties()} and {@link #parallelExpansions}.
+         */
+        @Override
+        public EnumMap<Category, List<Property<?>>> getBatchProperties() {
+            var m = super.getBatchProperties();
+            m.put(IBuilder.Category.SEARCH_EXTRA, List.of(parallelExpansions));
+
+            return m;
+        }
+
         /**
          * Method used to chain setters calls.
          * 
@@ -81,6 +123,11 @@ public class Astar extends Search {
      */
     public static final String SEARCH_SHORT_NAME = "A*";
 
+    /**
+     * The number of states explored by each step. See {@link Builder#parallelExpansions}.
+     */
+    private final int parallelExpansions;
+
 
     /**
      * Constructor.
@@ -89,6 +136,8 @@ public class Astar extends Search {
      */
     private Astar(Builder builder) {
         super(builder);
+        
+        parallelExpansions = Math.max(builder.parallelExpansions.get(), 1);
     }
 
 
@@ -122,33 +171,103 @@ public class Astar extends Search {
      * generates its neighbors and, for each neighbor that hasn't
      * been queued or explored yet, compute their heuristic values
      * then adds them to the queue.
+     * <p>
+     * If {@link #parallelExpansions} is greater than 1, see {@link #batchStep(Cancellation)}.
      */
     @Override
-    protected void step() {
+    protected void step(Cancellation cancel) {
+        if(parallelExpansions > 1) {
+            batchStep(cancel);
+            return;
+        }
 
+        var poll = SearchEvents.poll();
         Grid newCurrent = searchSpace.getQueued().dsPollFirst();
-        log("Exploring new current: " + newCurrent.getKey());
+        poll.end(getId(), 1);
+        log(SearchLog.Type.EXPLORING, newCurrent.getKey());
         
         searchSpace.setCurrent(newCurrent);
         searchSpace.getExplored().add(newCurrent);
+        traceExpanded(newCurrent);
         
-        log("Generating neighbors");
-        var toAdd = searchSpace.getNewNeighbors(filterExplored, filterQueued, linkExistingNeighbors);
+        log(SearchLog.Type.GENERATING);
+        var toAdd = searchSpace.getNewNeighbors(filterExplored, filterQueued, linkExistingNeighbors, cancel);
 
-        log("Computing heuristics");
-        for(Grid g : toAdd) computeHeuristic(g);
+        log(SearchLog.Type.COMPUTING);
+        var heuristics = SearchEvents.heuristicComputation();
+        for(Grid g : toAdd) evaluate(g);
+        heuristics.end(getId(), toAdd.size());
         
-        log("Queuing " + toAdd.size() + " generated neighbors");
+        log(SearchLog.Type.QUEUING, toAdd.size());
+        traceQueued(toAdd);
+        var insertion = SearchEvents.queueInsertion();
+        if(!toAdd.isEmpty()) {
+            if(searchSpace.getQueued() instanceof Sorted<Grid>) {
+                searchSpace.getQueued().addAll(toAdd, cancel);
+            }
+            else if(searchSpace.getQueued() instanceof Sortable<Grid> s) {
+                if(s.mergeSorted(toAdd, heuristicComparator, cancel) == Sortable.Merge.SORTED) {
+                    resorted();
+                }
+            }
+        }
+        insertion.end(getId(), toAdd.size());
+    }
+
+    /**
+     * Represents a step from the batch A* algorithm.
+     * <p>
+     * Explores up to {@link #parallelExpansions} of the most promising states at once,
+     * or until the goal is explored. Their neighbors are generated in parallel on the common
+     * {@link ForkJoinPool} and filtered, then the heuristic values of the new ones (without duplicates)
+     * are computed in parallel and they are added to the queue in a single batch.
+     * <p>
+     * The states are polled in the same order as with A*, but the neighbors of a state are only
+     * queued once all the states of the batch are explored. A state of the batch may thus be explored
+     * before a shorter path to it is queued, and the path found may be slightly longer than with A*.
+     *
+     * @param cancel {@link Cancellation} of the current run.
+     */
+    private void batchStep(Cancellation cancel) {
+        var parents = new ArrayList<Grid>(parallelExpansions);
+        Grid newCurrent = null;
+        
+        var poll = SearchEvents.poll();
+        while(parents.size() < parallelExpansions && !searchSpace.getQueued().isEmpty()) {
+            newCurrent = searchSpace.getQueued().dsPollFirst();
+            searchSpace.getExplored().add(newCurrent);
+            traceExpanded(newCurrent);
+            
+            if(searchSpace.isGoal(newCurrent)) {
+                break;
+            }
+            parents.add(newCurrent);
+        }
+        poll.end(getId(), parents.size());
+        
+        log(SearchLog.Type.EXPLORING_BATCH, parents.size(), newCurrent.getKey());
+        searchSpace.setCurrent(newCurrent);
+
+        log(SearchLog.Type.GENERATING_AND_COMPUTING);
+        var toAdd = searchSpace.getNewNeighbors(
+            parents, this::evaluate, ForkJoinPool.commonPool(),
+            filterExplored, filterQueued, linkExistingNeighbors, cancel
+        );
+
+        log(SearchLog.Type.QUEUING, toAdd.size());
+        traceQueued(toAdd);
+        var insertion = SearchEvents.queueInsertion();
         if(!toAdd.isEmpty()) {
             if(searchSpace.getQueued() instanceof Sorted<Grid>) {
-                searchSpace.getQueued().addAll(toAdd);
+                searchSpace.getQueued().addAll(toAdd, cancel);
             }
             else if(searchSpace.getQueued() instanceof Sortable<Grid> s) {
-                toAdd.sort(heuristicComparator);
-                s.addAll(toAdd);
-                s.sort(heuristicComparator);
+                if(s.mergeSorted(toAdd, heuristicComparator, cancel) == Sortable.Merge.SORTED) {
+                    resorted();
+                }
             }
         }
+        insertion.end(getId(), toAdd.size());
     }
   
-}
+}
\ No newline at end of file
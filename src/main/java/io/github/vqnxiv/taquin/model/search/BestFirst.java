@@ -1,10 +1,16 @@
 package io.github.vqnxiv.taquin.model.search;
 
 
+import io.github.vqnxiv.taquin.model.Cancellation;
 import io.github.vqnxiv.taquin.model.Grid;
 import io.github.vqnxiv.taquin.model.structure.Sortable;
 import io.github.vqnxiv.taquin.model.structure.Sorted;
 import io.github.vqnxiv.taquin.model.Search;
+import io.github.vqnxiv.taquin.model.SearchEvents;
+import io.github.vqnxiv.taquin.model.SearchLog;
+
+import java.util.Comparator;
+import java.util.Optional;
 
 
 /**
@@ -115,6 +121,18 @@ public class BestFirst extends Search {
         g.setHeuristicValue(g.distanceTo(searchSpace.getGoal(), heuristic));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The heuristic value only depends on the state, so it can be used to look up states.
+     * 
+     * @return {@link Comparator} on the heuristic values.
+     */
+    @Override
+    protected Optional<Comparator<Grid>> lookupComparator() {
+        return Optional.of(Comparator.comparingDouble(Grid::getHeuristicValue));
+    }
+
     /**
      * Represents a step from the Greedy Best First algorithm.
      * <p>
@@ -124,31 +142,39 @@ public class BestFirst extends Search {
      * then adds them to the queue.
      */
     @Override
-    protected void step() {
+    protected void step(Cancellation cancel) {
 
+        var poll = SearchEvents.poll();
         Grid newCurrent = searchSpace.getQueued().dsPollFirst();
-        log("Exploring new current: " + newCurrent.getKey());
+        poll.end(getId(), 1);
+        log(SearchLog.Type.EXPLORING, newCurrent.getKey());
 
         searchSpace.setCurrent(newCurrent);
         searchSpace.getExplored().add(newCurrent);
+        traceExpanded(newCurrent);
 
-        log("Generating neighbors");
-        var toAdd = searchSpace.getNewNeighbors(filterExplored, filterQueued, linkExistingNeighbors);
+        log(SearchLog.Type.GENERATING);
+        var toAdd = searchSpace.getNewNeighbors(filterExplored, filterQueued, linkExistingNeighbors, cancel);
 
-        log("Computing heuristics");
-        for(Grid g : toAdd) computeHeuristic(g);
+        log(SearchLog.Type.COMPUTING);
+        var heuristics = SearchEvents.heuristicComputation();
+        for(Grid g : toAdd) evaluate(g);
+        heuristics.end(getId(), toAdd.size());
 
-        log("Queuing {}" + toAdd.size() + " generated neighbors");
+        log(SearchLog.Type.QUEUING, toAdd.size());
+        traceQueued(toAdd);
+        var insertion = SearchEvents.queueInsertion();
         if(!toAdd.isEmpty()) {
             if(searchSpace.getQueued() instanceof Sorted<Grid>) {
-                searchSpace.getQueued().addAll(toAdd);
+                searchSpace.getQueued().addAll(toAdd, cancel);
             }
             else if(searchSpace.getQueued() instanceof Sortable<Grid> s) {
-                toAdd.sort(heuristicComparator);
-                s.addAll(toAdd);
-                s.sort(heuristicComparator);
+                if(s.mergeSorted(toAdd, heuristicComparator, cancel) == Sortable.Merge.SORTED) {
+                    resorted();
+                }
             }
         }
+        insertion.end(getId(), toAdd.size());
     }
     
 }
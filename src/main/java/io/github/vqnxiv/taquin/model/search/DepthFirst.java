@@ -1,8 +1,11 @@
 package io.github.vqnxiv.taquin.model.search;
 
 
+import io.github.vqnxiv.taquin.model.Cancellation;
 import io.github.vqnxiv.taquin.model.Grid;
 import io.github.vqnxiv.taquin.model.Search;
+import io.github.vqnxiv.taquin.model.SearchEvents;
+import io.github.vqnxiv.taquin.model.SearchLog;
 import io.github.vqnxiv.taquin.model.IBuilder;
 import javafx.beans.property.BooleanProperty;
 import javafx.beans.property.Property;
@@ -141,6 +144,18 @@ public class DepthFirst extends Search {
         g.setHeuristicValue(g.distanceTo(searchSpace.getGoal(), heuristic));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The last queued state is explored first.
+     *
+     * @return {@code true}.
+     */
+    @Override
+    protected boolean pollsLast() {
+        return true;
+    }
+
     /**
      * Represents a step from the Depth First algorithm.
      * <p>
@@ -152,26 +167,31 @@ public class DepthFirst extends Search {
      * the goal state is among them.
      */
     @Override
-    protected void step(){
+    protected void step(Cancellation cancel) {
 
+        var poll = SearchEvents.poll();
         Grid newCurrent = searchSpace.getQueued().dsPollLast();
-        log("Exploring new current: " + newCurrent.getKey());
+        poll.end(getId(), 1);
+        log(SearchLog.Type.EXPLORING, newCurrent.getKey());
         
         searchSpace.setCurrent(newCurrent);
         searchSpace.getExplored().add(newCurrent);
+        traceExpanded(newCurrent);
 
-        log("Generating neighbors");
-        var toAdd = searchSpace.getNewNeighbors(filterExplored, filterQueued, linkExistingNeighbors);
+        log(SearchLog.Type.GENERATING);
+        var toAdd = searchSpace.getNewNeighbors(filterExplored, filterQueued, linkExistingNeighbors, cancel);
 
         if(heuristic != Grid.Distance.NONE) {
-            log("Computing heuristics");
+            log(SearchLog.Type.COMPUTING);
+            var heuristics = SearchEvents.heuristicComputation();
             for(Grid g : toAdd) {
-                computeHeuristic(g);
+                evaluate(g);
             }
+            heuristics.end(getId(), toAdd.size());
             toAdd.sort(reverseHeuristicComparator);
         }
 
-        log("Checking for goal");
+        log(SearchLog.Type.CHECKING_GOAL);
         if(checkNewStatesForGoal) {
             for(Grid g : toAdd) {
                 if(searchSpace.isGoal(g)) {
@@ -180,8 +200,11 @@ public class DepthFirst extends Search {
             }
         }
         
-        log("Queuing " + toAdd.size() + " generated neighbors");
-        searchSpace.getQueued().addAll(toAdd);
+        log(SearchLog.Type.QUEUING, toAdd.size());
+        traceQueued(toAdd);
+        var insertion = SearchEvents.queueInsertion();
+        searchSpace.getQueued().addAll(toAdd, cancel);
+        insertion.end(getId(), toAdd.size());
     }
     
 }
@@ -1,11 +1,17 @@
 package io.github.vqnxiv.taquin.model.search;
 
 
+import io.github.vqnxiv.taquin.model.Cancellation;
 import io.github.vqnxiv.taquin.model.Grid;
 import io.github.vqnxiv.taquin.model.Search;
+import io.github.vqnxiv.taquin.model.SearchEvents;
+import io.github.vqnxiv.taquin.model.SearchLog;
 import io.github.vqnxiv.taquin.model.IBuilder;
 import javafx.beans.property.*;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.EnumMap;
 import java.util.List;
 
@@ -172,6 +178,38 @@ public class IterativeDeepening extends Search {
         g.setHeuristicValue(g.distanceTo(searchSpace.getGoal(), heuristic));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The last queued state is explored first.
+     *
+     * @return {@code true}.
+     */
+    @Override
+    protected boolean pollsLast() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Writes {@link #currentDepthLimit}.
+     */
+    @Override
+    protected void writeState(DataOutput out) throws IOException {
+        out.writeInt(currentDepthLimit);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Reads {@link #currentDepthLimit}.
+     */
+    @Override
+    protected void readState(DataInput in) throws IOException {
+        currentDepthLimit = in.readInt();
+    }
+
     /**
      * Represents a step from the Iterative Deepening algorithm.
      * <p>
@@ -186,27 +224,32 @@ public class IterativeDeepening extends Search {
      * resets the explored states and start again.
      */
     @Override
-    protected void step(){
+    protected void step(Cancellation cancel) {
 
+        var poll = SearchEvents.poll();
         Grid newCurrent = searchSpace.getQueued().dsPollLast();
-        log("Exploring new current: " + newCurrent.getKey());
+        poll.end(getId(), 1);
+        log(SearchLog.Type.EXPLORING, newCurrent.getKey());
         
         searchSpace.setCurrent(newCurrent);
         searchSpace.getExplored().add(newCurrent);
+        traceExpanded(newCurrent);
         
         if(searchSpace.getCurrent().getDepth() < currentDepthLimit) {
-            log("Generating neighbors");
-            var toAdd = searchSpace.getNewNeighbors(filterExplored, filterQueued, linkExistingNeighbors);
+            log(SearchLog.Type.GENERATING);
+            var toAdd = searchSpace.getNewNeighbors(filterExplored, filterQueued, linkExistingNeighbors, cancel);
             
             if(heuristic != Grid.Distance.NONE) {
-                log("Computing heuristics");
+                log(SearchLog.Type.COMPUTING);
+                var heuristics = SearchEvents.heuristicComputation();
                 for(Grid g : toAdd) {
-                    computeHeuristic(g);
+                    evaluate(g);
                 }
+                heuristics.end(getId(), toAdd.size());
                 toAdd.sort(reverseHeuristicComparator);
             }
 
-            log("Checking for goal");
+            log(SearchLog.Type.CHECKING_GOAL);
             if(checkNewStatesForGoal) {
                 for(Grid g : toAdd) {
                     if(searchSpace.isGoal(g)) {
@@ -215,14 +258,19 @@ public class IterativeDeepening extends Search {
                 }
             }
 
-            log("Queuing " + toAdd.size() + " generated neighbors");
-            searchSpace.getQueued().addAll(toAdd);
+            log(SearchLog.Type.QUEUING, toAdd.size());
+            traceQueued(toAdd);
+            var insertion = SearchEvents.queueInsertion();
+            searchSpace.getQueued().addAll(toAdd, cancel);
+            insertion.end(getId(), toAdd.size());
         }
         
         // currentDepthLimit >= 0 means it is capped at Integer.MAX_VALUE
         if(searchSpace.getQueued().isEmpty() && currentDepthLimit >= 0) {
             currentDepthLimit += limitIncrement;
-            log("Increasing depth limit: " + currentDepthLimit);
+            log(SearchLog.Type.DEPTH_LIMIT, currentDepthLimit);
+            SearchEvents.depthLimitIncrease(getId(), currentDepthLimit, searchSpace.getExplored().size());
+            traceRestarted(currentDepthLimit);
             searchSpace.getExplored().clear();
             searchSpace.getStart().resetNeighbors();
             searchSpace.getQueued().add(searchSpace.getStart());
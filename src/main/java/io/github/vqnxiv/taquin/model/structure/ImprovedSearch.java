@@ -3,6 +3,11 @@ package io.github.vqnxiv.taquin.model.structure;
 
 import io.github.vqnxiv.taquin.util.Utils;
 
+import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+
 
 /**
  * A marker interface similar to {@link java.util.RandomAccess} which indicates
@@ -12,6 +17,16 @@ import io.github.vqnxiv.taquin.util.Utils;
  * As a requirement, this {@link io.github.vqnxiv.taquin.model.DataStructure}
  * must implement either {@link Sortable} or {@link Sorted} to ensure the structure
  * provides the total ordering necessary for non iterative searches.
+ * <p>
+ * The methods which take a {@link Comparator} accept any comparator which is consistent with
+ * the current order of the structure, i.e for any element {@code x} which comes before an
+ * element {@code y}, {@code c.compare(x, y) <= 0}. It may be coarser than the order the
+ * structure was sorted with (e.g only comparing some key of the elements), in which case
+ * every element which compares equal to the searched one is checked with {@code equals}.
+ * This is needed when the structure was sorted with a comparator which breaks ties
+ * in a non deterministic way.
+ * <p>
+ * Implementations should fall back to an iterative search when they are not sorted.
  * 
  * @param <E> The type of elements.
  * 
@@ -62,6 +77,18 @@ public interface ImprovedSearch<E extends Comparable<E>> {
             case EXPONENTIAL -> exponentialContains(e);
         };
     }
+
+    /**
+     * Contains method with a {@link Comparator} consistent with this structure's order.
+     *
+     * @param e The element to find.
+     * @param s The search type to use.
+     * @param c The comparator to search with.
+     * @return {@code true} if the element was found, {@code false} otherwise.
+     */
+    default boolean contains(E e, SearchType s, Comparator<? super E> c) {
+        return indexOf(e, s, c) > -1;
+    }
     
     /**
      * Iterative look up, i.e checking every element one by one.
@@ -108,6 +135,22 @@ public interface ImprovedSearch<E extends Comparable<E>> {
             case EXPONENTIAL -> exponentialIndexOf(e);
         };
     }
+
+    /**
+     * {@code indexOf} method with a {@link Comparator} consistent with this structure's order.
+     *
+     * @param e The element to find.
+     * @param s The search type to use.
+     * @param c The comparator to search with.
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    default int indexOf(E e, SearchType s, Comparator<? super E> c) {
+        return switch(s) {
+            case ITERATIVE -> iterativeIndexOf(e);
+            case BINARY -> binaryIndexOf(e, c);
+            case EXPONENTIAL -> exponentialIndexOf(e, c);
+        };
+    }
     
     /**
      * Iterative look up, i.e checking every element one by one.
@@ -132,4 +175,156 @@ public interface ImprovedSearch<E extends Comparable<E>> {
      * @return Positive int if the element was found, {@code -1} otherwise.
      */
     int exponentialIndexOf(E e);
+
+    /**
+     * Binary search look up with a {@link Comparator} consistent with this structure's order.
+     *
+     * @param e The element to find.
+     * @param c The comparator to search with.
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    int binaryIndexOf(E e, Comparator<? super E> c);
+
+    /**
+     * Exponential search look up with a {@link Comparator} consistent with this structure's order.
+     *
+     * @param e The element to find.
+     * @param c The comparator to search with.
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    int exponentialIndexOf(E e, Comparator<? super E> c);
+
+
+    /**
+     * Binary search in a {@link List} sorted in an order consistent with a {@link Comparator}.
+     * <p>
+     * {@link List}s which are not {@link RandomAccess} are traversed with a single
+     * {@link ListIterator}, so this does {@code O(log n)} comparisons but {@code O(n)} steps.
+     *
+     * @param l The list to search.
+     * @param e The element to find.
+     * @param c The comparator to search with.
+     * @param <E> The type of elements.
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    static <E> int binarySearch(List<? extends E> l, E e, Comparator<? super E> c) {
+        ListIterator<? extends E> itr = (l instanceof RandomAccess) ? null : l.listIterator();
+        
+        return scanFrom(l, e, c, lowerBound(l, itr, e, c, 0, l.size()));
+    }
+
+    /**
+     * Exponential search in a {@link List} sorted in an order consistent with a {@link Comparator},
+     * i.e a binary search in a range whose bounds are found by doubling an index from the start
+     * of the list. This is faster than {@link #binarySearch(List, Object, Comparator)} when the
+     * element is close to the start of the list.
+     *
+     * @param l The list to search.
+     * @param e The element to find.
+     * @param c The comparator to search with.
+     * @param <E> The type of elements.
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    static <E> int exponentialSearch(List<? extends E> l, E e, Comparator<? super E> c) {
+        ListIterator<? extends E> itr = (l instanceof RandomAccess) ? null : l.listIterator();
+        int size = l.size();
+        
+        int bound = 1;
+        while(bound < size && c.compare(get(l, itr, bound), e) < 0) {
+            bound <<= 1;
+        }
+        
+        return scanFrom(l, e, c, lowerBound(l, itr, e, c, bound >>> 1, Math.min(bound, size)));
+    }
+
+    /**
+     * Finds the index of the first element which does not compare lower than {@code e}
+     * in a range of a {@link List}.
+     *
+     * @param l The list to search.
+     * @param itr {@link ListIterator} over {@code l}, or {@code null} if it is {@link RandomAccess}.
+     * @param e The element to find.
+     * @param c The comparator to search with.
+     * @param low Start of the range (inclusive).
+     * @param high End of the range (exclusive).
+     * @param <E> The type of elements.
+     * @return The index of the first element {@code x} such that {@code c.compare(x, e) >= 0},
+     * or {@code high} if there is none.
+     */
+    private static <E> int lowerBound(
+        List<? extends E> l, ListIterator<? extends E> itr, E e, Comparator<? super E> c, int low, int high
+    ) {
+        while(low < high) {
+            int mid = (low + high) >>> 1;
+            
+            if(c.compare(get(l, itr, mid), e) < 0) {
+                low = mid + 1;
+            }
+            else {
+                high = mid;
+            }
+        }
+        
+        return low;
+    }
+
+    /**
+     * Checks with {@code equals} the elements which compare equal to {@code e},
+     * starting from a given index.
+     *
+     * @param l The list to search.
+     * @param e The element to find.
+     * @param c The comparator to search with.
+     * @param from The index of the first element which does not compare lower than {@code e}.
+     * @param <E> The type of elements.
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    private static <E> int scanFrom(List<? extends E> l, E e, Comparator<? super E> c, int from) {
+        int i = from;
+        
+        for(var itr = l.listIterator(from); itr.hasNext(); i++) {
+            var x = itr.next();
+            
+            if(c.compare(x, e) != 0) {
+                return -1;
+            }
+            if(e.equals(x)) {
+                return i;
+            }
+        }
+        
+        return -1;
+    }
+
+    /**
+     * Gets an element from a {@link List}, moving a {@link ListIterator} to it 
+     * if the list is not {@link RandomAccess}.
+     *
+     * @param l The list.
+     * @param itr {@link ListIterator} over {@code l}, or {@code null} if it is {@link RandomAccess}.
+     * @param index The index of the element.
+     * @param <E> The type of elements.
+     * @return The element at {@code index}.
+     */
+    private static <E> E get(List<? extends E> l, ListIterator<? extends E> itr, int index) {
+        if(itr == null) {
+            return l.get(index);
+        }
+        
+        E e;
+        int pos = itr.nextIndex();
+        
+        if(pos <= index) {
+            do {
+                e = itr.next();
+            } while(pos++ < index);
+        }
+        else {
+            do {
+                e = itr.previous();
+            } while(--pos > index);
+        }
+        
+        return e;
+    }
 }
@@ -0,0 +1,758 @@
+package io.github.vqnxiv.taquin.model.structure;
+
+
+import io.github.vqnxiv.taquin.model.DataStructure;
+
+import java.util.*;
+
+
+/**
+ * A {@link DataStructure} which wraps another {@link DataStructure} and keeps a hash
+ * index of its elements on the side, so that {@link #contains(Object)} is done in
+ * constant time regardless of the wrapped structure.
+ * <p>
+ * For {@link Unsorted} structures, the position of each element is also kept in the index
+ * as a sequence number which is maintained incrementally when elements are added or
+ * polled at either end, so {@link #dsIndexOf(Object)} is done in constant time as well.
+ * Operations which shift elements in the middle of the structure (e.g {@link #remove(Object)}
+ * or {@link Sortable#sort(Comparator)}) invalidate these positions, which are then
+ * rebuilt on the next {@link #dsIndexOf(Object)} call. The index of an element which
+ * is contained more than once is found by iterating over the wrapped structure.
+ * <p>
+ * For {@link Sorted} structures, the iteration order depends on the internal layout
+ * of the wrapped structure, so {@link #dsIndexOf(Object)} only returns {@code -1} early
+ * for elements which are not contained.
+ * <p>
+ * Instances should be created through {@link #of(DataStructure)}, which returns an
+ * instance implementing the same {@link Sorted}, {@link Sortable} and {@link Unsorted}
+ * interfaces as the wrapped structure. As the index holds an entry for every element,
+ * this roughly doubles the memory used by the structure.
+ *
+ * @param <E> The type of elements.
+ *
+ * @see DataStructure.Builder
+ */
+public abstract class IndexedStructure<E> extends AbstractCollection<E> implements DataStructure<E> {
+
+    /**
+     * Wrapper for {@link Sorted} structures.
+     *
+     * @param <E> The type of elements.
+     */
+    public static final class OfSorted<E extends Comparable<E>> extends IndexedStructure<E>
+        implements Sorted<E> {
+
+        /**
+         * The wrapped structure.
+         */
+        private final Sorted<E> sorted;
+
+        /**
+         * Constructor.
+         *
+         * @param s The structure to wrap.
+         */
+        private OfSorted(Sorted<E> s) {
+            super(s, false);
+            sorted = s;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean hasComparator() {
+            return sorted.hasComparator();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Optional<Comparator<? super E>> getComparator() {
+            return sorted.getComparator();
+        }
+    }
+
+    /**
+     * Wrapper for {@link Unsorted} structures.
+     *
+     * @param <E> The type of elements.
+     */
+    public static class OfUnsorted<E> extends IndexedStructure<E> implements Unsorted<E> {
+
+        /**
+         * The wrapped structure.
+         */
+        private final Unsorted<E> unsorted;
+
+        /**
+         * Constructor.
+         *
+         * @param u The structure to wrap.
+         */
+        private OfUnsorted(Unsorted<E> u) {
+            super(u, true);
+            unsorted = u;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @return {@code true} if the element was successfully added; {@code false} otherwise.
+         */
+        @Override
+        public boolean uAddFirst(E e) {
+            boolean wasContained = contains(e);
+
+            if(!unsorted.uAddFirst(e)) {
+                return false;
+            }
+
+            if(wasContained && !acceptsDuplicates()) {
+                // the element was moved to the first position
+                invalidatePositions();
+            }
+            else {
+                indexFirst(e);
+            }
+
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @return {@code true} if the element was successfully added; {@code false} otherwise.
+         */
+        @Override
+        public boolean uAddLast(E e) {
+            if(!unsorted.uAddLast(e)) {
+                return false;
+            }
+
+            indexLast(e);
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @return {@code true} if at least one element was successfully added; {@code false} otherwise.
+         */
+        @Override
+        public boolean uAddAllFirst(Collection<E> toAdd) {
+            var l = new ArrayList<E>(toAdd.size());
+            boolean moved = false;
+
+            for(var e : toAdd) {
+                if(e != null) {
+                    l.add(e);
+                    moved |= contains(e);
+                }
+            }
+
+            if(!acceptsDuplicates()) {
+                l = new ArrayList<>(new LinkedHashSet<>(l));
+            }
+
+            if(!unsorted.uAddAllFirst(l)) {
+                return false;
+            }
+
+            if(moved && !acceptsDuplicates()) {
+                // some elements were moved to the first positions
+                for(var e : l) {
+                    if(!contains(e)) {
+                        increment(e);
+                    }
+                }
+                invalidatePositions();
+            }
+            else {
+                for(int i = l.size() - 1; i >= 0; i--) {
+                    indexFirst(l.get(i));
+                }
+            }
+
+            return true;
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * @return {@code true} if at least one element was successfully added; {@code false} otherwise.
+         */
+        @Override
+        public boolean uAddAllLast(Collection<E> toAdd) {
+            return addAll(toAdd);
+        }
+    }
+
+    /**
+     * Wrapper for structures which are both {@link Sortable} and {@link Unsorted}.
+     *
+     * @param <E> The type of elements.
+     */
+    public static final class OfSortable<E extends Comparable<E>> extends OfUnsorted<E>
+        implements Sortable<E> {
+
+        /**
+         * The wrapped structure.
+         */
+        private final Sortable<E> sortable;
+
+        /**
+         * Constructor.
+         *
+         * @param s The structure to wrap.
+         * @param <S> A structure which is both {@link Sortable} and {@link Unsorted}.
+         */
+        private <S extends Sortable<E> & Unsorted<E>> OfSortable(S s) {
+            super(s);
+            sortable = s;
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isSorted() {
+            return sortable.isSorted();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void sort() {
+            sortable.sort();
+            invalidatePositions();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void sort(Comparator<? super E> c) {
+            sortable.sort(c);
+            invalidatePositions();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isSortedByComparator() {
+            return sortable.isSortedByComparator();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Optional<Comparator<? super E>> getLastComparator() {
+            return sortable.getLastComparator();
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public boolean isSortedBy(Comparator<? super E> c) {
+            return sortable.isSortedBy(c);
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public Merge mergeSorted(Collection<? extends E> toAdd, Comparator<? super E> c) {
+            var l = nonNull(toAdd);
+            
+            // the wrapped structure may have been sorted even if nothing was added
+            var ret = sortable.mergeSorted(l, c);
+            indexMerged(l);
+            return ret;
+        }
+
+        /**
+         * Copies the non {@code null} elements of a {@link Collection}.
+         *
+         * @param toAdd The elements to copy.
+         * @return A new {@link ArrayList} with the non {@code null} elements.
+         */
+        private List<E> nonNull(Collection<? extends E> toAdd) {
+            var l = new ArrayList<E>(toAdd.size());
+
+            for(var e : toAdd) {
+                if(e != null) {
+                    l.add(e);
+                }
+            }
+            
+            return l;
+        }
+
+        /**
+         * Indexes the elements which were merged into the wrapped structure
+         * and invalidates the positions.
+         *
+         * @param l The merged elements.
+         */
+        private void indexMerged(List<E> l) {
+            boolean duplicates = acceptsDuplicates();
+            for(var e : l) {
+                if(duplicates || !contains(e)) {
+                    increment(e);
+                }
+            }
+            
+            invalidatePositions();
+        }
+    }
+
+    /**
+     * Index entry for an element.
+     */
+    private static final class Entry {
+
+        /**
+         * How many times the element is contained.
+         */
+        private int count;
+
+        /**
+         * Sequence number of the element, only meaningful if {@link #count} is {@code 1}.
+         * {@link #UNKNOWN} if it has to be looked up in the wrapped structure.
+         */
+        private long position;
+    }
+
+
+    /**
+     * Position of an element which is contained once but whose position is not known,
+     * e.g after one of its duplicates was removed.
+     */
+    private static final long UNKNOWN = Long.MIN_VALUE;
+    
+    /**
+     * The wrapped structure.
+     */
+    private final DataStructure<E> structure;
+
+    /**
+     * The index of every element contained in {@link #structure}.
+     */
+    private final HashMap<E, Entry> index;
+
+    /**
+     * Whether positions are kept in {@link #index}.
+     */
+    private final boolean positional;
+
+    /**
+     * Whether the positions in {@link #index} are currently up to date.
+     */
+    private boolean validPositions = true;
+
+    /**
+     * Sequence number of the first element.
+     */
+    private long first = 0;
+
+    /**
+     * Sequence number after the last element.
+     */
+    private long end = 0;
+
+
+    /**
+     * Constructor.
+     *
+     * @param ds The structure to wrap, which should be empty.
+     * @param positional Whether to keep track of positions.
+     */
+    private IndexedStructure(DataStructure<E> ds, boolean positional) {
+        structure = ds;
+        this.positional = positional;
+        index = new HashMap<>();
+
+        for(var e : ds) {
+            indexLast(e);
+        }
+    }
+
+    /**
+     * Wraps a {@link DataStructure} into an {@link IndexedStructure} which implements
+     * the same interfaces.
+     *
+     * @param ds The structure to wrap.
+     * @param <E> The type of elements.
+     * @return A {@link DataStructure} backed by {@code ds}.
+     * @throws IllegalArgumentException if {@code ds} is neither {@link Sorted} nor {@link Unsorted}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <E> DataStructure<E> of(DataStructure<E> ds) {
+        if(ds instanceof IndexedStructure<E>) {
+            return ds;
+        }
+        if(ds instanceof Sorted s) {
+            return new OfSorted(s);
+        }
+        if(ds instanceof Sortable s && ds instanceof Unsorted) {
+            return new OfSortable(s);
+        }
+        if(ds instanceof Unsorted<E> u) {
+            return new OfUnsorted<>(u);
+        }
+
+        throw new IllegalArgumentException("Invalid structure " + ds.getClass());
+    }
+
+
+    /**
+     * Increments the count of an element in {@link #index}.
+     *
+     * @param e The element.
+     * @return Its {@link Entry}.
+     */
+    Entry increment(E e) {
+        var en = index.computeIfAbsent(e, k -> new Entry());
+        en.count++;
+        return en;
+    }
+
+    /**
+     * Decrements the count of an element in {@link #index}, and removes it if
+     * it is no longer contained.
+     *
+     * @param o The element.
+     */
+    private void decrement(Object o) {
+        var en = index.get(o);
+
+        if(en == null) {
+            return;
+        }
+
+        if(--en.count == 0) {
+            index.remove(o);
+        }
+        else if(en.count == 1) {
+            en.position = UNKNOWN;
+        }
+    }
+
+    /**
+     * Indexes an element which was added in the first position.
+     *
+     * @param e The element.
+     */
+    void indexFirst(E e) {
+        increment(e).position = --first;
+    }
+
+    /**
+     * Indexes an element which was added in the last position.
+     *
+     * @param e The element.
+     */
+    void indexLast(E e) {
+        increment(e).position = end++;
+    }
+
+    /**
+     * Marks the positions as outdated after an operation which moved elements around.
+     */
+    void invalidatePositions() {
+        validPositions = false;
+    }
+
+    /**
+     * Rebuilds the positions by iterating over {@link #structure}.
+     */
+    private void rebuildPositions() {
+        long i = 0;
+        for(var e : structure) {
+            var en = index.get(e);
+            if(en.count == 1) {
+                en.position = i;
+            }
+            i++;
+        }
+
+        first = 0;
+        end = i;
+        validPositions = true;
+    }
+
+
+    /*
+        DataStructure
+     */
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The first element from the wrapped structure.
+     */
+    @Override
+    public E dsPeekFirst() {
+        return structure.dsPeekFirst();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The first element from the wrapped structure.
+     */
+    @Override
+    public E dsPollFirst() {
+        var e = structure.dsPollFirst();
+
+        if(e != null) {
+            decrement(e);
+            first++;
+        }
+
+        return e;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The last element from the wrapped structure.
+     */
+    @Override
+    public E dsPeekLast() {
+        return structure.dsPeekLast();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The last element from the wrapped structure.
+     */
+    @Override
+    public E dsPollLast() {
+        var e = structure.dsPollLast();
+
+        if(e != null) {
+            decrement(e);
+            end--;
+        }
+
+        return e;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Returns {@code -1} in constant time if the element is not contained, and its
+     * indexed position if it is kept.
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int dsIndexOf(E e) {
+        Entry en;
+
+        if(e == null || (en = index.get(e)) == null) {
+            return -1;
+        }
+
+        if(!positional || en.count > 1) {
+            return structure.dsIndexOf(e);
+        }
+
+        if(!validPositions) {
+            rebuildPositions();
+        }
+
+        if(en.position == UNKNOWN) {
+            int i = structure.dsIndexOf(e);
+            en.position = first + i;
+            return i;
+        }
+
+        return (int) (en.position - first);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return Whether the wrapped structure accepts duplicates.
+     */
+    @Override
+    public boolean acceptsDuplicates() {
+        return structure.acceptsDuplicates();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return New {@link IndexedStructure} which wraps a deep copy of the wrapped structure.
+     */
+    @Override
+    public DataStructure<E> deepCopy() {
+        return of(structure.deepCopy());
+    }
+
+    /**
+     * Getter for the wrapped structure.
+     *
+     * @return The wrapped structure.
+     */
+    public DataStructure<E> getStructure() {
+        return structure;
+    }
+
+
+    /*
+        AbstractCollection overrides
+     */
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(E e) {
+        if(!structure.add(e)) {
+            return false;
+        }
+
+        indexLast(e);
+        return true;
+    }
+
+    /**
+     * Null elements are ignored.
+     * <p>
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        var l = new ArrayList<E>(c.size());
+
+        for(var e : c) {
+            if(e != null) {
+                l.add(e);
+            }
+        }
+
+        if(!structure.addAll(l)) {
+            return false;
+        }
+
+        boolean duplicates = structure.acceptsDuplicates();
+        for(var e : l) {
+            if(duplicates || !index.containsKey(e)) {
+                indexLast(e);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object o) {
+        return o != null && index.containsKey(o);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(Object o) {
+        if(!contains(o) || !structure.remove(o)) {
+            return false;
+        }
+
+        decrement(o);
+        invalidatePositions();
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        structure.clear();
+        index.clear();
+        first = 0;
+        end = 0;
+        validPositions = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return structure.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<E> iterator() {
+        var itr = structure.iterator();
+
+        return new Iterator<>() {
+            private E lastReturned;
+
+            @Override
+            public boolean hasNext() {
+                return itr.hasNext();
+            }
+
+            @Override
+            public E next() {
+                lastReturned = itr.next();
+                return lastReturned;
+            }
+
+            @Override
+            public void remove() {
+                itr.remove();
+                decrement(lastReturned);
+                invalidatePositions();
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(o instanceof IndexedStructure<?> is) {
+            return structure.equals(is.structure);
+        }
+
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return structure.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return structure.toString();
+    }
+}
@@ -1,9 +1,15 @@
 package io.github.vqnxiv.taquin.model.structure;
 
 
+import io.github.vqnxiv.taquin.model.Cancellation;
 import io.github.vqnxiv.taquin.model.DataStructure;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 
@@ -19,6 +25,34 @@ import java.util.Optional;
  */
 public interface Sortable<E extends Comparable<E>> extends DataStructure<E> {
 
+    /**
+     * Enum which contains the possible outcomes of a {@link #mergeSorted(Collection, Comparator)} call.
+     */
+    enum Merge {
+        /**
+         * Nothing was added and the structure was already sorted.
+         */
+        UNCHANGED,
+        /**
+         * The new elements were merged into place, the structure was already sorted.
+         */
+        MERGED,
+        /**
+         * The structure was not sorted by the given order, and the whole structure was sorted.
+         */
+        SORTED;
+
+        /**
+         * Whether at least one element may have been added.
+         * 
+         * @return {@code false} if this is {@link #UNCHANGED}; {@code true} otherwise.
+         */
+        public boolean changed() {
+            return this != UNCHANGED;
+        }
+    }
+
+
     /**
      * Method which indicates if the implementing {@link io.github.vqnxiv.taquin.model.DataStructure}
      * is currently sorted.
@@ -77,4 +111,160 @@ public interface Sortable<E extends Comparable<E>> extends DataStructure<E> {
      * otherwise.
      */
     Optional<Comparator<? super E>> getLastComparator();
+
+    /**
+     * Whether this structure is currently sorted by a given order.
+     * <p>
+     * By default, this checks {@link #isSorted()}, {@link #isSortedByComparator()} and
+     * {@link #getLastComparator()}.
+     *
+     * @param c The {@link Comparator}, {@code null} for the natural order.
+     * @return {@code true} if this structure is sorted by {@code c}; {@code false} otherwise.
+     */
+    default boolean isSortedBy(Comparator<? super E> c) {
+        return isSorted() && ((c == null) ? !isSortedByComparator() 
+            : isSortedByComparator() && getLastComparator().orElse(null) == c);
+    }
+
+    /**
+     * Adds the elements of a {@link Collection} and leaves this structure sorted by the given
+     * {@link Comparator}. The elements to add do not need to be sorted.
+     * <p>
+     * Implementations which are already sorted by {@code c} should merge the new elements into
+     * place rather than sorting the whole structure again, i.e in {@code O(n + k log k)} or
+     * {@code O(k log n)} instead of {@code O((n + k) log(n + k))}. By default, this adds 
+     * the elements then calls {@link #sort(Comparator)}.
+     *
+     * @param toAdd The elements to add.
+     * @param c {@link Comparator} to sort this structure with, {@code null} for the natural order.
+     * @return {@link Merge#SORTED} if the whole structure had to be sorted, {@link Merge#MERGED} if the 
+     * elements were merged into place, {@link Merge#UNCHANGED} if there was nothing to do.
+     */
+    default Merge mergeSorted(Collection<? extends E> toAdd, Comparator<? super E> c) {
+        addAll(toAdd);
+        
+        if(c == null) {
+            sort();
+        }
+        else {
+            sort(c);
+        }
+        
+        return Merge.SORTED;
+    }
+
+    /**
+     * Same as {@link #mergeSorted(Collection, Comparator)}, but checks a {@link Cancellation}.
+     * <p>
+     * If this structure is already sorted by {@code c}, the new elements are merged in place with
+     * {@link #mergeSorted(Collection, Comparator)}, by chunks of {@link Cancellation#CHECK_INTERVAL}
+     * elements, and the token is checked before each chunk: this structure stays sorted, and the chunks
+     * which were already merged stay in it if {@code cancel} is cancelled.
+     * <p>
+     * Otherwise, the elements of this structure and the new ones are sorted into a new array, checking 
+     * the token every {@link Cancellation#CHECK_INTERVAL} elements, which replaces the content of this 
+     * structure once it is done. This structure is thus left unchanged if {@code cancel} is cancelled.
+     *
+     * @param toAdd The elements to add.
+     * @param c {@link Comparator} to sort this structure with, {@code null} for the natural order.
+     * @param cancel {@link Cancellation} to check.
+     * @return {@link Merge#SORTED} if this structure was not sorted by {@code c}, {@link Merge#MERGED}
+     * if the elements were merged, {@link Merge#UNCHANGED} if there was nothing to do.
+     * @throws java.util.concurrent.CancellationException If {@code cancel} was cancelled.
+     */
+    @SuppressWarnings("unchecked")
+    default Merge mergeSorted(Collection<? extends E> toAdd, Comparator<? super E> c, Cancellation cancel) {
+        cancel.throwIfCancelled();
+        
+        if(isSortedBy(c)) {
+            if(toAdd.size() <= Cancellation.CHECK_INTERVAL) {
+                return mergeSorted(toAdd, c);
+            }
+            
+            var ret = Merge.UNCHANGED;
+            var l = new ArrayList<E>(toAdd);
+            for(int from = 0; from < l.size(); from += Cancellation.CHECK_INTERVAL) {
+                cancel.throwIfCancelled();
+                
+                var m = mergeSorted(l.subList(from, Math.min(from + Cancellation.CHECK_INTERVAL, l.size())), c);
+                if(m.compareTo(ret) > 0) {
+                    ret = m;
+                }
+            }
+            
+            return ret;
+        }
+        
+        var added = new ArrayList<E>(toAdd);
+        added.removeIf(Objects::isNull);
+        
+        var current = toArray();
+        var merged = Arrays.copyOf(current, current.length + added.size());
+        System.arraycopy(added.toArray(), 0, merged, current.length, added.size());
+        merged = mergeSort(merged, (Comparator<Object>) ((c == null) ? Comparator.<E>naturalOrder() : c), cancel);
+        
+        // swap: the sort is linear as the elements are already sorted
+        clear();
+        addAll((List<E>) (List<?>) Arrays.asList(merged));
+        sort(c);
+        
+        return Merge.SORTED;
+    }
+
+    /**
+     * Adds the elements of a {@link Collection} and leaves this structure sorted by the order
+     * it was last sorted by.
+     *
+     * @param toAdd The elements to add.
+     * @return The outcome of the merge, see {@link #mergeSorted(Collection, Comparator)}.
+     * 
+     * @see #mergeSorted(Collection, Comparator)
+     */
+    default Merge mergeSorted(Collection<? extends E> toAdd) {
+        return mergeSorted(toAdd, (isSortedByComparator()) ? getLastComparator().orElse(null) : null);
+    }
+
+
+    /**
+     * Stable bottom-up merge sort.
+     *
+     * @param a The array to sort, which may be modified.
+     * @param c {@link Comparator} to sort by.
+     * @param cancel {@link Cancellation} to check every {@link Cancellation#CHECK_INTERVAL} elements.
+     * @return A sorted array with the elements of {@code a}, which is either {@code a} or a new array.
+     * @throws java.util.concurrent.CancellationException If {@code cancel} was cancelled.
+     */
+    private static Object[] mergeSort(Object[] a, Comparator<Object> c, Cancellation cancel) {
+        var src = a;
+        var dst = new Object[a.length];
+        long count = 0;
+        
+        for(int width = 1; width < src.length; width *= 2) {
+            for(int low = 0; low < src.length; low += 2 * width) {
+                int mid = Math.min(low + width, src.length);
+                int high = Math.min(low + 2 * width, src.length);
+                int i = low;
+                int j = mid;
+                
+                for(int w = low; w < high; w++) {
+                    if(count++ % Cancellation.CHECK_INTERVAL == 0) {
+                        cancel.throwIfCancelled();
+                    }
+                    
+                    if(j >= high || (i < mid && c.compare(src[i], src[j]) <= 0)) {
+                        dst[w] = src[i++];
+                    }
+                    else {
+                        dst[w] = src[j++];
+                    }
+                }
+            }
+            
+            var tmp = src;
+            src = dst;
+            dst = tmp;
+        }
+        
+        return src;
+    }
 }
@@ -0,0 +1,748 @@
+package io.github.vqnxiv.taquin.model.structure.custom;
+
+
+import io.github.vqnxiv.taquin.model.DataStructure;
+import io.github.vqnxiv.taquin.model.structure.ImprovedSearch;
+import io.github.vqnxiv.taquin.model.structure.Sortable;
+import io.github.vqnxiv.taquin.model.structure.Unsorted;
+
+import java.util.*;
+
+
+/**
+ * A {@link Sortable} {@link DataStructure} backed by a gap buffer, i.e an array with a gap
+ * of free slots which is moved to wherever elements are inserted or removed.
+ * <p>
+ * Inserting or removing an element costs as much as moving the gap from the last modified
+ * position, so consecutive modifications close to each other are cheap: polling the first
+ * element repeatedly is done in constant time, and {@link #mergeSorted(Collection, Comparator)}
+ * finds each insertion point with a binary search and only moves the gap forward once
+ * over the range where the new elements are inserted.
+ *
+ * @param <E> The type of elements.
+ */
+public class GapBufferList<E extends Comparable<E>> extends AbstractList<E>
+    implements DataStructure<E>, Sortable<E>, Unsorted<E>, ImprovedSearch<E>, RandomAccess {
+
+    /**
+     * Default capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+
+    /**
+     * The buffer. Elements are stored in {@code [0, gapStart)} and {@code [gapEnd, buffer.length)}.
+     */
+    private Object[] buffer;
+
+    /**
+     * Index of the first free slot.
+     */
+    private int gapStart;
+
+    /**
+     * Index of the first element after the gap.
+     */
+    private int gapEnd;
+
+    /**
+     * Last used comparator to sort this list.
+     */
+    private Comparator<? super E> comparator;
+
+    /**
+     * Whether this list is currently sorted. By default, we consider a new
+     * empty list to be sorted by its elements comparable order.
+     */
+    private boolean sorted = true;
+
+    /**
+     * Whether the last sort was done with {@link #comparator}.
+     */
+    private boolean lastSortWasComparator = false;
+
+
+    /**
+     * Defaults no args constructor.
+     */
+    public GapBufferList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor with initial capacity.
+     *
+     * @param capacity Initial capacity of the buffer.
+     */
+    public GapBufferList(int capacity) {
+        buffer = new Object[Math.max(capacity, 1)];
+        gapStart = 0;
+        gapEnd = buffer.length;
+    }
+
+    /**
+     * Constructor with existing content.
+     *
+     * @param content {@link Collection} whose elements will be added to this list.
+     */
+    public GapBufferList(Collection<E> content) {
+        this(content.size() + DEFAULT_CAPACITY);
+        addAll(content);
+        sorted = staysSorted(null, this, null);
+    }
+
+
+    /**
+     * Compares two elements e1 and e2 according to this list's ordering.
+     *
+     * @param e1 The first element to compare as in {@code e1.compareTo(e2)}.
+     * @param e2 The second element to compare as in {@code e1.compareTo(e2)}.
+     * @return {@code true} if e1 can come before e2; {@code false} otherwise.
+     */
+    private boolean compare(E e1, E e2) {
+        if(lastSortWasComparator) {
+            return comparator.compare(e1, e2) <= 0;
+        }
+        else {
+            return e1.compareTo(e2) <= 0;
+        }
+    }
+
+    /**
+     * Checks whether this list would still be sorted after inserting a collection
+     * of elements between two of its elements.
+     *
+     * @param before The element before the inserted ones, or {@code null} if there is none.
+     * @param c The elements to insert.
+     * @param after The element after the inserted ones, or {@code null} if there is none.
+     * @return {@code true} if this list would still be sorted; {@code false} otherwise.
+     */
+    private boolean staysSorted(E before, Collection<? extends E> c, E after) {
+        var prev = before;
+
+        for(E e : c) {
+            if(prev != null && !compare(prev, e)) {
+                return false;
+            }
+            prev = e;
+        }
+
+        return after == null || prev == null || compare(prev, after);
+    }
+
+    /**
+     * The order this list is currently sorted by.
+     *
+     * @return {@link #comparator} if the last sort was done with it; the natural order otherwise.
+     */
+    private Comparator<? super E> order() {
+        return (lastSortWasComparator) ? comparator : Comparator.naturalOrder();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only checks {@link #sorted}, which may be {@code false} for a list which is sorted.
+     */
+    @Override
+    public boolean isSortedBy(Comparator<? super E> c) {
+        return sorted && ((c == null) ? !lastSortWasComparator : lastSortWasComparator && c == comparator);
+    }
+
+    /**
+     * Gets an element from the buffer.
+     *
+     * @param index The index of the element in this list.
+     * @return The element.
+     */
+    @SuppressWarnings("unchecked")
+    private E elementAt(int index) {
+        return (E) buffer[(index < gapStart) ? index : index + gapEnd - gapStart];
+    }
+
+    /**
+     * Moves the gap so that it starts at the given index.
+     *
+     * @param index The index in this list.
+     */
+    private void moveGap(int index) {
+        if(index < gapStart) {
+            int n = gapStart - index;
+            System.arraycopy(buffer, index, buffer, gapEnd - n, n);
+            Arrays.fill(buffer, index, Math.min(gapStart, gapEnd - n), null);
+            gapStart = index;
+            gapEnd -= n;
+        }
+        else if(index > gapStart) {
+            int n = index - gapStart;
+            System.arraycopy(buffer, gapEnd, buffer, gapStart, n);
+            Arrays.fill(buffer, Math.max(gapEnd, gapStart + n), gapEnd + n, null);
+            gapStart += n;
+            gapEnd += n;
+        }
+    }
+
+    /**
+     * Grows the buffer if the gap is smaller than the given size.
+     *
+     * @param n The minimum size of the gap.
+     */
+    private void ensureGap(int n) {
+        if(gapEnd - gapStart >= n) {
+            return;
+        }
+
+        int size = size();
+        int newLength = Math.max(buffer.length + (buffer.length >> 1), size + n);
+        var newBuffer = new Object[newLength];
+        int tail = buffer.length - gapEnd;
+
+        System.arraycopy(buffer, 0, newBuffer, 0, gapStart);
+        System.arraycopy(buffer, gapEnd, newBuffer, newLength - tail, tail);
+
+        buffer = newBuffer;
+        gapEnd = newLength - tail;
+    }
+
+    /**
+     * Checks that an index is in {@code [0, bound]}.
+     *
+     * @param index The index.
+     * @param bound The maximum index.
+     * @throws IndexOutOfBoundsException if the index is out of bounds.
+     */
+    private static void checkIndex(int index, int bound) {
+        if(index < 0 || index > bound) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bound);
+        }
+    }
+
+
+    /*
+        DataStructure
+     */
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The first element from this list.
+     */
+    @Override
+    public E dsPeekFirst() {
+        return (isEmpty()) ? null : elementAt(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The first element from this list.
+     */
+    @Override
+    public E dsPollFirst() {
+        return (isEmpty()) ? null : remove(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The last element from this list.
+     */
+    @Override
+    public E dsPeekLast() {
+        return (isEmpty()) ? null : elementAt(size() - 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The last element from this list.
+     */
+    @Override
+    public E dsPollLast() {
+        return (isEmpty()) ? null : remove(size() - 1);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int dsIndexOf(E e) {
+        if(e == null) {
+            return -1;
+        }
+
+        for(int i = 0; i < gapStart; i++) {
+            if(e.equals(buffer[i])) {
+                return i;
+            }
+        }
+        for(int i = gapEnd; i < buffer.length; i++) {
+            if(e.equals(buffer[i])) {
+                return i - gapEnd + gapStart;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}.
+     */
+    @Override
+    public boolean acceptsDuplicates() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return New {@link GapBufferList} with the same content as this object.
+     */
+    @Override
+    public DataStructure<E> deepCopy() {
+        var copy = new GapBufferList<>(this);
+        copy.comparator = comparator;
+        copy.lastSortWasComparator = lastSortWasComparator;
+        copy.sorted = sorted;
+        return copy;
+    }
+
+
+    /*
+        Sortable
+     */
+
+    /**
+     * Checks whether this list is sorted and sets {@link #sorted} value accordingly.
+     *
+     * @return {@code true} if this list is sorted, {@code false} otherwise.
+     */
+    @Override
+    public boolean isSorted() {
+        if(!sorted) {
+            sorted = staysSorted(null, this, null);
+        }
+
+        return sorted;
+    }
+
+    /**
+     * Sorts this list by its elements' natural order,
+     * as defined by their {@link Comparable} implementation.
+     */
+    @Override
+    public void sort() {
+        sortBuffer(null);
+        lastSortWasComparator = false;
+        sorted = true;
+    }
+
+    /**
+     * Sorts this list by the given {@link Comparator}'s order.
+     * Defers to {@link #sort()} if the {@link Comparator} is {@code null}.
+     *
+     * @param c {@link Comparator} to sort this list with.
+     */
+    @Override
+    public void sort(Comparator<? super E> c) {
+        if(c == null) {
+            sort();
+            return;
+        }
+
+        sortBuffer(c);
+        lastSortWasComparator = true;
+        comparator = c;
+        sorted = true;
+    }
+
+    /**
+     * Moves the gap to the end of the buffer and sorts the elements.
+     *
+     * @param c The {@link Comparator} to sort with, {@code null} for the natural order.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void sortBuffer(Comparator<? super E> c) {
+        moveGap(size());
+        Arrays.sort(buffer, 0, gapStart, (Comparator) c);
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isSortedByComparator() {
+        return lastSortWasComparator;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Comparator<? super E>> getLastComparator() {
+        return Optional.ofNullable(comparator);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If this list is already sorted by {@code c}, the insertion point of each new element
+     * is found with a binary search after the previous one, so the gap only moves forward
+     * and this is done in {@code O(k log n)} comparisons.
+     *
+     * @return {@link Merge#SORTED} if this list was not sorted by {@code c}; otherwise {@link Merge#MERGED},
+     * or {@link Merge#UNCHANGED} if there was nothing to add.
+     */
+    @Override
+    public Merge mergeSorted(Collection<? extends E> toAdd, Comparator<? super E> c) {
+        if(!isSortedBy(c)) {
+            return Sortable.super.mergeSorted(toAdd, c);
+        }
+
+        var l = new ArrayList<E>(toAdd);
+        l.removeIf(Objects::isNull);
+
+        if(l.isEmpty()) {
+            return Merge.UNCHANGED;
+        }
+
+        var cmp = order();
+        l.sort(cmp);
+        ensureGap(l.size());
+
+        int low = 0;
+        for(E e : l) {
+            int high = size();
+
+            // first element strictly greater than e
+            while(low < high) {
+                int mid = (low + high) >>> 1;
+
+                if(cmp.compare(elementAt(mid), e) <= 0) {
+                    low = mid + 1;
+                }
+                else {
+                    high = mid;
+                }
+            }
+
+            moveGap(low);
+            buffer[gapStart++] = e;
+            low++;
+        }
+
+        modCount++;
+        return Merge.MERGED;
+    }
+
+
+    /*
+        ImprovedSearch
+     */
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int iterativeIndexOf(E e) {
+        return dsIndexOf(e);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses the order of the last sort.
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int binaryIndexOf(E e) {
+        return binaryIndexOf(e, order());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses the order of the last sort.
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int exponentialIndexOf(E e) {
+        return exponentialIndexOf(e, order());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int binaryIndexOf(E e, Comparator<? super E> c) {
+        if(e == null) {
+            return -1;
+        }
+        if(!sorted) {
+            return iterativeIndexOf(e);
+        }
+
+        return ImprovedSearch.binarySearch(this, e, c);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int exponentialIndexOf(E e, Comparator<? super E> c) {
+        if(e == null) {
+            return -1;
+        }
+        if(!sorted) {
+            return iterativeIndexOf(e);
+        }
+
+        return ImprovedSearch.exponentialSearch(this, e, c);
+    }
+
+
+    /*
+        Unsorted
+     */
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true} if the element was successfully added; {@code false} otherwise.
+     */
+    @Override
+    public boolean uAddFirst(E e) {
+        add(0, e);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true} if the element was successfully added; {@code false} otherwise.
+     */
+    @Override
+    public boolean uAddLast(E e) {
+        return add(e);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true} if at least one element was successfully added; {@code false} otherwise.
+     */
+    @Override
+    public boolean uAddAllFirst(Collection<E> toAdd) {
+        return addAll(0, toAdd);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true} if at least one element was successfully added; {@code false} otherwise.
+     */
+    @Override
+    public boolean uAddAllLast(Collection<E> toAdd) {
+        return addAll(toAdd);
+    }
+
+
+    /*
+        AbstractList overrides
+     */
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E get(int index) {
+        Objects.checkIndex(index, size());
+        return elementAt(index);
+    }
+
+    /**
+     * Non null requirement.
+     * <p>
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public E set(int index, E e) {
+        Objects.requireNonNull(e);
+        Objects.checkIndex(index, size());
+
+        var old = elementAt(index);
+        buffer[(index < gapStart) ? index : index + gapEnd - gapStart] = e;
+
+        if(sorted) {
+            sorted = (index == 0 || compare(elementAt(index - 1), e))
+                && (index == size() - 1 || compare(e, elementAt(index + 1)));
+        }
+
+        return old;
+    }
+
+    /**
+     * Non null requirement.
+     * <p>
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(E e) {
+        add(size(), e);
+        return true;
+    }
+
+    /**
+     * Non null requirement.
+     * <p>
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public void add(int index, E e) {
+        Objects.requireNonNull(e);
+        checkIndex(index, size());
+
+        if(sorted) {
+            sorted = (index == 0 || compare(elementAt(index - 1), e))
+                && (index == size() || compare(e, elementAt(index)));
+        }
+
+        ensureGap(1);
+        moveGap(index);
+        buffer[gapStart++] = e;
+        modCount++;
+    }
+
+    /**
+     * Null elements are ignored.
+     * <p>
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        return addAll(size(), c);
+    }
+
+    /**
+     * Null elements are ignored.
+     * <p>
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c) {
+        checkIndex(index, size());
+
+        var l = new ArrayList<E>(c);
+        l.removeIf(Objects::isNull);
+
+        if(l.isEmpty()) {
+            return false;
+        }
+
+        if(sorted) {
+            sorted = staysSorted(
+                (index > 0) ? elementAt(index - 1) : null,
+                l,
+                (index < size()) ? elementAt(index) : null
+            );
+        }
+
+        ensureGap(l.size());
+        moveGap(index);
+        for(E e : l) {
+            buffer[gapStart++] = e;
+        }
+
+        modCount++;
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public E remove(int index) {
+        Objects.checkIndex(index, size());
+
+        moveGap(index);
+        var e = elementAt(index);
+        buffer[gapEnd++] = null;
+        modCount++;
+
+        return e;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object o) {
+        return o != null && indexOf(o) > -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(buffer, null);
+        gapStart = 0;
+        gapEnd = buffer.length;
+        sorted = true;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return buffer.length - (gapEnd - gapStart);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(o instanceof GapBufferList<?> gbl) {
+            return super.equals(gbl);
+        }
+
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return super.toString();
+    }
+}
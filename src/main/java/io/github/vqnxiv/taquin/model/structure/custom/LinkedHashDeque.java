@@ -0,0 +1,517 @@
+package io.github.vqnxiv.taquin.model.structure.custom;
+
+
+import io.github.vqnxiv.taquin.model.DataStructure;
+import io.github.vqnxiv.taquin.model.structure.Unsorted;
+
+import java.util.*;
+
+
+/**
+ * An {@link Unsorted} {@link DataStructure} which does not accept duplicates, similar to
+ * {@link java.util.LinkedHashSet} but with deque operations on both ends.
+ * <p>
+ * Elements are kept in a doubly linked list of nodes and indexed by a {@link HashMap}
+ * from each element to its node. Unlike {@link java.util.LinkedHashSet}, whose linked list
+ * is not accessible, this allows peeking, polling and adding at both ends as well as
+ * {@link #contains(Object)} and {@link #remove(Object)} in constant time.
+ *
+ * @param <E> The type of elements.
+ */
+public class LinkedHashDeque<E> extends AbstractCollection<E>
+    implements DataStructure<E>, Unsorted<E> {
+
+    /**
+     * Node of the linked list.
+     *
+     * @param <E> The type of elements.
+     */
+    private static final class Node<E> {
+
+        /**
+         * The element held by this node.
+         */
+        private final E element;
+
+        /**
+         * The previous node, or {@code null} if this is the first node.
+         */
+        private Node<E> prev;
+
+        /**
+         * The next node, or {@code null} if this is the last node.
+         */
+        private Node<E> next;
+
+        /**
+         * Constructor.
+         *
+         * @param e The value for {@link #element}.
+         */
+        private Node(E e) {
+            element = e;
+        }
+    }
+
+
+    /**
+     * Map of every element to its node.
+     */
+    private final HashMap<E, Node<E>> nodes;
+
+    /**
+     * The first node.
+     */
+    private Node<E> head;
+
+    /**
+     * The last node.
+     */
+    private Node<E> tail;
+
+    /**
+     * The number of structural modifications, used to make the iterators fail-fast.
+     */
+    private int modCount = 0;
+
+
+    /**
+     * Defaults no args constructor.
+     */
+    public LinkedHashDeque() {
+        nodes = new HashMap<>();
+    }
+
+    /**
+     * Constructor with initial capacity.
+     *
+     * @param capacity Initial capacity of the internal {@link HashMap}.
+     */
+    public LinkedHashDeque(int capacity) {
+        nodes = new HashMap<>(capacity);
+    }
+
+    /**
+     * Constructor with existing content.
+     *
+     * @param content {@link Collection} whose elements will be added to this deque.
+     */
+    public LinkedHashDeque(Collection<E> content) {
+        nodes = new HashMap<>(Math.max((int) (content.size() / .75f) + 1, 16));
+        addAll(content);
+    }
+
+
+    /**
+     * Links a new node for the given element at the beginning of the list.
+     *
+     * @param e The element to link.
+     */
+    private void linkFirst(E e) {
+        var n = new Node<>(e);
+        n.next = head;
+
+        if(head == null) {
+            tail = n;
+        }
+        else {
+            head.prev = n;
+        }
+
+        head = n;
+        nodes.put(e, n);
+        modCount++;
+    }
+
+    /**
+     * Links a new node for the given element at the end of the list.
+     *
+     * @param e The element to link.
+     */
+    private void linkLast(E e) {
+        var n = new Node<>(e);
+        n.prev = tail;
+
+        if(tail == null) {
+            head = n;
+        }
+        else {
+            tail.next = n;
+        }
+
+        tail = n;
+        nodes.put(e, n);
+        modCount++;
+    }
+
+    /**
+     * Unlinks a node from the list. Does not remove it from {@link #nodes}.
+     *
+     * @param n The node to unlink.
+     */
+    private void unlink(Node<E> n) {
+        if(n.prev == null) {
+            head = n.next;
+        }
+        else {
+            n.prev.next = n.next;
+        }
+
+        if(n.next == null) {
+            tail = n.prev;
+        }
+        else {
+            n.next.prev = n.prev;
+        }
+
+        n.prev = null;
+        n.next = null;
+        modCount++;
+    }
+
+
+    /*
+        DataStructure
+     */
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The first element from this deque.
+     */
+    @Override
+    public E dsPeekFirst() {
+        return (head == null) ? null : head.element;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The first element from this deque.
+     */
+    @Override
+    public E dsPollFirst() {
+        if(head == null) {
+            return null;
+        }
+
+        var n = head;
+        unlink(n);
+        nodes.remove(n.element);
+        return n.element;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The last element from this deque.
+     */
+    @Override
+    public E dsPeekLast() {
+        return (tail == null) ? null : tail.element;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The last element from this deque.
+     */
+    @Override
+    public E dsPollLast() {
+        if(tail == null) {
+            return null;
+        }
+
+        var n = tail;
+        unlink(n);
+        nodes.remove(n.element);
+        return n.element;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Returns {@code -1} in constant time if the element is not in this deque,
+     * and only iterates over the list if it is.
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int dsIndexOf(E e) {
+        if(e == null || !nodes.containsKey(e)) {
+            return -1;
+        }
+
+        int i = 0;
+        for(var n = head; n != null; n = n.next) {
+            if(e.equals(n.element)) {
+                return i;
+            }
+            i++;
+        }
+
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code false}.
+     */
+    @Override
+    public boolean acceptsDuplicates() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return New {@link LinkedHashDeque} with the same content as this object.
+     */
+    @Override
+    public DataStructure<E> deepCopy() {
+        return new LinkedHashDeque<>(this);
+    }
+
+
+    /*
+        Unsorted
+     */
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If the element is already in this deque, it is moved to the first position.
+     *
+     * @return {@code true} if the element was successfully added; {@code false} otherwise.
+     */
+    @Override
+    public boolean uAddFirst(E e) {
+        if(e == null) {
+            return false;
+        }
+
+        var n = nodes.remove(e);
+        if(n != null) {
+            unlink(n);
+        }
+
+        linkFirst(e);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true} if the element was successfully added; {@code false} otherwise.
+     */
+    @Override
+    public boolean uAddLast(E e) {
+        return add(e);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Elements which are already in this deque are moved to the first positions.
+     *
+     * @return {@code true} if at least one element was successfully added; {@code false} otherwise.
+     */
+    @Override
+    public boolean uAddAllFirst(Collection<E> toAdd) {
+        List<E> l = new ArrayList<>(toAdd);
+        Collections.reverse(l);
+
+        boolean ret = false;
+        for(var e : l) {
+            ret |= uAddFirst(e);
+        }
+
+        return ret;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true} if at least one element was successfully added; {@code false} otherwise.
+     */
+    @Override
+    public boolean uAddAllLast(Collection<E> toAdd) {
+        return addAll(toAdd);
+    }
+
+
+    /*
+        AbstractCollection overrides
+     */
+
+    /**
+     * Non null requirement.
+     * <p>
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(E e) {
+        Objects.requireNonNull(e);
+
+        if(nodes.containsKey(e)) {
+            return false;
+        }
+
+        linkLast(e);
+        return true;
+    }
+
+    /**
+     * Null elements are ignored.
+     * <p>
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c) {
+        boolean ret = false;
+
+        for(var e : c) {
+            if(e != null) {
+                ret |= add(e);
+            }
+        }
+
+        return ret;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object o) {
+        return o != null && nodes.containsKey(o);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(Object o) {
+        if(o == null) {
+            return false;
+        }
+
+        var n = nodes.remove(o);
+        if(n == null) {
+            return false;
+        }
+
+        unlink(n);
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        nodes.clear();
+        head = null;
+        tail = null;
+        modCount++;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return nodes.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private Node<E> next = head;
+            private Node<E> lastReturned;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public E next() {
+                if(expectedModCount != modCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if(next == null) {
+                    throw new NoSuchElementException();
+                }
+
+                lastReturned = next;
+                next = next.next;
+                return lastReturned.element;
+            }
+
+            @Override
+            public void remove() {
+                if(lastReturned == null) {
+                    throw new IllegalStateException();
+                }
+                if(expectedModCount != modCount) {
+                    throw new ConcurrentModificationException();
+                }
+
+                nodes.remove(lastReturned.element);
+                unlink(lastReturned);
+                lastReturned = null;
+                expectedModCount = modCount;
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(o instanceof LinkedHashDeque<?> lhd) {
+            var itr1 = iterator();
+            var itr2 = lhd.iterator();
+
+            while(itr1.hasNext() && itr2.hasNext()) {
+                if(!itr1.next().equals(itr2.next())) {
+                    return false;
+                }
+            }
+
+            return !(itr1.hasNext() || itr2.hasNext());
+        }
+
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for(var n = head; n != null; n = n.next) {
+            h = 31 * h + n.element.hashCode();
+        }
+
+        return h;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return super.toString();
+    }
+}
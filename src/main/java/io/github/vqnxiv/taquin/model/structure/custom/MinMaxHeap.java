@@ -0,0 +1,580 @@
+package io.github.vqnxiv.taquin.model.structure.custom;
+
+
+import io.github.vqnxiv.taquin.model.DataStructure;
+import io.github.vqnxiv.taquin.model.structure.Sorted;
+
+import java.util.*;
+
+
+/**
+ * A {@link Sorted} {@link DataStructure} implemented as an array based min-max heap.
+ * <p>
+ * Nodes on even levels (starting with the root) are lower than or equal to all their
+ * descendants, and nodes on odd levels are greater than or equal to all their descendants.
+ * This means both the lowest and the highest elements can be found in constant time:
+ * the lowest is the root, and the highest is one of the root's children. Adding and
+ * polling at either end are done in {@code O(log n)}, unlike {@link java.util.PriorityQueue}
+ * which has to iterate over all its elements to find the highest one.
+ * <p>
+ * For more information, see <u>Atkinson, Sack, Santoro, Strothotte</u>
+ * <i>Min-Max Heaps and Generalized Priority Queues</i> (1986).
+ * <p>
+ * Like {@link java.util.PriorityQueue}, the iteration order is the internal array order
+ * and not the sorted order. Removing elements through {@link Iterator#remove()} is not supported.
+ *
+ * @param <E> The type of elements.
+ */
+public class MinMaxHeap<E extends Comparable<E>> extends AbstractCollection<E>
+    implements DataStructure<E>, Sorted<E> {
+
+    /**
+     * Default capacity for {@link #heap}.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The array which contains the heap. The children of the element at index {@code i}
+     * are at index {@code 2i + 1} and {@code 2i + 2}.
+     */
+    private Object[] heap;
+
+    /**
+     * The number of elements in {@link #heap}.
+     */
+    private int size = 0;
+
+    /**
+     * The comparator used to order the elements, or {@code null} if their
+     * {@link Comparable} implementation is used.
+     */
+    private final Comparator<? super E> comparator;
+
+    /**
+     * The number of structural modifications, used to make the iterators fail-fast.
+     */
+    private int modCount = 0;
+
+
+    /**
+     * Defaults no args constructor.
+     */
+    public MinMaxHeap() {
+        this(DEFAULT_CAPACITY, null);
+    }
+
+    /**
+     * Constructor with initial capacity.
+     *
+     * @param capacity Initial capacity.
+     */
+    public MinMaxHeap(int capacity) {
+        this(capacity, null);
+    }
+
+    /**
+     * Constructor with existing content.
+     *
+     * @param content {@link Collection} whose elements will be added to this heap.
+     */
+    public MinMaxHeap(Collection<E> content) {
+        this(Math.max(content.size(), 1), null);
+        addAll(content);
+    }
+
+    /**
+     * Constructor with {@link Comparator}.
+     *
+     * @param comparator The comparator to use to order this heap's elements.
+     */
+    public MinMaxHeap(Comparator<? super E> comparator) {
+        this(DEFAULT_CAPACITY, comparator);
+    }
+
+    /**
+     * Constructor with capacity and comparator.
+     *
+     * @param capacity Initial capacity.
+     * @param comparator The comparator to use to order this heap's elements.
+     */
+    public MinMaxHeap(int capacity, Comparator<? super E> comparator) {
+        if(capacity < 1) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+
+        heap = new Object[capacity];
+        this.comparator = comparator;
+    }
+
+    /**
+     * Copy constructor.
+     *
+     * @param toCopy The heap to copy.
+     */
+    private MinMaxHeap(MinMaxHeap<E> toCopy) {
+        heap = Arrays.copyOf(toCopy.heap, Math.max(toCopy.size, 1));
+        size = toCopy.size;
+        comparator = toCopy.comparator;
+    }
+
+
+    /**
+     * Getter for the element at a given index in {@link #heap}.
+     *
+     * @param i The index.
+     * @return The element at index {@code i}.
+     */
+    @SuppressWarnings("unchecked")
+    private E elementAt(int i) {
+        return (E) heap[i];
+    }
+
+    /**
+     * Compares the elements at two indexes according to this heap's ordering.
+     *
+     * @param i The index of the first element.
+     * @param j The index of the second element.
+     * @return {@code true} if the element at {@code i} is strictly lower than the one at {@code j}.
+     */
+    private boolean less(int i, int j) {
+        return (comparator == null) ?
+            elementAt(i).compareTo(elementAt(j)) < 0 :
+            comparator.compare(elementAt(i), elementAt(j)) < 0;
+    }
+
+    /**
+     * Swaps two elements in {@link #heap}.
+     *
+     * @param i The index of the first element.
+     * @param j The index of the second element.
+     */
+    private void swap(int i, int j) {
+        var tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+
+    /**
+     * Whether the element at the given index is on a min level.
+     *
+     * @param i The index to check.
+     * @return {@code true} if the depth of {@code i} is even; {@code false} otherwise.
+     */
+    private static boolean isMinLevel(int i) {
+        // depth of i is floor(log2(i + 1))
+        return ((31 - Integer.numberOfLeadingZeros(i + 1)) & 1) == 0;
+    }
+
+    /**
+     * Grows {@link #heap} so that it can hold at least one more element.
+     */
+    private void grow() {
+        heap = Arrays.copyOf(heap, heap.length + (heap.length >> 1) + 1);
+    }
+
+    /**
+     * Moves the element at the given index up the heap until its ancestors
+     * no longer violate the min-max ordering.
+     *
+     * @param i The index of the element to move.
+     */
+    private void bubbleUp(int i) {
+        if(i == 0) {
+            return;
+        }
+
+        int parent = (i - 1) / 2;
+
+        if(isMinLevel(i)) {
+            if(less(parent, i)) {
+                swap(i, parent);
+                bubbleUp(parent, false);
+            }
+            else {
+                bubbleUp(i, true);
+            }
+        }
+        else {
+            if(less(i, parent)) {
+                swap(i, parent);
+                bubbleUp(parent, true);
+            }
+            else {
+                bubbleUp(i, false);
+            }
+        }
+    }
+
+    /**
+     * Moves the element at the given index up its grandparents, which are on the same
+     * kind of level.
+     *
+     * @param i The index of the element to move.
+     * @param min Whether {@code i} is on a min level.
+     */
+    private void bubbleUp(int i, boolean min) {
+        while(i > 2) {
+            int grandParent = (i - 3) / 4;
+
+            if(min ? less(i, grandParent) : less(grandParent, i)) {
+                swap(i, grandParent);
+                i = grandParent;
+            }
+            else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Moves the element at the given index down the heap until its descendants
+     * no longer violate the min-max ordering.
+     *
+     * @param i The index of the element to move.
+     * @return The index where the element ended.
+     */
+    private int trickleDown(int i) {
+        boolean min = isMinLevel(i);
+        int end = i;
+
+        while(2 * i + 1 < size) {
+            // the lowest (or highest) of the children and grandchildren
+            int m = 2 * i + 1;
+            int last = Math.min(4 * i + 6, size - 1);
+            for(int j = m + 1; j <= last; j = (j == 2 * i + 2) ? 4 * i + 3 : j + 1) {
+                if(min ? less(j, m) : less(m, j)) {
+                    m = j;
+                }
+            }
+
+            if(m <= 2 * i + 2) {
+                // child, which is on the other kind of level and has no descendants
+                if(min ? less(m, i) : less(i, m)) {
+                    swap(m, i);
+                    if(end == i) {
+                        end = m;
+                    }
+                }
+                return end;
+            }
+
+            // grandchild
+            if(!(min ? less(m, i) : less(i, m))) {
+                return end;
+            }
+
+            swap(m, i);
+            int parent = (m - 1) / 2;
+            if(min ? less(parent, m) : less(m, parent)) {
+                // the element settles on its grandchild's parent, which is on the other
+                // kind of level, and the swapped parent keeps going down
+                swap(m, parent);
+                end = parent;
+            }
+            else {
+                end = m;
+            }
+            i = m;
+        }
+
+        return end;
+    }
+
+    /**
+     * Index of the highest element in {@link #heap}.
+     *
+     * @return The index of the highest element, or {@code -1} if this heap is empty.
+     */
+    private int maxIndex() {
+        return switch(size) {
+            case 0 -> -1;
+            case 1 -> 0;
+            case 2 -> 1;
+            default -> less(1, 2) ? 2 : 1;
+        };
+    }
+
+    /**
+     * Removes the element at the given index.
+     *
+     * @param i The index of the element to remove.
+     * @return The removed element.
+     */
+    private E removeAt(int i) {
+        var e = elementAt(i);
+        modCount++;
+        size--;
+
+        if(i != size) {
+            heap[i] = heap[size];
+            heap[size] = null;
+            bubbleUp(trickleDown(i));
+        }
+        else {
+            heap[size] = null;
+        }
+
+        return e;
+    }
+
+
+    /*
+        DataStructure
+     */
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The lowest element from this heap.
+     */
+    @Override
+    public E dsPeekFirst() {
+        return (size == 0) ? null : elementAt(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The lowest element from this heap.
+     */
+    @Override
+    public E dsPollFirst() {
+        return (size == 0) ? null : removeAt(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The highest element from this heap.
+     */
+    @Override
+    public E dsPeekLast() {
+        return (size == 0) ? null : elementAt(maxIndex());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return The highest element from this heap.
+     */
+    @Override
+    public E dsPollLast() {
+        return (size == 0) ? null : removeAt(maxIndex());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int dsIndexOf(E e) {
+        if(e == null) {
+            return -1;
+        }
+
+        for(int i = 0; i < size; i++) {
+            if(e.equals(heap[i])) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return {@code true}.
+     */
+    @Override
+    public boolean acceptsDuplicates() {
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return New {@link MinMaxHeap} with the same content as this object.
+     */
+    @Override
+    public DataStructure<E> deepCopy() {
+        return new MinMaxHeap<>(this);
+    }
+
+
+    /*
+        Sorted
+     */
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean hasComparator() {
+        return comparator != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Optional<Comparator<? super E>> getComparator() {
+        return Optional.ofNullable(comparator);
+    }
+
+
+    /*
+        AbstractCollection overrides
+     */
+
+    /**
+     * Non null requirement.
+     * <p>
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean add(E e) {
+        Objects.requireNonNull(e);
+
+        if(size == heap.length) {
+            grow();
+        }
+
+        modCount++;
+        heap[size] = e;
+        bubbleUp(size);
+        size++;
+
+        return true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean remove(Object o) {
+        if(o == null) {
+            return false;
+        }
+
+        for(int i = 0; i < size; i++) {
+            if(o.equals(heap[i])) {
+                removeAt(i);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean contains(Object o) {
+        if(o == null) {
+            return false;
+        }
+
+        for(int i = 0; i < size; i++) {
+            if(o.equals(heap[i])) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void clear() {
+        modCount++;
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Iterator over the internal array order of this heap, which does not support
+     * {@link Iterator#remove()}.
+     *
+     * @return An {@link Iterator} over the elements of this heap.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private int cursor = 0;
+            private final int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < size;
+            }
+
+            @Override
+            public E next() {
+                if(expectedModCount != modCount) {
+                    throw new ConcurrentModificationException();
+                }
+                if(cursor >= size) {
+                    throw new NoSuchElementException();
+                }
+
+                return elementAt(cursor++);
+            }
+        };
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals(Object o) {
+        if(o instanceof MinMaxHeap<?> mmh) {
+            var itr1 = iterator();
+            var itr2 = mmh.iterator();
+
+            while(itr1.hasNext() && itr2.hasNext()) {
+                if(!itr1.next().equals(itr2.next())) {
+                    return false;
+                }
+            }
+
+            return !(itr1.hasNext() || itr2.hasNext());
+        }
+
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for(int i = 0; i < size; i++) {
+            h = 31 * h + heap[i].hashCode();
+        }
+
+        return h;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return super.toString();
+    }
+}
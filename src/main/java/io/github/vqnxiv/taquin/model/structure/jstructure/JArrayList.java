@@ -2,6 +2,7 @@ package io.github.vqnxiv.taquin.model.structure.jstructure;
 
 
 import io.github.vqnxiv.taquin.model.DataStructure;
+import io.github.vqnxiv.taquin.model.structure.ImprovedSearch;
 import io.github.vqnxiv.taquin.model.structure.Sortable;
 import io.github.vqnxiv.taquin.model.structure.Unsorted;
 
@@ -14,7 +15,7 @@ import java.util.*;
  * @param <E> The type of elements.
  */
 public class JArrayList<E extends Comparable<E>> extends ArrayList<E> 
-    implements DataStructure<E>, Sortable<E>, Unsorted<E> {
+    implements DataStructure<E>, Sortable<E>, Unsorted<E>, ImprovedSearch<E> {
 
 
     /**
@@ -33,11 +34,6 @@ public class JArrayList<E extends Comparable<E>> extends ArrayList<E>
      */
     private transient boolean lastSortWasComparator = false;
 
-    /**
-     * Whether {@link #comparator} sorts in ascending order.
-     */
-    private transient boolean ascendingComparator;
-
 
     /**
      * Defaults no args constructor which calls the {@link ArrayList} no args constructor.
@@ -62,7 +58,7 @@ public class JArrayList<E extends Comparable<E>> extends ArrayList<E>
      */
     public JArrayList(Collection<E> content) {
         super(content);
-        sorted = isSorted();
+        sorted = staysSorted(null, this, null);
     }
 
 
@@ -71,19 +67,57 @@ public class JArrayList<E extends Comparable<E>> extends ArrayList<E>
      * 
      * @param e1 The first element to compare as in {@code e1.compareTo(e2)}.
      * @param e2 The second element to compare as in {@code e1.compareTo(e2)}.
-     * @return {@code true} if e1 > e2; {@code false} otherwise.
+     * @return {@code true} if e1 can come before e2; {@code false} otherwise.
      */
     private boolean compare(E e1, E e2) {
         if(lastSortWasComparator) {
-            return (ascendingComparator) ?
-                // <= and >= because == respects both ascending and descending order
-                comparator.compare(e1, e2) <= 0 :
-                comparator.compare(e1, e2) >= 0;
+            return comparator.compare(e1, e2) <= 0;
         }
         else {
             return e1.compareTo(e2) <= 0;
         }
     }
+
+    /**
+     * Checks whether this list would still be sorted after inserting a collection
+     * of elements between two of its elements.
+     * 
+     * @param before The element before the inserted ones, or {@code null} if there is none.
+     * @param c The elements to insert.
+     * @param after The element after the inserted ones, or {@code null} if there is none.
+     * @return {@code true} if this list would still be sorted; {@code false} otherwise.
+     */
+    private boolean staysSorted(E before, Collection<? extends E> c, E after) {
+        var prev = before;
+        
+        for(E e : c) {
+            if(prev != null && !compare(prev, e)) {
+                return false;
+            }
+            prev = e;
+        }
+        
+        return after == null || prev == null || compare(prev, after);
+    }
+
+    /**
+     * The order this list is currently sorted by.
+     * 
+     * @return {@link #comparator} if the last sort was done with it; the natural order otherwise.
+     */
+    private Comparator<? super E> order() {
+        return (lastSortWasComparator) ? comparator : Comparator.naturalOrder();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only checks {@link #sorted}, which may be {@code false} for a list which is sorted.
+     */
+    @Override
+    public boolean isSortedBy(Comparator<? super E> c) {
+        return sorted && ((c == null) ? !lastSortWasComparator : lastSortWasComparator && c == comparator);
+    }
     
     
     /*
@@ -196,24 +230,11 @@ public class JArrayList<E extends Comparable<E>> extends ArrayList<E>
      */
     @Override
     public boolean isSorted() {
-        if(sorted) {
-            return true;
-        }
-
-        var al = new JArrayList<>(this);
-        if(lastSortWasComparator) {
-            al.sort(comparator);
-        }
-        else {
-            al.sort(null);
-        }
-
-        if(equals(al)) {
-            sorted = true;
-            return true;
+        if(!sorted) {
+            sorted = staysSorted(null, this, null);
         }
         
-        return false;
+        return sorted;
     }
 
 
@@ -244,6 +265,50 @@ public class JArrayList<E extends Comparable<E>> extends ArrayList<E>
         return Optional.ofNullable(comparator);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If this list is already sorted by {@code c}, the sorted new elements are merged from the end 
+     * of this list, which only moves the elements after the insertion point of the lowest one.
+     * 
+     * @return {@link Merge#SORTED} if this list was not sorted by {@code c}; otherwise {@link Merge#MERGED},
+     * or {@link Merge#UNCHANGED} if there was nothing to add.
+     */
+    @Override
+    public Merge mergeSorted(Collection<? extends E> toAdd, Comparator<? super E> c) {
+        if(!isSortedBy(c)) {
+            return Sortable.super.mergeSorted(toAdd, c);
+        }
+        
+        var l = new ArrayList<E>(toAdd);
+        l.removeIf(Objects::isNull);
+        
+        if(l.isEmpty()) {
+            return Merge.UNCHANGED;
+        }
+        
+        var cmp = order();
+        l.sort(cmp);
+        
+        int i = size() - 1;
+        int j = l.size() - 1;
+        int w = size() + j;
+        
+        // extend, then merge from the back
+        super.addAll(l);
+        
+        while(j >= 0) {
+            if(i >= 0 && cmp.compare(get(i), l.get(j)) > 0) {
+                set(w--, get(i--));
+            }
+            else {
+                set(w--, l.get(j--));
+            }
+        }
+        
+        return Merge.MERGED;
+    }
+
     
     /*
         Unsorted
@@ -292,6 +357,79 @@ public class JArrayList<E extends Comparable<E>> extends ArrayList<E>
     }
     
     
+    /*
+        ImprovedSearch
+     */
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int iterativeIndexOf(E e) {
+        return dsIndexOf(e);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses the order of the last sort.
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int binaryIndexOf(E e) {
+        return binaryIndexOf(e, order());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses the order of the last sort.
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int exponentialIndexOf(E e) {
+        return exponentialIndexOf(e, order());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int binaryIndexOf(E e, Comparator<? super E> c) {
+        if(e == null) {
+            return -1;
+        }
+        if(!sorted) {
+            return iterativeIndexOf(e);
+        }
+        
+        return ImprovedSearch.binarySearch(this, e, c);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int exponentialIndexOf(E e, Comparator<? super E> c) {
+        if(e == null) {
+            return -1;
+        }
+        if(!sorted) {
+            return iterativeIndexOf(e);
+        }
+
+        return ImprovedSearch.exponentialSearch(this, e, c);
+    }
+    
+    
     /*
         ArrayList overrides
      */
@@ -365,7 +503,15 @@ public class JArrayList<E extends Comparable<E>> extends ArrayList<E>
             // otherwise reflection with?
             // c instanceof ImmutableCollections.AbstractImmutableCollection<E>
         }
-        return super.addAll(c);
+        
+        boolean willBeSorted = sorted && staysSorted(dsPeekLast(), c, null);
+        
+        if(super.addAll(c)) {
+            sorted = willBeSorted;
+            return true;
+        }
+        
+        return false;
     }
 
     /**
@@ -382,7 +528,18 @@ public class JArrayList<E extends Comparable<E>> extends ArrayList<E>
             // keep the catch
         }
         
-        return super.addAll(index, c);
+        boolean willBeSorted = sorted && staysSorted(
+            (index > 0 && index <= size()) ? get(index - 1) : null, 
+            c, 
+            (index >= 0 && index < size()) ? get(index) : null
+        );
+
+        if(super.addAll(index, c)) {
+            sorted = willBeSorted;
+            return true;
+        }
+
+        return false;
     }
 
     /**
@@ -395,6 +552,7 @@ public class JArrayList<E extends Comparable<E>> extends ArrayList<E>
     public void sort(Comparator<? super E> c) {
         if(c == null) {
             sort();
+            return;
         }
 
         super.sort(c);
@@ -402,7 +560,6 @@ public class JArrayList<E extends Comparable<E>> extends ArrayList<E>
         lastSortWasComparator = true;
         comparator = c;
         sorted = true;
-        ascendingComparator = dsPeekFirst().compareTo(dsPeekLast()) <= 0;
     }
 
     /**
@@ -9,6 +9,12 @@ import java.util.*;
 
 /**
  * A {@link DataStructure} version of {@link java.util.LinkedHashSet}.
+ * <p>
+ * As {@link java.util.LinkedHashSet} does not give access to its last element, 
+ * {@link #dsPeekLast()} and {@link #dsPollLast()} have to iterate over the whole set,
+ * and adding first requires copying it. See 
+ * {@link io.github.vqnxiv.taquin.model.structure.custom.LinkedHashDeque} for a structure 
+ * where all of these are done in constant time.
  *
  * @param <E> The type of elements.
  */
@@ -53,7 +59,7 @@ public class JLinkedHashSet<E> extends LinkedHashSet<E>
      */
     @Override
     public E dsPeekFirst() {
-        return stream().findFirst().get();
+        return iterator().next();
     }
 
     /**
@@ -63,8 +69,9 @@ public class JLinkedHashSet<E> extends LinkedHashSet<E>
      */
     @Override
     public E dsPollFirst() {
-        E e = stream().findFirst().get();
-        remove(e);
+        var itr = iterator();
+        E e = itr.next();
+        itr.remove();
         return e; 
     }
 
@@ -2,6 +2,7 @@ package io.github.vqnxiv.taquin.model.structure.jstructure;
 
 
 import io.github.vqnxiv.taquin.model.DataStructure;
+import io.github.vqnxiv.taquin.model.structure.ImprovedSearch;
 import io.github.vqnxiv.taquin.model.structure.Sortable;
 import io.github.vqnxiv.taquin.model.structure.Unsorted;
 
@@ -14,7 +15,7 @@ import java.util.*;
  * @param <E> The type of elements.
  */
 public class JLinkedList<E extends Comparable<E>> extends LinkedList<E>
-    implements DataStructure<E>, Sortable<E>, Unsorted<E> {
+    implements DataStructure<E>, Sortable<E>, Unsorted<E>, ImprovedSearch<E> {
 
     /**
      * Last used comparator to sort this {@link LinkedList}.
@@ -32,11 +33,6 @@ public class JLinkedList<E extends Comparable<E>> extends LinkedList<E>
      */
     private transient boolean lastSortWasComparator = false;
 
-    /**
-     * Whether {@link #comparator} sorts in ascending order.
-     */
-    private transient boolean ascendingComparator;
-
 
 
     /**
@@ -64,7 +60,7 @@ public class JLinkedList<E extends Comparable<E>> extends LinkedList<E>
      */
     public JLinkedList(Collection<E> content) {
         super(content);
-        sorted = isSorted();
+        sorted = staysSorted(null, this, null);
     }
 
 
@@ -74,18 +70,57 @@ public class JLinkedList<E extends Comparable<E>> extends LinkedList<E>
      *
      * @param e1 The first element to compare as in {@code e1.compareTo(e2)}.
      * @param e2 The second element to compare as in {@code e1.compareTo(e2)}.
-     * @return {@code true} if e1 > e2; {@code false} otherwise.
+     * @return {@code true} if e1 can come before e2; {@code false} otherwise.
      */
     private boolean compare(E e1, E e2) {
         if(lastSortWasComparator) {
-            return (ascendingComparator) ?
-                comparator.compare(e1, e2) <= 0 :
-                comparator.compare(e1, e2) >= 0;
+            return comparator.compare(e1, e2) <= 0;
         }
         else {
             return e1.compareTo(e2) <= 0;
         }
     }
+
+    /**
+     * Checks whether this list would still be sorted after inserting a collection
+     * of elements between two of its elements.
+     * 
+     * @param before The element before the inserted ones, or {@code null} if there is none.
+     * @param c The elements to insert.
+     * @param after The element after the inserted ones, or {@code null} if there is none.
+     * @return {@code true} if this list would still be sorted; {@code false} otherwise.
+     */
+    private boolean staysSorted(E before, Collection<? extends E> c, E after) {
+        var prev = before;
+        
+        for(E e : c) {
+            if(prev != null && !compare(prev, e)) {
+                return false;
+            }
+            prev = e;
+        }
+        
+        return after == null || prev == null || compare(prev, after);
+    }
+
+    /**
+     * The order this list is currently sorted by.
+     * 
+     * @return {@link #comparator} if the last sort was done with it; the natural order otherwise.
+     */
+    private Comparator<? super E> order() {
+        return (lastSortWasComparator) ? comparator : Comparator.naturalOrder();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Only checks {@link #sorted}, which may be {@code false} for a list which is sorted.
+     */
+    @Override
+    public boolean isSortedBy(Comparator<? super E> c) {
+        return sorted && ((c == null) ? !lastSortWasComparator : lastSortWasComparator && c == comparator);
+    }
     
     
     /*
@@ -178,24 +213,11 @@ public class JLinkedList<E extends Comparable<E>> extends LinkedList<E>
      */
     @Override
     public boolean isSorted() {
-        if(sorted) {
-            return true;
-        }
-
-        var ll = new JLinkedList<>(this);
-        if(lastSortWasComparator) {
-            ll.sort(comparator);
+        if(!sorted) {
+            sorted = staysSorted(null, this, null);
         }
-        else {
-            ll.sort(null);
-        }
-
-        if(equals(ll)) {
-            sorted = true;
-            return true;
-        }
-
-        return false;
+        
+        return sorted;
     }
 
     /**
@@ -225,6 +247,46 @@ public class JLinkedList<E extends Comparable<E>> extends LinkedList<E>
         return Optional.ofNullable(comparator);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * If this list is already sorted by {@code c}, the sorted new elements are inserted 
+     * in a single pass over this list.
+     *
+     * @return {@link Merge#SORTED} if this list was not sorted by {@code c}; otherwise {@link Merge#MERGED},
+     * or {@link Merge#UNCHANGED} if there was nothing to add.
+     */
+    @Override
+    public Merge mergeSorted(Collection<? extends E> toAdd, Comparator<? super E> c) {
+        if(!isSortedBy(c)) {
+            return Sortable.super.mergeSorted(toAdd, c);
+        }
+
+        var l = new ArrayList<E>(toAdd);
+        l.removeIf(Objects::isNull);
+
+        if(l.isEmpty()) {
+            return Merge.UNCHANGED;
+        }
+
+        var cmp = order();
+        l.sort(cmp);
+        
+        var itr = listIterator();
+        for(E e : l) {
+            while(itr.hasNext()) {
+                if(cmp.compare(itr.next(), e) > 0) {
+                    itr.previous();
+                    break;
+                }
+            }
+            
+            itr.add(e);
+        }
+
+        return Merge.MERGED;
+    }
+
     
     /*
         Unsorted
@@ -273,6 +335,79 @@ public class JLinkedList<E extends Comparable<E>> extends LinkedList<E>
     }
     
     
+    /*
+        ImprovedSearch
+     */
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int iterativeIndexOf(E e) {
+        return dsIndexOf(e);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses the order of the last sort.
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int binaryIndexOf(E e) {
+        return binaryIndexOf(e, order());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Uses the order of the last sort.
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int exponentialIndexOf(E e) {
+        return exponentialIndexOf(e, order());
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int binaryIndexOf(E e, Comparator<? super E> c) {
+        if(e == null) {
+            return -1;
+        }
+        if(!sorted) {
+            return iterativeIndexOf(e);
+        }
+        
+        return ImprovedSearch.binarySearch(this, e, c);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return Positive int if the element was found, {@code -1} otherwise.
+     */
+    @Override
+    public int exponentialIndexOf(E e, Comparator<? super E> c) {
+        if(e == null) {
+            return -1;
+        }
+        if(!sorted) {
+            return iterativeIndexOf(e);
+        }
+
+        return ImprovedSearch.exponentialSearch(this, e, c);
+    }
+    
+    
     /*
         LinkedList overrides
      */
@@ -338,7 +473,10 @@ public class JLinkedList<E extends Comparable<E>> extends LinkedList<E>
     @Override
     public void addFirst(E e) {
         Objects.requireNonNull(e);
+        
+        boolean willBeSorted = sorted && (isEmpty() || compare(e, dsPeekFirst()));
         super.addFirst(e);
+        sorted = willBeSorted;
     }
 
     /**
@@ -350,7 +488,10 @@ public class JLinkedList<E extends Comparable<E>> extends LinkedList<E>
     @Override
     public void addLast(E e) {
         Objects.requireNonNull(e);
+
+        boolean willBeSorted = sorted && (isEmpty() || compare(dsPeekLast(), e));
         super.addLast(e);
+        sorted = willBeSorted;
     }
 
     /**
@@ -366,7 +507,15 @@ public class JLinkedList<E extends Comparable<E>> extends LinkedList<E>
         } catch(UnsupportedOperationException ignored) {
             // keep the catch
         }
-        return super.addAll(c);
+        
+        boolean willBeSorted = sorted && staysSorted(dsPeekLast(), c, null);
+
+        if(super.addAll(c)) {
+            sorted = willBeSorted;
+            return true;
+        }
+
+        return false;
     }
 
     /**
@@ -382,8 +531,19 @@ public class JLinkedList<E extends Comparable<E>> extends LinkedList<E>
         } catch(UnsupportedOperationException ignored) {
             // keep the catch
         }
+        
+        boolean willBeSorted = sorted && staysSorted(
+            (index > 0 && index <= size()) ? get(index - 1) : null, 
+            c, 
+            (index >= 0 && index < size()) ? get(index) : null
+        );
 
-        return super.addAll(index, c);
+        if(super.addAll(index, c)) {
+            sorted = willBeSorted;
+            return true;
+        }
+
+        return false;
     }
     
     /**
@@ -444,6 +604,7 @@ public class JLinkedList<E extends Comparable<E>> extends LinkedList<E>
     public void sort(Comparator<? super E> c) {
         if(c == null) {
             sort();
+            return;
         }
 
         super.sort(c);
@@ -451,7 +612,6 @@ public class JLinkedList<E extends Comparable<E>> extends LinkedList<E>
         lastSortWasComparator = true;
         comparator = c;
         sorted = true;
-        ascendingComparator = dsPeekFirst().compareTo(dsPeekLast()) <= 0;
     }
 
     /**
@@ -5,14 +5,16 @@ module io.github.vqnxiv.taquin {
     requires javafx.graphics;
     requires java.management;
     requires jdk.management;
+    requires jdk.jfr;
     requires jdk.unsupported;
     requires jdk.attach;
+    requires jdk.httpserver;
     requires org.apache.logging.log4j;
     requires org.apache.logging.log4j.core;
+    requires com.lmax.disruptor;
     requires org.openjdk.jol;
     requires org.reflections;
     requires org.jfxtras.styles.jmetro;
-    requires org.fxmisc.richtext;
     
 
     opens io.github.vqnxiv.taquin.controller;
@@ -0,0 +1,130 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import io.github.vqnxiv.taquin.model.search.Astar;
+import io.github.vqnxiv.taquin.model.structure.jstructure.JLinkedHashSet;
+import io.github.vqnxiv.taquin.model.structure.jstructure.JPriorityQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests for {@link Checkpoint}, through {@link SearchRunner#checkpointSearch(int, Path)} and
+ * {@link SearchRunner#restoreSearch(Path, Search.Builder, DataStructure.Builder, DataStructure.Builder)}.
+ */
+class CheckpointTest {
+
+    /**
+     * Start grid of the searches, 31 moves away from {@link #END}.
+     */
+    private static final int[][] START = { { 8, 6, 7 }, { 2, 5, 4 }, { 3, 0, 1 } };
+
+    /**
+     * End grid of the searches.
+     */
+    private static final int[][] END = { { 1, 2, 3 }, { 4, 5, 6 }, { 7, 8, 0 } };
+
+    /**
+     * The runner which holds the searches.
+     */
+    private SearchRunner runner;
+
+
+    /**
+     * Creates the runner.
+     */
+    @BeforeEach
+    void setUp() {
+        runner = new SearchRunner();
+    }
+
+    /**
+     * Stops the runner.
+     */
+    @AfterEach
+    void tearDown() {
+        runner.shutdown(true);
+    }
+
+
+    /**
+     * A paused search restored from its checkpoint has the same search space,
+     * and finds the same path once resumed.
+     *
+     * @param dir Temporary directory for the checkpoint.
+     * @throws Exception If the checkpoint can not be read.
+     */
+    @Test
+    void roundTripKeepsSearchSpace(@TempDir Path dir) throws Exception {
+        int id = createSearch();
+        assertEquals(Search.SearchState.PAUSED, runner.runSearch(id, 200, 0, false, new Search.Listener() {}).join());
+
+        var file = dir.resolve("astar.ckpt");
+        assertTrue(runner.checkpointSearch(id, file));
+        assertTrue(Files.size(file) > 0);
+
+        var restoredId = runner.restoreSearch(
+            file, new Astar.Builder().heuristic(Grid.Distance.MANHATTAN),
+            new DataStructure.Builder("q", JPriorityQueue.class), new DataStructure.Builder("e", JLinkedHashSet.class)
+        );
+        assertTrue(restoredId.isPresent());
+        assertNotEquals(id, restoredId.getAsInt());
+
+        var saved = runner.getSearchSpace(id).orElseThrow();
+        var restored = runner.getSearchSpace(restoredId.getAsInt()).orElseThrow();
+
+        assertEquals(saved.getCurrent(), restored.getCurrent());
+        assertEquals(new ArrayList<>(saved.getExplored()), new ArrayList<>(restored.getExplored()));
+        assertEquals(saved.getQueued().size(), restored.getQueued().size());
+        assertEquals(new HashSet<>(saved.getQueued()), new HashSet<>(restored.getQueued()));
+        assertEquals(saved.getKeyCounter(), restored.getKeyCounter());
+
+        assertEquals(Search.SearchState.ENDED_SUCCESS, runner.runSearch(id, 0, 0, false, new Search.Listener() {}).join());
+        assertEquals(
+            Search.SearchState.ENDED_SUCCESS, 
+            runner.runSearch(restoredId.getAsInt(), 0, 0, false, new Search.Listener() {}).join()
+        );
+        assertEquals(31, saved.pathFromStart().size() - 1);
+        assertEquals(saved.pathFromStart(), restored.pathFromStart());
+    }
+
+    /**
+     * A file which is not a checkpoint is rejected.
+     *
+     * @param dir Temporary directory for the file.
+     * @throws Exception If the file can not be written.
+     */
+    @Test
+    void restoreRejectsInvalidFile(@TempDir Path dir) throws Exception {
+        var file = dir.resolve("invalid.ckpt");
+        Files.write(file, new byte[]{ 1, 2, 3, 4, 5, 6, 7, 8 });
+
+        assertTrue(runner.restoreSearch(
+            file, new Astar.Builder().heuristic(Grid.Distance.MANHATTAN),
+            new DataStructure.Builder("q", JPriorityQueue.class), new DataStructure.Builder("e", JLinkedHashSet.class)
+        ).isEmpty());
+    }
+
+
+    /**
+     * Creates an A* search from {@link #START} to {@link #END}.
+     *
+     * @return The id of the search.
+     */
+    private int createSearch() {
+        return runner.createSearchAndSpace(
+            new Astar.Builder().heuristic(Grid.Distance.MANHATTAN),
+            new SearchSpace.Builder().start(Grid.of(START).orElseThrow()).end(Grid.of(END).orElseThrow()),
+            new DataStructure.Builder("q", JPriorityQueue.class), new DataStructure.Builder("e", JLinkedHashSet.class)
+        ).orElseThrow();
+    }
+}
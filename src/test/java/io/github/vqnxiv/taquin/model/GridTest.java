@@ -0,0 +1,126 @@
+package io.github.vqnxiv.taquin.model;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests for {@link Grid#canReach(Grid)}.
+ */
+class GridTest {
+
+    /**
+     * Goals of different sizes, including a non standard one.
+     */
+    private static final int[][][] GOALS = {
+        { { 1, 2, 3 }, { 4, 5, 6 }, { 7, 8, 0 } },
+        { { 1, 2, 3, 4 }, { 5, 6, 7, 8 }, { 9, 10, 11, 12 }, { 13, 14, 15, 0 } },
+        { { 1, 2, 3 }, { 4, 5, 0 } },
+        { { 0, 1, 2 }, { 3, 4, 5 }, { 6, 7, 8 } },
+        { { 5, 0, 3, 7 }, { 1, 6, 2, 4 } }
+    };
+
+
+    /**
+     * A goal can reach itself.
+     */
+    @Test
+    void goalReachesItself() {
+        for(var array : GOALS) {
+            var goal = grid(array);
+            assertTrue(goal.canReach(goal));
+            assertTrue(goal.canReach(grid(array)));
+        }
+    }
+
+    /**
+     * Any grid obtained by moving the empty cell from the goal can reach it,
+     * whichever the number of moves, and it can be reached from the goal.
+     */
+    @Test
+    void randomWalksCanReachGoal() {
+        var rnd = new Random(1);
+
+        for(var array : GOALS) {
+            var goal = grid(array);
+            var g = goal;
+
+            for(int i = 0; i < 200; i++) {
+                var neighbors = new ArrayList<>(g.generateNeighbors());
+                g = neighbors.get(rnd.nextInt(neighbors.size()));
+
+                assertTrue(g.canReach(goal), g::toString);
+                assertTrue(goal.canReach(g), g::toString);
+            }
+        }
+    }
+
+    /**
+     * Swapping two cells which are not empty gives a grid which can not reach the goal,
+     * whatever the position of the empty cell.
+     */
+    @Test
+    void swappedCellsCanNotReachGoal() {
+        assertFalse(grid(new int[][]{ { 1, 2, 3, 4 }, { 5, 6, 7, 8 }, { 9, 10, 11, 12 }, { 13, 15, 14, 0 } })
+            .canReach(grid(GOALS[1])));
+        assertFalse(grid(new int[][]{ { 2, 1, 3 }, { 4, 5, 6 }, { 7, 8, 0 } }).canReach(grid(GOALS[0])));
+        assertFalse(grid(new int[][]{ { 2, 1, 3 }, { 4, 0, 5 } }).canReach(grid(GOALS[2])));
+
+        var rnd = new Random(2);
+        for(var array : GOALS) {
+            var goal = grid(array);
+            var g = swapFirstCells(goal);
+
+            for(int i = 0; i < 50; i++) {
+                assertFalse(g.canReach(goal), g::toString);
+                var neighbors = new ArrayList<>(g.generateNeighbors());
+                g = neighbors.get(rnd.nextInt(neighbors.size()));
+            }
+        }
+    }
+
+
+    /**
+     * Creates a {@link Grid}.
+     *
+     * @param array The content of the grid.
+     * @return The grid.
+     */
+    private static Grid grid(int[][] array) {
+        return Grid.of(array).orElseThrow();
+    }
+
+    /**
+     * Swaps the first two cells of a grid which are not the empty cell.
+     *
+     * @param g The grid.
+     * @return A new grid with these two cells swapped.
+     */
+    private static Grid swapFirstCells(Grid g) {
+        var array = g.getCopyOfSelf();
+        int width = array[0].length;
+        int first = -1;
+
+        for(int i = 0; i < array.length * width; i++) {
+            if(array[i / width][i % width] == 0) {
+                continue;
+            }
+            if(first < 0) {
+                first = i;
+                continue;
+            }
+
+            int tmp = array[i / width][i % width];
+            array[i / width][i % width] = array[first / width][first % width];
+            array[first / width][first % width] = tmp;
+            break;
+        }
+
+        return grid(array);
+    }
+}
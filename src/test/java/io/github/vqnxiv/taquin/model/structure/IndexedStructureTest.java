@@ -0,0 +1,137 @@
+package io.github.vqnxiv.taquin.model.structure;
+
+
+import io.github.vqnxiv.taquin.model.DataStructure;
+import io.github.vqnxiv.taquin.model.structure.custom.LinkedHashDeque;
+import io.github.vqnxiv.taquin.model.structure.custom.MinMaxHeap;
+import io.github.vqnxiv.taquin.model.structure.jstructure.JArrayList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests for {@link IndexedStructure}: its index has to stay consistent with the wrapped
+ * structure, which is used as the reference.
+ */
+class IndexedStructureTest {
+
+    /**
+     * The wrapper implements the same interfaces as the wrapped structure.
+     */
+    @Test
+    void ofKeepsInterfaces() {
+        assertTrue(IndexedStructure.of(new MinMaxHeap<Integer>()) instanceof Sorted<?>);
+        assertTrue(IndexedStructure.of(new JArrayList<Integer>()) instanceof Sortable<?>);
+        assertTrue(IndexedStructure.of(new LinkedHashDeque<Integer>()) instanceof Unsorted<?>);
+        assertFalse(IndexedStructure.of(new LinkedHashDeque<Integer>()) instanceof Sortable<?>);
+
+        var indexed = IndexedStructure.of(new JArrayList<Integer>());
+        assertSame(indexed, IndexedStructure.of(indexed));
+    }
+
+    /**
+     * The index of a {@link Sortable} structure follows adds and polls at both ends,
+     * removals, sorts and merges, with duplicates.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void sortableIndexStaysConsistent() {
+        var rnd = new Random(1);
+        var list = new JArrayList<Integer>();
+        var indexed = (IndexedStructure.OfSortable<Integer>) IndexedStructure.of((DataStructure<Integer>) list);
+        Comparator<Integer> c = Comparator.reverseOrder();
+
+        for(int i = 0; i < 3000; i++) {
+            int v = rnd.nextInt(60);
+
+            switch(rnd.nextInt(9)) {
+                case 0 -> indexed.uAddFirst(v);
+                case 1 -> indexed.uAddLast(v);
+                case 2 -> indexed.addAll(List.of(v, v + 1, v + 2));
+                case 3 -> indexed.dsPollFirst();
+                case 4 -> indexed.dsPollLast();
+                case 5 -> indexed.remove((Integer) v);
+                case 6 -> indexed.mergeSorted(List.of(v, rnd.nextInt(60)), c);
+                case 7 -> indexed.sort();
+                default -> indexed.uAddAllFirst(List.of(v, v));
+            }
+
+            assertConsistent(indexed, list, 65);
+        }
+    }
+
+    /**
+     * The index of a deque without duplicates follows moves to the front and polls.
+     */
+    @Test
+    void unsortedIndexStaysConsistent() {
+        var rnd = new Random(2);
+        var deque = new LinkedHashDeque<Integer>();
+        var indexed = (Unsorted<Integer>) IndexedStructure.of(deque);
+
+        for(int i = 0; i < 3000; i++) {
+            int v = rnd.nextInt(40);
+
+            switch(rnd.nextInt(5)) {
+                case 0 -> indexed.uAddFirst(v);
+                case 1 -> indexed.uAddLast(v);
+                case 2 -> indexed.dsPollFirst();
+                case 3 -> indexed.dsPollLast();
+                default -> indexed.remove(v);
+            }
+
+            assertConsistent(indexed, deque, 40);
+        }
+    }
+
+    /**
+     * The index of a {@link Sorted} structure follows adds and polls.
+     */
+    @Test
+    void sortedIndexStaysConsistent() {
+        var rnd = new Random(3);
+        var heap = new MinMaxHeap<Integer>();
+        var indexed = IndexedStructure.of(heap);
+
+        for(int i = 0; i < 3000; i++) {
+            int v = rnd.nextInt(40);
+
+            switch(rnd.nextInt(4)) {
+                case 0, 1 -> indexed.add(v);
+                case 2 -> assertEquals(heap.dsPeekFirst(), indexed.dsPollFirst());
+                default -> assertEquals(heap.dsPeekLast(), indexed.dsPollLast());
+            }
+
+            assertEquals(heap.size(), indexed.size());
+            for(int j = 0; j < 40; j++) {
+                assertEquals(heap.contains(j), indexed.contains(j));
+                assertEquals(heap.contains(j), indexed.dsIndexOf(j) >= 0);
+            }
+        }
+    }
+
+
+    /**
+     * Asserts that an indexed structure gives the same answers as the structure it wraps.
+     *
+     * @param indexed The indexed structure.
+     * @param wrapped The structure it wraps.
+     * @param range The values to look up, from {@code 0} to {@code range} excluded.
+     */
+    private static void assertConsistent(DataStructure<Integer> indexed, DataStructure<Integer> wrapped, int range) {
+        var content = new ArrayList<>(wrapped);
+
+        assertEquals(content, new ArrayList<>(indexed));
+        assertEquals(wrapped.size(), indexed.size());
+        for(int v = 0; v < range; v++) {
+            assertEquals(content.contains(v), indexed.contains(v), "contains " + v);
+            assertEquals(content.indexOf(v), indexed.dsIndexOf(v), "index of " + v);
+        }
+    }
+}
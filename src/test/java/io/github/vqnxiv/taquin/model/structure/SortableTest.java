@@ -0,0 +1,212 @@
+package io.github.vqnxiv.taquin.model.structure;
+
+
+import io.github.vqnxiv.taquin.model.Cancellation;
+import io.github.vqnxiv.taquin.model.structure.custom.GapBufferList;
+import io.github.vqnxiv.taquin.model.structure.jstructure.JArrayList;
+import io.github.vqnxiv.taquin.model.structure.jstructure.JLinkedList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests for the merge contract of {@link Sortable#mergeSorted(java.util.Collection, Comparator)}
+ * and {@link Sortable#mergeSorted(java.util.Collection, Comparator, Cancellation)},
+ * on every {@link Sortable} list and on their {@link IndexedStructure}.
+ */
+class SortableTest {
+
+    /**
+     * Element which is compared on its value only, so that equal elements can be told apart.
+     *
+     * @param value The compared value.
+     * @param id Unique id.
+     */
+    private record Item(int value, int id) implements Comparable<Item> {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public int compareTo(Item o) {
+            return Integer.compare(value, o.value);
+        }
+    }
+
+    /**
+     * {@link Comparator} which compares values in reverse order.
+     */
+    private static final Comparator<Item> REVERSED = (i1, i2) -> Integer.compare(i2.value, i1.value);
+
+    /**
+     * The structures to test.
+     */
+    private static final List<Supplier<Sortable<Item>>> STRUCTURES = List.of(
+        JArrayList::new, JLinkedList::new, GapBufferList::new,
+        () -> (Sortable<Item>) IndexedStructure.of(new JArrayList<Item>()),
+        () -> (Sortable<Item>) IndexedStructure.of(new GapBufferList<Item>())
+    );
+
+
+    /**
+     * Merging into a sorted structure gives the same result as a stable sort, with the
+     * new elements after the existing equal ones, and returns {@link Sortable.Merge#MERGED}.
+     */
+    @Test
+    void mergeIntoSortedIsStable() {
+        for(var supplier : STRUCTURES) {
+            var rnd = new Random(1);
+
+            for(int i = 0; i < 20; i++) {
+                var existing = items(rnd, 200, 0);
+                var added = items(rnd, 1 + rnd.nextInt(10), 1000);
+
+                var s = supplier.get();
+                s.addAll(existing);
+                s.sort(REVERSED);
+
+                var expected = new ArrayList<>(existing);
+                expected.sort(REVERSED);
+                var sortedAdded = new ArrayList<>(added);
+                sortedAdded.sort(REVERSED);
+                expected.addAll(sortedAdded);
+                expected.sort(REVERSED);
+
+                assertEquals(Sortable.Merge.MERGED, s.mergeSorted(added, REVERSED), name(s));
+                assertEquals(expected, new ArrayList<>(s), name(s));
+                assertTrue(s.isSortedBy(REVERSED), name(s));
+
+                for(var item : added) {
+                    assertTrue(s.contains(item), name(s));
+                }
+            }
+        }
+    }
+
+    /**
+     * Merging into a structure which is not sorted by the given order sorts it
+     * and returns {@link Sortable.Merge#SORTED}.
+     */
+    @Test
+    void mergeIntoUnsortedSorts() {
+        for(var supplier : STRUCTURES) {
+            var rnd = new Random(2);
+            var s = supplier.get();
+            s.addAll(items(rnd, 100, 0));
+            s.sort();
+
+            var added = items(rnd, 5, 1000);
+            assertEquals(Sortable.Merge.SORTED, s.mergeSorted(added, REVERSED), name(s));
+            assertTrue(s.isSortedBy(REVERSED), name(s));
+            assertEquals(105, s.size(), name(s));
+            assertSortedBy(s, REVERSED);
+
+            // nothing added, but still has to be sorted
+            s.add(new Item(Integer.MAX_VALUE, -1));
+            assertEquals(Sortable.Merge.SORTED, s.mergeSorted(List.of(), REVERSED), name(s));
+            assertEquals(new Item(Integer.MAX_VALUE, -1), s.dsPeekFirst(), name(s));
+        }
+    }
+
+    /**
+     * Merging nothing into a sorted structure returns {@link Sortable.Merge#UNCHANGED}.
+     */
+    @Test
+    void mergeNothingIsUnchanged() {
+        for(var supplier : STRUCTURES) {
+            var s = supplier.get();
+            s.addAll(items(new Random(3), 50, 0));
+            s.sort(REVERSED);
+            var before = new ArrayList<>(s);
+
+            assertEquals(Sortable.Merge.UNCHANGED, s.mergeSorted(List.of(), REVERSED), name(s));
+            assertEquals(Sortable.Merge.UNCHANGED, s.mergeSorted(Arrays.asList((Item) null), REVERSED), name(s));
+            assertFalse(Sortable.Merge.UNCHANGED.changed());
+            assertEquals(before, new ArrayList<>(s), name(s));
+        }
+    }
+
+    /**
+     * The cancellable merge gives the same results as the other one, including for inputs
+     * larger than {@link Cancellation#CHECK_INTERVAL} which are merged by chunks.
+     */
+    @Test
+    void cancellableMergeMatches() {
+        for(var supplier : STRUCTURES) {
+            var rnd = new Random(4);
+
+            for(int n : new int[]{ 3, Cancellation.CHECK_INTERVAL * 2 + 7 }) {
+                for(boolean sorted : new boolean[]{ true, false }) {
+                    var existing = items(rnd, 300, 0);
+                    var added = items(rnd, n, 1000);
+
+                    var s1 = supplier.get();
+                    var s2 = supplier.get();
+                    s1.addAll(existing);
+                    s2.addAll(existing);
+                    if(sorted) {
+                        s1.sort(REVERSED);
+                        s2.sort(REVERSED);
+                    }
+
+                    var r1 = s1.mergeSorted(added, REVERSED);
+                    var r2 = s2.mergeSorted(added, REVERSED, Cancellation.NONE);
+
+                    assertEquals(r1, r2, name(s1));
+                    assertEquals(sorted ? Sortable.Merge.MERGED : Sortable.Merge.SORTED, r2, name(s2));
+                    assertEquals(new ArrayList<>(s1), new ArrayList<>(s2), name(s2));
+                    assertTrue(s2.isSortedBy(REVERSED), name(s2));
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Random items.
+     *
+     * @param rnd The source of randomness.
+     * @param n The number of items.
+     * @param firstId The id of the first item.
+     * @return A new {@link List} of items, with a lot of equal values.
+     */
+    private static List<Item> items(Random rnd, int n, int firstId) {
+        var l = new ArrayList<Item>(n);
+        for(int i = 0; i < n; i++) {
+            l.add(new Item(rnd.nextInt(20), firstId + i));
+        }
+        return l;
+    }
+
+    /**
+     * Asserts that a structure is sorted by a comparator.
+     *
+     * @param s The structure.
+     * @param c The comparator.
+     */
+    private static void assertSortedBy(Sortable<Item> s, Comparator<Item> c) {
+        Item prev = null;
+        for(var item : s) {
+            assertTrue(prev == null || c.compare(prev, item) <= 0, name(s));
+            prev = item;
+        }
+    }
+
+    /**
+     * Name of a structure for the assertion messages.
+     *
+     * @param s The structure.
+     * @return Its class name.
+     */
+    private static String name(Sortable<Item> s) {
+        return s.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.vqnxiv.taquin.model.structure.custom;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests for {@link GapBufferList}. The contract of its merges is tested in
+ * {@link io.github.vqnxiv.taquin.model.structure.SortableTest}.
+ */
+class GapBufferListTest {
+
+    /**
+     * Random insertions, removals and polls give the same list as an {@link ArrayList}.
+     */
+    @Test
+    void behavesLikeArrayList() {
+        var rnd = new Random(1);
+        var gb = new GapBufferList<Integer>(1);
+        var model = new ArrayList<Integer>();
+
+        for(int i = 0; i < 5000; i++) {
+            int op = rnd.nextInt(6);
+            int v = rnd.nextInt(1000);
+
+            switch(op) {
+                case 0, 1 -> {
+                    int index = rnd.nextInt(model.size() + 1);
+                    gb.add(index, v);
+                    model.add(index, v);
+                }
+                case 2 -> {
+                    gb.add(v);
+                    model.add(v);
+                }
+                case 3 -> {
+                    if(!model.isEmpty()) {
+                        int index = rnd.nextInt(model.size());
+                        assertEquals(model.remove(index), gb.remove(index));
+                    }
+                }
+                case 4 -> assertEquals(model.isEmpty() ? null : model.remove(0), gb.dsPollFirst());
+                default -> assertEquals(model.isEmpty() ? null : model.remove(model.size() - 1), gb.dsPollLast());
+            }
+
+            assertEquals(model.size(), gb.size());
+        }
+
+        assertEquals(model, gb);
+    }
+
+    /**
+     * Bulk insertions in the middle keep the order of the inserted collection.
+     */
+    @Test
+    void addAllAtIndex() {
+        var gb = new GapBufferList<>(List.of(1, 2, 3));
+
+        gb.addAll(1, List.of(7, 8));
+        gb.uAddAllFirst(List.of(0));
+        gb.uAddAllLast(List.of(9));
+
+        assertEquals(List.of(0, 1, 7, 8, 2, 3, 9), gb);
+        assertEquals(3, gb.dsIndexOf(8));
+        assertEquals(-1, gb.dsIndexOf(42));
+    }
+
+    /**
+     * The sorted flag follows the insertions and the sorts.
+     */
+    @Test
+    void sortedFlag() {
+        var gb = new GapBufferList<>(List.of(1, 2, 3));
+        assertTrue(gb.isSortedBy(null));
+
+        gb.add(0);
+        assertFalse(gb.isSortedBy(null));
+
+        Comparator<Integer> c = Comparator.reverseOrder();
+        gb.sort(c);
+        assertEquals(List.of(3, 2, 1, 0), gb);
+        assertTrue(gb.isSortedBy(c));
+        assertFalse(gb.isSortedBy(null));
+
+        assertEquals(1, gb.binaryIndexOf(2));
+        assertEquals(3, gb.exponentialIndexOf(0));
+    }
+
+    /**
+     * Copies are independent from the original list.
+     */
+    @Test
+    void deepCopyIsIndependent() {
+        var gb = new GapBufferList<>(List.of(1, 2, 3));
+        var copy = gb.deepCopy();
+
+        gb.add(4);
+        assertEquals(List.of(1, 2, 3), new ArrayList<>(copy));
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.vqnxiv.taquin.model.structure.custom;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests for {@link LinkedHashDeque}.
+ */
+class LinkedHashDequeTest {
+
+    /**
+     * Elements are iterated in insertion order, and duplicates added at the end are ignored.
+     */
+    @Test
+    void keepsInsertionOrderWithoutDuplicates() {
+        var d = new LinkedHashDeque<Integer>();
+
+        assertTrue(d.addAll(List.of(3, 1, 2)));
+        assertFalse(d.add(1));
+        assertFalse(d.uAddLast(3));
+        assertTrue(d.uAddLast(4));
+
+        assertFalse(d.acceptsDuplicates());
+        assertEquals(List.of(3, 1, 2, 4), new ArrayList<>(d));
+    }
+
+    /**
+     * Adding an element at the front moves it there if it is already contained.
+     */
+    @Test
+    void addFirstMovesExistingElement() {
+        var d = new LinkedHashDeque<>(List.of(1, 2, 3, 4));
+
+        assertTrue(d.uAddFirst(3));
+        assertEquals(List.of(3, 1, 2, 4), new ArrayList<>(d));
+        assertEquals(4, d.size());
+
+        assertTrue(d.uAddFirst(0));
+        assertEquals(0, d.dsPeekFirst());
+        assertEquals(0, d.dsIndexOf(0));
+        assertEquals(1, d.dsIndexOf(3));
+    }
+
+    /**
+     * Adding a collection at the front keeps the order of that collection.
+     */
+    @Test
+    void addAllFirstKeepsCollectionOrder() {
+        var d = new LinkedHashDeque<>(List.of(1, 2));
+
+        d.uAddAllFirst(List.of(7, 8, 2));
+        assertEquals(List.of(7, 8, 2, 1), new ArrayList<>(d));
+    }
+
+    /**
+     * Polling at either end removes the element from the index as well.
+     */
+    @Test
+    void pollsUpdateIndex() {
+        var d = new LinkedHashDeque<>(List.of(1, 2, 3, 4, 5));
+
+        assertEquals(1, d.dsPollFirst());
+        assertEquals(5, d.dsPollLast());
+        assertFalse(d.contains(1));
+        assertFalse(d.contains(5));
+        assertEquals(-1, d.dsIndexOf(5));
+        assertEquals(0, d.dsIndexOf(2));
+        assertEquals(2, d.dsIndexOf(4));
+
+        // can be added again once polled
+        assertTrue(d.add(1));
+        assertEquals(1, d.dsPeekLast());
+    }
+
+    /**
+     * Removing from the middle, through {@link LinkedHashDeque#remove(Object)} or the iterator,
+     * keeps the links and the index consistent.
+     */
+    @Test
+    void removeFromMiddle() {
+        var d = new LinkedHashDeque<>(List.of(1, 2, 3, 4, 5));
+
+        assertTrue(d.remove(3));
+        assertFalse(d.remove(3));
+
+        var itr = d.iterator();
+        itr.next();
+        itr.next();
+        itr.remove();
+
+        assertEquals(List.of(1, 4, 5), new ArrayList<>(d));
+        assertFalse(d.contains(2));
+        assertEquals(1, d.dsIndexOf(4));
+        assertEquals(1, d.dsPollFirst());
+        assertEquals(5, d.dsPollLast());
+        assertEquals(4, d.dsPollFirst());
+        assertNull(d.dsPollFirst());
+        assertNull(d.dsPeekLast());
+    }
+}
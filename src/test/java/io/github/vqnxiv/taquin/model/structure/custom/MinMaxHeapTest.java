@@ -0,0 +1,166 @@
+package io.github.vqnxiv.taquin.model.structure.custom;
+
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+
+/**
+ * Tests for {@link MinMaxHeap}.
+ */
+class MinMaxHeapTest {
+
+    /**
+     * Polling the first element repeatedly returns the elements in ascending order.
+     */
+    @Test
+    void pollFirstReturnsAscendingOrder() {
+        var values = randomValues(500, 1);
+        var heap = new MinMaxHeap<>(values);
+
+        var polled = new ArrayList<Integer>();
+        while(!heap.isEmpty()) {
+            polled.add(heap.dsPollFirst());
+        }
+
+        values.sort(null);
+        assertEquals(values, polled);
+        assertNull(heap.dsPollFirst());
+    }
+
+    /**
+     * Polling the last element repeatedly returns the elements in descending order.
+     */
+    @Test
+    void pollLastReturnsDescendingOrder() {
+        var values = randomValues(500, 2);
+        var heap = new MinMaxHeap<>(values);
+
+        var polled = new ArrayList<Integer>();
+        while(!heap.isEmpty()) {
+            polled.add(heap.dsPollLast());
+        }
+
+        values.sort(Comparator.reverseOrder());
+        assertEquals(values, polled);
+        assertNull(heap.dsPollLast());
+    }
+
+    /**
+     * Both ends stay correct when adds and polls at either end are interleaved.
+     */
+    @Test
+    void interleavedOperationsKeepBothEnds() {
+        var rnd = new Random(3);
+        var heap = new MinMaxHeap<Integer>();
+        var model = new ArrayList<Integer>();
+
+        for(int i = 0; i < 5000; i++) {
+            int op = rnd.nextInt(4);
+
+            if(op < 2 || model.isEmpty()) {
+                int v = rnd.nextInt(100);
+                heap.add(v);
+                model.add(v);
+            }
+            else if(op == 2) {
+                assertEquals(model.remove(model.indexOf(min(model))), heap.dsPollFirst());
+            }
+            else {
+                assertEquals(model.remove(model.indexOf(max(model))), heap.dsPollLast());
+            }
+
+            assertEquals(model.size(), heap.size());
+            if(!model.isEmpty()) {
+                assertEquals(min(model), heap.dsPeekFirst());
+                assertEquals(max(model), heap.dsPeekLast());
+            }
+        }
+    }
+
+    /**
+     * The {@link Comparator} replaces the natural order.
+     */
+    @Test
+    void comparatorOrdersElements() {
+        var heap = new MinMaxHeap<Integer>(Comparator.reverseOrder());
+        heap.addAll(List.of(3, 1, 4, 1, 5, 9, 2, 6));
+
+        assertEquals(9, heap.dsPeekFirst());
+        assertEquals(1, heap.dsPeekLast());
+        assertEquals(9, heap.dsPollFirst());
+        assertEquals(6, heap.dsPollFirst());
+    }
+
+    /**
+     * Duplicates are kept, and removing an element from the middle keeps the heap valid.
+     */
+    @Test
+    void duplicatesAndRemove() {
+        var heap = new MinMaxHeap<>(List.of(5, 5, 1, 8, 3, 5));
+
+        assertTrue(heap.acceptsDuplicates());
+        assertEquals(6, heap.size());
+        assertTrue(heap.remove(5));
+        assertTrue(heap.contains(5));
+        assertFalse(heap.remove(42));
+
+        assertEquals(1, heap.dsPollFirst());
+        assertEquals(8, heap.dsPollLast());
+        assertEquals(3, heap.dsPollFirst());
+        assertEquals(5, heap.dsPollFirst());
+        assertEquals(5, heap.dsPollFirst());
+        assertTrue(heap.isEmpty());
+    }
+
+    /**
+     * {@code null} elements are rejected.
+     */
+    @Test
+    void rejectsNull() {
+        assertThrows(NullPointerException.class, () -> new MinMaxHeap<Integer>().add(null));
+    }
+
+
+    /**
+     * Random values.
+     *
+     * @param n The number of values.
+     * @param seed The seed.
+     * @return A new {@link List} of values, with duplicates.
+     */
+    private static List<Integer> randomValues(int n, long seed) {
+        var rnd = new Random(seed);
+        var l = new ArrayList<Integer>(n);
+        for(int i = 0; i < n; i++) {
+            l.add(rnd.nextInt(n / 2));
+        }
+        return l;
+    }
+
+    /**
+     * Lowest value of a list.
+     *
+     * @param l The list.
+     * @return Its lowest value.
+     */
+    private static Integer min(List<Integer> l) {
+        return l.stream().min(Comparator.naturalOrder()).orElseThrow();
+    }
+
+    /**
+     * Highest value of a list.
+     *
+     * @param l The list.
+     * @return Its highest value.
+     */
+    private static Integer max(List<Integer> l) {
+        return l.stream().max(Comparator.naturalOrder()).orElseThrow();
+    }
+}